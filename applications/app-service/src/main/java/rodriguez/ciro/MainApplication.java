@@ -2,12 +2,19 @@ package rodriguez.ciro;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
-@SpringBootApplication
+import java.util.Arrays;
+
+@SpringBootApplication(exclude = LiquibaseAutoConfiguration.class)
 @ConfigurationPropertiesScan
 public class MainApplication {
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains(MigrationApplication.MIGRATE_ONLY)) {
+            MigrationApplication.main(args);
+            return;
+        }
         SpringApplication.run(MainApplication.class, args);
     }
 }
@@ -0,0 +1,27 @@
+package rodriguez.ciro;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.core.NativeDetector;
+
+// Sin @Configuration para que el escaneo de MainApplication no la recoja: solo se usa como fuente en modo migración
+@ImportAutoConfiguration(LiquibaseAutoConfiguration.class)
+public class MigrationApplication {
+
+    public static final String MIGRATE_ONLY = "--migrate-only";
+
+    public static void main(String[] args) {
+        // El binario nativo no puede desactivar AOT y no hay contexto AOT de esta clase
+        if (NativeDetector.inNativeImage()) {
+            throw new IllegalStateException("El binario nativo no ejecuta migraciones; ejecute " + MIGRATE_ONLY +
+                    " con el jar o con la imagen de deployment/Dockerfile");
+        }
+        // El contexto AOT generado es el de MainApplication, que excluye Liquibase
+        System.setProperty("spring.aot.enabled", "false");
+        SpringApplication application = new SpringApplication(MigrationApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        System.exit(SpringApplication.exit(application.run(args)));
+    }
+}
@@ -0,0 +1,47 @@
+package rodriguez.ciro.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SchemaVersionPropertyTest {
+
+    private static final Pattern CHANGESET_ID = Pattern.compile("<changeSet\\s+id=\"([^\"]+)\"");
+
+    @Test
+    void deberiaRequerirElUltimoChangesetDelChangelog() throws IOException {
+        // Given
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yaml"));
+        Resource[] changelogs = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:/db/changelog/v*/*.xml");
+
+        // When
+        String ultimo = Arrays.stream(changelogs)
+                .flatMap(changelog -> CHANGESET_ID.matcher(leer(changelog)).results())
+                .map(resultado -> resultado.group(1))
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+
+        // Then
+        assertEquals(ultimo, yaml.getObject().getProperty("adapters.r2dbc.schema-version"));
+    }
+
+    private static String leer(Resource resource) {
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package rodriguez.ciro.config;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.mockito.Mockito;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import rodriguez.ciro.model.credencial.gateways.PasswordHasher;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+import rodriguez.ciro.model.estadistica.gateways.EstadisticaRolRepository;
+import rodriguez.ciro.model.analitica.gateways.AnaliticaUsuarioRepository;
+import rodriguez.ciro.model.intento.gateways.IntentoRepository;
+import rodriguez.ciro.model.permiso.gateways.PermisoRepository;
+import rodriguez.ciro.model.sesion.gateways.SesionRepository;
+import rodriguez.ciro.model.token.gateways.RevocacionRepository;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+import rodriguez.ciro.model.usuario.gateways.RegistroUsuarioRepository;
 import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
 import rodriguez.ciro.model.rol.gateways.RolRepository;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+// Mockito genera las clases de los mocks en tiempo de ejecución, lo que la imagen nativa no permite
+@DisabledInNativeImage
 class UseCasesConfigTest {
 
     @Test
@@ -48,6 +61,56 @@ class UseCasesConfigTest {
         public RolRepository rolRepository() {
             return Mockito.mock(RolRepository.class);
         }
+
+        @Bean
+        public PasswordHasher passwordHasher() {
+            return Mockito.mock(PasswordHasher.class);
+        }
+
+        @Bean
+        public TokenProvider tokenProvider() {
+            return Mockito.mock(TokenProvider.class);
+        }
+
+        @Bean
+        public RevocacionRepository revocacionRepository() {
+            return Mockito.mock(RevocacionRepository.class);
+        }
+
+        @Bean
+        public SesionRepository sesionRepository() {
+            return Mockito.mock(SesionRepository.class);
+        }
+
+        @Bean
+        public PermisoRepository permisoRepository() {
+            return Mockito.mock(PermisoRepository.class);
+        }
+
+        @Bean
+        public ActividadRepository actividadRepository() {
+            return Mockito.mock(ActividadRepository.class);
+        }
+
+        @Bean
+        public IntentoRepository intentoRepository() {
+            return Mockito.mock(IntentoRepository.class);
+        }
+
+        @Bean
+        public RegistroUsuarioRepository registroUsuarioRepository() {
+            return Mockito.mock(RegistroUsuarioRepository.class);
+        }
+
+        @Bean
+        public EstadisticaRolRepository estadisticaRolRepository() {
+            return Mockito.mock(EstadisticaRolRepository.class);
+        }
+
+        @Bean
+        public AnaliticaUsuarioRepository analiticaUsuarioRepository() {
+            return Mockito.mock(AnaliticaUsuarioRepository.class);
+        }
     }
 
     static class MyUseCase {
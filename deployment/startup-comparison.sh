@@ -0,0 +1,64 @@
+#!/bin/sh
+# Compara el tiempo de arranque y la memoria residente del jar tal cual contra el jar extraído con Spring AOT y un
+# archivo AppCDS y, si se indica, contra el binario nativo.
+# Uso: ./deployment/startup-comparison.sh [ruta-del-jar] [repeticiones] [ruta-del-binario-nativo]
+set -eu
+
+JAR=${1:-applications/app-service/build/libs/msAutenticacion.jar}
+REPETICIONES=${2:-5}
+NATIVO=${3:-}
+# Sin verificación de la versión del esquema ni puerto fijo, para poder ejecutarlo sin base de datos
+ARGS="--adapters.r2dbc.schema-version= --server.port=0"
+TRABAJO=$(mktemp -d)
+trap 'rm -rf "$TRABAJO"' EXIT
+
+java -Djarmode=tools -jar "$JAR" extract --destination "$TRABAJO/app" > /dev/null
+JAR_EXTRAIDO="$TRABAJO/app/$(basename "$JAR")"
+
+java -XX:ArchiveClassesAtExit="$TRABAJO/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+  -jar "$JAR_EXTRAIDO" $ARGS > "$TRABAJO/entrenamiento.log" 2>&1
+
+# Imprime los segundos que reporta Spring en "Started ... (process running for N)", que incluyen el arranque de la JVM,
+# y el RSS en MB del proceso recién arrancado
+medir() {
+  log="$TRABAJO/corrida.log"
+  # shellcheck disable=SC2086
+  "$@" $ARGS > "$log" 2>&1 &
+  pid=$!
+  intentos=0
+  while ! grep -q "Started MainApplication" "$log"; do
+    if ! kill -0 "$pid" 2> /dev/null || [ "$intentos" -ge 600 ]; then
+      kill "$pid" 2> /dev/null || true
+      echo "La aplicación no arrancó, ver $log" >&2
+      cat "$log" >&2
+      exit 1
+    fi
+    intentos=$((intentos + 1))
+    sleep 0.1
+  done
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "$(sed -n 's/.*process running for \([0-9.]*\)).*/\1/p' "$log") $((rss / 1024))"
+}
+
+reportar() {
+  nombre=$1
+  shift
+  i=0
+  while [ "$i" -lt "$REPETICIONES" ]; do
+    medir "$@"
+    i=$((i + 1))
+  done > "$TRABAJO/mediciones"
+  sort -n "$TRABAJO/mediciones" | awk -v nombre="$nombre" '
+    { t[NR] = $1; rss += $2 }
+    END { printf "%-22s mediana %6.3f s  min %6.3f s  max %6.3f s  RSS prom %5d MB  (%d corridas)\n",
+          nombre, t[int((NR + 1) / 2)], t[1], t[NR], rss / NR, NR }'
+}
+
+reportar "jar (actual)" java -jar "$JAR"
+reportar "extraído" java -jar "$JAR_EXTRAIDO"
+reportar "extraído + AOT + CDS" java -XX:SharedArchiveFile="$TRABAJO/app.jsa" -Dspring.aot.enabled=true -jar "$JAR_EXTRAIDO"
+if [ -n "$NATIVO" ]; then
+  reportar "nativo" "$NATIVO"
+fi
@@ -0,0 +1,15 @@
+package rodriguez.ciro.model.actividad.gateways;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Último inicio de sesión y última actividad de cada usuario. Registrar no escribe en la base de datos: la hora se
+ * guarda en memoria y se persiste después por lotes, así que una caída puede perder los últimos segundos.
+ */
+public interface ActividadRepository {
+
+    // Registra también la actividad
+    Mono<Void> registrarInicioSesion(Long idUsuario);
+
+    Mono<Void> registrarActividad(Long idUsuario);
+}
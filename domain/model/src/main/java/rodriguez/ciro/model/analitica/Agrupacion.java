@@ -0,0 +1,5 @@
+package rodriguez.ciro.model.analitica;
+
+public enum Agrupacion {
+    NINGUNA, ROL, TIPO_DOCUMENTO, ANIO_NACIMIENTO
+}
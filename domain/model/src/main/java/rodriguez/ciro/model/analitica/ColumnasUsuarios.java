@@ -0,0 +1,265 @@
+package rodriguez.ciro.model.analitica;
+
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Copia columnar de los usuarios para consultas analíticas: el salario en centavos (long), la fecha de nacimiento en
+ * días desde la época (int) y su año (short), y el rol y el tipo de documento codificados con un {@link Diccionario}
+ * (short), unos 18 bytes por usuario. Las columnas crecen en bloques de 65536 filas y cada consulta recorre los bloques
+ * en paralelo, cada uno con sus propios acumuladores, que al final se combinan.
+ *
+ * <p>Un solo hilo a la vez agrega filas, al final de los bloques, y luego publica una vista nueva con la cantidad de
+ * filas visibles; las consultas leen la vista publicada sin bloqueo y nunca ven una fila a medio escribir. Las filas
+ * se agregan por id creciente: un id que falta entre dos agregados (una transacción aún sin confirmar, o una que se
+ * deshizo) queda como hueco y se vuelve a buscar en las siguientes actualizaciones antes de descartarlo.
+ */
+public final class ColumnasUsuarios {
+
+    private static final int BITS_BLOQUE = 16;
+    private static final int TAMANO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA_BLOQUE = TAMANO_BLOQUE - 1;
+    private static final int BYTES_POR_FILA = Long.BYTES + Integer.BYTES + 3 * Short.BYTES;
+    private static final int SIN_FECHA = Integer.MIN_VALUE;
+    private static final short SIN_ANIO = Short.MIN_VALUE;
+    private static final int ESCALA_SALARIO = 2;
+    // Un salto mayor en los ids (un setval, una carga deshecha) no se sigue como huecos
+    private static final long MAXIMO_HUECO = 10_000;
+
+    private final int intentosHueco;
+    private final Diccionario<Long> roles = new Diccionario<>();
+    private final Diccionario<String> tiposDocumento = new Diccionario<>();
+    private final List<Bloque> bloques = new ArrayList<>();
+    private final Map<Long, Integer> huecos = new HashMap<>();
+    private int filas;
+    private long ultimoId;
+    private int anioMinimo = Integer.MAX_VALUE;
+    private int anioMaximo = Integer.MIN_VALUE;
+    private volatile Vista vista = new Vista(new Bloque[0], 0, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+    public ColumnasUsuarios(int intentosHueco) {
+        this.intentosHueco = intentosHueco;
+    }
+
+    public synchronized long ultimoId() {
+        return ultimoId;
+    }
+
+    public synchronized Set<Long> huecos() {
+        return Set.copyOf(huecos.keySet());
+    }
+
+    // Ignora los usuarios que ya se agregaron, así que se puede llamar con páginas que se solapan
+    public synchronized void agregar(Collection<Usuario> usuarios) {
+        List<Usuario> ordenados = new ArrayList<>(usuarios);
+        ordenados.sort(Comparator.comparing(Usuario::getIdUsuario));
+        for (Usuario usuario : ordenados) {
+            long idUsuario = usuario.getIdUsuario();
+            if (idUsuario > ultimoId) {
+                if (idUsuario - ultimoId - 1 <= MAXIMO_HUECO) {
+                    for (long hueco = ultimoId + 1; hueco < idUsuario; hueco++) {
+                        huecos.put(hueco, intentosHueco);
+                    }
+                }
+                ultimoId = idUsuario;
+            } else if (huecos.remove(idUsuario) == null) {
+                continue;
+            }
+            anexar(usuario);
+        }
+        vista = new Vista(bloques.toArray(new Bloque[0]), filas, anioMinimo, anioMaximo);
+    }
+
+    // Se llama una vez por actualización: los huecos que agotan sus intentos se descartan
+    public synchronized void terminarActualizacion() {
+        huecos.replaceAll((idUsuario, intentos) -> intentos - 1);
+        huecos.values().removeIf(intentos -> intentos <= 0);
+    }
+
+    public int filas() {
+        return vista.filas();
+    }
+
+    public long bytes() {
+        return (long) vista.bloques().length * TAMANO_BLOQUE * BYTES_POR_FILA;
+    }
+
+    public List<GrupoUsuarios> agregar(FiltroUsuarios filtro, Agrupacion agrupacion) {
+        Vista actual = vista;
+        short rol = Diccionario.NULO;
+        if (filtro.idRol() != null && (rol = roles.codigo(filtro.idRol())) == Diccionario.NULO) {
+            return List.of();
+        }
+        short tipo = Diccionario.NULO;
+        if (filtro.tipoDocumento() != null && (tipo = tiposDocumento.codigo(filtro.tipoDocumento())) == Diccionario.NULO) {
+            return List.of();
+        }
+        // Sin filtro de fecha el rango incluye SIN_FECHA; con filtro lo excluye
+        boolean porFecha = filtro.nacidoDesde() != null || filtro.nacidoHasta() != null;
+        Criterio criterio = new Criterio(rol, tipo,
+                filtro.salarioMinimo() != null ? centavos(filtro.salarioMinimo(), RoundingMode.CEILING) : Long.MIN_VALUE,
+                filtro.salarioMaximo() != null ? centavos(filtro.salarioMaximo(), RoundingMode.FLOOR) : Long.MAX_VALUE,
+                filtro.nacidoDesde() != null ? (int) filtro.nacidoDesde().toEpochDay() : porFecha ? SIN_FECHA + 1 : SIN_FECHA,
+                filtro.nacidoHasta() != null ? (int) filtro.nacidoHasta().toEpochDay() : Integer.MAX_VALUE,
+                agrupacion, actual.anioMinimo(), grupos(agrupacion, actual));
+        if (criterio.grupos() == 0) {
+            return List.of();
+        }
+
+        Bloque[] bloquesVista = actual.bloques();
+        Acumulador total = IntStream.range(0, bloquesVista.length)
+                .parallel()
+                .mapToObj(indice -> escanear(bloquesVista[indice],
+                        Math.min(TAMANO_BLOQUE, actual.filas() - indice * TAMANO_BLOQUE), criterio))
+                .reduce(Acumulador::combinar)
+                .orElseGet(() -> new Acumulador(criterio.grupos()));
+        return resultado(total, criterio);
+    }
+
+    private void anexar(Usuario usuario) {
+        int indice = filas & MASCARA_BLOQUE;
+        if (indice == 0) {
+            bloques.add(new Bloque());
+        }
+        Bloque bloque = bloques.get(bloques.size() - 1);
+        LocalDate fechaNacimiento = usuario.getFechaNacimiento();
+        bloque.salarios[indice] = usuario.getSalarioBase() != null
+                ? centavos(usuario.getSalarioBase(), RoundingMode.HALF_UP) : 0;
+        bloque.nacimientos[indice] = fechaNacimiento != null ? (int) fechaNacimiento.toEpochDay() : SIN_FECHA;
+        bloque.anios[indice] = fechaNacimiento != null ? (short) fechaNacimiento.getYear() : SIN_ANIO;
+        bloque.roles[indice] = roles.codificar(usuario.getRol() != null ? usuario.getRol().getIdRol() : null);
+        bloque.tipos[indice] = tiposDocumento.codificar(usuario.getTipoDocumento());
+        if (fechaNacimiento != null) {
+            anioMinimo = Math.min(anioMinimo, fechaNacimiento.getYear());
+            anioMaximo = Math.max(anioMaximo, fechaNacimiento.getYear());
+        }
+        filas++;
+    }
+
+    // Los diccionarios se leen después de la vista, así que cubren todos los códigos de sus filas
+    private int grupos(Agrupacion agrupacion, Vista actual) {
+        return switch (agrupacion) {
+            case NINGUNA -> 1;
+            case ROL -> roles.tamano();
+            case TIPO_DOCUMENTO -> tiposDocumento.tamano();
+            case ANIO_NACIMIENTO -> actual.anioMaximo() >= actual.anioMinimo()
+                    ? actual.anioMaximo() - actual.anioMinimo() + 1 : 0;
+        };
+    }
+
+    private static Acumulador escanear(Bloque bloque, int filas, Criterio criterio) {
+        Acumulador acumulador = new Acumulador(criterio.grupos());
+        for (int i = 0; i < filas; i++) {
+            short rol = bloque.roles[i];
+            short tipo = bloque.tipos[i];
+            long salario = bloque.salarios[i];
+            int nacimiento = bloque.nacimientos[i];
+            if ((criterio.rol() != Diccionario.NULO && rol != criterio.rol())
+                    || (criterio.tipo() != Diccionario.NULO && tipo != criterio.tipo())
+                    || salario < criterio.salarioMinimo() || salario > criterio.salarioMaximo()
+                    || nacimiento < criterio.nacidoDesde() || nacimiento > criterio.nacidoHasta()) {
+                continue;
+            }
+            int grupo = switch (criterio.agrupacion()) {
+                case NINGUNA -> 0;
+                case ROL -> rol;
+                case TIPO_DOCUMENTO -> tipo;
+                case ANIO_NACIMIENTO -> bloque.anios[i] != SIN_ANIO ? bloque.anios[i] - criterio.anioMinimo() : -1;
+            };
+            if (grupo >= 0) {
+                acumulador.sumar(grupo, salario);
+            }
+        }
+        return acumulador;
+    }
+
+    private List<GrupoUsuarios> resultado(Acumulador total, Criterio criterio) {
+        Comparator<Integer> orden = switch (criterio.agrupacion()) {
+            case ROL -> Comparator.comparing(roles::valor);
+            case TIPO_DOCUMENTO -> Comparator.comparing(tiposDocumento::valor);
+            case NINGUNA, ANIO_NACIMIENTO -> Comparator.naturalOrder();
+        };
+        return IntStream.range(0, criterio.grupos())
+                .filter(grupo -> total.usuarios[grupo] > 0)
+                .boxed()
+                .sorted(orden)
+                .map(grupo -> new GrupoUsuarios(clave(criterio, grupo), total.usuarios[grupo],
+                        BigDecimal.valueOf(total.suma[grupo], ESCALA_SALARIO),
+                        BigDecimal.valueOf(total.minimo[grupo], ESCALA_SALARIO),
+                        BigDecimal.valueOf(total.maximo[grupo], ESCALA_SALARIO)))
+                .toList();
+    }
+
+    private String clave(Criterio criterio, int grupo) {
+        return switch (criterio.agrupacion()) {
+            case NINGUNA -> null;
+            case ROL -> String.valueOf(roles.valor(grupo));
+            case TIPO_DOCUMENTO -> tiposDocumento.valor(grupo);
+            case ANIO_NACIMIENTO -> String.valueOf(criterio.anioMinimo() + grupo);
+        };
+    }
+
+    private static long centavos(BigDecimal valor, RoundingMode redondeo) {
+        return valor.setScale(ESCALA_SALARIO, redondeo).unscaledValue().longValueExact();
+    }
+
+    private static final class Bloque {
+        private final long[] salarios = new long[TAMANO_BLOQUE];
+        private final int[] nacimientos = new int[TAMANO_BLOQUE];
+        private final short[] anios = new short[TAMANO_BLOQUE];
+        private final short[] roles = new short[TAMANO_BLOQUE];
+        private final short[] tipos = new short[TAMANO_BLOQUE];
+    }
+
+    private record Vista(Bloque[] bloques, int filas, int anioMinimo, int anioMaximo) {
+    }
+
+    private record Criterio(short rol, short tipo, long salarioMinimo, long salarioMaximo, int nacidoDesde,
+                            int nacidoHasta, Agrupacion agrupacion, int anioMinimo, int grupos) {
+    }
+
+    private static final class Acumulador {
+        private final long[] usuarios;
+        private final long[] suma;
+        private final long[] minimo;
+        private final long[] maximo;
+
+        private Acumulador(int grupos) {
+            usuarios = new long[grupos];
+            suma = new long[grupos];
+            minimo = new long[grupos];
+            maximo = new long[grupos];
+            Arrays.fill(minimo, Long.MAX_VALUE);
+            Arrays.fill(maximo, Long.MIN_VALUE);
+        }
+
+        private void sumar(int grupo, long salario) {
+            usuarios[grupo]++;
+            suma[grupo] += salario;
+            minimo[grupo] = Math.min(minimo[grupo], salario);
+            maximo[grupo] = Math.max(maximo[grupo], salario);
+        }
+
+        private Acumulador combinar(Acumulador otro) {
+            for (int grupo = 0; grupo < usuarios.length; grupo++) {
+                usuarios[grupo] += otro.usuarios[grupo];
+                suma[grupo] += otro.suma[grupo];
+                minimo[grupo] = Math.min(minimo[grupo], otro.minimo[grupo]);
+                maximo[grupo] = Math.max(maximo[grupo], otro.maximo[grupo]);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package rodriguez.ciro.model.analitica;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codifica cada valor distinto de una columna en un short, asignados en orden de aparición. Solo un hilo codifica; los
+ * lectores resuelven códigos y valores sin bloqueo, y solo ven códigos que ya estaban asignados cuando se publicó la
+ * vista que leen.
+ */
+final class Diccionario<T> {
+
+    static final short NULO = -1;
+
+    private final ConcurrentHashMap<T, Short> codigos = new ConcurrentHashMap<>();
+    private volatile Object[] valores = new Object[0];
+
+    short codificar(T valor) {
+        if (valor == null) {
+            return NULO;
+        }
+        Short codigo = codigos.get(valor);
+        if (codigo != null) {
+            return codigo;
+        }
+        Object[] actuales = valores;
+        if (actuales.length > Short.MAX_VALUE) {
+            throw new IllegalStateException("La columna supera los " + (Short.MAX_VALUE + 1) + " valores distintos");
+        }
+        Object[] nuevos = Arrays.copyOf(actuales, actuales.length + 1);
+        nuevos[actuales.length] = valor;
+        valores = nuevos;
+        codigos.put(valor, (short) actuales.length);
+        return (short) actuales.length;
+    }
+
+    // NULO si el valor nunca apareció
+    short codigo(T valor) {
+        return codigos.getOrDefault(valor, NULO);
+    }
+
+    @SuppressWarnings("unchecked")
+    T valor(int codigo) {
+        return (T) valores[codigo];
+    }
+
+    int tamano() {
+        return valores.length;
+    }
+}
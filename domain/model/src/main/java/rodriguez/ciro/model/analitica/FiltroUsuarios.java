@@ -0,0 +1,19 @@
+package rodriguez.ciro.model.analitica;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Condiciones que deben cumplir los usuarios agregados; un campo nulo no filtra. Los rangos incluyen sus extremos y
+ * filtrar por fecha de nacimiento descarta a los usuarios que no la tienen.
+ */
+public record FiltroUsuarios(
+        Long idRol,
+        String tipoDocumento,
+        BigDecimal salarioMinimo,
+        BigDecimal salarioMaximo,
+        LocalDate nacidoDesde,
+        LocalDate nacidoHasta) {
+
+    public static final FiltroUsuarios TODOS = new FiltroUsuarios(null, null, null, null, null, null);
+}
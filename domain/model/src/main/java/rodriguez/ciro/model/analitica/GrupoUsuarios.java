@@ -0,0 +1,18 @@
+package rodriguez.ciro.model.analitica;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// clave es el id del rol, el tipo de documento o el año de nacimiento según la agrupación, y null sin agrupación
+public record GrupoUsuarios(
+        String clave,
+        long totalUsuarios,
+        BigDecimal sumaSalarios,
+        BigDecimal salarioMinimo,
+        BigDecimal salarioMaximo) {
+
+    public BigDecimal salarioPromedio() {
+        return totalUsuarios == 0 ? null
+                : sumaSalarios.divide(BigDecimal.valueOf(totalUsuarios), 2, RoundingMode.HALF_EVEN);
+    }
+}
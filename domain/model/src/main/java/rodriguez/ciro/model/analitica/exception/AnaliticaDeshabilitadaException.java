@@ -0,0 +1,7 @@
+package rodriguez.ciro.model.analitica.exception;
+
+public class AnaliticaDeshabilitadaException extends RuntimeException {
+    public AnaliticaDeshabilitadaException(String message) {
+        super(message);
+    }
+}
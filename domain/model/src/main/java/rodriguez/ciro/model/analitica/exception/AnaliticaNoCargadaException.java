@@ -0,0 +1,7 @@
+package rodriguez.ciro.model.analitica.exception;
+
+public class AnaliticaNoCargadaException extends RuntimeException {
+    public AnaliticaNoCargadaException(String message) {
+        super(message);
+    }
+}
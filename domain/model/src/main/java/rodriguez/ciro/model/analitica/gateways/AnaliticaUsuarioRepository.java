@@ -0,0 +1,23 @@
+package rodriguez.ciro.model.analitica.gateways;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.analitica.Agrupacion;
+import rodriguez.ciro.model.analitica.FiltroUsuarios;
+import rodriguez.ciro.model.analitica.GrupoUsuarios;
+
+import java.util.List;
+
+/**
+ * Consultas analíticas sobre una copia columnar de los usuarios en memoria ({@link rodriguez.ciro.model.analitica.ColumnasUsuarios}),
+ * que se pone al día por incrementos y no consulta la base de datos al responder.
+ */
+public interface AnaliticaUsuarioRepository {
+
+    /**
+     * Los grupos con al menos un usuario que cumple el filtro, en orden de rol, tipo de documento o año. Falla con
+     * {@link rodriguez.ciro.model.analitica.exception.AnaliticaDeshabilitadaException} si la copia no está habilitada
+     * en este nodo y con {@link rodriguez.ciro.model.analitica.exception.AnaliticaNoCargadaException} mientras no
+     * termine la primera carga, para no responder con una parte de los usuarios.
+     */
+    Mono<List<GrupoUsuarios>> agregar(FiltroUsuarios filtro, Agrupacion agrupacion);
+}
@@ -0,0 +1,7 @@
+package rodriguez.ciro.model.credencial;
+
+// Proyección mínima de un usuario para verificar su contraseña y emitir su token; hashContrasena es nulo si el usuario
+// no tiene una
+public record CredencialUsuario(Long idUsuario, String correoElectronico, String hashContrasena, Long idRol,
+                                String nombreRol) {
+}
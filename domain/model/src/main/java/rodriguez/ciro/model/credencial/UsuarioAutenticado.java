@@ -0,0 +1,4 @@
+package rodriguez.ciro.model.credencial;
+
+public record UsuarioAutenticado(Long idUsuario, String correoElectronico, Long idRol, String nombreRol) {
+}
@@ -0,0 +1,7 @@
+package rodriguez.ciro.model.credencial.exception;
+
+public class HashSaturadoException extends RuntimeException {
+    public HashSaturadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package rodriguez.ciro.model.credencial.gateways;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Calcula y verifica hashes de contraseñas. Las implementaciones consumen CPU de forma deliberada, por lo que deben
+ * ejecutarse fuera del event loop y rechazar con {@link rodriguez.ciro.model.credencial.exception.HashSaturadoException}
+ * cuando no haya capacidad.
+ */
+public interface PasswordHasher {
+
+    Mono<String> hashear(String contrasena);
+
+    /**
+     * Con un hash nulo compara contra un hash de referencia con el mismo costo y retorna false, para que un usuario
+     * inexistente o sin contraseña tarde lo mismo que una contraseña incorrecta.
+     */
+    Mono<Boolean> verificar(String contrasena, String hash);
+}
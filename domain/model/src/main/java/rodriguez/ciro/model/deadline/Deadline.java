@@ -0,0 +1,51 @@
+package rodriguez.ciro.model.deadline;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Plazo de una solicitud. El entry point lo crea y lo propaga en el contexto de Reactor; los driven adapters lo usan
+ * para limitar el tiempo de sus operaciones y para abortarlas cuando la solicitud se cancela.
+ */
+public final class Deadline {
+
+    public static final String CONTEXT_KEY = Deadline.class.getName();
+
+    private final long venceEnNanos;
+    private final Sinks.Empty<Void> cancelacion = Sinks.empty();
+
+    private Deadline(long venceEnNanos) {
+        this.venceEnNanos = venceEnNanos;
+    }
+
+    public static Deadline en(Duration plazo) {
+        return new Deadline(System.nanoTime() + plazo.toNanos());
+    }
+
+    public static Optional<Deadline> de(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public Duration restante() {
+        return Duration.ofNanos(Math.max(0, venceEnNanos - System.nanoTime()));
+    }
+
+    public boolean vencido() {
+        return venceEnNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Señala que nadie leerá el resultado de la solicitud, por vencimiento del plazo o porque el cliente se desconectó.
+     */
+    public void cancelar() {
+        cancelacion.tryEmitEmpty();
+    }
+
+    public Mono<Void> cancelado() {
+        return cancelacion.asMono();
+    }
+}
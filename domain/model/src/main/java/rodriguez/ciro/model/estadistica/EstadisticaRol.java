@@ -0,0 +1,30 @@
+package rodriguez.ciro.model.estadistica;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cantidad de usuarios y agregados de su salario base para un rol. Se combinan sin volver a leer los usuarios: la suma
+ * y la cantidad se suman y el mínimo y el máximo se comparan, así que un registro solo agrega su propio salario.
+ */
+public record EstadisticaRol(
+        Long idRol,
+        long totalUsuarios,
+        BigDecimal sumaSalarios,
+        BigDecimal salarioMinimo,
+        BigDecimal salarioMaximo) {
+
+    public static EstadisticaRol de(Long idRol, BigDecimal salarioBase) {
+        return new EstadisticaRol(idRol, 1, salarioBase, salarioBase, salarioBase);
+    }
+
+    public EstadisticaRol combinar(EstadisticaRol otra) {
+        return new EstadisticaRol(idRol, totalUsuarios + otra.totalUsuarios, sumaSalarios.add(otra.sumaSalarios),
+                salarioMinimo.min(otra.salarioMinimo), salarioMaximo.max(otra.salarioMaximo));
+    }
+
+    public BigDecimal salarioPromedio() {
+        return totalUsuarios == 0 ? null
+                : sumaSalarios.divide(BigDecimal.valueOf(totalUsuarios), 2, RoundingMode.HALF_EVEN);
+    }
+}
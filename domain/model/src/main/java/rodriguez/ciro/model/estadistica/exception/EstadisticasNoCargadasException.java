@@ -0,0 +1,7 @@
+package rodriguez.ciro.model.estadistica.exception;
+
+public class EstadisticasNoCargadasException extends RuntimeException {
+    public EstadisticasNoCargadasException(String message) {
+        super(message);
+    }
+}
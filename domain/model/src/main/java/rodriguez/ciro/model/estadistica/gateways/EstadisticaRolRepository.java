@@ -0,0 +1,20 @@
+package rodriguez.ciro.model.estadistica.gateways;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+
+import java.util.List;
+
+/**
+ * Agregados de los usuarios de cada rol, mantenidos a medida que se registran usuarios y leídos de una instantánea en
+ * memoria, así que la consulta no depende de la cantidad de usuarios.
+ */
+public interface EstadisticaRolRepository {
+
+    /**
+     * Los roles con al menos un usuario, ordenados por id. Falla con
+     * {@link rodriguez.ciro.model.estadistica.exception.EstadisticasNoCargadasException} mientras no se haya cargado
+     * la primera instantánea, para no responder con roles vacíos.
+     */
+    Mono<List<EstadisticaRol>> porRol();
+}
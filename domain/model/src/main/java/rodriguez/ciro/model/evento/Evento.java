@@ -0,0 +1,14 @@
+package rodriguez.ciro.model.evento;
+
+import java.time.Instant;
+
+// El contenido es el JSON del evento tal como se guardó en el outbox
+public record Evento(
+        Long idEvento,
+        String tipo,
+        String clave,
+        String contenido,
+        Instant creadoEn) {
+
+    public static final String USUARIO_REGISTRADO = "UsuarioRegistrado";
+}
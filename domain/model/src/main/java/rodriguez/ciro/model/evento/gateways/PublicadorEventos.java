@@ -0,0 +1,17 @@
+package rodriguez.ciro.model.evento.gateways;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.evento.Evento;
+
+import java.util.List;
+
+/**
+ * Publica los eventos del outbox hacia los sistemas externos. La entrega es al menos una vez: si el Mono falla, o el
+ * nodo cae antes de confirmar, el lote se vuelve a publicar más tarde, así que los consumidores deben descartar los
+ * duplicados por idEvento.
+ */
+public interface PublicadorEventos {
+
+    // Completa cuando todos los eventos del lote quedaron publicados
+    Mono<Void> publicar(List<Evento> eventos);
+}
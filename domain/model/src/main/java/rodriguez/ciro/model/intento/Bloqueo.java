@@ -0,0 +1,6 @@
+package rodriguez.ciro.model.intento;
+
+import java.time.Instant;
+
+public record Bloqueo(Instant hasta) {
+}
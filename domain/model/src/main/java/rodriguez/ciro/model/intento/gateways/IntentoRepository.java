@@ -0,0 +1,20 @@
+package rodriguez.ciro.model.intento.gateways;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.intento.Bloqueo;
+
+/**
+ * Intentos fallidos de inicio de sesión por cuenta y por origen. Las decisiones se toman en memoria, sin consultar la
+ * base de datos, para que un ataque de fuerza bruta no se convierta en carga sobre ella; solo se guardan los bloqueos.
+ * El origen puede ser nulo, y entonces solo se cuenta la cuenta.
+ */
+public interface IntentoRepository {
+
+    // Vacío si la cuenta y el origen pueden intentar; el bloqueo que termina más tarde en otro caso
+    Mono<Bloqueo> bloqueo(String correoElectronico, String origen);
+
+    Mono<Void> registrarFallo(String correoElectronico, String origen);
+
+    // Solo reinicia la cuenta: un acierto con una cuenta propia no debe limpiar los fallos del origen
+    Mono<Void> registrarExito(String correoElectronico);
+}
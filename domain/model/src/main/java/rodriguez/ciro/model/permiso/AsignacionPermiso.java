@@ -0,0 +1,4 @@
+package rodriguez.ciro.model.permiso;
+
+public record AsignacionPermiso(Long idRol, String permiso) {
+}
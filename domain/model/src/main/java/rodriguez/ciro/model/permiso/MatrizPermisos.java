@@ -0,0 +1,56 @@
+package rodriguez.ciro.model.permiso;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Permisos de cada rol compilados en un bitset inmutable: cada permiso recibe un bit en el orden en que se declara y
+ * cada rol guarda un long[] con los bits de sus permisos. Verificar un permiso son dos búsquedas en mapas, que no
+ * asignan memoria porque los nombres ya tienen su hash calculado y los ids de rol pequeños vienen del caché de
+ * {@link Long}, y una prueba de bit. Los permisos y los roles desconocidos no conceden nada.
+ */
+public final class MatrizPermisos {
+
+    private final Map<String, Integer> bits;
+    private final Map<Long, long[]> porRol;
+
+    private MatrizPermisos(Map<String, Integer> bits, Map<Long, long[]> porRol) {
+        this.bits = bits;
+        this.porRol = porRol;
+    }
+
+    // Las asignaciones de permisos que no están en la lista se ignoran
+    public static MatrizPermisos compilar(Collection<String> permisos, Collection<AsignacionPermiso> asignaciones) {
+        Map<String, Integer> bits = new HashMap<>();
+        for (String permiso : permisos) {
+            bits.putIfAbsent(permiso, bits.size());
+        }
+        int palabras = Math.max(1, (bits.size() + Long.SIZE - 1) / Long.SIZE);
+        Map<Long, long[]> porRol = new HashMap<>();
+        for (AsignacionPermiso asignacion : asignaciones) {
+            Integer bit = bits.get(asignacion.permiso());
+            if (asignacion.idRol() != null && bit != null) {
+                porRol.computeIfAbsent(asignacion.idRol(), idRol -> new long[palabras])[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new MatrizPermisos(Map.copyOf(bits), Map.copyOf(porRol));
+    }
+
+    public boolean permite(Long idRol, String permiso) {
+        if (idRol == null || permiso == null) {
+            return false;
+        }
+        Integer bit = bits.get(permiso);
+        long[] permisosRol = porRol.get(idRol);
+        return bit != null && permisosRol != null && (permisosRol[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public int permisos() {
+        return bits.size();
+    }
+
+    public int roles() {
+        return porRol.size();
+    }
+}
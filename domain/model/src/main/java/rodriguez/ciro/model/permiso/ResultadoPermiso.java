@@ -0,0 +1,4 @@
+package rodriguez.ciro.model.permiso;
+
+public record ResultadoPermiso(Long idUsuario, String permiso, boolean permitido) {
+}
@@ -0,0 +1,4 @@
+package rodriguez.ciro.model.permiso;
+
+public record VerificacionPermiso(Long idUsuario, String permiso) {
+}
@@ -0,0 +1,7 @@
+package rodriguez.ciro.model.permiso.exception;
+
+public class PermisosNoCargadosException extends RuntimeException {
+    public PermisosNoCargadosException(String message) {
+        super(message);
+    }
+}
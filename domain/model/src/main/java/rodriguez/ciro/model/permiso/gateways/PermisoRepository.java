@@ -0,0 +1,17 @@
+package rodriguez.ciro.model.permiso.gateways;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.permiso.MatrizPermisos;
+
+/**
+ * Permisos de cada rol, compilados en memoria. Cuando cambian los roles o sus permisos se compila una matriz nueva y
+ * se reemplaza la anterior de una vez, así que una verificación nunca ve una mezcla de ambas.
+ */
+public interface PermisoRepository {
+
+    /**
+     * Falla con {@link rodriguez.ciro.model.permiso.exception.PermisosNoCargadosException} mientras no se hayan cargado
+     * los permisos, para no negar ni conceder permisos con una matriz vacía.
+     */
+    Mono<MatrizPermisos> matriz();
+}
@@ -0,0 +1,6 @@
+package rodriguez.ciro.model.sesion;
+
+import java.time.Instant;
+
+public record Sesion(String tokenRefresco, Long idUsuario, Instant expiraEn) {
+}
@@ -0,0 +1,6 @@
+package rodriguez.ciro.model.sesion;
+
+import rodriguez.ciro.model.token.TokenAcceso;
+
+public record SesionIniciada(TokenAcceso tokenAcceso, Sesion sesion) {
+}
@@ -0,0 +1,17 @@
+package rodriguez.ciro.model.sesion.gateways;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.sesion.Sesion;
+
+/**
+ * Sesiones identificadas por un token de refresco opaco. Cada token se usa una sola vez: al refrescar se consume y se
+ * abre una sesión nueva, así que un token robado deja de servir en cuanto el dueño lo usa.
+ */
+public interface SesionRepository {
+
+    // Genera el token de refresco y la expiración; el Mono completa cuando la sesión ya está guardada
+    Mono<Sesion> abrir(Long idUsuario);
+
+    // Elimina la sesión y la devuelve si existía y no había expirado; vacío en cualquier otro caso
+    Mono<Sesion> consumir(String tokenRefresco);
+}
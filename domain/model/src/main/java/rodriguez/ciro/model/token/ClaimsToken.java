@@ -0,0 +1,13 @@
+package rodriguez.ciro.model.token;
+
+import java.time.Instant;
+
+public record ClaimsToken(
+        String id,
+        Long idUsuario,
+        String correoElectronico,
+        Long idRol,
+        String nombreRol,
+        Instant emitidoEn,
+        Instant expiraEn) {
+}
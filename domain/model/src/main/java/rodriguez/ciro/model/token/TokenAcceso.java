@@ -0,0 +1,4 @@
+package rodriguez.ciro.model.token;
+
+public record TokenAcceso(String valor, ClaimsToken claims) {
+}
@@ -0,0 +1,7 @@
+package rodriguez.ciro.model.token.exception;
+
+public class RevocacionesNoSincronizadasException extends RuntimeException {
+    public RevocacionesNoSincronizadasException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package rodriguez.ciro.model.token.exception;
+
+public class TokenInvalidoException extends RuntimeException {
+    public TokenInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package rodriguez.ciro.model.token.gateways;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Tokens revocados antes de su expiración. La consulta se responde desde memoria, sin ir a la base de datos; una
+ * revocación se conserva hasta que el token expira, porque después el token ya no pasa la verificación.
+ */
+public interface RevocacionRepository {
+
+    Mono<Void> revocar(String idToken, Instant expiraEn);
+
+    /**
+     * Falla con {@link rodriguez.ciro.model.token.exception.RevocacionesNoSincronizadasException} mientras no se hayan
+     * cargado las revocaciones existentes, para no aceptar un token revocado.
+     */
+    Mono<Boolean> estaRevocado(String idToken);
+}
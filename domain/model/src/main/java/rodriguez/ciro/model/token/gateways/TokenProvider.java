@@ -0,0 +1,24 @@
+package rodriguez.ciro.model.token.gateways;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.credencial.UsuarioAutenticado;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.TokenAcceso;
+
+/**
+ * Emite y verifica los tokens firmados que consumen los demás servicios. Las claves se cargan una sola vez y se
+ * mantienen en memoria; pueden rotarse sin invalidar los tokens firmados con claves anteriores que sigan publicadas.
+ */
+public interface TokenProvider {
+
+    Mono<TokenAcceso> emitir(UsuarioAutenticado usuario);
+
+    /**
+     * Falla con {@link rodriguez.ciro.model.token.exception.TokenInvalidoException} si la firma no corresponde a una
+     * clave publicada, si el token expiró o si no lo emitió este servicio.
+     */
+    Mono<ClaimsToken> verificar(String token);
+
+    // Claves públicas vigentes en formato JWKS (RFC 7517), serializadas una vez por cada rotación
+    Mono<byte[]> clavesPublicas();
+}
@@ -0,0 +1,4 @@
+package rodriguez.ciro.model.usuario;
+
+public record RolUsuario(Long idUsuario, Long idRol) {
+}
@@ -23,4 +23,6 @@ public class Usuario {
     private String correoElectronico;
     private BigDecimal salarioBase;
     private Rol rol;
+    private Long version;
+    private String hashContrasena;
 }
@@ -0,0 +1,5 @@
+package rodriguez.ciro.model.usuario;
+
+// Identidad y versión de fila de un usuario, suficientes para saber si cambió sin leer el registro completo
+public record VersionUsuario(Long idUsuario, Long version) {
+}
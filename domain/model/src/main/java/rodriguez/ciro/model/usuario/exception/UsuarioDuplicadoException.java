@@ -0,0 +1,21 @@
+package rodriguez.ciro.model.usuario.exception;
+
+// Un gateway encontró al guardar un correo o documento ya registrado por otro registro concurrente
+public class UsuarioDuplicadoException extends RuntimeException {
+
+    public enum Campo {
+        CORREO_ELECTRONICO,
+        DOCUMENTO
+    }
+
+    private final Campo campo;
+
+    public UsuarioDuplicadoException(Campo campo, String message) {
+        super(message);
+        this.campo = campo;
+    }
+
+    public Campo getCampo() {
+        return campo;
+    }
+}
@@ -0,0 +1,12 @@
+package rodriguez.ciro.model.usuario.gateways;
+
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.model.usuario.Usuario;
+
+public interface RegistroUsuarioRepository {
+    // Usuarios registrados a partir de la suscripción; todos los suscriptores del nodo comparten la misma fuente
+    Flux<Usuario> nuevos();
+
+    // Usuarios ya registrados con id mayor al dado, en orden de id
+    Flux<Usuario> registradosDespuesDe(Long idUsuario);
+}
@@ -1,7 +1,13 @@
 package rodriguez.ciro.model.usuario.gateways;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.usuario.RolUsuario;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
+
+import java.util.Collection;
 
 public interface UsuarioRepository {
     Mono<Usuario> guardar(Usuario usuario);
@@ -13,4 +19,15 @@ public interface UsuarioRepository {
     Mono<Usuario> buscarPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento);
 
     Mono<Usuario> buscarPorCorreoElectronico(String correoElectronico);
+
+    Mono<VersionUsuario> buscarVersionPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento);
+
+    Mono<VersionUsuario> buscarVersionPorCorreoElectronico(String correoElectronico);
+
+    Mono<CredencialUsuario> buscarCredencialPorCorreoElectronico(String correoElectronico);
+
+    Mono<CredencialUsuario> buscarCredencialPorIdUsuario(Long idUsuario);
+
+    // Una sola consulta para todos los ids; los usuarios que no existen no aparecen en el resultado
+    Flux<RolUsuario> buscarRolesPorIdUsuario(Collection<Long> idsUsuario);
 }
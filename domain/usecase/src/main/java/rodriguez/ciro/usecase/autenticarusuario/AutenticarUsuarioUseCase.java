@@ -0,0 +1,63 @@
+package rodriguez.ciro.usecase.autenticarusuario;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.credencial.UsuarioAutenticado;
+import rodriguez.ciro.model.credencial.gateways.PasswordHasher;
+import rodriguez.ciro.model.intento.gateways.IntentoRepository;
+import rodriguez.ciro.model.sesion.SesionIniciada;
+import rodriguez.ciro.model.sesion.gateways.SesionRepository;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+import rodriguez.ciro.usecase.autenticarusuario.exception.CredencialesInvalidasException;
+import rodriguez.ciro.usecase.autenticarusuario.exception.IntentosExcedidosException;
+
+import java.util.Objects;
+import java.util.Optional;
+
+@AllArgsConstructor
+public class AutenticarUsuarioUseCase {
+
+    private final UsuarioRepository usuarioRepository;
+    private final PasswordHasher passwordHasher;
+    private final TokenProvider tokenProvider;
+    private final SesionRepository sesionRepository;
+    private final ActividadRepository actividadRepository;
+    private final IntentoRepository intentoRepository;
+
+    // El bloqueo se verifica antes del hash, así que un intento bloqueado no consume capacidad de verificación
+    public Mono<SesionIniciada> autenticar(String correoElectronico, String contrasena, String origen) {
+        if (esNuloOVacio(correoElectronico) || esNuloOVacio(contrasena)) {
+            return Mono.error(new IllegalArgumentException("El correo electrónico y la contraseña son requeridos"));
+        }
+        return intentoRepository.bloqueo(correoElectronico, origen)
+                .flatMap(bloqueo -> Mono.<SesionIniciada>error(new IntentosExcedidosException(
+                        "Demasiados intentos fallidos, intente nuevamente más tarde", bloqueo.hasta())))
+                .switchIfEmpty(Mono.defer(() -> verificar(correoElectronico, contrasena, origen)));
+    }
+
+    private Mono<SesionIniciada> verificar(String correoElectronico, String contrasena, String origen) {
+        // Si el usuario no existe también se verifica un hash, para no revelar qué correos están registrados
+        return usuarioRepository.buscarCredencialPorCorreoElectronico(correoElectronico)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(credencial -> passwordHasher
+                        .verificar(contrasena, credencial.map(CredencialUsuario::hashContrasena).orElse(null))
+                        .filter(Boolean::booleanValue)
+                        .flatMap(valida -> Mono.justOrEmpty(credencial)))
+                .map(credencial -> new UsuarioAutenticado(credencial.idUsuario(), credencial.correoElectronico(),
+                        credencial.idRol(), credencial.nombreRol()))
+                .switchIfEmpty(Mono.defer(() -> intentoRepository.registrarFallo(correoElectronico, origen)
+                        .then(Mono.error(new CredencialesInvalidasException("Correo electrónico o contraseña incorrectos")))))
+                .delayUntil(usuario -> intentoRepository.registrarExito(correoElectronico))
+                .flatMap(usuario -> Mono.zip(tokenProvider.emitir(usuario), sesionRepository.abrir(usuario.idUsuario()),
+                        SesionIniciada::new))
+                .delayUntil(sesion -> actividadRepository.registrarInicioSesion(sesion.sesion().idUsuario()));
+    }
+
+    private boolean esNuloOVacio(String valor) {
+        return Objects.isNull(valor) || valor.isBlank();
+    }
+}
@@ -0,0 +1,7 @@
+package rodriguez.ciro.usecase.autenticarusuario.exception;
+
+public class CredencialesInvalidasException extends RuntimeException {
+    public CredencialesInvalidasException(String message) {
+        super(message);
+    }
+}
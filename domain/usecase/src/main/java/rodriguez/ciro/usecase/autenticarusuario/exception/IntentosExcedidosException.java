@@ -0,0 +1,16 @@
+package rodriguez.ciro.usecase.autenticarusuario.exception;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+public class IntentosExcedidosException extends RuntimeException {
+
+    private final Instant bloqueadoHasta;
+
+    public IntentosExcedidosException(String message, Instant bloqueadoHasta) {
+        super(message);
+        this.bloqueadoHasta = bloqueadoHasta;
+    }
+}
@@ -3,6 +3,7 @@ package rodriguez.ciro.usecase.buscarusuario;
 import lombok.AllArgsConstructor;
 import reactor.core.publisher.Mono;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
 import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
 import rodriguez.ciro.usecase.buscarusuario.exception.UsuarioNoEncontradoException;
 
@@ -20,4 +21,13 @@ public class BuscarUsuarioPorDocumentoUseCase {
         return usuarioRepository.buscarPorCorreoElectronico(correoElectronico)
                 .switchIfEmpty(Mono.error(new UsuarioNoEncontradoException("Usuario no encontrado con correo electrónico: " + correoElectronico)));
     }
+
+    // Vacío si el usuario no existe; quien consulta decide si recurre a la búsqueda completa
+    public Mono<VersionUsuario> versionPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
+        return usuarioRepository.buscarVersionPorTipoYNumeroDocumento(tipoDocumento, numeroDocumento);
+    }
+
+    public Mono<VersionUsuario> versionPorCorreoElectronico(String correoElectronico) {
+        return usuarioRepository.buscarVersionPorCorreoElectronico(correoElectronico);
+    }
 }
\ No newline at end of file
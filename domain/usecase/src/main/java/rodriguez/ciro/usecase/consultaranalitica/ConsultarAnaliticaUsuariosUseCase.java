@@ -0,0 +1,36 @@
+package rodriguez.ciro.usecase.consultaranalitica;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.analitica.Agrupacion;
+import rodriguez.ciro.model.analitica.FiltroUsuarios;
+import rodriguez.ciro.model.analitica.GrupoUsuarios;
+import rodriguez.ciro.model.analitica.gateways.AnaliticaUsuarioRepository;
+
+import java.util.List;
+import java.util.Objects;
+
+@AllArgsConstructor
+public class ConsultarAnaliticaUsuariosUseCase {
+
+    private final AnaliticaUsuarioRepository analiticaUsuarioRepository;
+
+    public Mono<List<GrupoUsuarios>> consultar(FiltroUsuarios filtro, Agrupacion agrupacion) {
+        FiltroUsuarios condiciones = Objects.requireNonNullElse(filtro, FiltroUsuarios.TODOS);
+        return Mono.just(condiciones)
+                .doOnNext(this::validarRangos)
+                .flatMap(validado -> analiticaUsuarioRepository.agregar(validado,
+                        Objects.requireNonNullElse(agrupacion, Agrupacion.NINGUNA)));
+    }
+
+    private void validarRangos(FiltroUsuarios filtro) {
+        if (filtro.salarioMinimo() != null && filtro.salarioMaximo() != null
+                && filtro.salarioMinimo().compareTo(filtro.salarioMaximo()) > 0) {
+            throw new IllegalArgumentException("El salario mínimo no puede ser mayor que el salario máximo");
+        }
+        if (filtro.nacidoDesde() != null && filtro.nacidoHasta() != null
+                && filtro.nacidoDesde().isAfter(filtro.nacidoHasta())) {
+            throw new IllegalArgumentException("La fecha de nacimiento inicial no puede ser posterior a la final");
+        }
+    }
+}
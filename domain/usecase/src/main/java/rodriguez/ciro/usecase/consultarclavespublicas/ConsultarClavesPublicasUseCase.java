@@ -0,0 +1,15 @@
+package rodriguez.ciro.usecase.consultarclavespublicas;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+
+@AllArgsConstructor
+public class ConsultarClavesPublicasUseCase {
+
+    private final TokenProvider tokenProvider;
+
+    public Mono<byte[]> consultar() {
+        return tokenProvider.clavesPublicas();
+    }
+}
@@ -0,0 +1,18 @@
+package rodriguez.ciro.usecase.consultarestadisticas;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+import rodriguez.ciro.model.estadistica.gateways.EstadisticaRolRepository;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class ConsultarEstadisticasRolesUseCase {
+
+    private final EstadisticaRolRepository estadisticaRolRepository;
+
+    public Mono<List<EstadisticaRol>> consultar() {
+        return estadisticaRolRepository.porRol();
+    }
+}
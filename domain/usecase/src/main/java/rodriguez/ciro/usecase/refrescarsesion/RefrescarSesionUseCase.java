@@ -0,0 +1,48 @@
+package rodriguez.ciro.usecase.refrescarsesion;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+import rodriguez.ciro.model.credencial.UsuarioAutenticado;
+import rodriguez.ciro.model.sesion.Sesion;
+import rodriguez.ciro.model.sesion.SesionIniciada;
+import rodriguez.ciro.model.sesion.gateways.SesionRepository;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+
+import java.util.Objects;
+
+@AllArgsConstructor
+public class RefrescarSesionUseCase {
+
+    private final SesionRepository sesionRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final TokenProvider tokenProvider;
+    private final ActividadRepository actividadRepository;
+
+    // El rol se vuelve a leer del usuario, así que un cambio de rol se refleja en el siguiente refresco
+    public Mono<SesionIniciada> refrescar(String tokenRefresco) {
+        return consumir(tokenRefresco)
+                .switchIfEmpty(Mono.error(new TokenInvalidoException("Token de refresco inválido o expirado")))
+                .flatMap(sesion -> usuarioRepository.buscarCredencialPorIdUsuario(sesion.idUsuario()))
+                .switchIfEmpty(Mono.error(new TokenInvalidoException("El usuario de la sesión ya no existe")))
+                .map(credencial -> new UsuarioAutenticado(credencial.idUsuario(), credencial.correoElectronico(),
+                        credencial.idRol(), credencial.nombreRol()))
+                .flatMap(usuario -> Mono.zip(tokenProvider.emitir(usuario), sesionRepository.abrir(usuario.idUsuario()),
+                        SesionIniciada::new))
+                .delayUntil(sesion -> actividadRepository.registrarActividad(sesion.sesion().idUsuario()));
+    }
+
+    // Cerrar una sesión inexistente o ya cerrada no falla
+    public Mono<Void> cerrar(String tokenRefresco) {
+        return consumir(tokenRefresco).then();
+    }
+
+    private Mono<Sesion> consumir(String tokenRefresco) {
+        if (Objects.isNull(tokenRefresco) || tokenRefresco.isBlank()) {
+            return Mono.empty();
+        }
+        return sesionRepository.consumir(tokenRefresco);
+    }
+}
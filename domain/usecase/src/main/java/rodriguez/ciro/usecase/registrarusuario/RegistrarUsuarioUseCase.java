@@ -1,37 +1,54 @@
 package rodriguez.ciro.usecase.registrarusuario;
 
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.credencial.gateways.PasswordHasher;
 import rodriguez.ciro.model.rol.gateways.RolRepository;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.exception.UsuarioDuplicadoException;
 import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
 import rodriguez.ciro.usecase.registrarusuario.exception.EmailAlreadyExistsException;
 import rodriguez.ciro.usecase.registrarusuario.exception.DocumentoAlreadyExistsException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 public class RegistrarUsuarioUseCase {
 
     private static final BigDecimal SALARIO_MINIMO = BigDecimal.ZERO;
     private static final BigDecimal SALARIO_MAXIMO = new BigDecimal("15000000");
+    private static final int LONGITUD_MINIMA_CONTRASENA = 8;
+    // BCrypt ignora lo que sigue a los primeros 72 bytes
+    private static final int BYTES_MAXIMOS_CONTRASENA = 72;
 
     private final UsuarioRepository usuarioRepository;
     private final RolRepository rolRepository;
+    private final PasswordHasher passwordHasher;
 
-    public RegistrarUsuarioUseCase(UsuarioRepository usuarioRepository, RolRepository rolRepository) {
+    public RegistrarUsuarioUseCase(UsuarioRepository usuarioRepository, RolRepository rolRepository,
+                                   PasswordHasher passwordHasher) {
         this.usuarioRepository = usuarioRepository;
         this.rolRepository = rolRepository;
+        this.passwordHasher = passwordHasher;
     }
 
     public Mono<Usuario> registrar(Usuario usuario) {
+        return registrar(usuario, null);
+    }
+
+    // Sin contraseña el usuario queda registrado pero no puede iniciar sesión
+    public Mono<Usuario> registrar(Usuario usuario, String contrasena) {
         return Mono.just(usuario)
                 .doOnNext(this::validarCamposRequeridos)
                 .doOnNext(this::validarFormatoEmail)
                 .doOnNext(this::validarSalario)
+                .doOnNext(u -> validarContrasena(contrasena))
                 .flatMap(this::validarRolExistente)
                 .flatMap(this::validarEmailUnico)
                 .flatMap(this::validarDocumentoUnico)
-                .flatMap(usuarioRepository::guardar);
+                .flatMap(u -> asignarHashContrasena(u, contrasena))
+                .flatMap(usuarioRepository::guardar)
+                .onErrorMap(UsuarioDuplicadoException.class, RegistrarUsuarioUseCase::aConflicto);
     }
 
     private void validarCamposRequeridos(Usuario usuario) {
@@ -72,6 +89,22 @@ public class RegistrarUsuarioUseCase {
         }
     }
 
+    private void validarContrasena(String contrasena) {
+        if (contrasena != null && (contrasena.length() < LONGITUD_MINIMA_CONTRASENA
+                || contrasena.getBytes(StandardCharsets.UTF_8).length > BYTES_MAXIMOS_CONTRASENA)) {
+            throw new IllegalArgumentException("La contraseña debe tener al menos 8 caracteres y máximo 72 bytes");
+        }
+    }
+
+    // Se calcula después de las validaciones contra la base de datos para no gastar CPU en registros rechazados
+    private Mono<Usuario> asignarHashContrasena(Usuario usuario, String contrasena) {
+        if (contrasena == null) {
+            return Mono.just(usuario);
+        }
+        return passwordHasher.hashear(contrasena)
+                .map(hash -> usuario.toBuilder().hashContrasena(hash).build());
+    }
+
     private Mono<Usuario> validarRolExistente(Usuario usuario) {
         return rolRepository.existePorId(usuario.getRol().getIdRol())
                 .flatMap(existe -> Boolean.TRUE.equals(existe)
@@ -103,6 +136,14 @@ public class RegistrarUsuarioUseCase {
                 });
     }
 
+    // Otro registro concurrente guardó el mismo correo o documento después de las verificaciones
+    private static RuntimeException aConflicto(UsuarioDuplicadoException error) {
+        if (error.getCampo() == UsuarioDuplicadoException.Campo.CORREO_ELECTRONICO) {
+            return new EmailAlreadyExistsException(error.getMessage());
+        }
+        return new DocumentoAlreadyExistsException(error.getMessage());
+    }
+
     private boolean esNuloOVacio(String valor) {
         return Objects.isNull(valor) || valor.trim().isEmpty();
     }
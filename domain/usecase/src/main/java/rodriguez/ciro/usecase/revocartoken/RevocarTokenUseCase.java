@@ -0,0 +1,42 @@
+package rodriguez.ciro.usecase.revocartoken;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.permiso.gateways.PermisoRepository;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+import rodriguez.ciro.model.token.gateways.RevocacionRepository;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+import rodriguez.ciro.usecase.revocartoken.exception.AccesoDenegadoException;
+
+@AllArgsConstructor
+public class RevocarTokenUseCase {
+
+    static final String PERMISO_REVOCAR = "TOKENS_REVOCAR";
+
+    private final TokenProvider tokenProvider;
+    private final RevocacionRepository revocacionRepository;
+    private final PermisoRepository permisoRepository;
+
+    // Cerrar una sesión ya cerrada no falla: basta con que el token sea auténtico y no haya expirado
+    public Mono<Void> cerrarSesion(String token) {
+        return tokenProvider.verificar(token).flatMap(this::revocar);
+    }
+
+    public Mono<Void> revocar(String tokenAdministrador, String token) {
+        return tokenProvider.verificar(tokenAdministrador)
+                .filterWhen(claims -> revocacionRepository.estaRevocado(claims.id()).map(revocado -> !revocado))
+                .switchIfEmpty(Mono.error(new TokenInvalidoException("Token revocado")))
+                .filterWhen(claims -> permisoRepository.matriz()
+                        .map(matriz -> matriz.permite(claims.idRol(), PERMISO_REVOCAR)))
+                .switchIfEmpty(Mono.error(new AccesoDenegadoException("El rol del token no tiene permiso para revocar tokens")))
+                .then(Mono.defer(() -> tokenProvider.verificar(token))
+                        .onErrorMap(TokenInvalidoException.class, error ->
+                                new IllegalArgumentException("El token a revocar no es válido: " + error.getMessage())))
+                .flatMap(this::revocar);
+    }
+
+    private Mono<Void> revocar(ClaimsToken claims) {
+        return revocacionRepository.revocar(claims.id(), claims.expiraEn());
+    }
+}
@@ -0,0 +1,7 @@
+package rodriguez.ciro.usecase.revocartoken.exception;
+
+public class AccesoDenegadoException extends RuntimeException {
+    public AccesoDenegadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,57 @@
+package rodriguez.ciro.usecase.seguirregistros;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.gateways.RegistroUsuarioRepository;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@AllArgsConstructor
+public class SeguirRegistrosUseCase {
+
+    private final RegistroUsuarioRepository registroUsuarioRepository;
+
+    /**
+     * Sin último id entrega solo los registros nuevos. Con él se suscribe a los nuevos y, a la vez, repite desde la
+     * base de datos los posteriores a ese id; los nuevos se retienen hasta terminar la repetición y solo se descartan
+     * los que ella ya entregó. Los ids no se asignan en orden de confirmación, así que un registro confirmado tarde con
+     * un id ya repetido llega igual como nuevo. Quien consume descarta duplicados por id. Lo que no se repite es un
+     * registro con id menor o igual al último id que se confirma mientras el cliente está desconectado.
+     */
+    public Flux<Usuario> seguir(Long ultimoIdUsuario) {
+        if (ultimoIdUsuario == null) {
+            return registroUsuarioRepository.nuevos();
+        }
+        return Flux.defer(() -> {
+            AtomicBoolean repitiendo = new AtomicBoolean(true);
+            Set<Long> nuevosDuranteRepeticion = ConcurrentHashMap.newKeySet();
+            Set<Long> yaRepetidos = ConcurrentHashMap.newKeySet();
+            Flux<Registro> repetidos = registroUsuarioRepository.registradosDespuesDe(ultimoIdUsuario)
+                    .doOnNext(usuario -> {
+                        if (nuevosDuranteRepeticion.contains(usuario.getIdUsuario())) {
+                            yaRepetidos.add(usuario.getIdUsuario());
+                        }
+                    })
+                    .map(usuario -> new Registro(usuario, false))
+                    .doOnComplete(() -> repitiendo.set(false));
+            Flux<Registro> nuevos = registroUsuarioRepository.nuevos()
+                    .map(usuario -> {
+                        boolean duranteRepeticion = repitiendo.get();
+                        if (duranteRepeticion) {
+                            nuevosDuranteRepeticion.add(usuario.getIdUsuario());
+                        }
+                        return new Registro(usuario, duranteRepeticion);
+                    });
+            return Flux.mergeSequential(repetidos, nuevos)
+                    .filter(registro -> !registro.duranteRepeticion()
+                            || !yaRepetidos.contains(registro.usuario().getIdUsuario()))
+                    .map(Registro::usuario);
+        });
+    }
+
+    private record Registro(Usuario usuario, boolean duranteRepeticion) {
+    }
+}
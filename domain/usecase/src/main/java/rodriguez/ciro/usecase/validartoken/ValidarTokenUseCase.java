@@ -0,0 +1,24 @@
+package rodriguez.ciro.usecase.validartoken;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+import rodriguez.ciro.model.token.gateways.RevocacionRepository;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+
+@AllArgsConstructor
+public class ValidarTokenUseCase {
+
+    private final TokenProvider tokenProvider;
+    private final RevocacionRepository revocacionRepository;
+    private final ActividadRepository actividadRepository;
+
+    public Mono<ClaimsToken> validar(String token) {
+        return tokenProvider.verificar(token)
+                .filterWhen(claims -> revocacionRepository.estaRevocado(claims.id()).map(revocado -> !revocado))
+                .switchIfEmpty(Mono.error(new TokenInvalidoException("Token revocado")))
+                .delayUntil(claims -> actividadRepository.registrarActividad(claims.idUsuario()));
+    }
+}
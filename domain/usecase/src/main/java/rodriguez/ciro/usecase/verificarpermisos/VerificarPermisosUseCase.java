@@ -0,0 +1,47 @@
+package rodriguez.ciro.usecase.verificarpermisos;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.permiso.MatrizPermisos;
+import rodriguez.ciro.model.permiso.ResultadoPermiso;
+import rodriguez.ciro.model.permiso.VerificacionPermiso;
+import rodriguez.ciro.model.permiso.gateways.PermisoRepository;
+import rodriguez.ciro.model.usuario.RolUsuario;
+import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@AllArgsConstructor
+public class VerificarPermisosUseCase {
+
+    private final PermisoRepository permisoRepository;
+    private final UsuarioRepository usuarioRepository;
+
+    // Los roles de todos los usuarios se leen en una sola consulta; cada par se resuelve contra la misma matriz
+    public Mono<List<ResultadoPermiso>> verificar(List<VerificacionPermiso> verificaciones) {
+        if (Objects.isNull(verificaciones) || verificaciones.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        Set<Long> idsUsuario = verificaciones.stream()
+                .map(VerificacionPermiso::idUsuario)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return permisoRepository.matriz()
+                .zipWith(usuarioRepository.buscarRolesPorIdUsuario(idsUsuario)
+                        .filter(rol -> rol.idRol() != null)
+                        .collectMap(RolUsuario::idUsuario, RolUsuario::idRol))
+                .map(matrizYRoles -> resolver(verificaciones, matrizYRoles.getT1(), matrizYRoles.getT2()));
+    }
+
+    private static List<ResultadoPermiso> resolver(List<VerificacionPermiso> verificaciones, MatrizPermisos matriz,
+                                                   Map<Long, Long> roles) {
+        return verificaciones.stream()
+                .map(verificacion -> new ResultadoPermiso(verificacion.idUsuario(), verificacion.permiso(),
+                        matriz.permite(roles.get(verificacion.idUsuario()), verificacion.permiso())))
+                .toList();
+    }
+}
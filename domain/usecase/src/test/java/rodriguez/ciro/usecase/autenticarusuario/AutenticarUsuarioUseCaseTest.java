@@ -0,0 +1,138 @@
+package rodriguez.ciro.usecase.autenticarusuario;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.credencial.UsuarioAutenticado;
+import rodriguez.ciro.model.credencial.gateways.PasswordHasher;
+import rodriguez.ciro.model.intento.Bloqueo;
+import rodriguez.ciro.model.intento.gateways.IntentoRepository;
+import rodriguez.ciro.model.sesion.Sesion;
+import rodriguez.ciro.model.sesion.SesionIniciada;
+import rodriguez.ciro.model.sesion.gateways.SesionRepository;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.TokenAcceso;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+import rodriguez.ciro.usecase.autenticarusuario.exception.CredencialesInvalidasException;
+import rodriguez.ciro.usecase.autenticarusuario.exception.IntentosExcedidosException;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutenticarUsuarioUseCaseTest {
+
+    private static final String ORIGEN = "203.0.113.7";
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @Mock
+    private PasswordHasher passwordHasher;
+    @Mock
+    private TokenProvider tokenProvider;
+    @Mock
+    private SesionRepository sesionRepository;
+    @Mock
+    private ActividadRepository actividadRepository;
+    @Mock
+    private IntentoRepository intentoRepository;
+
+    private AutenticarUsuarioUseCase autenticarUsuarioUseCase;
+
+    @BeforeEach
+    void setUp() {
+        autenticarUsuarioUseCase = new AutenticarUsuarioUseCase(usuarioRepository, passwordHasher, tokenProvider,
+                sesionRepository, actividadRepository, intentoRepository);
+    }
+
+    @Test
+    void deberiaEmitirUnTokenYAbrirUnaSesionCuandoLaContrasenaCoincide() {
+        // Given
+        UsuarioAutenticado usuario = new UsuarioAutenticado(1L, "juan.perez@email.com", 2L, "USER");
+        TokenAcceso token = new TokenAcceso("encabezado.claims.firma", new ClaimsToken("jti", 1L,
+                "juan.perez@email.com", 2L, "USER", Instant.EPOCH, Instant.EPOCH.plusSeconds(900)));
+        Sesion sesion = new Sesion("refresco", 1L, Instant.EPOCH.plusSeconds(604800));
+        when(intentoRepository.bloqueo("juan.perez@email.com", ORIGEN)).thenReturn(Mono.empty());
+        when(intentoRepository.registrarExito("juan.perez@email.com")).thenReturn(Mono.empty());
+        when(usuarioRepository.buscarCredencialPorCorreoElectronico("juan.perez@email.com"))
+                .thenReturn(Mono.just(new CredencialUsuario(1L, "juan.perez@email.com", "$2a$10$hash", 2L, "USER")));
+        when(passwordHasher.verificar("Secreta123", "$2a$10$hash")).thenReturn(Mono.just(true));
+        when(tokenProvider.emitir(usuario)).thenReturn(Mono.just(token));
+        when(sesionRepository.abrir(1L)).thenReturn(Mono.just(sesion));
+        when(actividadRepository.registrarInicioSesion(1L)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(autenticarUsuarioUseCase.autenticar("juan.perez@email.com", "Secreta123", ORIGEN))
+                .expectNext(new SesionIniciada(token, sesion))
+                .verifyComplete();
+        verify(actividadRepository).registrarInicioSesion(1L);
+        verify(intentoRepository).registrarExito("juan.perez@email.com");
+    }
+
+    @Test
+    void deberiaFallarCuandoLaContrasenaNoCoincide() {
+        // Given
+        when(intentoRepository.bloqueo("juan.perez@email.com", ORIGEN)).thenReturn(Mono.empty());
+        when(intentoRepository.registrarFallo("juan.perez@email.com", ORIGEN)).thenReturn(Mono.empty());
+        when(usuarioRepository.buscarCredencialPorCorreoElectronico("juan.perez@email.com"))
+                .thenReturn(Mono.just(new CredencialUsuario(1L, "juan.perez@email.com", "$2a$10$hash", 2L, "USER")));
+        when(passwordHasher.verificar("Incorrecta", "$2a$10$hash")).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(autenticarUsuarioUseCase.autenticar("juan.perez@email.com", "Incorrecta", ORIGEN))
+                .expectError(CredencialesInvalidasException.class)
+                .verify();
+        verify(tokenProvider, never()).emitir(any());
+        verify(intentoRepository).registrarFallo("juan.perez@email.com", ORIGEN);
+        verify(intentoRepository, never()).registrarExito(any());
+        verifyNoInteractions(sesionRepository, actividadRepository);
+    }
+
+    @Test
+    void deberiaVerificarUnHashAunqueElUsuarioNoExista() {
+        // Given
+        when(intentoRepository.bloqueo("no.existe@email.com", ORIGEN)).thenReturn(Mono.empty());
+        when(intentoRepository.registrarFallo("no.existe@email.com", ORIGEN)).thenReturn(Mono.empty());
+        when(usuarioRepository.buscarCredencialPorCorreoElectronico("no.existe@email.com")).thenReturn(Mono.empty());
+        when(passwordHasher.verificar("Secreta123", null)).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(autenticarUsuarioUseCase.autenticar("no.existe@email.com", "Secreta123", ORIGEN))
+                .expectError(CredencialesInvalidasException.class)
+                .verify();
+        verify(passwordHasher).verificar("Secreta123", null);
+    }
+
+    @Test
+    void deberiaFallarSinConsultarCuandoFaltaLaContrasena() {
+        // When & Then
+        StepVerifier.create(autenticarUsuarioUseCase.autenticar("juan.perez@email.com", " ", ORIGEN))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(usuarioRepository, passwordHasher, tokenProvider, sesionRepository, intentoRepository);
+    }
+
+    @Test
+    void deberiaRechazarSinVerificarLaContrasenaMientrasHayUnBloqueo() {
+        // Given
+        Instant hasta = Instant.parse("2027-01-01T00:05:00Z");
+        when(intentoRepository.bloqueo("juan.perez@email.com", ORIGEN)).thenReturn(Mono.just(new Bloqueo(hasta)));
+
+        // When & Then
+        StepVerifier.create(autenticarUsuarioUseCase.autenticar("juan.perez@email.com", "Secreta123", ORIGEN))
+                .expectErrorMatches(error -> error instanceof IntentosExcedidosException excedidos
+                        && excedidos.getBloqueadoHasta().equals(hasta))
+                .verify();
+        verifyNoInteractions(usuarioRepository, passwordHasher, tokenProvider, sesionRepository);
+        verify(intentoRepository, never()).registrarFallo(any(), any());
+    }
+}
@@ -0,0 +1,77 @@
+package rodriguez.ciro.usecase.consultaranalitica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.analitica.Agrupacion;
+import rodriguez.ciro.model.analitica.FiltroUsuarios;
+import rodriguez.ciro.model.analitica.GrupoUsuarios;
+import rodriguez.ciro.model.analitica.gateways.AnaliticaUsuarioRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultarAnaliticaUsuariosUseCaseTest {
+
+    @Mock
+    private AnaliticaUsuarioRepository analiticaUsuarioRepository;
+
+    private ConsultarAnaliticaUsuariosUseCase consultarAnaliticaUsuariosUseCase;
+
+    @BeforeEach
+    void setUp() {
+        consultarAnaliticaUsuariosUseCase = new ConsultarAnaliticaUsuariosUseCase(analiticaUsuarioRepository);
+    }
+
+    @Test
+    void deberiaAgregarTodosSinAgrupacionCuandoNoSeIndicanFiltroNiAgrupacion() {
+        // Given
+        GrupoUsuarios total = new GrupoUsuarios(null, 2, new BigDecimal("5000000.00"),
+                new BigDecimal("2000000.00"), new BigDecimal("3000000.00"));
+        when(analiticaUsuarioRepository.agregar(FiltroUsuarios.TODOS, Agrupacion.NINGUNA))
+                .thenReturn(Mono.just(List.of(total)));
+
+        // When & Then
+        StepVerifier.create(consultarAnaliticaUsuariosUseCase.consultar(null, null))
+                .expectNext(List.of(total))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRechazarUnRangoDeSalarioInvertido() {
+        // Given
+        FiltroUsuarios filtro = new FiltroUsuarios(null, null, new BigDecimal("3000000"),
+                new BigDecimal("2000000"), null, null);
+
+        // When & Then
+        StepVerifier.create(consultarAnaliticaUsuariosUseCase.consultar(filtro, Agrupacion.ROL))
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().contains("salario mínimo"))
+                .verify();
+        verify(analiticaUsuarioRepository, never()).agregar(any(), any());
+    }
+
+    @Test
+    void deberiaRechazarUnRangoDeFechasInvertido() {
+        // Given
+        FiltroUsuarios filtro = new FiltroUsuarios(null, null, null, null,
+                LocalDate.of(2000, 1, 1), LocalDate.of(1990, 1, 1));
+
+        // When & Then
+        StepVerifier.create(consultarAnaliticaUsuariosUseCase.consultar(filtro, Agrupacion.ANIO_NACIMIENTO))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verify(analiticaUsuarioRepository, never()).agregar(any(), any());
+    }
+}
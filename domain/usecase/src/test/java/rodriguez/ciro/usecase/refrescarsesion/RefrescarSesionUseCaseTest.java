@@ -0,0 +1,105 @@
+package rodriguez.ciro.usecase.refrescarsesion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.credencial.UsuarioAutenticado;
+import rodriguez.ciro.model.sesion.Sesion;
+import rodriguez.ciro.model.sesion.SesionIniciada;
+import rodriguez.ciro.model.sesion.gateways.SesionRepository;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.TokenAcceso;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefrescarSesionUseCaseTest {
+
+    @Mock
+    private SesionRepository sesionRepository;
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @Mock
+    private TokenProvider tokenProvider;
+
+    @Mock
+    private ActividadRepository actividadRepository;
+
+    private RefrescarSesionUseCase refrescarSesionUseCase;
+
+    @BeforeEach
+    void setUp() {
+        refrescarSesionUseCase = new RefrescarSesionUseCase(sesionRepository, usuarioRepository, tokenProvider,
+                actividadRepository);
+    }
+
+    @Test
+    void deberiaConsumirLaSesionYAbrirOtraConElRolActual() {
+        // Given
+        UsuarioAutenticado usuario = new UsuarioAutenticado(1L, "juan.perez@email.com", 1L, "ADMIN");
+        TokenAcceso token = new TokenAcceso("encabezado.claims.firma", new ClaimsToken("jti", 1L,
+                "juan.perez@email.com", 1L, "ADMIN", Instant.EPOCH, Instant.EPOCH.plusSeconds(900)));
+        Sesion nueva = new Sesion("nuevo", 1L, Instant.EPOCH.plusSeconds(604800));
+        when(sesionRepository.consumir("anterior"))
+                .thenReturn(Mono.just(new Sesion("anterior", 1L, Instant.EPOCH.plusSeconds(3600))));
+        when(usuarioRepository.buscarCredencialPorIdUsuario(1L))
+                .thenReturn(Mono.just(new CredencialUsuario(1L, "juan.perez@email.com", "$2a$10$hash", 1L, "ADMIN")));
+        when(tokenProvider.emitir(usuario)).thenReturn(Mono.just(token));
+        when(sesionRepository.abrir(1L)).thenReturn(Mono.just(nueva));
+        when(actividadRepository.registrarActividad(1L)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(refrescarSesionUseCase.refrescar("anterior"))
+                .expectNext(new SesionIniciada(token, nueva))
+                .verifyComplete();
+        verify(actividadRepository).registrarActividad(1L);
+    }
+
+    @Test
+    void deberiaFallarCuandoLaSesionNoExisteOYaSeUso() {
+        // Given
+        when(sesionRepository.consumir("usado")).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(refrescarSesionUseCase.refrescar("usado"))
+                .expectError(TokenInvalidoException.class)
+                .verify();
+        verify(sesionRepository, never()).abrir(anyLong());
+        verifyNoInteractions(tokenProvider);
+    }
+
+    @Test
+    void deberiaFallarCuandoElUsuarioDeLaSesionYaNoExiste() {
+        // Given
+        when(sesionRepository.consumir("huerfano"))
+                .thenReturn(Mono.just(new Sesion("huerfano", 7L, Instant.EPOCH.plusSeconds(3600))));
+        when(usuarioRepository.buscarCredencialPorIdUsuario(7L)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(refrescarSesionUseCase.refrescar("huerfano"))
+                .expectError(TokenInvalidoException.class)
+                .verify();
+        verify(tokenProvider, never()).emitir(any());
+    }
+
+    @Test
+    void deberiaCerrarSinConsultarCuandoNoHayTokenDeRefresco() {
+        // When & Then
+        StepVerifier.create(refrescarSesionUseCase.cerrar(null))
+                .verifyComplete();
+        verifyNoInteractions(sesionRepository);
+    }
+}
@@ -7,9 +7,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import rodriguez.ciro.model.credencial.gateways.PasswordHasher;
 import rodriguez.ciro.model.rol.Rol;
 import rodriguez.ciro.model.rol.gateways.RolRepository;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.exception.UsuarioDuplicadoException;
 import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
 import rodriguez.ciro.usecase.registrarusuario.exception.EmailAlreadyExistsException;
 import rodriguez.ciro.usecase.registrarusuario.exception.DocumentoAlreadyExistsException;
@@ -26,12 +28,14 @@ class RegistrarUsuarioUseCaseTest {
     private UsuarioRepository usuarioRepository;
     @Mock
     private RolRepository rolRepository;
+    @Mock
+    private PasswordHasher passwordHasher;
 
     private RegistrarUsuarioUseCase registrarUsuarioUseCase;
 
     @BeforeEach
     void setUp() {
-        registrarUsuarioUseCase = new RegistrarUsuarioUseCase(usuarioRepository, rolRepository);
+        registrarUsuarioUseCase = new RegistrarUsuarioUseCase(usuarioRepository, rolRepository, passwordHasher);
         lenient().when(rolRepository.existePorId(anyLong())).thenReturn(Mono.just(true));
         lenient().when(usuarioRepository.existePorCorreoElectronico(anyString())).thenReturn(Mono.just(false));
         lenient().when(usuarioRepository.existePorTipoYNumeroDocumento(anyString(), anyString())).thenReturn(Mono.just(false));
@@ -395,6 +399,30 @@ class RegistrarUsuarioUseCaseTest {
         verify(usuarioRepository, never()).guardar(any());
     }
 
+    @Test
+    void deberiaResponderConflictoCuandoOtroRegistroGuardaElMismoCorreoAntes() {
+        // Given
+        Usuario usuario = Usuario.builder()
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .correoElectronico("juan.perez@email.com")
+                .salarioBase(new BigDecimal("3000000"))
+                .rol(Rol.builder().idRol(2L).build())
+                .build();
+
+        when(usuarioRepository.guardar(any(Usuario.class)))
+                .thenReturn(Mono.error(new UsuarioDuplicadoException(UsuarioDuplicadoException.Campo.CORREO_ELECTRONICO,
+                        "Ya existe un usuario registrado con este correo electrónico")));
+
+        // When & Then
+        StepVerifier.create(registrarUsuarioUseCase.registrar(usuario))
+                .expectErrorMatches(error -> error instanceof EmailAlreadyExistsException &&
+                        error.getMessage().equals("Ya existe un usuario registrado con este correo electrónico"))
+                .verify();
+    }
+
     @Test
     void deberiaAceptarSalarioEnLimiteInferior() {
         // Given
@@ -468,4 +496,47 @@ class RegistrarUsuarioUseCaseTest {
                 .expectNext(usuarioGuardado)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void deberiaGuardarElHashDeLaContrasena() {
+        // Given
+        Usuario usuario = Usuario.builder()
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .correoElectronico("juan.perez@email.com")
+                .salarioBase(new BigDecimal("3000000"))
+                .rol(Rol.builder().idRol(2L).build())
+                .build();
+        when(passwordHasher.hashear("Secreta123")).thenReturn(Mono.just("$2a$10$hash"));
+        when(usuarioRepository.guardar(any(Usuario.class)))
+                .thenAnswer(invocacion -> Mono.just(invocacion.getArgument(0, Usuario.class).toBuilder().idUsuario(1L).build()));
+
+        // When & Then
+        StepVerifier.create(registrarUsuarioUseCase.registrar(usuario, "Secreta123"))
+                .expectNextMatches(guardado -> "$2a$10$hash".equals(guardado.getHashContrasena()))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaFallarSinCalcularHashCuandoLaContrasenaEsCorta() {
+        // Given
+        Usuario usuario = Usuario.builder()
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .correoElectronico("juan.perez@email.com")
+                .salarioBase(new BigDecimal("3000000"))
+                .rol(Rol.builder().idRol(2L).build())
+                .build();
+
+        // When & Then
+        StepVerifier.create(registrarUsuarioUseCase.registrar(usuario, "corta"))
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException &&
+                        error.getMessage().equals("La contraseña debe tener al menos 8 caracteres y máximo 72 bytes"))
+                .verify();
+        verifyNoInteractions(passwordHasher);
+    }
+}
@@ -0,0 +1,102 @@
+package rodriguez.ciro.usecase.revocartoken;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.permiso.AsignacionPermiso;
+import rodriguez.ciro.model.permiso.MatrizPermisos;
+import rodriguez.ciro.model.permiso.gateways.PermisoRepository;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+import rodriguez.ciro.model.token.gateways.RevocacionRepository;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+import rodriguez.ciro.usecase.revocartoken.exception.AccesoDenegadoException;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevocarTokenUseCaseTest {
+
+    private static final Instant EXPIRA_EN = Instant.EPOCH.plusSeconds(900);
+    private static final ClaimsToken USUARIO =
+            new ClaimsToken("jti-usuario", 1L, "juan.perez@email.com", 2L, "USER", Instant.EPOCH, EXPIRA_EN);
+    private static final ClaimsToken ADMINISTRADOR =
+            new ClaimsToken("jti-admin", 9L, "admin@email.com", 1L, "ADMIN", Instant.EPOCH, EXPIRA_EN);
+    private static final MatrizPermisos MATRIZ = MatrizPermisos.compilar(List.of("USUARIOS_CONSULTAR", "TOKENS_REVOCAR"),
+            List.of(new AsignacionPermiso(1L, "TOKENS_REVOCAR"), new AsignacionPermiso(2L, "USUARIOS_CONSULTAR")));
+
+    @Mock
+    private TokenProvider tokenProvider;
+    @Mock
+    private RevocacionRepository revocacionRepository;
+    @Mock
+    private PermisoRepository permisoRepository;
+
+    private RevocarTokenUseCase revocarTokenUseCase;
+
+    @BeforeEach
+    void setUp() {
+        revocarTokenUseCase = new RevocarTokenUseCase(tokenProvider, revocacionRepository, permisoRepository);
+        lenient().when(permisoRepository.matriz()).thenReturn(Mono.just(MATRIZ));
+    }
+
+    @Test
+    void deberiaRevocarElTokenPropioAlCerrarSesion() {
+        // Given
+        when(tokenProvider.verificar("token-usuario")).thenReturn(Mono.just(USUARIO));
+        when(revocacionRepository.revocar("jti-usuario", EXPIRA_EN)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(revocarTokenUseCase.cerrarSesion("token-usuario")).verifyComplete();
+        verify(revocacionRepository).revocar("jti-usuario", EXPIRA_EN);
+    }
+
+    @Test
+    void deberiaPermitirQueUnRolConPermisoRevoqueOtroToken() {
+        // Given
+        when(tokenProvider.verificar("token-admin")).thenReturn(Mono.just(ADMINISTRADOR));
+        when(revocacionRepository.estaRevocado("jti-admin")).thenReturn(Mono.just(false));
+        when(tokenProvider.verificar("token-usuario")).thenReturn(Mono.just(USUARIO));
+        when(revocacionRepository.revocar("jti-usuario", EXPIRA_EN)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(revocarTokenUseCase.revocar("token-admin", "token-usuario")).verifyComplete();
+        verify(revocacionRepository).revocar("jti-usuario", EXPIRA_EN);
+    }
+
+    @Test
+    void deberiaNegarLaRevocacionAUnRolSinElPermiso() {
+        // Given
+        when(tokenProvider.verificar("token-usuario")).thenReturn(Mono.just(USUARIO));
+        when(revocacionRepository.estaRevocado("jti-usuario")).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(revocarTokenUseCase.revocar("token-usuario", "otro-token"))
+                .expectError(AccesoDenegadoException.class)
+                .verify();
+        verify(tokenProvider, never()).verificar("otro-token");
+        verify(revocacionRepository, never()).revocar(any(), any());
+    }
+
+    @Test
+    void deberiaRechazarUnTokenARevocarQueNoEsValido() {
+        // Given
+        when(tokenProvider.verificar("token-admin")).thenReturn(Mono.just(ADMINISTRADOR));
+        when(revocacionRepository.estaRevocado("jti-admin")).thenReturn(Mono.just(false));
+        when(tokenProvider.verificar("token-alterado"))
+                .thenReturn(Mono.error(new TokenInvalidoException("Firma del token inválida")));
+
+        // When & Then
+        StepVerifier.create(revocarTokenUseCase.revocar("token-admin", "token-alterado"))
+                .expectErrorMessage("El token a revocar no es válido: Firma del token inválida")
+                .verify();
+    }
+}
@@ -0,0 +1,105 @@
+package rodriguez.ciro.usecase.seguirregistros;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.gateways.RegistroUsuarioRepository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeguirRegistrosUseCaseTest {
+
+    @Mock
+    private RegistroUsuarioRepository registroUsuarioRepository;
+
+    private SeguirRegistrosUseCase seguirRegistrosUseCase;
+    private Sinks.Many<Usuario> nuevos;
+
+    @BeforeEach
+    void setUp() {
+        seguirRegistrosUseCase = new SeguirRegistrosUseCase(registroUsuarioRepository);
+        nuevos = Sinks.many().multicast().directBestEffort();
+        when(registroUsuarioRepository.nuevos()).thenReturn(nuevos.asFlux());
+    }
+
+    @Test
+    void deberiaEntregarSoloLosNuevosSinUltimoId() {
+        // When & Then
+        StepVerifier.create(seguirRegistrosUseCase.seguir(null).map(Usuario::getIdUsuario))
+                .then(() -> nuevos.tryEmitNext(usuario(7L)))
+                .expectNext(7L)
+                .thenCancel()
+                .verify();
+        verify(registroUsuarioRepository, never()).registradosDespuesDe(any());
+    }
+
+    @Test
+    void deberiaRepetirDesdeElUltimoIdYContinuarConLosNuevos() {
+        // Given
+        Sinks.Many<Usuario> repetidos = Sinks.many().unicast().onBackpressureBuffer();
+        when(registroUsuarioRepository.registradosDespuesDe(10L)).thenReturn(repetidos.asFlux());
+
+        // When & Then
+        StepVerifier.create(seguirRegistrosUseCase.seguir(10L).map(Usuario::getIdUsuario))
+                .then(() -> {
+                    // 12 llega por la notificación mientras la repetición aún lo está leyendo
+                    nuevos.tryEmitNext(usuario(12L));
+                    repetidos.tryEmitNext(usuario(11L));
+                    repetidos.tryEmitNext(usuario(12L));
+                    nuevos.tryEmitNext(usuario(13L));
+                    repetidos.tryEmitComplete();
+                })
+                .expectNext(11L, 12L, 13L)
+                .then(() -> nuevos.tryEmitNext(usuario(14L)))
+                .expectNext(14L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void deberiaEntregarUnRegistroConfirmadoTardeConIdYaRepetido() {
+        // Given
+        Sinks.Many<Usuario> repetidos = Sinks.many().unicast().onBackpressureBuffer();
+        when(registroUsuarioRepository.registradosDespuesDe(10L)).thenReturn(repetidos.asFlux());
+
+        // When & Then
+        StepVerifier.create(seguirRegistrosUseCase.seguir(10L).map(Usuario::getIdUsuario))
+                .then(() -> {
+                    // 12 aún no se había confirmado cuando la repetición leyó 11 y 13
+                    repetidos.tryEmitNext(usuario(11L));
+                    repetidos.tryEmitNext(usuario(13L));
+                    nuevos.tryEmitNext(usuario(12L));
+                    repetidos.tryEmitComplete();
+                })
+                .expectNext(11L, 13L, 12L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void deberiaEntregarLosNuevosAunqueNoHayaNadaQueRepetir() {
+        // Given
+        when(registroUsuarioRepository.registradosDespuesDe(10L)).thenReturn(Flux.empty());
+
+        // When & Then
+        StepVerifier.create(seguirRegistrosUseCase.seguir(10L).map(Usuario::getIdUsuario))
+                .then(() -> nuevos.tryEmitNext(usuario(11L)))
+                .expectNext(11L)
+                .thenCancel()
+                .verify();
+    }
+
+    private static Usuario usuario(Long idUsuario) {
+        return Usuario.builder().idUsuario(idUsuario).correoElectronico("usuario" + idUsuario + "@email.com").build();
+    }
+}
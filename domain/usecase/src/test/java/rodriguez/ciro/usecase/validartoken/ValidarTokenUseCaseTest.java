@@ -0,0 +1,93 @@
+package rodriguez.ciro.usecase.validartoken;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.exception.RevocacionesNoSincronizadasException;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+import rodriguez.ciro.model.token.gateways.RevocacionRepository;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ValidarTokenUseCaseTest {
+
+    private static final ClaimsToken CLAIMS = new ClaimsToken("jti-1", 1L, "juan.perez@email.com", 2L, "USER",
+            Instant.EPOCH, Instant.EPOCH.plusSeconds(900));
+
+    @Mock
+    private TokenProvider tokenProvider;
+    @Mock
+    private RevocacionRepository revocacionRepository;
+    @Mock
+    private ActividadRepository actividadRepository;
+
+    private ValidarTokenUseCase validarTokenUseCase;
+
+    @BeforeEach
+    void setUp() {
+        validarTokenUseCase = new ValidarTokenUseCase(tokenProvider, revocacionRepository, actividadRepository);
+    }
+
+    @Test
+    void deberiaRetornarLosClaimsDeUnTokenNoRevocado() {
+        // Given
+        when(tokenProvider.verificar("token")).thenReturn(Mono.just(CLAIMS));
+        when(revocacionRepository.estaRevocado("jti-1")).thenReturn(Mono.just(false));
+        when(actividadRepository.registrarActividad(1L)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(validarTokenUseCase.validar("token"))
+                .expectNext(CLAIMS)
+                .verifyComplete();
+        verify(actividadRepository).registrarActividad(1L);
+    }
+
+    @Test
+    void deberiaRechazarUnTokenRevocado() {
+        // Given
+        when(tokenProvider.verificar("token")).thenReturn(Mono.just(CLAIMS));
+        when(revocacionRepository.estaRevocado("jti-1")).thenReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(validarTokenUseCase.validar("token"))
+                .expectErrorMessage("Token revocado")
+                .verify();
+        verifyNoInteractions(actividadRepository);
+    }
+
+    @Test
+    void deberiaFallarMientrasLasRevocacionesNoEstanSincronizadas() {
+        // Given
+        when(tokenProvider.verificar("token")).thenReturn(Mono.just(CLAIMS));
+        when(revocacionRepository.estaRevocado("jti-1"))
+                .thenReturn(Mono.error(new RevocacionesNoSincronizadasException("Revocaciones sin cargar")));
+
+        // When & Then
+        StepVerifier.create(validarTokenUseCase.validar("token"))
+                .expectError(RevocacionesNoSincronizadasException.class)
+                .verify();
+    }
+
+    @Test
+    void deberiaPropagarElErrorDeUnTokenInvalido() {
+        // Given
+        when(tokenProvider.verificar("token")).thenReturn(Mono.error(new TokenInvalidoException("Token expirado")));
+
+        // When & Then
+        StepVerifier.create(validarTokenUseCase.validar("token"))
+                .expectErrorMessage("Token expirado")
+                .verify();
+    }
+}
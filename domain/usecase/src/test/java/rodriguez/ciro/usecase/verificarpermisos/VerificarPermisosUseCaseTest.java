@@ -0,0 +1,109 @@
+package rodriguez.ciro.usecase.verificarpermisos;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.permiso.AsignacionPermiso;
+import rodriguez.ciro.model.permiso.MatrizPermisos;
+import rodriguez.ciro.model.permiso.ResultadoPermiso;
+import rodriguez.ciro.model.permiso.VerificacionPermiso;
+import rodriguez.ciro.model.permiso.exception.PermisosNoCargadosException;
+import rodriguez.ciro.model.permiso.gateways.PermisoRepository;
+import rodriguez.ciro.model.usuario.RolUsuario;
+import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerificarPermisosUseCaseTest {
+
+    private static final MatrizPermisos MATRIZ = MatrizPermisos.compilar(
+            List.of("USUARIOS_REGISTRAR", "USUARIOS_CONSULTAR", "TOKENS_REVOCAR"),
+            List.of(new AsignacionPermiso(1L, "USUARIOS_REGISTRAR"), new AsignacionPermiso(1L, "USUARIOS_CONSULTAR"),
+                    new AsignacionPermiso(1L, "TOKENS_REVOCAR"), new AsignacionPermiso(2L, "USUARIOS_CONSULTAR")));
+
+    @Mock
+    private PermisoRepository permisoRepository;
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private VerificarPermisosUseCase verificarPermisosUseCase;
+
+    @BeforeEach
+    void setUp() {
+        verificarPermisosUseCase = new VerificarPermisosUseCase(permisoRepository, usuarioRepository);
+    }
+
+    @Test
+    void deberiaResolverCadaParConElRolDelUsuario() {
+        // Given
+        when(permisoRepository.matriz()).thenReturn(Mono.just(MATRIZ));
+        when(usuarioRepository.buscarRolesPorIdUsuario(Set.of(1L, 2L, 3L)))
+                .thenReturn(Flux.just(new RolUsuario(1L, 1L), new RolUsuario(2L, 2L)));
+
+        // When & Then
+        StepVerifier.create(verificarPermisosUseCase.verificar(List.of(
+                        new VerificacionPermiso(1L, "TOKENS_REVOCAR"),
+                        new VerificacionPermiso(2L, "TOKENS_REVOCAR"),
+                        new VerificacionPermiso(2L, "USUARIOS_CONSULTAR"),
+                        new VerificacionPermiso(2L, "NO_EXISTE"),
+                        new VerificacionPermiso(3L, "USUARIOS_CONSULTAR"))))
+                .expectNext(List.of(
+                        new ResultadoPermiso(1L, "TOKENS_REVOCAR", true),
+                        new ResultadoPermiso(2L, "TOKENS_REVOCAR", false),
+                        new ResultadoPermiso(2L, "USUARIOS_CONSULTAR", true),
+                        new ResultadoPermiso(2L, "NO_EXISTE", false),
+                        new ResultadoPermiso(3L, "USUARIOS_CONSULTAR", false)))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaFallarMientrasLosPermisosNoEstanCargados() {
+        // Given
+        when(permisoRepository.matriz())
+                .thenReturn(Mono.error(new PermisosNoCargadosException("Los permisos aún no se han cargado")));
+        when(usuarioRepository.buscarRolesPorIdUsuario(Set.of(1L))).thenReturn(Flux.empty());
+
+        // When & Then
+        StepVerifier.create(verificarPermisosUseCase.verificar(List.of(new VerificacionPermiso(1L, "TOKENS_REVOCAR"))))
+                .expectError(PermisosNoCargadosException.class)
+                .verify();
+    }
+
+    @Test
+    void deberiaResponderVacioSinConsultarCuandoNoHayPares() {
+        // When & Then
+        StepVerifier.create(verificarPermisosUseCase.verificar(List.of()))
+                .expectNext(List.of())
+                .verifyComplete();
+        verifyNoInteractions(permisoRepository, usuarioRepository);
+    }
+
+    @Test
+    void deberiaCompilarMasDeSesentaYCuatroPermisos() {
+        // Given
+        List<String> permisos = IntStream.range(0, 130).mapToObj(i -> "PERMISO_" + i).toList();
+
+        // When
+        MatrizPermisos matriz = MatrizPermisos.compilar(permisos,
+                List.of(new AsignacionPermiso(1L, "PERMISO_0"), new AsignacionPermiso(1L, "PERMISO_129")));
+
+        // Then
+        assertTrue(matriz.permite(1L, "PERMISO_0"));
+        assertTrue(matriz.permite(1L, "PERMISO_129"));
+        assertFalse(matriz.permite(1L, "PERMISO_65"));
+        assertFalse(matriz.permite(1L, "PERMISO_1"));
+        assertFalse(matriz.permite(null, "PERMISO_0"));
+    }
+}
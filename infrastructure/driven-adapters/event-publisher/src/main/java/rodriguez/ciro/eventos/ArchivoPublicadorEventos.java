@@ -0,0 +1,91 @@
+package rodriguez.ciro.eventos;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import rodriguez.ciro.model.evento.Evento;
+import rodriguez.ciro.model.evento.gateways.PublicadorEventos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Publicador local mientras no haya un broker: escribe cada evento como una línea JSON al final de
+ * adapters.events.file y fuerza el archivo a disco antes de confirmar el lote, o lo registra en el log si no se
+ * configuró archivo. Otro publicador que implemente {@link PublicadorEventos} lo reemplaza sin tocar el relevo.
+ */
+@Slf4j
+@Component
+public class ArchivoPublicadorEventos implements PublicadorEventos, DisposableBean {
+
+    private final FileChannel archivo;
+
+    public ArchivoPublicadorEventos(EventosProperties properties) throws IOException {
+        this.archivo = properties.file() == null || properties.file().isBlank()
+                ? null
+                : FileChannel.open(Path.of(properties.file()), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public Mono<Void> publicar(List<Evento> eventos) {
+        if (archivo == null) {
+            return Mono.fromRunnable(() -> eventos.forEach(evento -> log.info("Evento publicado: {}", linea(evento))));
+        }
+        return Mono.<Void>fromRunnable(() -> escribir(eventos))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private synchronized void escribir(List<Evento> eventos) {
+        StringBuilder lineas = new StringBuilder();
+        eventos.forEach(evento -> lineas.append(linea(evento)).append('\n'));
+        ByteBuffer bytes = ByteBuffer.wrap(lineas.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                archivo.write(bytes);
+            }
+            archivo.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // El contenido ya es JSON válido porque sale de una columna jsonb
+    static String linea(Evento evento) {
+        return "{\"idEvento\":" + evento.idEvento()
+                + ",\"tipo\":" + texto(evento.tipo())
+                + ",\"clave\":" + texto(evento.clave())
+                + ",\"creadoEn\":" + texto(String.valueOf(evento.creadoEn()))
+                + ",\"contenido\":" + evento.contenido() + "}";
+    }
+
+    private static String texto(String valor) {
+        StringBuilder json = new StringBuilder(valor.length() + 2).append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (archivo != null) {
+            archivo.close();
+        }
+    }
+}
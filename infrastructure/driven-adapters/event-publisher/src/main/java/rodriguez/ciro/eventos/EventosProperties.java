@@ -0,0 +1,8 @@
+package rodriguez.ciro.eventos;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "adapters.events")
+public record EventosProperties(
+        String file) {
+}
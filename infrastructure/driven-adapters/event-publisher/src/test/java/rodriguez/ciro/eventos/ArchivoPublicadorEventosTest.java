@@ -0,0 +1,48 @@
+package rodriguez.ciro.eventos;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.evento.Evento;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ArchivoPublicadorEventosTest {
+
+    private static final Instant CREADO_EN = Instant.parse("2027-01-01T00:00:00Z");
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void deberiaAgregarUnaLineaJsonPorEventoEnOrden() throws IOException {
+        // Given
+        Path archivo = directorio.resolve("eventos.jsonl");
+        ArchivoPublicadorEventos publicador = new ArchivoPublicadorEventos(new EventosProperties(archivo.toString()));
+
+        // When
+        StepVerifier.create(publicador.publicar(List.of(
+                        new Evento(1L, Evento.USUARIO_REGISTRADO, "7", "{\"idUsuario\": 7}", CREADO_EN),
+                        new Evento(2L, Evento.USUARIO_REGISTRADO, "8", "{\"idUsuario\": 8}", CREADO_EN))))
+                .verifyComplete();
+        StepVerifier.create(publicador.publicar(List.of(
+                        new Evento(3L, Evento.USUARIO_REGISTRADO, "9\"", "{}", CREADO_EN))))
+                .verifyComplete();
+        publicador.destroy();
+
+        // Then
+        assertEquals(List.of(
+                "{\"idEvento\":1,\"tipo\":\"UsuarioRegistrado\",\"clave\":\"7\",\"creadoEn\":\"2027-01-01T00:00:00Z\","
+                        + "\"contenido\":{\"idUsuario\": 7}}",
+                "{\"idEvento\":2,\"tipo\":\"UsuarioRegistrado\",\"clave\":\"8\",\"creadoEn\":\"2027-01-01T00:00:00Z\","
+                        + "\"contenido\":{\"idUsuario\": 8}}",
+                "{\"idEvento\":3,\"tipo\":\"UsuarioRegistrado\",\"clave\":\"9\\\"\",\"creadoEn\":\"2027-01-01T00:00:00Z\","
+                        + "\"contenido\":{}}"), Files.readAllLines(archivo));
+    }
+}
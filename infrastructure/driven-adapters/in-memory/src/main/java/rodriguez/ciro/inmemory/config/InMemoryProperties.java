@@ -0,0 +1,8 @@
+package rodriguez.ciro.inmemory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "adapters.in-memory")
+public record InMemoryProperties(
+        Integer initialCapacity) {
+}
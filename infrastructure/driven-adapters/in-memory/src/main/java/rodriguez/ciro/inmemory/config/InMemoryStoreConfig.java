@@ -0,0 +1,18 @@
+package rodriguez.ciro.inmemory.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import rodriguez.ciro.inmemory.store.UsuarioStore;
+
+@Configuration
+@Profile("in-memory")
+public class InMemoryStoreConfig {
+    public static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+
+    @Bean
+    public UsuarioStore usuarioStore(InMemoryProperties properties) {
+        Integer capacidad = properties.initialCapacity();
+        return new UsuarioStore(capacidad != null ? capacidad : DEFAULT_INITIAL_CAPACITY);
+    }
+}
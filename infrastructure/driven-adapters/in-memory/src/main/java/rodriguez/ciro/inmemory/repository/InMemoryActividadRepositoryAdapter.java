@@ -0,0 +1,32 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sin base de datos no hay nada que agrupar: cada registro reemplaza la hora anterior del usuario
+@Repository
+@Profile("in-memory")
+public class InMemoryActividadRepositoryAdapter implements ActividadRepository {
+
+    private final ConcurrentHashMap<Long, Instant> iniciosSesion = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Instant> actividades = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> registrarInicioSesion(Long idUsuario) {
+        return Mono.fromRunnable(() -> {
+            Instant ahora = Instant.now();
+            iniciosSesion.put(idUsuario, ahora);
+            actividades.put(idUsuario, ahora);
+        });
+    }
+
+    @Override
+    public Mono<Void> registrarActividad(Long idUsuario) {
+        return Mono.fromRunnable(() -> actividades.put(idUsuario, Instant.now()));
+    }
+}
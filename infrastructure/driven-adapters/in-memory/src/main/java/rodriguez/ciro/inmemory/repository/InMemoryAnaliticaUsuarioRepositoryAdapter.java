@@ -0,0 +1,60 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.inmemory.store.UsuarioStore;
+import rodriguez.ciro.model.analitica.Agrupacion;
+import rodriguez.ciro.model.analitica.ColumnasUsuarios;
+import rodriguez.ciro.model.analitica.FiltroUsuarios;
+import rodriguez.ciro.model.analitica.GrupoUsuarios;
+import rodriguez.ciro.model.analitica.gateways.AnaliticaUsuarioRepository;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sin base de datos que consultar en segundo plano, la copia columnar se pone al día con el store al comienzo de cada
+ * consulta: solo lee los usuarios posteriores al último agregado y los huecos pendientes, así que siempre está cargada.
+ * Los ids que consumió un registro rechazado por duplicado nunca llegan y se descartan tras unos intentos.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryAnaliticaUsuarioRepositoryAdapter implements AnaliticaUsuarioRepository {
+
+    private static final int PAGINA = 1_000;
+    private static final int INTENTOS_HUECO = 3;
+
+    private final UsuarioStore store;
+    private final ColumnasUsuarios columnas = new ColumnasUsuarios(INTENTOS_HUECO);
+
+    public InMemoryAnaliticaUsuarioRepositoryAdapter(UsuarioStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Mono<List<GrupoUsuarios>> agregar(FiltroUsuarios filtro, Agrupacion agrupacion) {
+        return Mono.fromSupplier(() -> {
+            ponerAlDia();
+            return columnas.agregar(filtro, agrupacion);
+        });
+    }
+
+    // Dos consultas simultáneas pueden leer las mismas páginas; ColumnasUsuarios ignora lo que ya tiene
+    private void ponerAlDia() {
+        List<Usuario> pagina;
+        do {
+            pagina = store.buscarDespuesDe(columnas.ultimoId(), PAGINA);
+            columnas.agregar(pagina);
+        } while (pagina.size() == PAGINA);
+        List<Usuario> recuperados = new ArrayList<>();
+        for (Long idUsuario : columnas.huecos()) {
+            recuperados.add(store.buscarPorId(idUsuario));
+        }
+        recuperados.removeIf(Objects::isNull);
+        columnas.agregar(recuperados);
+        columnas.terminarActualizacion();
+    }
+}
@@ -0,0 +1,25 @@
+package rodriguez.ciro.inmemory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.inmemory.store.UsuarioStore;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+import rodriguez.ciro.model.estadistica.gateways.EstadisticaRolRepository;
+
+import java.util.List;
+
+// Los agregados se actualizan en el mismo insertar del store, así que siempre están cargados
+@Repository
+@Profile("in-memory")
+@RequiredArgsConstructor
+public class InMemoryEstadisticaRolRepositoryAdapter implements EstadisticaRolRepository {
+
+    private final UsuarioStore store;
+
+    @Override
+    public Mono<List<EstadisticaRol>> porRol() {
+        return Mono.fromSupplier(store::estadisticasPorRol);
+    }
+}
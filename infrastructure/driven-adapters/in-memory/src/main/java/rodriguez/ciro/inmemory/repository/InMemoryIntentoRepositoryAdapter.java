@@ -0,0 +1,89 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.intento.Bloqueo;
+import rodriguez.ciro.model.intento.gateways.IntentoRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Versión simplificada para desarrollo: ventana fija, bloqueo de duración constante y mapa sin límite de claves
+@Repository
+@Profile("in-memory")
+public class InMemoryIntentoRepositoryAdapter implements IntentoRepository {
+
+    private final ConcurrentHashMap<String, Intentos> intentos = new ConcurrentHashMap<>();
+    private final Duration ventana;
+    private final int maximoFallosCuenta;
+    private final int maximoFallosOrigen;
+    private final Duration bloqueo;
+
+    public InMemoryIntentoRepositoryAdapter(@Value("${adapters.brute-force.window}") Duration ventana,
+                                            @Value("${adapters.brute-force.account-max-failures}") int maximoFallosCuenta,
+                                            @Value("${adapters.brute-force.origin-max-failures}") int maximoFallosOrigen,
+                                            @Value("${adapters.brute-force.lockout}") Duration bloqueo) {
+        this.ventana = ventana;
+        this.maximoFallosCuenta = maximoFallosCuenta;
+        this.maximoFallosOrigen = maximoFallosOrigen;
+        this.bloqueo = bloqueo;
+    }
+
+    @Override
+    public Mono<Bloqueo> bloqueo(String correoElectronico, String origen) {
+        return Mono.fromSupplier(() -> {
+            Instant ahora = Instant.now();
+            Instant hasta = bloqueadoHasta(cuenta(correoElectronico), ahora);
+            if (origen != null) {
+                Instant hastaOrigen = bloqueadoHasta(origen, ahora);
+                hasta = hasta == null || (hastaOrigen != null && hastaOrigen.isAfter(hasta)) ? hastaOrigen : hasta;
+            }
+            return hasta == null ? null : new Bloqueo(hasta);
+        });
+    }
+
+    @Override
+    public Mono<Void> registrarFallo(String correoElectronico, String origen) {
+        return Mono.fromRunnable(() -> {
+            Instant ahora = Instant.now();
+            fallar(cuenta(correoElectronico), maximoFallosCuenta, ahora);
+            if (origen != null) {
+                fallar(origen, maximoFallosOrigen, ahora);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> registrarExito(String correoElectronico) {
+        return Mono.fromRunnable(() -> intentos.remove(cuenta(correoElectronico)));
+    }
+
+    private Instant bloqueadoHasta(String clave, Instant ahora) {
+        Intentos actuales = intentos.get(clave);
+        return actuales != null && actuales.bloqueadoHasta() != null && actuales.bloqueadoHasta().isAfter(ahora)
+                ? actuales.bloqueadoHasta() : null;
+    }
+
+    private void fallar(String clave, int maximoFallos, Instant ahora) {
+        intentos.compute(clave, (k, actuales) -> {
+            if (actuales == null || !actuales.desde().plus(ventana).isAfter(ahora)) {
+                actuales = new Intentos(ahora, 0, null);
+            }
+            int fallos = actuales.fallos() + 1;
+            return fallos >= maximoFallos
+                    ? new Intentos(ahora, 0, ahora.plus(bloqueo))
+                    : new Intentos(actuales.desde(), fallos, actuales.bloqueadoHasta());
+        });
+    }
+
+    private static String cuenta(String correoElectronico) {
+        return correoElectronico.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Intentos(Instant desde, int fallos, Instant bloqueadoHasta) {
+    }
+}
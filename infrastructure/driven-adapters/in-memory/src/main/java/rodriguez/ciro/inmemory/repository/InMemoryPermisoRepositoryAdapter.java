@@ -0,0 +1,28 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.permiso.AsignacionPermiso;
+import rodriguez.ciro.model.permiso.MatrizPermisos;
+import rodriguez.ciro.model.permiso.gateways.PermisoRepository;
+
+import java.util.List;
+
+// El mismo catálogo fijo que siembra la migración 009 para los roles de InMemoryRolRepositoryAdapter
+@Repository
+@Profile("in-memory")
+public class InMemoryPermisoRepositoryAdapter implements PermisoRepository {
+
+    private static final Mono<MatrizPermisos> MATRIZ = Mono.just(MatrizPermisos.compilar(
+            List.of("USUARIOS_REGISTRAR", "USUARIOS_CONSULTAR", "TOKENS_REVOCAR"),
+            List.of(new AsignacionPermiso(1L, "USUARIOS_REGISTRAR"),
+                    new AsignacionPermiso(1L, "USUARIOS_CONSULTAR"),
+                    new AsignacionPermiso(1L, "TOKENS_REVOCAR"),
+                    new AsignacionPermiso(2L, "USUARIOS_CONSULTAR"))));
+
+    @Override
+    public Mono<MatrizPermisos> matriz() {
+        return MATRIZ;
+    }
+}
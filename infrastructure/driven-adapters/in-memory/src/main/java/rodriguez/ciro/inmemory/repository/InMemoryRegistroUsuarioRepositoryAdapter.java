@@ -0,0 +1,46 @@
+package rodriguez.ciro.inmemory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.inmemory.store.UsuarioStore;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.gateways.RegistroUsuarioRepository;
+
+import java.util.List;
+
+// Sin base de datos no hay otros nodos: solo se difunden los registros de este proceso
+@Repository
+@Profile("in-memory")
+@RequiredArgsConstructor
+public class InMemoryRegistroUsuarioRepositoryAdapter implements RegistroUsuarioRepository {
+
+    private static final int BUFFER_SUSCRIPTOR = 1024;
+    private static final int PAGINA = 500;
+
+    private final UsuarioStore store;
+
+    // Un suscriptor que llena su buffer se desconecta y reconecta con su último id
+    @Override
+    public Flux<Usuario> nuevos() {
+        return store.registros()
+                .onBackpressureBuffer(BUFFER_SUSCRIPTOR)
+                .onErrorResume(Exceptions::isOverflow, error -> Flux.empty());
+    }
+
+    @Override
+    public Flux<Usuario> registradosDespuesDe(Long idUsuario) {
+        return pagina(idUsuario)
+                .expand(pagina -> pagina.size() == PAGINA
+                        ? pagina(pagina.get(pagina.size() - 1).getIdUsuario())
+                        : Mono.empty())
+                .concatMapIterable(pagina -> pagina);
+    }
+
+    private Mono<List<Usuario>> pagina(long desde) {
+        return Mono.fromSupplier(() -> store.buscarDespuesDe(desde, PAGINA));
+    }
+}
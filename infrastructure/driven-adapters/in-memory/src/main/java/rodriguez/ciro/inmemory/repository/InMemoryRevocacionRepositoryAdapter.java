@@ -0,0 +1,34 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.token.gateways.RevocacionRepository;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sin base de datos no hay otros nodos a los que propagar; las entradas expiradas se descartan al revocar
+@Repository
+@Profile("in-memory")
+public class InMemoryRevocacionRepositoryAdapter implements RevocacionRepository {
+
+    private final ConcurrentHashMap<String, Instant> revocados = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> revocar(String idToken, Instant expiraEn) {
+        return Mono.fromRunnable(() -> {
+            Instant ahora = Instant.now();
+            revocados.values().removeIf(expiracion -> !expiracion.isAfter(ahora));
+            revocados.merge(idToken, expiraEn, (actual, nueva) -> nueva.isAfter(actual) ? nueva : actual);
+        });
+    }
+
+    @Override
+    public Mono<Boolean> estaRevocado(String idToken) {
+        return Mono.fromSupplier(() -> {
+            Instant expiraEn = revocados.get(idToken);
+            return expiraEn != null && expiraEn.isAfter(Instant.now());
+        });
+    }
+}
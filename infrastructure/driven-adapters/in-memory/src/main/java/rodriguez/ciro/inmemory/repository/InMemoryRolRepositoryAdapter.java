@@ -0,0 +1,28 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.rol.gateways.RolRepository;
+
+import java.util.Map;
+
+@Repository
+@Profile("in-memory")
+public class InMemoryRolRepositoryAdapter implements RolRepository {
+
+    private static final Map<Long, Rol> ROLES = Map.of(
+            1L, Rol.builder().idRol(1L).nombre("ADMIN").descripcion("Administrador del sistema").build(),
+            2L, Rol.builder().idRol(2L).nombre("USER").descripcion("Usuario estándar").build());
+
+    @Override
+    public Mono<Boolean> existePorId(Long idRol) {
+        return Mono.just(idRol != null && ROLES.containsKey(idRol));
+    }
+
+    static String nombre(Long idRol) {
+        Rol rol = idRol != null ? ROLES.get(idRol) : null;
+        return rol != null ? rol.getNombre() : null;
+    }
+}
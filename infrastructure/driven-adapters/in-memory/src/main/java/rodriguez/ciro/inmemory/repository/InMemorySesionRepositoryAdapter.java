@@ -0,0 +1,62 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.sesion.Sesion;
+import rodriguez.ciro.model.sesion.gateways.SesionRepository;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Con un ttl fijo el orden de apertura es el de expiración, así que basta una cola para descartar las expiradas
+@Repository
+@Profile("in-memory")
+public class InMemorySesionRepositoryAdapter implements SesionRepository {
+
+    private static final int BYTES_TOKEN = 32;
+
+    private final ConcurrentHashMap<String, Sesion> sesiones = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Sesion> porExpiracion = new ConcurrentLinkedQueue<>();
+    private final Duration ttl;
+    private final SecureRandom aleatorio;
+
+    public InMemorySesionRepositoryAdapter(@Value("${adapters.sessions.ttl}") Duration ttl)
+            throws NoSuchAlgorithmException {
+        this.ttl = ttl;
+        this.aleatorio = SecureRandom.getInstance("DRBG");
+        this.aleatorio.nextBytes(new byte[BYTES_TOKEN]);
+    }
+
+    @Override
+    public Mono<Sesion> abrir(Long idUsuario) {
+        return Mono.fromSupplier(() -> {
+            Instant ahora = Instant.now();
+            for (Sesion primera = porExpiracion.peek(); primera != null && !primera.expiraEn().isAfter(ahora);
+                 primera = porExpiracion.peek()) {
+                if (porExpiracion.remove(primera)) {
+                    sesiones.remove(primera.tokenRefresco(), primera);
+                }
+            }
+            byte[] bytes = new byte[BYTES_TOKEN];
+            aleatorio.nextBytes(bytes);
+            Sesion sesion = new Sesion(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), idUsuario,
+                    ahora.plus(ttl));
+            sesiones.put(sesion.tokenRefresco(), sesion);
+            porExpiracion.add(sesion);
+            return sesion;
+        });
+    }
+
+    @Override
+    public Mono<Sesion> consumir(String tokenRefresco) {
+        return Mono.fromSupplier(() -> tokenRefresco == null ? null : sesiones.remove(tokenRefresco))
+                .filter(sesion -> sesion.expiraEn().isAfter(Instant.now()));
+    }
+}
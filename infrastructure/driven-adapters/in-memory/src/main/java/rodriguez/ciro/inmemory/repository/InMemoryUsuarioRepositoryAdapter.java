@@ -0,0 +1,88 @@
+package rodriguez.ciro.inmemory.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.inmemory.store.UsuarioStore;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.usuario.RolUsuario;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
+import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+
+import java.util.Collection;
+import java.util.Objects;
+
+@Slf4j
+@Repository
+@Profile("in-memory")
+@RequiredArgsConstructor
+public class InMemoryUsuarioRepositoryAdapter implements UsuarioRepository {
+
+    private final UsuarioStore store;
+
+    @Override
+    public Mono<Usuario> guardar(Usuario usuario) {
+        return Mono.fromCallable(() -> store.insertar(usuario))
+                .doOnSuccess(u -> log.debug("Usuario guardado en memoria con ID: {}", u.getIdUsuario()));
+    }
+
+    @Override
+    public Mono<Boolean> existePorCorreoElectronico(String correoElectronico) {
+        return Mono.fromSupplier(() -> store.existeCorreo(correoElectronico));
+    }
+
+    @Override
+    public Mono<Boolean> existePorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
+        return Mono.fromSupplier(() -> store.existeDocumento(tipoDocumento, numeroDocumento));
+    }
+
+    @Override
+    public Mono<Usuario> buscarPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
+        return Mono.fromSupplier(() -> store.buscarPorDocumento(tipoDocumento, numeroDocumento));
+    }
+
+    @Override
+    public Mono<Usuario> buscarPorCorreoElectronico(String correoElectronico) {
+        return Mono.fromSupplier(() -> store.buscarPorCorreo(correoElectronico));
+    }
+
+    @Override
+    public Mono<VersionUsuario> buscarVersionPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
+        return Mono.fromSupplier(() -> store.buscarVersionPorDocumento(tipoDocumento, numeroDocumento));
+    }
+
+    @Override
+    public Mono<VersionUsuario> buscarVersionPorCorreoElectronico(String correoElectronico) {
+        return Mono.fromSupplier(() -> store.buscarVersionPorCorreo(correoElectronico));
+    }
+
+    @Override
+    public Mono<CredencialUsuario> buscarCredencialPorCorreoElectronico(String correoElectronico) {
+        // El almacén solo guarda el id del rol; el nombre sale del catálogo fijo de roles
+        return Mono.fromSupplier(() -> store.buscarCredencialPorCorreo(correoElectronico))
+                .map(InMemoryUsuarioRepositoryAdapter::conNombreRol);
+    }
+
+    @Override
+    public Mono<CredencialUsuario> buscarCredencialPorIdUsuario(Long idUsuario) {
+        return Mono.fromSupplier(() -> idUsuario == null ? null : store.buscarCredencialPorId(idUsuario))
+                .map(InMemoryUsuarioRepositoryAdapter::conNombreRol);
+    }
+
+    @Override
+    public Flux<RolUsuario> buscarRolesPorIdUsuario(Collection<Long> idsUsuario) {
+        return Flux.fromIterable(idsUsuario)
+                .filter(Objects::nonNull)
+                .mapNotNull(idUsuario -> store.buscarCredencialPorId(idUsuario))
+                .map(credencial -> new RolUsuario(credencial.idUsuario(), credencial.idRol()));
+    }
+
+    private static CredencialUsuario conNombreRol(CredencialUsuario credencial) {
+        return new CredencialUsuario(credencial.idUsuario(), credencial.correoElectronico(),
+                credencial.hashContrasena(), credencial.idRol(), InMemoryRolRepositoryAdapter.nombre(credencial.idRol()));
+    }
+}
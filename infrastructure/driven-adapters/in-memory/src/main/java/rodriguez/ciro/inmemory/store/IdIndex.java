@@ -0,0 +1,49 @@
+package rodriguez.ciro.inmemory.store;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public final class IdIndex<T> {
+
+    private static final int BITS_PAGINA = 16;
+    private static final int TAMANO_PAGINA = 1 << BITS_PAGINA;
+    private static final int MASCARA_PAGINA = TAMANO_PAGINA - 1;
+    private static final int MAXIMO_PAGINAS = 1 << 15;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> paginas = new AtomicReferenceArray<>(MAXIMO_PAGINAS);
+
+    public T get(long id) {
+        if (!esValido(id)) {
+            return null;
+        }
+        AtomicReferenceArray<T> pagina = paginas.get(indicePagina(id));
+        return pagina == null ? null : pagina.get(desplazamiento(id));
+    }
+
+    public void put(long id, T valor) {
+        if (!esValido(id)) {
+            throw new IllegalStateException("Identificador fuera de la capacidad del índice en memoria: " + id);
+        }
+        pagina(indicePagina(id)).set(desplazamiento(id), valor);
+    }
+
+    private AtomicReferenceArray<T> pagina(int indice) {
+        AtomicReferenceArray<T> pagina = paginas.get(indice);
+        if (pagina == null) {
+            paginas.compareAndSet(indice, null, new AtomicReferenceArray<>(TAMANO_PAGINA));
+            pagina = paginas.get(indice);
+        }
+        return pagina;
+    }
+
+    private static boolean esValido(long id) {
+        return id > 0 && (id >>> BITS_PAGINA) < MAXIMO_PAGINAS;
+    }
+
+    private static int indicePagina(long id) {
+        return (int) (id >>> BITS_PAGINA);
+    }
+
+    private static int desplazamiento(long id) {
+        return (int) (id & MASCARA_PAGINA);
+    }
+}
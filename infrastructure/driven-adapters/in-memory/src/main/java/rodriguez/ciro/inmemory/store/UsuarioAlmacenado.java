@@ -0,0 +1,73 @@
+package rodriguez.ciro.inmemory.store;
+
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+record UsuarioAlmacenado(
+        long idUsuario,
+        String nombres,
+        String apellidos,
+        String tipoDocumento,
+        String numeroDocumento,
+        long fechaNacimiento,
+        String direccion,
+        String telefono,
+        String correoElectronico,
+        long salarioCentavos,
+        long idRol,
+        String hashContrasena) {
+
+    private static final long SIN_FECHA = Long.MIN_VALUE;
+    private static final long SIN_ROL = 0;
+    private static final int ESCALA_SALARIO = 2;
+    // Los registros en memoria no se modifican después de insertarse
+    static final long VERSION = 0;
+
+    static UsuarioAlmacenado desde(Usuario usuario, long idUsuario) {
+        return new UsuarioAlmacenado(
+                idUsuario,
+                usuario.getNombres(),
+                usuario.getApellidos(),
+                usuario.getTipoDocumento(),
+                usuario.getNumeroDocumento(),
+                usuario.getFechaNacimiento() != null ? usuario.getFechaNacimiento().toEpochDay() : SIN_FECHA,
+                usuario.getDireccion(),
+                usuario.getTelefono(),
+                usuario.getCorreoElectronico(),
+                usuario.getSalarioBase().setScale(ESCALA_SALARIO, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+                usuario.getRol() != null && usuario.getRol().getIdRol() != null ? usuario.getRol().getIdRol() : SIN_ROL,
+                usuario.getHashContrasena());
+    }
+
+    VersionUsuario aVersion() {
+        return new VersionUsuario(idUsuario, VERSION);
+    }
+
+    CredencialUsuario aCredencial() {
+        return new CredencialUsuario(idUsuario, correoElectronico, hashContrasena, idRol != SIN_ROL ? idRol : null, null);
+    }
+
+    Usuario aUsuario() {
+        return Usuario.builder()
+                .idUsuario(idUsuario)
+                .nombres(nombres)
+                .apellidos(apellidos)
+                .tipoDocumento(tipoDocumento)
+                .numeroDocumento(numeroDocumento)
+                .fechaNacimiento(fechaNacimiento != SIN_FECHA ? LocalDate.ofEpochDay(fechaNacimiento) : null)
+                .direccion(direccion)
+                .telefono(telefono)
+                .correoElectronico(correoElectronico)
+                .salarioBase(BigDecimal.valueOf(salarioCentavos, ESCALA_SALARIO))
+                .rol(idRol != SIN_ROL ? Rol.builder().idRol(idRol).build() : null)
+                .version(VERSION)
+                .hashContrasena(hashContrasena)
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package rodriguez.ciro.inmemory.store;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
+import rodriguez.ciro.model.usuario.exception.UsuarioDuplicadoException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class UsuarioStore {
+
+    private static final char SEPARADOR_DOCUMENTO = '\u0000';
+    private static final Sinks.EmitFailureHandler REINTENTAR_CONCURRENTES =
+            Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+    // Ocupa el correo y el documento mientras se inserta; las consultas lo tratan como ausente
+    private static final UsuarioAlmacenado RESERVADO = new UsuarioAlmacenado(0, null, null, null, null, 0, null, null,
+            null, 0, 0, null);
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private final IdIndex<UsuarioAlmacenado> porId = new IdIndex<>();
+    private final ConcurrentHashMap<String, UsuarioAlmacenado> porCorreo;
+    private final ConcurrentHashMap<String, UsuarioAlmacenado> porDocumento;
+    private final Sinks.Many<Usuario> registros = Sinks.many().multicast().directBestEffort();
+    private final ConcurrentHashMap<Long, EstadisticaRol> estadisticas = new ConcurrentHashMap<>();
+
+    public UsuarioStore(int capacidadInicial) {
+        this.porCorreo = new ConcurrentHashMap<>(capacidadInicial);
+        this.porDocumento = new ConcurrentHashMap<>(capacidadInicial);
+    }
+
+    public Usuario insertar(Usuario usuario) {
+        UsuarioAlmacenado almacenado = UsuarioAlmacenado.desde(usuario, secuencia.incrementAndGet());
+        String correo = normalizarCorreo(usuario.getCorreoElectronico());
+        String documento = claveDocumento(usuario.getTipoDocumento(), usuario.getNumeroDocumento());
+
+        // Ambas claves se reservan antes de publicar el usuario, así que nunca se ve uno que luego no se registra
+        if (porCorreo.putIfAbsent(correo, RESERVADO) != null) {
+            throw new UsuarioDuplicadoException(UsuarioDuplicadoException.Campo.CORREO_ELECTRONICO,
+                    "Ya existe un usuario registrado con este correo electrónico");
+        }
+        if (porDocumento.putIfAbsent(documento, RESERVADO) != null) {
+            porCorreo.remove(correo, RESERVADO);
+            throw new UsuarioDuplicadoException(UsuarioDuplicadoException.Campo.DOCUMENTO,
+                    "Ya existe un usuario registrado con este tipo y número de documento");
+        }
+        porId.put(almacenado.idUsuario(), almacenado);
+        porDocumento.put(documento, almacenado);
+        porCorreo.put(correo, almacenado);
+        Usuario registrado = almacenado.aUsuario();
+        if (registrado.getRol() != null && registrado.getSalarioBase() != null) {
+            Long idRol = registrado.getRol().getIdRol();
+            estadisticas.merge(idRol, EstadisticaRol.de(idRol, registrado.getSalarioBase()), EstadisticaRol::combinar);
+        }
+        // Sin suscriptores no se paga la emisión, que se serializa entre los hilos que insertan
+        if (registros.currentSubscriberCount() > 0) {
+            registros.emitNext(registrado, REINTENTAR_CONCURRENTES);
+        }
+        return registrado;
+    }
+
+    public Flux<Usuario> registros() {
+        return registros.asFlux();
+    }
+
+    // Cada rol se actualiza atómicamente al insertar, así que recorrerlos no depende de la cantidad de usuarios
+    public List<EstadisticaRol> estadisticasPorRol() {
+        return estadisticas.values().stream()
+                .sorted(Comparator.comparing(EstadisticaRol::idRol))
+                .toList();
+    }
+
+    // Hasta limite usuarios con id mayor al dado, en orden de id
+    public List<Usuario> buscarDespuesDe(long idUsuario, int limite) {
+        List<Usuario> usuarios = new ArrayList<>(limite);
+        long ultimo = secuencia.get();
+        for (long id = Math.max(idUsuario, 0) + 1; id <= ultimo && usuarios.size() < limite; id++) {
+            UsuarioAlmacenado almacenado = porId.get(id);
+            if (almacenado != null) {
+                usuarios.add(almacenado.aUsuario());
+            }
+        }
+        return usuarios;
+    }
+
+    public Usuario buscarPorId(long idUsuario) {
+        return convertir(porId.get(idUsuario));
+    }
+
+    public Usuario buscarPorCorreo(String correoElectronico) {
+        return convertir(almacenadoPorCorreo(correoElectronico));
+    }
+
+    public Usuario buscarPorDocumento(String tipoDocumento, String numeroDocumento) {
+        if (tipoDocumento == null || numeroDocumento == null) {
+            return null;
+        }
+        return convertir(almacenadoPorDocumento(tipoDocumento, numeroDocumento));
+    }
+
+    public VersionUsuario buscarVersionPorCorreo(String correoElectronico) {
+        UsuarioAlmacenado almacenado = almacenadoPorCorreo(correoElectronico);
+        return almacenado != null ? almacenado.aVersion() : null;
+    }
+
+    public VersionUsuario buscarVersionPorDocumento(String tipoDocumento, String numeroDocumento) {
+        if (tipoDocumento == null || numeroDocumento == null) {
+            return null;
+        }
+        UsuarioAlmacenado almacenado = almacenadoPorDocumento(tipoDocumento, numeroDocumento);
+        return almacenado != null ? almacenado.aVersion() : null;
+    }
+
+    public CredencialUsuario buscarCredencialPorCorreo(String correoElectronico) {
+        UsuarioAlmacenado almacenado = almacenadoPorCorreo(correoElectronico);
+        return almacenado != null ? almacenado.aCredencial() : null;
+    }
+
+    public CredencialUsuario buscarCredencialPorId(long idUsuario) {
+        UsuarioAlmacenado almacenado = porId.get(idUsuario);
+        return almacenado != null ? almacenado.aCredencial() : null;
+    }
+
+    public boolean existeCorreo(String correoElectronico) {
+        return almacenadoPorCorreo(correoElectronico) != null;
+    }
+
+    public boolean existeDocumento(String tipoDocumento, String numeroDocumento) {
+        return tipoDocumento != null && numeroDocumento != null
+                && almacenadoPorDocumento(tipoDocumento, numeroDocumento) != null;
+    }
+
+    public long tamano() {
+        return porCorreo.mappingCount();
+    }
+
+    static String normalizarCorreo(String correoElectronico) {
+        return correoElectronico.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String claveDocumento(String tipoDocumento, String numeroDocumento) {
+        return tipoDocumento + SEPARADOR_DOCUMENTO + numeroDocumento;
+    }
+
+    private UsuarioAlmacenado almacenadoPorCorreo(String correoElectronico) {
+        return correoElectronico == null ? null : visible(porCorreo.get(normalizarCorreo(correoElectronico)));
+    }
+
+    private UsuarioAlmacenado almacenadoPorDocumento(String tipoDocumento, String numeroDocumento) {
+        return visible(porDocumento.get(claveDocumento(tipoDocumento, numeroDocumento)));
+    }
+
+    private static UsuarioAlmacenado visible(UsuarioAlmacenado almacenado) {
+        return almacenado == RESERVADO ? null : almacenado;
+    }
+
+    private static Usuario convertir(UsuarioAlmacenado almacenado) {
+        return almacenado != null ? almacenado.aUsuario() : null;
+    }
+}
@@ -0,0 +1,102 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.inmemory.store.UsuarioStore;
+import rodriguez.ciro.model.analitica.Agrupacion;
+import rodriguez.ciro.model.analitica.FiltroUsuarios;
+import rodriguez.ciro.model.analitica.GrupoUsuarios;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.exception.UsuarioDuplicadoException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryAnaliticaUsuarioRepositoryAdapterTest {
+
+    private UsuarioStore store;
+    private InMemoryAnaliticaUsuarioRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        store = new UsuarioStore(16);
+        adapter = new InMemoryAnaliticaUsuarioRepositoryAdapter(store);
+        store.insertar(usuario("juan.perez@email.com", "CC", "1", 2L, "3000000", LocalDate.of(1990, 5, 15)));
+        store.insertar(usuario("ana.gomez@email.com", "CC", "2", 2L, "1500000", LocalDate.of(1985, 1, 20)));
+        store.insertar(usuario("admin@email.com", "CE", "3", 1L, "8000000", LocalDate.of(1990, 11, 2)));
+        store.insertar(usuario("sin.fecha@email.com", "TI", "4", 3L, "900000", null));
+    }
+
+    @Test
+    void deberiaAgruparPorRolEnOrdenDeId() {
+        StepVerifier.create(adapter.agregar(FiltroUsuarios.TODOS, Agrupacion.ROL))
+                .expectNext(List.of(
+                        grupo("1", 1, "8000000.00", "8000000.00", "8000000.00"),
+                        grupo("2", 2, "4500000.00", "1500000.00", "3000000.00"),
+                        grupo("3", 1, "900000.00", "900000.00", "900000.00")))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaFiltrarPorSalarioYFechaDescartandoLosQueNoTienenFecha() {
+        FiltroUsuarios filtro = new FiltroUsuarios(null, null, new BigDecimal("1000000"), null,
+                LocalDate.of(1980, 1, 1), null);
+
+        StepVerifier.create(adapter.agregar(filtro, Agrupacion.ANIO_NACIMIENTO))
+                .expectNext(List.of(
+                        grupo("1985", 1, "1500000.00", "1500000.00", "1500000.00"),
+                        grupo("1990", 2, "11000000.00", "3000000.00", "8000000.00")))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaResponderVacioConUnRolQueNingunUsuarioTiene() {
+        StepVerifier.create(adapter.agregar(new FiltroUsuarios(99L, null, null, null, null, null),
+                        Agrupacion.NINGUNA))
+                .expectNext(List.of())
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaIncluirLosRegistrosPosterioresALaConsultaAnterior() {
+        adapter.agregar(FiltroUsuarios.TODOS, Agrupacion.NINGUNA).block();
+        // El duplicado consume un id que nunca se almacena y queda como hueco
+        store.insertar(usuario("otro@email.com", "CC", "5", 2L, "2000000", LocalDate.of(2000, 2, 29)));
+        try {
+            store.insertar(usuario("otro@email.com", "CC", "6", 2L, "2000000", null));
+        } catch (UsuarioDuplicadoException duplicado) {
+            // esperado
+        }
+        store.insertar(usuario("ultimo@email.com", "CC", "7", 2L, "2500000", null));
+
+        StepVerifier.create(adapter.agregar(new FiltroUsuarios(null, "CC", null, null, null, null),
+                        Agrupacion.TIPO_DOCUMENTO))
+                .expectNext(List.of(grupo("CC", 4, "9000000.00", "1500000.00", "3000000.00")))
+                .verifyComplete();
+    }
+
+    private static GrupoUsuarios grupo(String clave, long total, String suma, String minimo, String maximo) {
+        return new GrupoUsuarios(clave, total, new BigDecimal(suma), new BigDecimal(minimo), new BigDecimal(maximo));
+    }
+
+    private static Usuario usuario(String correo, String tipoDocumento, String numeroDocumento, Long idRol,
+                                   String salario, LocalDate fechaNacimiento) {
+        return Usuario.builder()
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .tipoDocumento(tipoDocumento)
+                .numeroDocumento(numeroDocumento)
+                .fechaNacimiento(fechaNacimiento)
+                .direccion("Calle 123 #45-67")
+                .telefono("3001234567")
+                .correoElectronico(correo)
+                .salarioBase(new BigDecimal(salario))
+                .rol(Rol.builder().idRol(idRol).build())
+                .build();
+    }
+}
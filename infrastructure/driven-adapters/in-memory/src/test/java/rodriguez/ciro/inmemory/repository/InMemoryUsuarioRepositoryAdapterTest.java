@@ -0,0 +1,196 @@
+package rodriguez.ciro.inmemory.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.inmemory.store.UsuarioStore;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
+import rodriguez.ciro.model.usuario.exception.UsuarioDuplicadoException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InMemoryUsuarioRepositoryAdapterTest {
+
+    private UsuarioStore store;
+    private InMemoryUsuarioRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        store = new UsuarioStore(16);
+        adapter = new InMemoryUsuarioRepositoryAdapter(store);
+    }
+
+    @Test
+    void deberiaGuardarUsuarioYAsignarId() {
+        StepVerifier.create(adapter.guardar(usuario("juan.perez@email.com", "CC", "12345678")))
+                .assertNext(guardado -> {
+                    assertEquals(1L, guardado.getIdUsuario());
+                    assertEquals("Juan Carlos", guardado.getNombres());
+                    assertEquals(LocalDate.of(1990, 5, 15), guardado.getFechaNacimiento());
+                    assertEquals(new BigDecimal("3000000.00"), guardado.getSalarioBase());
+                    assertEquals(2L, guardado.getRol().getIdRol());
+                })
+                .verifyComplete();
+
+        assertEquals("juan.perez@email.com", store.buscarPorId(1L).getCorreoElectronico());
+    }
+
+    @Test
+    void deberiaBuscarPorCorreoNormalizado() {
+        adapter.guardar(usuario("Juan.Perez@Email.com", "CC", "12345678")).block();
+
+        StepVerifier.create(adapter.buscarPorCorreoElectronico(" juan.perez@email.COM "))
+                .assertNext(encontrado -> assertEquals("12345678", encontrado.getNumeroDocumento()))
+                .verifyComplete();
+        StepVerifier.create(adapter.existePorCorreoElectronico("JUAN.PEREZ@EMAIL.COM"))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaBuscarPorTipoYNumeroDocumento() {
+        adapter.guardar(usuario("juan.perez@email.com", "CC", "12345678")).block();
+
+        StepVerifier.create(adapter.buscarPorTipoYNumeroDocumento("CC", "12345678"))
+                .assertNext(encontrado -> assertEquals("juan.perez@email.com", encontrado.getCorreoElectronico()))
+                .verifyComplete();
+        StepVerifier.create(adapter.existePorTipoYNumeroDocumento("CE", "12345678"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaBuscarVersionPorDocumentoYCorreo() {
+        adapter.guardar(usuario("juan.perez@email.com", "CC", "12345678")).block();
+
+        StepVerifier.create(adapter.buscarVersionPorTipoYNumeroDocumento("CC", "12345678"))
+                .expectNext(new VersionUsuario(1L, 0L))
+                .verifyComplete();
+        StepVerifier.create(adapter.buscarVersionPorCorreoElectronico("JUAN.PEREZ@email.com"))
+                .expectNext(new VersionUsuario(1L, 0L))
+                .verifyComplete();
+        StepVerifier.create(adapter.buscarVersionPorCorreoElectronico("no.existe@email.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaBuscarCredencialConElNombreDelRol() {
+        adapter.guardar(usuario("juan.perez@email.com", "CC", "12345678").toBuilder()
+                .hashContrasena("$2a$10$hash").build()).block();
+
+        StepVerifier.create(adapter.buscarCredencialPorCorreoElectronico("juan.perez@email.com"))
+                .expectNext(new CredencialUsuario(1L, "juan.perez@email.com", "$2a$10$hash", 2L, "USER"))
+                .verifyComplete();
+        StepVerifier.create(adapter.buscarCredencialPorIdUsuario(1L))
+                .expectNext(new CredencialUsuario(1L, "juan.perez@email.com", "$2a$10$hash", 2L, "USER"))
+                .verifyComplete();
+        StepVerifier.create(adapter.buscarCredencialPorIdUsuario(99L))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRetornarVacioCuandoUsuarioNoExiste() {
+        StepVerifier.create(adapter.buscarPorCorreoElectronico("no.existe@email.com"))
+                .verifyComplete();
+        StepVerifier.create(adapter.buscarPorTipoYNumeroDocumento("CC", "00000000"))
+                .verifyComplete();
+        StepVerifier.create(adapter.existePorCorreoElectronico(null))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRechazarDocumentoDuplicadoSinDejarCorreoIndexado() {
+        adapter.guardar(usuario("juan.perez@email.com", "CC", "12345678")).block();
+
+        StepVerifier.create(adapter.guardar(usuario("otro@email.com", "CC", "12345678")))
+                .expectErrorMatches(error -> error instanceof UsuarioDuplicadoException &&
+                        error.getMessage().equals("Ya existe un usuario registrado con este tipo y número de documento"))
+                .verify();
+
+        StepVerifier.create(adapter.existePorCorreoElectronico("otro@email.com"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaAcumularEstadisticasPorRolSoloConLosRegistrosExitosos() {
+        adapter.guardar(usuario("juan.perez@email.com", "CC", "12345678")).block();
+        adapter.guardar(usuario("ana.gomez@email.com", "CC", "87654321").toBuilder()
+                .salarioBase(new BigDecimal("1500000")).build()).block();
+        adapter.guardar(usuario("admin@email.com", "CE", "555").toBuilder()
+                .rol(Rol.builder().idRol(1L).build()).build()).block();
+        adapter.guardar(usuario("juan.perez@email.com", "CC", "999")).onErrorComplete().block();
+
+        List<EstadisticaRol> estadisticas = store.estadisticasPorRol();
+
+        assertEquals(List.of(
+                new EstadisticaRol(1L, 1, new BigDecimal("3000000.00"), new BigDecimal("3000000.00"),
+                        new BigDecimal("3000000.00")),
+                new EstadisticaRol(2L, 2, new BigDecimal("4500000.00"), new BigDecimal("1500000.00"),
+                        new BigDecimal("3000000.00"))),
+                estadisticas);
+        assertEquals(new BigDecimal("2250000.00"), estadisticas.get(1).salarioPromedio());
+    }
+
+    @Test
+    void deberiaGarantizarUnicidadConRegistrosConcurrentes() throws Exception {
+        int hilos = 8;
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(hilos)) {
+            for (int i = 0; i < hilos; i++) {
+                String numeroDocumento = String.valueOf(1000 + i);
+                resultados.add(executor.submit(() -> {
+                    inicio.await();
+                    try {
+                        store.insertar(usuario("mismo@email.com", "CC", numeroDocumento));
+                        return true;
+                    } catch (UsuarioDuplicadoException e) {
+                        return false;
+                    }
+                }));
+            }
+            inicio.countDown();
+
+            int exitosos = 0;
+            for (Future<Boolean> resultado : resultados) {
+                exitosos += resultado.get() ? 1 : 0;
+            }
+            assertEquals(1, exitosos);
+        }
+
+        assertEquals(1, store.tamano());
+        assertNull(store.buscarPorId(hilos + 1L));
+    }
+
+    private static Usuario usuario(String correo, String tipoDocumento, String numeroDocumento) {
+        return Usuario.builder()
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .tipoDocumento(tipoDocumento)
+                .numeroDocumento(numeroDocumento)
+                .fechaNacimiento(LocalDate.of(1990, 5, 15))
+                .direccion("Calle 123 #45-67")
+                .telefono("3001234567")
+                .correoElectronico(correo)
+                .salarioBase(new BigDecimal("3000000"))
+                .rol(Rol.builder().idRol(2L).build())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package rodriguez.ciro.jdbc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "adapters.jdbc")
+public record JdbcConnectionProperties(
+        String url,
+        String username,
+        String password,
+        Integer maxPoolSize) {
+}
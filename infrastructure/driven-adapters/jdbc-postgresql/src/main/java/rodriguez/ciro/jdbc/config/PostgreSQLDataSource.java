@@ -0,0 +1,25 @@
+package rodriguez.ciro.jdbc.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// DataSourceAutoConfiguration se desactiva cuando existe un ConnectionFactory de R2DBC, por eso el pool se declara aquí
+@Configuration
+@Profile("imperative")
+public class PostgreSQLDataSource {
+    public static final int DEFAULT_MAX_POOL_SIZE = 15;
+
+    @Bean
+    public HikariDataSource getDataSource(JdbcConnectionProperties properties) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("api-postgres-jdbc-pool");
+        config.setJdbcUrl(properties.url());
+        config.setUsername(properties.username());
+        config.setPassword(properties.password());
+        config.setMaximumPoolSize(properties.maxPoolSize() != null ? properties.maxPoolSize() : DEFAULT_MAX_POOL_SIZE);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,28 @@
+package rodriguez.ciro.jdbc.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.rol.gateways.RolRepository;
+
+@Repository
+@Profile("imperative")
+@RequiredArgsConstructor
+public class JdbcRolRepositoryAdapter implements RolRepository {
+
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public Mono<Boolean> existePorId(Long idRol) {
+        if (idRol == null) {
+            return Mono.just(false);
+        }
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT EXISTS (SELECT 1 FROM roles WHERE id_rol = ?)")
+                .param(idRol)
+                .query(Boolean.class)
+                .single());
+    }
+}
@@ -0,0 +1,187 @@
+package rodriguez.ciro.jdbc.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.evento.Evento;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.RolUsuario;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
+import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+
+// Las consultas corren en el hilo que se suscribe, sin cambiar de scheduler: el hilo virtual de la solicitud o, al guardar
+// después del hash de la contraseña, el hilo de boundedElastic en el que el hasher publica el resultado
+@Slf4j
+@Repository
+@Profile("imperative")
+@RequiredArgsConstructor
+public class JdbcUsuarioRepositoryAdapter implements UsuarioRepository {
+
+    private static final String COLUMNAS = "id_usuario, nombres, apellidos, tipo_documento, numero_documento, " +
+            "fecha_nacimiento, direccion, telefono, correo_electronico, salario_base, id_rol, version";
+
+    // Igual que en el adaptador R2DBC: el id se resuelve en la tabla de búsqueda y poda las particiones de usuarios
+    private static final String ID_POR_CORREO = "(SELECT id_usuario FROM usuarios_correos WHERE correo_electronico = ?)";
+    private static final String ID_POR_DOCUMENTO = "(SELECT id_usuario FROM usuarios_documentos " +
+            "WHERE tipo_documento = ? AND numero_documento = ?)";
+
+    // El usuario y su evento UsuarioRegistrado se insertan en la misma sentencia, así que ambos se confirman juntos
+    private static final String INSERTAR = "WITH nuevo AS (INSERT INTO usuarios (nombres, apellidos, tipo_documento, " +
+            "numero_documento, fecha_nacimiento, direccion, telefono, correo_electronico, salario_base, id_rol, " +
+            "hash_contrasena) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "RETURNING id_usuario, correo_electronico, id_rol), " +
+            "evento AS (INSERT INTO outbox (tipo, clave, contenido) SELECT ?, id_usuario::text, " +
+            "jsonb_build_object('idUsuario', id_usuario, 'correoElectronico', correo_electronico, 'idRol', id_rol, " +
+            "'registradoEn', now()) FROM nuevo) " +
+            "SELECT id_usuario FROM nuevo";
+
+    private static final RowMapper<Usuario> USUARIO_MAPPER = (rs, rowNum) -> {
+        Date fechaNacimiento = rs.getDate("fecha_nacimiento");
+        Long idRol = rs.getObject("id_rol", Long.class);
+        return Usuario.builder()
+                .idUsuario(rs.getLong("id_usuario"))
+                .nombres(rs.getString("nombres"))
+                .apellidos(rs.getString("apellidos"))
+                .tipoDocumento(rs.getString("tipo_documento"))
+                .numeroDocumento(rs.getString("numero_documento"))
+                .fechaNacimiento(fechaNacimiento != null ? fechaNacimiento.toLocalDate() : null)
+                .direccion(rs.getString("direccion"))
+                .telefono(rs.getString("telefono"))
+                .correoElectronico(rs.getString("correo_electronico"))
+                .salarioBase(rs.getBigDecimal("salario_base"))
+                .rol(idRol != null ? Rol.builder().idRol(idRol).build() : null)
+                .version(rs.getLong("version"))
+                .build();
+    };
+
+    private static final RowMapper<VersionUsuario> VERSION_MAPPER = (rs, rowNum) ->
+            new VersionUsuario(rs.getLong("id_usuario"), rs.getLong("version"));
+
+    private static final RowMapper<CredencialUsuario> CREDENCIAL_MAPPER = (rs, rowNum) ->
+            new CredencialUsuario(rs.getLong("id_usuario"), rs.getString("correo_electronico"),
+                    rs.getString("hash_contrasena"), rs.getObject("id_rol", Long.class), rs.getString("nombre_rol"));
+
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public Mono<Usuario> guardar(Usuario usuario) {
+        log.debug("Guardando usuario en base de datos");
+        return Mono.fromCallable(() -> {
+            LocalDate fechaNacimiento = usuario.getFechaNacimiento();
+            Long idUsuario = jdbcClient.sql(INSERTAR)
+                    .params(usuario.getNombres(), usuario.getApellidos(), usuario.getTipoDocumento(),
+                            usuario.getNumeroDocumento(), fechaNacimiento != null ? Date.valueOf(fechaNacimiento) : null,
+                            usuario.getDireccion(), usuario.getTelefono(), usuario.getCorreoElectronico(),
+                            usuario.getSalarioBase(), usuario.getRol() != null ? usuario.getRol().getIdRol() : null,
+                            usuario.getHashContrasena(), Evento.USUARIO_REGISTRADO)
+                    .query(Long.class)
+                    .single();
+            log.debug("Usuario guardado exitosamente con ID: {}", idUsuario);
+            return usuario.toBuilder().idUsuario(idUsuario).version(0L).build();
+        });
+    }
+
+    @Override
+    public Mono<Boolean> existePorCorreoElectronico(String correoElectronico) {
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT EXISTS (SELECT 1 FROM usuarios_correos WHERE correo_electronico = ?)")
+                .param(correoElectronico)
+                .query(Boolean.class)
+                .single());
+    }
+
+    @Override
+    public Mono<Boolean> existePorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT EXISTS (SELECT 1 FROM usuarios_documentos " +
+                        "WHERE tipo_documento = ? AND numero_documento = ?)")
+                .params(tipoDocumento, numeroDocumento)
+                .query(Boolean.class)
+                .single());
+    }
+
+    @Override
+    public Mono<Usuario> buscarPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT " + COLUMNAS + " FROM usuarios WHERE id_usuario = " + ID_POR_DOCUMENTO)
+                .params(tipoDocumento, numeroDocumento)
+                .query(USUARIO_MAPPER)
+                .optional()
+                .orElse(null));
+    }
+
+    @Override
+    public Mono<Usuario> buscarPorCorreoElectronico(String correoElectronico) {
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT " + COLUMNAS + " FROM usuarios WHERE id_usuario = " + ID_POR_CORREO)
+                .param(correoElectronico)
+                .query(USUARIO_MAPPER)
+                .optional()
+                .orElse(null));
+    }
+
+    @Override
+    public Mono<VersionUsuario> buscarVersionPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT id_usuario, version FROM usuarios WHERE id_usuario = " + ID_POR_DOCUMENTO)
+                .params(tipoDocumento, numeroDocumento)
+                .query(VERSION_MAPPER)
+                .optional()
+                .orElse(null));
+    }
+
+    @Override
+    public Mono<VersionUsuario> buscarVersionPorCorreoElectronico(String correoElectronico) {
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT id_usuario, version FROM usuarios WHERE id_usuario = " + ID_POR_CORREO)
+                .param(correoElectronico)
+                .query(VERSION_MAPPER)
+                .optional()
+                .orElse(null));
+    }
+
+    @Override
+    public Mono<CredencialUsuario> buscarCredencialPorCorreoElectronico(String correoElectronico) {
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT u.id_usuario, u.correo_electronico, u.hash_contrasena, u.id_rol, r.nombre AS nombre_rol " +
+                        "FROM usuarios u LEFT JOIN roles r ON r.id_rol = u.id_rol WHERE u.id_usuario = " + ID_POR_CORREO)
+                .param(correoElectronico)
+                .query(CREDENCIAL_MAPPER)
+                .optional()
+                .orElse(null));
+    }
+
+    @Override
+    public Mono<CredencialUsuario> buscarCredencialPorIdUsuario(Long idUsuario) {
+        return Mono.fromCallable(() -> jdbcClient
+                .sql("SELECT u.id_usuario, u.correo_electronico, u.hash_contrasena, u.id_rol, r.nombre AS nombre_rol " +
+                        "FROM usuarios u LEFT JOIN roles r ON r.id_rol = u.id_rol WHERE u.id_usuario = ?")
+                .param(idUsuario)
+                .query(CREDENCIAL_MAPPER)
+                .optional()
+                .orElse(null));
+    }
+
+    @Override
+    public Flux<RolUsuario> buscarRolesPorIdUsuario(Collection<Long> idsUsuario) {
+        if (idsUsuario.isEmpty()) {
+            return Flux.empty();
+        }
+        return Flux.defer(() -> Flux.fromIterable(jdbcClient
+                .sql("SELECT id_usuario, id_rol FROM usuarios WHERE id_usuario IN (:idsUsuario)")
+                .param("idsUsuario", idsUsuario)
+                .query((rs, rowNum) -> new RolUsuario(rs.getLong("id_usuario"), rs.getObject("id_rol", Long.class)))
+                .list()));
+    }
+}
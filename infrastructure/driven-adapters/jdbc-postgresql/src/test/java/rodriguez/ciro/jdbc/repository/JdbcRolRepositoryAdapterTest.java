@@ -0,0 +1,39 @@
+package rodriguez.ciro.jdbc.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JdbcRolRepositoryAdapterTest {
+
+    private final JdbcClient jdbcClient = mock(JdbcClient.class, RETURNS_DEEP_STUBS);
+    private final JdbcRolRepositoryAdapter adapter = new JdbcRolRepositoryAdapter(jdbcClient);
+
+    @Test
+    void deberiaConsultarExistenciaDelRol() {
+        // Given
+        when(jdbcClient.sql("SELECT EXISTS (SELECT 1 FROM roles WHERE id_rol = ?)")
+                .param(2L)
+                .query(Boolean.class)
+                .single()).thenReturn(true);
+
+        // When & Then
+        StepVerifier.create(adapter.existePorId(2L))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRetornarFalseSinConsultarCuandoIdEsNulo() {
+        StepVerifier.create(adapter.existePorId(null))
+                .expectNext(false)
+                .verifyComplete();
+
+        verifyNoInteractions(jdbcClient);
+    }
+}
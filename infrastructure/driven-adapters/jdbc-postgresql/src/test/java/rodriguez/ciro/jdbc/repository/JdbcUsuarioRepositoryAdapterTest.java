@@ -0,0 +1,254 @@
+package rodriguez.ciro.jdbc.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.evento.Evento;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JdbcUsuarioRepositoryAdapterTest {
+
+    private static final String EXISTE_CORREO =
+            "SELECT EXISTS (SELECT 1 FROM usuarios_correos WHERE correo_electronico = ?)";
+    private static final String EXISTE_DOCUMENTO = "SELECT EXISTS (SELECT 1 FROM usuarios_documentos " +
+            "WHERE tipo_documento = ? AND numero_documento = ?)";
+
+    private final JdbcClient jdbcClient = mock(JdbcClient.class, RETURNS_DEEP_STUBS);
+    private final JdbcUsuarioRepositoryAdapter adapter = new JdbcUsuarioRepositoryAdapter(jdbcClient);
+
+    @Test
+    void deberiaGuardarUsuarioConSuEventoEnLaMismaSentencia() {
+        // Given
+        Usuario usuario = Usuario.builder()
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .fechaNacimiento(LocalDate.of(1990, 5, 15))
+                .direccion("Calle 123 #45-67")
+                .telefono("3001234567")
+                .correoElectronico("juan.perez@email.com")
+                .salarioBase(new BigDecimal("3000000"))
+                .rol(Rol.builder().idRol(2L).build())
+                .hashContrasena("hash")
+                .build();
+
+        when(jdbcClient.sql(contains("INSERT INTO outbox"))
+                .params("Juan Carlos", "Pérez García", "CC", "12345678", Date.valueOf(LocalDate.of(1990, 5, 15)),
+                        "Calle 123 #45-67", "3001234567", "juan.perez@email.com", new BigDecimal("3000000"), 2L,
+                        "hash", Evento.USUARIO_REGISTRADO)
+                .query(Long.class)
+                .single()).thenReturn(1L);
+
+        // When & Then
+        StepVerifier.create(adapter.guardar(usuario))
+                .assertNext(usuarioGuardado -> {
+                    assertEquals(1L, usuarioGuardado.getIdUsuario());
+                    assertEquals(0L, usuarioGuardado.getVersion());
+                    assertEquals(2L, usuarioGuardado.getRol().getIdRol());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaVerificarExistenciaDeCorreoElectronico() {
+        // Given
+        when(jdbcClient.sql(EXISTE_CORREO)
+                .param("juan.perez@email.com")
+                .query(Boolean.class)
+                .single()).thenReturn(true);
+
+        // When & Then
+        StepVerifier.create(adapter.existePorCorreoElectronico("juan.perez@email.com"))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRetornarFalsoCuandoCorreoElectronicoNoExiste() {
+        // Given
+        when(jdbcClient.sql(EXISTE_CORREO)
+                .param("nuevo.usuario@email.com")
+                .query(Boolean.class)
+                .single()).thenReturn(false);
+
+        // When & Then
+        StepVerifier.create(adapter.existePorCorreoElectronico("nuevo.usuario@email.com"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaVerificarExistenciaDeDocumento() {
+        // Given
+        when(jdbcClient.sql(EXISTE_DOCUMENTO)
+                .params("CC", "12345678")
+                .query(Boolean.class)
+                .single()).thenReturn(true);
+
+        // When & Then
+        StepVerifier.create(adapter.existePorTipoYNumeroDocumento("CC", "12345678"))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaDistinguirDocumentosPorTipo() {
+        // Given
+        when(jdbcClient.sql(EXISTE_DOCUMENTO)
+                .params("CC", "12345678")
+                .query(Boolean.class)
+                .single()).thenReturn(true);
+        when(jdbcClient.sql(EXISTE_DOCUMENTO)
+                .params("CE", "12345678")
+                .query(Boolean.class)
+                .single()).thenReturn(false);
+
+        // When & Then
+        StepVerifier.create(adapter.existePorTipoYNumeroDocumento("CE", "12345678"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaBuscarUsuarioPorCorreoElectronicoEnLaTablaDeBusqueda() throws Exception {
+        // Given
+        ResultSet fila = mock(ResultSet.class);
+        when(fila.getLong("id_usuario")).thenReturn(1L);
+        when(fila.getString("nombres")).thenReturn("Juan Carlos");
+        when(fila.getString("tipo_documento")).thenReturn("CC");
+        when(fila.getString("numero_documento")).thenReturn("12345678");
+        when(fila.getDate("fecha_nacimiento")).thenReturn(Date.valueOf(LocalDate.of(1990, 5, 15)));
+        when(fila.getString("correo_electronico")).thenReturn("juan.perez@email.com");
+        when(fila.getBigDecimal("salario_base")).thenReturn(new BigDecimal("3000000.00"));
+        when(fila.getObject("id_rol", Long.class)).thenReturn(2L);
+        when(fila.getLong("version")).thenReturn(3L);
+
+        when(jdbcClient.sql(contains("FROM usuarios_correos"))
+                .param("juan.perez@email.com")
+                .query(any(RowMapper.class))).thenAnswer(unaFila(fila));
+
+        // When & Then
+        StepVerifier.create(adapter.buscarPorCorreoElectronico("juan.perez@email.com"))
+                .assertNext(usuario -> {
+                    assertEquals(1L, usuario.getIdUsuario());
+                    assertEquals("Juan Carlos", usuario.getNombres());
+                    assertEquals("12345678", usuario.getNumeroDocumento());
+                    assertEquals(LocalDate.of(1990, 5, 15), usuario.getFechaNacimiento());
+                    assertEquals(new BigDecimal("3000000.00"), usuario.getSalarioBase());
+                    assertEquals(2L, usuario.getRol().getIdRol());
+                    assertEquals(3L, usuario.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaMapearUsuarioSinRolNiFechaDeNacimiento() throws Exception {
+        // Given
+        ResultSet fila = mock(ResultSet.class);
+        when(fila.getLong("id_usuario")).thenReturn(1L);
+
+        when(jdbcClient.sql(contains("FROM usuarios_documentos"))
+                .params("CC", "12345678")
+                .query(any(RowMapper.class))).thenAnswer(unaFila(fila));
+
+        // When & Then
+        StepVerifier.create(adapter.buscarPorTipoYNumeroDocumento("CC", "12345678"))
+                .assertNext(usuario -> {
+                    assertNull(usuario.getRol());
+                    assertNull(usuario.getFechaNacimiento());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaCompletarVacioCuandoDocumentoNoExiste() {
+        // Given
+        when(jdbcClient.sql(contains("FROM usuarios_documentos"))
+                .params("CC", "87654321")
+                .query(any(RowMapper.class))
+                .optional()).thenReturn(Optional.empty());
+
+        // When & Then
+        StepVerifier.create(adapter.buscarPorTipoYNumeroDocumento("CC", "87654321"))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaBuscarVersionPorCorreoElectronico() throws Exception {
+        // Given
+        ResultSet fila = mock(ResultSet.class);
+        when(fila.getLong("id_usuario")).thenReturn(1L);
+        when(fila.getLong("version")).thenReturn(3L);
+
+        when(jdbcClient.sql(contains("SELECT id_usuario, version FROM usuarios"))
+                .param("juan.perez@email.com")
+                .query(any(RowMapper.class))).thenAnswer(unaFila(fila));
+
+        // When & Then
+        StepVerifier.create(adapter.buscarVersionPorCorreoElectronico("juan.perez@email.com"))
+                .expectNext(new VersionUsuario(1L, 3L))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaBuscarCredencialConElNombreDelRol() throws Exception {
+        // Given
+        ResultSet fila = mock(ResultSet.class);
+        when(fila.getLong("id_usuario")).thenReturn(1L);
+        when(fila.getString("correo_electronico")).thenReturn("juan.perez@email.com");
+        when(fila.getString("hash_contrasena")).thenReturn("hash");
+        when(fila.getObject("id_rol", Long.class)).thenReturn(2L);
+        when(fila.getString("nombre_rol")).thenReturn("ADMIN");
+
+        when(jdbcClient.sql(contains("LEFT JOIN roles"))
+                .param("juan.perez@email.com")
+                .query(any(RowMapper.class))).thenAnswer(unaFila(fila));
+
+        // When & Then
+        StepVerifier.create(adapter.buscarCredencialPorCorreoElectronico("juan.perez@email.com"))
+                .expectNext(new CredencialUsuario(1L, "juan.perez@email.com", "hash", 2L, "ADMIN"))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRetornarVacioSinConsultarCuandoNoHayIds() {
+        StepVerifier.create(adapter.buscarRolesPorIdUsuario(List.of()))
+                .verifyComplete();
+
+        verifyNoInteractions(jdbcClient);
+    }
+
+    // Aplica el RowMapper del adaptador a la fila, que la consulta devuelve como único resultado
+    private static Answer<Object> unaFila(ResultSet fila) {
+        return invocacion -> {
+            RowMapper<?> mapper = invocacion.getArgument(0);
+            Object valor = mapper.mapRow(fila, 0);
+            return mock(JdbcClient.MappedQuerySpec.class, consulta -> "optional".equals(consulta.getMethod().getName())
+                    ? Optional.of(valor)
+                    : RETURNS_DEFAULTS.answer(consulta));
+        };
+    }
+}
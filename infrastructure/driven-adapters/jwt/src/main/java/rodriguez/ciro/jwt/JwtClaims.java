@@ -0,0 +1,18 @@
+package rodriguez.ciro.jwt;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+record JwtClaims(
+        @JsonProperty("iss") String emisor,
+        @JsonProperty("sub") String sujeto,
+        @JsonProperty("iat") Long emitidoEn,
+        @JsonProperty("exp") Long expiraEn,
+        @JsonProperty("jti") String id,
+        @JsonProperty("email") String correoElectronico,
+        @JsonProperty("id_rol") Long idRol,
+        @JsonProperty("rol") String nombreRol) {
+}
@@ -0,0 +1,12 @@
+package rodriguez.ciro.jwt;
+
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+// clavePrivada es nula en las claves que solo verifican
+public record JwtKey(String id, RSAPrivateKey clavePrivada, RSAPublicKey clavePublica) {
+
+    public boolean puedeFirmar() {
+        return clavePrivada != null;
+    }
+}
@@ -0,0 +1,152 @@
+package rodriguez.ciro.jwt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto inmutable de claves ya parseadas. Junto con cada clave guarda el encabezado del JWT ya codificado, de modo
+ * que firmar no serializa el encabezado y verificar encuentra la clave comparando el primer segmento del token sin
+ * decodificarlo; un encabezado distinto a los que emite este servicio, por ejemplo con otro alg, no tiene clave. El
+ * JWKS se serializa una sola vez al crear el conjunto. Rotar es reemplazar el conjunto completo.
+ */
+public final class JwtKeyRing {
+
+    static final ObjectMapper JSON = new ObjectMapper();
+    static final String ALGORITMO = "RS256";
+    static final String ALGORITMO_JCA = "SHA256withRSA";
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtKey activa;
+    private final String encabezadoActivo;
+    private final Map<String, JwtKey> porEncabezado;
+    private final byte[] jwks;
+
+    private JwtKeyRing(List<JwtKey> claves, JwtKey activa) {
+        Map<String, JwtKey> encabezados = new HashMap<>();
+        List<Map<String, String>> publicas = new ArrayList<>();
+        for (JwtKey clave : claves) {
+            if (encabezados.putIfAbsent(encabezado(clave.id()), clave) != null) {
+                throw new IllegalStateException("La clave " + clave.id() + " está repetida");
+            }
+            publicas.add(jwk(clave));
+        }
+        this.activa = activa;
+        this.encabezadoActivo = activa != null ? encabezado(activa.id()) : null;
+        this.porEncabezado = Map.copyOf(encabezados);
+        this.jwks = serializar(Map.of("keys", publicas));
+    }
+
+    public static JwtKeyRing de(List<JwtKey> claves, String idActiva) {
+        JwtKey activa = claves.stream()
+                .filter(clave -> clave.id().equals(idActiva))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No hay una clave con el id activo " + idActiva));
+        if (!activa.puedeFirmar()) {
+            throw new IllegalStateException("La clave activa " + idActiva + " no tiene clave privada");
+        }
+        return new JwtKeyRing(claves, activa);
+    }
+
+    /**
+     * Conjunto solo para verificar, a partir del JWKS que publica este servicio; así otro servicio parsea las claves
+     * una vez por cada descarga del JWKS y no en cada token.
+     */
+    public static JwtKeyRing desdeJwks(byte[] jwks) {
+        try {
+            KeyFactory fabrica = KeyFactory.getInstance("RSA");
+            Base64.Decoder decodificador = Base64.getUrlDecoder();
+            List<JwtKey> claves = new ArrayList<>();
+            for (JsonNode jwk : JSON.readTree(jwks).path("keys")) {
+                if (!"RSA".equals(jwk.path("kty").asText()) || !ALGORITMO.equals(jwk.path("alg").asText(ALGORITMO))) {
+                    continue;
+                }
+                RSAPublicKey publica = (RSAPublicKey) fabrica.generatePublic(new RSAPublicKeySpec(
+                        new BigInteger(1, decodificador.decode(jwk.path("n").asText())),
+                        new BigInteger(1, decodificador.decode(jwk.path("e").asText()))));
+                claves.add(new JwtKey(jwk.path("kid").asText(), null, publica));
+            }
+            return new JwtKeyRing(claves, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("JWKS inválido", e);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("JWKS con una clave inválida", e);
+        }
+    }
+
+    JwtKey activa() {
+        if (activa == null) {
+            throw new IllegalStateException("El conjunto de claves solo permite verificar");
+        }
+        return activa;
+    }
+
+    String encabezadoActivo() {
+        return encabezadoActivo;
+    }
+
+    JwtKey porEncabezado(String encabezado) {
+        return porEncabezado.get(encabezado);
+    }
+
+    // Es el mismo arreglo en cada llamada; no debe modificarse
+    public byte[] jwks() {
+        return jwks;
+    }
+
+    public List<String> ids() {
+        return porEncabezado.values().stream().map(JwtKey::id).sorted().toList();
+    }
+
+    static String base64Url(byte[] bytes) {
+        return BASE64URL.encodeToString(bytes);
+    }
+
+    static byte[] serializar(Object valor) {
+        try {
+            return JSON.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar " + valor.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String encabezado(String id) {
+        Map<String, String> encabezado = new LinkedHashMap<>();
+        encabezado.put("alg", ALGORITMO);
+        encabezado.put("typ", "JWT");
+        encabezado.put("kid", id);
+        return base64Url(serializar(encabezado));
+    }
+
+    private static Map<String, String> jwk(JwtKey clave) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITMO);
+        jwk.put("kid", clave.id());
+        jwk.put("n", base64Url(sinSigno(clave.clavePublica().getModulus())));
+        jwk.put("e", base64Url(sinSigno(clave.clavePublica().getPublicExponent())));
+        return jwk;
+    }
+
+    // RFC 7518: n y e van sin el byte de signo que agrega BigInteger
+    private static byte[] sinSigno(BigInteger valor) {
+        byte[] bytes = valor.toByteArray();
+        return bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+}
@@ -0,0 +1,24 @@
+package rodriguez.ciro.jwt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "adapters.jwt")
+public record JwtProperties(
+        String issuer,
+        Duration ttl,
+        Duration clockSkew,
+        String activeKeyId,
+        List<Key> keys) {
+
+    // privateKey en PKCS#8 para las claves con las que se firma; publicKey en X.509 para las retiradas que solo se
+    // siguen publicando mientras expiran sus tokens
+    public record Key(
+            String id,
+            Resource privateKey,
+            Resource publicKey) {
+    }
+}
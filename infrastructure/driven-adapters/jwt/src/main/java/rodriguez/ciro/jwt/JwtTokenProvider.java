@@ -0,0 +1,147 @@
+package rodriguez.ciro.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.credencial.UsuarioAutenticado;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.TokenAcceso;
+import rodriguez.ciro.model.token.gateways.TokenProvider;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Firma con la clave activa del {@link JwtKeyRing} vigente. Las claves se parsean al arrancar y en cada
+ * {@link #rotar(JwtKeyRing)}, nunca por token. Firmar con RSA cuesta alrededor de un milisegundo de CPU y se hace en el
+ * hilo que se suscribe, que en el inicio de sesión es el del hash de la contraseña y no el event loop.
+ */
+@Slf4j
+@Component
+@ImportRuntimeHints(JwtRuntimeHints.class)
+public class JwtTokenProvider implements TokenProvider {
+
+    private static final int BITS_CLAVE_EFIMERA = 2048;
+
+    private final AtomicReference<JwtKeyRing> claves;
+    private final String emisor;
+    private final Duration vigencia;
+    private final Clock reloj;
+    private final JwtVerifier verifier;
+
+    @Autowired
+    public JwtTokenProvider(JwtProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    JwtTokenProvider(JwtProperties properties, Clock reloj) {
+        this.claves = new AtomicReference<>(cargar(properties));
+        this.emisor = properties.issuer();
+        this.vigencia = properties.ttl();
+        this.reloj = reloj;
+        this.verifier = new JwtVerifier(claves::get, emisor,
+                properties.clockSkew() != null ? properties.clockSkew() : Duration.ZERO, reloj);
+        log.info("Tokens JWT firmados con la clave {}; claves publicadas: {}",
+                claves.get().activa().id(), claves.get().ids());
+    }
+
+    @Override
+    public Mono<TokenAcceso> emitir(UsuarioAutenticado usuario) {
+        return Mono.fromCallable(() -> firmar(usuario));
+    }
+
+    @Override
+    public Mono<ClaimsToken> verificar(String token) {
+        return Mono.fromCallable(() -> verifier.verificar(token));
+    }
+
+    @Override
+    public Mono<byte[]> clavesPublicas() {
+        return Mono.fromSupplier(() -> claves.get().jwks());
+    }
+
+    // Para verificar en el mismo proceso sin pasar por Mono
+    public JwtVerifier verifier() {
+        return verifier;
+    }
+
+    /**
+     * Reemplaza el conjunto de claves de forma atómica. Para rotar sin invalidar tokens, el nuevo conjunto debe seguir
+     * incluyendo la clave anterior, como clave solo de verificación, hasta que venzan los tokens que firmó.
+     */
+    public void rotar(JwtKeyRing nuevas) {
+        claves.set(nuevas);
+        log.info("Claves JWT rotadas; clave activa {}, claves publicadas: {}", nuevas.activa().id(), nuevas.ids());
+    }
+
+    private TokenAcceso firmar(UsuarioAutenticado usuario) throws GeneralSecurityException {
+        JwtKeyRing vigentes = claves.get();
+        Instant emitidoEn = reloj.instant().truncatedTo(ChronoUnit.SECONDS);
+        Instant expiraEn = emitidoEn.plus(vigencia);
+        JwtClaims claims = new JwtClaims(emisor, String.valueOf(usuario.idUsuario()), emitidoEn.getEpochSecond(),
+                expiraEn.getEpochSecond(), nuevoId(), usuario.correoElectronico(), usuario.idRol(), usuario.nombreRol());
+
+        String contenido = vigentes.encabezadoActivo() + '.' + JwtKeyRing.base64Url(JwtKeyRing.serializar(claims));
+        Signature firma = Signature.getInstance(JwtKeyRing.ALGORITMO_JCA);
+        firma.initSign(vigentes.activa().clavePrivada());
+        firma.update(contenido.getBytes(StandardCharsets.US_ASCII));
+        return new TokenAcceso(contenido + '.' + JwtKeyRing.base64Url(firma.sign()), new ClaimsToken(claims.id(),
+                usuario.idUsuario(), usuario.correoElectronico(), usuario.idRol(), usuario.nombreRol(), emitidoEn,
+                expiraEn));
+    }
+
+    // El jti solo necesita ser único, no impredecible, porque el token va firmado
+    private static String nuevoId() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        return JwtKeyRing.base64Url(ByteBuffer.allocate(Long.BYTES * 2)
+                .putLong(aleatorio.nextLong())
+                .putLong(aleatorio.nextLong())
+                .array());
+    }
+
+    private static JwtKeyRing cargar(JwtProperties properties) {
+        if (properties.keys() == null || properties.keys().isEmpty()) {
+            return claveEfimera();
+        }
+        List<JwtKey> claves = properties.keys().stream().map(PemKeys::leer).toList();
+        String idActiva = properties.activeKeyId();
+        if (idActiva == null) {
+            List<JwtKey> firmantes = claves.stream().filter(JwtKey::puedeFirmar).toList();
+            if (firmantes.size() != 1) {
+                throw new IllegalStateException("Con varias claves privadas se debe indicar adapters.jwt.active-key-id");
+            }
+            idActiva = firmantes.getFirst().id();
+        }
+        return JwtKeyRing.de(claves, idActiva);
+    }
+
+    private static JwtKeyRing claveEfimera() {
+        try {
+            KeyPairGenerator generador = KeyPairGenerator.getInstance("RSA");
+            generador.initialize(BITS_CLAVE_EFIMERA);
+            KeyPair par = generador.generateKeyPair();
+            String id = "efimera-" + Long.toHexString(System.currentTimeMillis());
+            log.warn("Sin adapters.jwt.keys se firma con la clave efímera {}: los tokens dejan de ser válidos al "
+                    + "reiniciar y otras instancias no los reconocen", id);
+            return JwtKeyRing.de(List.of(new JwtKey(id, (RSAPrivateKey) par.getPrivate(),
+                    (RSAPublicKey) par.getPublic())), id);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo generar la clave efímera", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package rodriguez.ciro.jwt;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * Verifica tokens RS256 contra un {@link JwtKeyRing} ya parseado. Por token solo decodifica la firma y los claims y
+ * hace una verificación RSA, que con exponente público 65537 cuesta decenas de microsegundos; no parsea claves, no
+ * decodifica el encabezado y no bloquea, así que puede usarse directamente en el event loop. Es seguro entre hilos y
+ * ve las rotaciones porque consulta el proveedor de claves en cada token.
+ */
+public class JwtVerifier {
+
+    private static final int LONGITUD_MAXIMA = 8192;
+    private static final ObjectReader LECTOR_CLAIMS = JwtKeyRing.JSON.readerFor(JwtClaims.class);
+    private static final Base64.Decoder BASE64URL = Base64.getUrlDecoder();
+
+    private final Supplier<JwtKeyRing> claves;
+    private final String emisor;
+    private final long toleranciaSegundos;
+    private final Clock reloj;
+
+    public JwtVerifier(Supplier<JwtKeyRing> claves, String emisor, Duration tolerancia, Clock reloj) {
+        this.claves = claves;
+        this.emisor = emisor;
+        this.toleranciaSegundos = tolerancia.toSeconds();
+        this.reloj = reloj;
+    }
+
+    public ClaimsToken verificar(String token) {
+        if (token == null || token.length() > LONGITUD_MAXIMA) {
+            throw new TokenInvalidoException("Token ausente o demasiado largo");
+        }
+        int finEncabezado = token.indexOf('.');
+        int finClaims = finEncabezado < 0 ? -1 : token.indexOf('.', finEncabezado + 1);
+        if (finClaims < 0 || token.indexOf('.', finClaims + 1) >= 0) {
+            throw new TokenInvalidoException("Token mal formado");
+        }
+        JwtKey clave = claves.get().porEncabezado(token.substring(0, finEncabezado));
+        if (clave == null) {
+            throw new TokenInvalidoException("Token firmado con una clave o un algoritmo desconocido");
+        }
+
+        JwtClaims claims;
+        long idUsuario;
+        try {
+            Signature firma = Signature.getInstance(JwtKeyRing.ALGORITMO_JCA);
+            firma.initVerify(clave.clavePublica());
+            firma.update(token.getBytes(StandardCharsets.US_ASCII), 0, finClaims);
+            if (!firma.verify(BASE64URL.decode(token.substring(finClaims + 1)))) {
+                throw new TokenInvalidoException("Firma del token inválida");
+            }
+            claims = LECTOR_CLAIMS.readValue(BASE64URL.decode(token.substring(finEncabezado + 1, finClaims)));
+            idUsuario = Long.parseLong(claims.sujeto());
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            throw new TokenInvalidoException("Token mal formado");
+        }
+
+        long ahora = reloj.instant().getEpochSecond();
+        if (!emisor.equals(claims.emisor())) {
+            throw new TokenInvalidoException("Token de otro emisor");
+        }
+        if (claims.expiraEn() == null || claims.expiraEn() + toleranciaSegundos <= ahora) {
+            throw new TokenInvalidoException("Token expirado");
+        }
+        if (claims.emitidoEn() != null && claims.emitidoEn() - toleranciaSegundos > ahora) {
+            throw new TokenInvalidoException("Token emitido en el futuro");
+        }
+        return new ClaimsToken(claims.id(), idUsuario, claims.correoElectronico(), claims.idRol(), claims.nombreRol(),
+                claims.emitidoEn() != null ? Instant.ofEpochSecond(claims.emitidoEn()) : null,
+                Instant.ofEpochSecond(claims.expiraEn()));
+    }
+}
@@ -0,0 +1,58 @@
+package rodriguez.ciro.jwt;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+// Lectura de claves RSA en PEM; solo se usa al arrancar o al rotar, nunca por solicitud
+final class PemKeys {
+
+    private PemKeys() {
+    }
+
+    static JwtKey leer(JwtProperties.Key clave) {
+        try {
+            KeyFactory fabrica = KeyFactory.getInstance("RSA");
+            if (clave.privateKey() != null) {
+                RSAPrivateKey privada = (RSAPrivateKey) fabrica.generatePrivate(
+                        new PKCS8EncodedKeySpec(decodificar(clave.privateKey(), "PRIVATE KEY")));
+                if (!(privada instanceof RSAPrivateCrtKey crt)) {
+                    throw new IllegalStateException("La clave privada " + clave.id() + " no incluye su clave pública");
+                }
+                RSAPublicKey publica = (RSAPublicKey) fabrica.generatePublic(
+                        new RSAPublicKeySpec(crt.getModulus(), crt.getPublicExponent()));
+                return new JwtKey(clave.id(), privada, publica);
+            }
+            if (clave.publicKey() != null) {
+                RSAPublicKey publica = (RSAPublicKey) fabrica.generatePublic(
+                        new X509EncodedKeySpec(decodificar(clave.publicKey(), "PUBLIC KEY")));
+                return new JwtKey(clave.id(), null, publica);
+            }
+            throw new IllegalStateException("La clave " + clave.id() + " no tiene private-key ni public-key");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo leer la clave " + clave.id(), e);
+        }
+    }
+
+    private static byte[] decodificar(Resource recurso, String tipo) {
+        try {
+            String pem = recurso.getContentAsString(StandardCharsets.US_ASCII)
+                    .replace("-----BEGIN " + tipo + "-----", "")
+                    .replace("-----END " + tipo + "-----", "");
+            return Base64.getMimeDecoder().decode(pem);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer " + recurso.getDescription(), e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package rodriguez.ciro.hasher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import rodriguez.ciro.model.credencial.exception.HashSaturadoException;
+import rodriguez.ciro.model.credencial.gateways.PasswordHasher;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+/**
+ * BCrypt sobre un scheduler propio con un hilo por núcleo, para que los hashes nunca ocupen el event loop de Netty. Es
+ * bounded elastic y no parallel porque generar la sal puede leer la fuente de entropía del sistema operativo. Un
+ * semáforo limita los hashes en curso más los que esperan hilo; por encima de ese límite se rechaza de inmediato en
+ * lugar de encolar trabajo que vencería el plazo de la solicitud.
+ */
+@Slf4j
+@Component
+public class BCryptPasswordHasher implements PasswordHasher, DisposableBean {
+
+    private final BCryptPasswordEncoder encoder;
+    private final Scheduler scheduler;
+    private final Semaphore permisos;
+    private final String hashDeReferencia;
+    private final Timer duracionHashear;
+    private final Timer duracionVerificar;
+    private final Counter rechazos;
+
+    public BCryptPasswordHasher(PasswordHashProperties properties, MeterRegistry meterRegistry) {
+        int hilos = properties.threads() != null && properties.threads() > 0
+                ? properties.threads()
+                : Runtime.getRuntime().availableProcessors();
+        int maxPendientes = hilos + properties.maxPending();
+        this.encoder = new BCryptPasswordEncoder(properties.cost());
+        this.scheduler = Schedulers.newBoundedElastic(hilos, maxPendientes, "password-hash", 60, true);
+        this.permisos = new Semaphore(maxPendientes);
+        this.hashDeReferencia = encoder.encode("referencia-para-usuarios-sin-contrasena");
+        this.duracionHashear = Timer.builder("password.hash.duration")
+                .description("Tiempo de CPU de cada hash de contraseña")
+                .tag("operacion", "hashear")
+                .register(meterRegistry);
+        this.duracionVerificar = Timer.builder("password.hash.duration")
+                .description("Tiempo de CPU de cada hash de contraseña")
+                .tag("operacion", "verificar")
+                .register(meterRegistry);
+        this.rechazos = Counter.builder("password.hash.rejected")
+                .description("Hashes rechazados por superar los hashes en curso y en espera permitidos")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.pending", permisos, semaforo -> maxPendientes - semaforo.availablePermits())
+                .description("Hashes en curso y en espera de un hilo")
+                .register(meterRegistry);
+        log.info("Hash de contraseñas BCrypt con costo {}, {} hilos y hasta {} en espera",
+                properties.cost(), hilos, properties.maxPending());
+    }
+
+    @Override
+    public Mono<String> hashear(String contrasena) {
+        return ejecutar(duracionHashear, () -> encoder.encode(contrasena));
+    }
+
+    @Override
+    public Mono<Boolean> verificar(String contrasena, String hash) {
+        if (hash == null) {
+            return ejecutar(duracionVerificar, () -> {
+                encoder.matches(contrasena, hashDeReferencia);
+                return false;
+            });
+        }
+        return ejecutar(duracionVerificar, () -> encoder.matches(contrasena, hash));
+    }
+
+    // Si la solicitud se cancela con el hash en curso el permiso se libera antes de que termine, pero los hilos del
+    // scheduler siguen acotando la CPU. El resultado se publica en boundedElastic para que lo que sigue al hash (por
+    // ejemplo el INSERT bloqueante del stack imperativo) no ocupe los hilos de hashes
+    private <T> Mono<T> ejecutar(Timer duracion, Callable<T> hash) {
+        return Mono.defer(() -> {
+            if (!permisos.tryAcquire()) {
+                rechazos.increment();
+                return Mono.error(new HashSaturadoException("Capacidad de verificación de contraseñas agotada"));
+            }
+            return Mono.fromCallable(() -> duracion.recordCallable(hash))
+                    .subscribeOn(scheduler)
+                    .doFinally(senal -> permisos.release())
+                    .publishOn(Schedulers.boundedElastic());
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
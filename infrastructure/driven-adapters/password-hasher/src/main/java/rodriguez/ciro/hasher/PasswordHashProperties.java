@@ -0,0 +1,10 @@
+package rodriguez.ciro.hasher;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "adapters.password-hash")
+public record PasswordHashProperties(
+        Integer cost,
+        Integer threads,
+        Integer maxPending) {
+}
@@ -0,0 +1,68 @@
+package rodriguez.ciro.hasher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.credencial.exception.HashSaturadoException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptPasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BCryptPasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        hasher.destroy();
+    }
+
+    @Test
+    void deberiaHashearEnElSchedulerPropioYContinuarFueraDeEl() {
+        // Given
+        hasher = new BCryptPasswordHasher(new PasswordHashProperties(4, 2, 10), meterRegistry);
+        String hash = hasher.hashear("Secreta123").block();
+
+        // When & Then
+        assertTrue(hash.startsWith("$2a$04$"));
+        StepVerifier.create(hasher.verificar("Secreta123", hash)
+                        .map(valida -> valida + "@" + Thread.currentThread().getName()))
+                .assertNext(resultado -> assertTrue(resultado.startsWith("true@boundedElastic-"), resultado))
+                .verifyComplete();
+        StepVerifier.create(hasher.verificar("Otra12345", hash))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRetornarFalsoSinHash() {
+        // Given
+        hasher = new BCryptPasswordHasher(new PasswordHashProperties(4, 1, 10), meterRegistry);
+
+        // When & Then
+        StepVerifier.create(hasher.verificar("Secreta123", null))
+                .expectNext(false)
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("password.hash.duration").tag("operacion", "verificar").timer().count());
+    }
+
+    @Test
+    void deberiaRechazarCuandoSeSuperanLosHashesPendientes() {
+        // Given
+        hasher = new BCryptPasswordHasher(new PasswordHashProperties(10, 1, 0), meterRegistry);
+        Mono<String> enCurso = hasher.hashear("Secreta123").cache();
+        enCurso.subscribe();
+
+        // When & Then
+        StepVerifier.create(hasher.hashear("Secreta456"))
+                .expectError(HashSaturadoException.class)
+                .verify();
+        StepVerifier.create(enCurso)
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+    }
+}
@@ -0,0 +1,12 @@
+package rodriguez.ciro.r2dbc.actividad;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.activity")
+public record ActividadProperties(
+        Duration flushInterval,
+        Integer batchSize,
+        Duration shutdownTimeout) {
+}
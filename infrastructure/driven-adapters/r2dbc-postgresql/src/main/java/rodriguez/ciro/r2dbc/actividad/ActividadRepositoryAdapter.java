@@ -0,0 +1,164 @@
+package rodriguez.ciro.r2dbc.actividad;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import rodriguez.ciro.model.actividad.gateways.ActividadRepository;
+import rodriguez.ciro.r2dbc.actividad.ActivityBuffer.UltimaActividad;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Acumula la actividad en un {@link ActivityBuffer} y la guarda cada flush-interval con una sentencia por lote de
+ * hasta batch-size usuarios, en lugar de un UPDATE por autenticación. Cada escritura drena como mucho lo que había
+ * pendiente al empezar, así que no se alarga indefinidamente bajo carga. GREATEST conserva la hora más reciente
+ * aunque varios nodos escriban el mismo usuario en otro orden. Al detener se deja terminar la escritura en curso y
+ * luego se guarda lo pendiente.
+ */
+@Slf4j
+@Repository
+@Profile("!in-memory")
+public class ActividadRepositoryAdapter implements ActividadRepository, SmartLifecycle {
+
+    private static final String ACTUALIZAR = "UPDATE usuarios u SET "
+            + "ultimo_inicio_sesion = GREATEST(u.ultimo_inicio_sesion, a.inicio_sesion), "
+            + "ultima_actividad = GREATEST(u.ultima_actividad, a.actividad) "
+            + "FROM unnest(:ids::bigint[], :inicios::timestamptz[], :actividades::timestamptz[]) "
+            + "AS a(id_usuario, inicio_sesion, actividad) WHERE u.id_usuario = a.id_usuario";
+
+    private final DatabaseClient databaseClient;
+    private final Duration intervalo;
+    private final int tamanoLote;
+    private final Duration esperaAlDetener;
+    private final Clock reloj = Clock.systemUTC();
+    private final ActivityBuffer buffer = new ActivityBuffer();
+    private final DistributionSummary lotes;
+    private final Timer duracion;
+    private volatile Sinks.Empty<Void> detener;
+    private volatile Mono<Void> escrituras;
+
+    public ActividadRepositoryAdapter(DatabaseClient databaseClient, ActividadProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.intervalo = properties.flushInterval();
+        this.tamanoLote = properties.batchSize();
+        this.esperaAlDetener = properties.shutdownTimeout();
+        Gauge.builder("activity.pending", buffer, ActivityBuffer::pendientes)
+                .description("Usuarios con actividad pendiente de guardar")
+                .register(meterRegistry);
+        this.lotes = DistributionSummary.builder("activity.flush.size")
+                .description("Usuarios actualizados por cada escritura")
+                .register(meterRegistry);
+        this.duracion = Timer.builder("activity.flush.duration")
+                .description("Duración de cada escritura de actividad")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> registrarInicioSesion(Long idUsuario) {
+        return Mono.fromRunnable(() -> {
+            Instant ahora = reloj.instant();
+            buffer.registrar(idUsuario, ahora, ahora);
+        });
+    }
+
+    @Override
+    public Mono<Void> registrarActividad(Long idUsuario) {
+        return Mono.fromRunnable(() -> buffer.registrar(idUsuario, null, reloj.instant()));
+    }
+
+    // Se detiene después del servidor web, para guardar también la actividad de las últimas solicitudes
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    @Override
+    public void start() {
+        Sinks.Empty<Void> senal = Sinks.empty();
+        Mono<Void> ciclo = Flux.interval(intervalo, intervalo)
+                .takeUntilOther(senal.asMono())
+                .onBackpressureDrop()
+                .concatMap(numero -> escribir())
+                .then()
+                .cache();
+        ciclo.subscribe();
+        detener = senal;
+        escrituras = ciclo;
+    }
+
+    // Cancelar el ciclo perdería el lote que la escritura en curso ya sacó del buffer; se detiene el intervalo y se
+    // espera a que esa escritura termine antes de guardar lo que quede
+    @Override
+    public void stop() {
+        Mono<Void> ciclo = escrituras;
+        detener.tryEmitEmpty();
+        escrituras = null;
+        try {
+            ciclo.then(escribir()).block(esperaAlDetener);
+        } catch (RuntimeException e) {
+            log.warn("No fue posible guardar la actividad pendiente al detener: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return escrituras != null;
+    }
+
+    private Mono<Void> escribir() {
+        return Mono.defer(() -> {
+            int lotesPendientes = (buffer.pendientes() + tamanoLote - 1) / tamanoLote;
+            return Flux.range(0, lotesPendientes)
+                    .concatMap(numero -> escribir(buffer.drenar(tamanoLote)))
+                    .then();
+        });
+    }
+
+    private Mono<Long> escribir(List<UltimaActividad> lote) {
+        if (lote.isEmpty()) {
+            return Mono.empty();
+        }
+        Long[] ids = new Long[lote.size()];
+        OffsetDateTime[] inicios = new OffsetDateTime[lote.size()];
+        OffsetDateTime[] actividades = new OffsetDateTime[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            UltimaActividad ultima = lote.get(i);
+            ids[i] = ultima.idUsuario();
+            inicios[i] = ultima.inicioSesion() == null ? null : ultima.inicioSesion().atOffset(ZoneOffset.UTC);
+            actividades[i] = ultima.actividad().atOffset(ZoneOffset.UTC);
+        }
+        long inicio = System.nanoTime();
+        return Bulkhead.ESCRITURA.aplicar(databaseClient.sql(ACTUALIZAR)
+                        .bind("ids", ids)
+                        .bind("inicios", inicios)
+                        .bind("actividades", actividades)
+                        .fetch()
+                        .rowsUpdated())
+                .doOnNext(filas -> {
+                    duracion.record(Duration.ofNanos(System.nanoTime() - inicio));
+                    lotes.record(lote.size());
+                })
+                .doOnCancel(() -> buffer.devolver(lote))
+                .onErrorResume(error -> {
+                    buffer.devolver(lote);
+                    log.warn("No fue posible guardar la actividad de {} usuarios: {}", lote.size(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
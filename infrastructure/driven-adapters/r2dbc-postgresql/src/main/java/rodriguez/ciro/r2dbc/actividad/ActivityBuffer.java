@@ -0,0 +1,59 @@
+package rodriguez.ciro.r2dbc.actividad;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Última actividad pendiente de guardar por usuario. Registrar la misma actividad muchas veces antes de una escritura
+ * deja una sola entrada con la hora más reciente de cada campo, así que cada escritura actualiza como mucho una fila
+ * por usuario. Drenar retira las entradas de forma atómica; si la escritura falla se devuelven y se combinan con lo
+ * registrado mientras tanto, sin perder la hora más reciente.
+ */
+final class ActivityBuffer {
+
+    private final ConcurrentHashMap<Long, UltimaActividad> pendientes = new ConcurrentHashMap<>();
+
+    void registrar(Long idUsuario, Instant inicioSesion, Instant actividad) {
+        pendientes.merge(idUsuario, new UltimaActividad(idUsuario, inicioSesion, actividad), UltimaActividad::combinar);
+    }
+
+    // Retira hasta maximo entradas, ordenadas por id para que dos nodos actualicen las filas en el mismo orden
+    List<UltimaActividad> drenar(int maximo) {
+        List<UltimaActividad> lote = new ArrayList<>(Math.min(maximo, pendientes.size()));
+        Iterator<Long> ids = pendientes.keySet().iterator();
+        while (lote.size() < maximo && ids.hasNext()) {
+            UltimaActividad ultima = pendientes.remove(ids.next());
+            if (ultima != null) {
+                lote.add(ultima);
+            }
+        }
+        lote.sort((a, b) -> Long.compare(a.idUsuario(), b.idUsuario()));
+        return lote;
+    }
+
+    void devolver(List<UltimaActividad> lote) {
+        lote.forEach(ultima -> pendientes.merge(ultima.idUsuario(), ultima, UltimaActividad::combinar));
+    }
+
+    int pendientes() {
+        return pendientes.size();
+    }
+
+    record UltimaActividad(Long idUsuario, Instant inicioSesion, Instant actividad) {
+
+        UltimaActividad combinar(UltimaActividad otra) {
+            return new UltimaActividad(idUsuario, masReciente(inicioSesion, otra.inicioSesion),
+                    masReciente(actividad, otra.actividad));
+        }
+
+        private static Instant masReciente(Instant a, Instant b) {
+            if (a == null) {
+                return b;
+            }
+            return b == null || a.isAfter(b) ? a : b;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package rodriguez.ciro.r2dbc.analitica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.analytics-snapshot")
+public record AnaliticaProperties(
+        boolean enabled,
+        Duration refreshInterval,
+        Integer batchSize) {
+}
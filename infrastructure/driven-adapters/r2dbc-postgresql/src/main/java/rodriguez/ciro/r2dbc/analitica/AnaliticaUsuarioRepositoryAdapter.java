@@ -0,0 +1,169 @@
+package rodriguez.ciro.r2dbc.analitica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import rodriguez.ciro.model.analitica.Agrupacion;
+import rodriguez.ciro.model.analitica.ColumnasUsuarios;
+import rodriguez.ciro.model.analitica.FiltroUsuarios;
+import rodriguez.ciro.model.analitica.GrupoUsuarios;
+import rodriguez.ciro.model.analitica.exception.AnaliticaDeshabilitadaException;
+import rodriguez.ciro.model.analitica.exception.AnaliticaNoCargadaException;
+import rodriguez.ciro.model.analitica.gateways.AnaliticaUsuarioRepository;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Responde las consultas analíticas desde una copia columnar de los usuarios en memoria, para que filtrar y agregar
+ * millones de filas no recorra la tabla de la base de datos en cada consulta. Cada refresh-interval lee, por páginas
+ * de batch-size en orden de id, solo los usuarios posteriores al último copiado, y vuelve a buscar los ids que
+ * faltaban entre dos copiados por si su transacción se confirmó después. Hasta que termina la primera carga las
+ * consultas fallan en vez de responder con una parte de los usuarios. Solo lo cargan los nodos con enabled, porque
+ * ocupa unos 18 bytes por usuario.
+ */
+@Slf4j
+@Repository
+@Profile("!in-memory")
+public class AnaliticaUsuarioRepositoryAdapter implements AnaliticaUsuarioRepository, SmartLifecycle {
+
+    private static final String COLUMNAS = "SELECT id_usuario, id_rol, tipo_documento, fecha_nacimiento, salario_base "
+            + "FROM usuarios ";
+    private static final String DESPUES_DE = COLUMNAS + "WHERE id_usuario > :desde ORDER BY id_usuario LIMIT :lote";
+    private static final String POR_IDS = COLUMNAS + "WHERE id_usuario = ANY(:ids::bigint[])";
+    // Con el intervalo por defecto un hueco se sigue buscando unos 30 segundos, más que una transacción de registro
+    private static final int INTENTOS_HUECO = 30;
+
+    private final DatabaseClient databaseClient;
+    private final boolean habilitada;
+    private final Duration intervalo;
+    private final int tamanoLote;
+    private final ColumnasUsuarios columnas = new ColumnasUsuarios(INTENTOS_HUECO);
+    private final Timer consultas;
+    private volatile boolean cargada;
+    private volatile Disposable actualizacion;
+
+    public AnaliticaUsuarioRepositoryAdapter(DatabaseClient databaseClient, AnaliticaProperties properties,
+                                             MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.habilitada = properties.enabled();
+        this.intervalo = properties.refreshInterval();
+        this.tamanoLote = properties.batchSize();
+        Gauge.builder("analytics.snapshot.rows", columnas, ColumnasUsuarios::filas)
+                .description("Usuarios en la copia columnar")
+                .register(meterRegistry);
+        Gauge.builder("analytics.snapshot.memory", columnas, ColumnasUsuarios::bytes)
+                .description("Memoria reservada por las columnas de la copia")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.consultas = Timer.builder("analytics.snapshot.scan")
+                .description("Tiempo de recorrer la copia para responder una consulta")
+                .register(meterRegistry);
+    }
+
+    // El recorrido ocupa CPU en proporción a los usuarios, así que no corre en los hilos del servidor
+    @Override
+    public Mono<List<GrupoUsuarios>> agregar(FiltroUsuarios filtro, Agrupacion agrupacion) {
+        return Mono.fromCallable(() -> {
+                    if (!habilitada) {
+                        throw new AnaliticaDeshabilitadaException("La analítica de usuarios no está habilitada");
+                    }
+                    if (!cargada) {
+                        throw new AnaliticaNoCargadaException("La copia analítica de usuarios aún no se ha cargado");
+                    }
+                    return consultas.record(() -> columnas.agregar(filtro, agrupacion));
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public void start() {
+        if (habilitada) {
+            actualizacion = Flux.interval(Duration.ZERO, intervalo)
+                    .onBackpressureDrop()
+                    .concatMap(numero -> ponerAlDia())
+                    .subscribe();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (actualizacion != null) {
+            actualizacion.dispose();
+            actualizacion = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return actualizacion != null;
+    }
+
+    private Mono<Void> ponerAlDia() {
+        return Mono.defer(() -> pagina(columnas.ultimoId()))
+                .expand(pagina -> pagina.size() == tamanoLote ? pagina(columnas.ultimoId()) : Mono.empty())
+                .then(Mono.defer(this::recuperarHuecos))
+                .doOnSuccess(vacio -> {
+                    columnas.terminarActualizacion();
+                    if (!cargada) {
+                        cargada = true;
+                        log.info("Copia analítica cargada con {} usuarios", columnas.filas());
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.warn("No fue posible actualizar la copia analítica de usuarios: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<List<Usuario>> pagina(long desde) {
+        return Bulkhead.LECTURA.aplicar(databaseClient.sql(DESPUES_DE)
+                        .bind("desde", desde)
+                        .bind("lote", tamanoLote)
+                        .map(AnaliticaUsuarioRepositoryAdapter::usuario)
+                        .all()
+                        .collectList())
+                .doOnNext(columnas::agregar);
+    }
+
+    private Mono<Void> recuperarHuecos() {
+        Set<Long> huecos = columnas.huecos();
+        if (huecos.isEmpty()) {
+            return Mono.empty();
+        }
+        return Bulkhead.LECTURA.aplicar(databaseClient.sql(POR_IDS)
+                        .bind("ids", huecos.toArray(Long[]::new))
+                        .map(AnaliticaUsuarioRepositoryAdapter::usuario)
+                        .all()
+                        .collectList())
+                .doOnNext(columnas::agregar)
+                .then();
+    }
+
+    private static Usuario usuario(Readable fila) {
+        Long idRol = fila.get("id_rol", Long.class);
+        return Usuario.builder()
+                .idUsuario(fila.get("id_usuario", Long.class))
+                .tipoDocumento(fila.get("tipo_documento", String.class))
+                .fechaNacimiento(fila.get("fecha_nacimiento", LocalDate.class))
+                .salarioBase(fila.get("salario_base", BigDecimal.class))
+                .rol(idRol != null ? Rol.builder().idRol(idRol).build() : null)
+                .build();
+    }
+}
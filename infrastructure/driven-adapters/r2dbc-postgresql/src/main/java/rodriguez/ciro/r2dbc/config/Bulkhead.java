@@ -0,0 +1,25 @@
+package rodriguez.ciro.r2dbc.config;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Pool de conexiones que atiende una operación. Los adaptadores marcan cada operación y
+ * {@link BulkheadRoutingConnectionFactory} toma la conexión del pool correspondiente, de modo que una ráfaga de
+ * registros no agota las conexiones de las consultas.
+ */
+public enum Bulkhead {
+    LECTURA,
+    ESCRITURA;
+
+    static final String CONTEXT_KEY = Bulkhead.class.getName();
+
+    public <T> Mono<T> aplicar(Mono<T> operacion) {
+        return operacion.contextWrite(Context.of(CONTEXT_KEY, this));
+    }
+
+    public <T> Flux<T> aplicar(Flux<T> operacion) {
+        return operacion.contextWrite(Context.of(CONTEXT_KEY, this));
+    }
+}
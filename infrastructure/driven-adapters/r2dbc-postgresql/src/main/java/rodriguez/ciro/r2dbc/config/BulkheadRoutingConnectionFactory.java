@@ -0,0 +1,13 @@
+package rodriguez.ciro.r2dbc.config;
+
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+// Las operaciones sin marca (verificación del esquema, salud) van al pool de escritura
+public class BulkheadRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.getOrEmpty(Bulkhead.CONTEXT_KEY)));
+    }
+}
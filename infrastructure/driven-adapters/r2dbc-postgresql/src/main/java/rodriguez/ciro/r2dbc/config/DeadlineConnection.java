@@ -0,0 +1,155 @@
+package rodriguez.ciro.r2dbc.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.deadline.Deadline;
+
+import java.time.Duration;
+
+// Conexión asignada a una solicitud con plazo; delega todo salvo close(), que espera la cancelación en curso
+@Slf4j
+class DeadlineConnection implements Connection, Wrapped<Connection> {
+
+    private final Connection delegate;
+    private final long asignadaEnNanos = System.nanoTime();
+    private boolean cerrada;
+    private final Disposable suscripcion;
+    private Mono<Void> cancelacion = Mono.empty();
+
+    DeadlineConnection(Connection delegate, Deadline deadline, Counter canceladas, Timer tiempoDesperdiciado) {
+        this.delegate = delegate;
+        this.suscripcion = deadline.cancelado()
+                .subscribe(null, null, () -> cancelar(canceladas, tiempoDesperdiciado));
+    }
+
+    private synchronized void cancelar(Counter canceladas, Timer tiempoDesperdiciado) {
+        if (cerrada || !(DeadlineConnectionFactory.fisica(delegate) instanceof PostgresqlConnection postgres)) {
+            return;
+        }
+        canceladas.increment();
+        tiempoDesperdiciado.record(Duration.ofNanos(System.nanoTime() - asignadaEnNanos));
+        // La conexión no vuelve al pool hasta que PostgreSQL recibe la cancelación, para no abortar la consulta de
+        // la siguiente solicitud que la tome
+        cancelacion = postgres.cancelRequest()
+                .doOnError(error -> log.warn("No fue posible cancelar la consulta en curso: {}", error.getMessage()))
+                .onErrorComplete()
+                .cache();
+        cancelacion.subscribe();
+    }
+
+    @Override
+    public Publisher<Void> close() {
+        return Mono.defer(() -> {
+            Mono<Void> pendiente;
+            synchronized (this) {
+                cerrada = true;
+                pendiente = cancelacion;
+            }
+            suscripcion.dispose();
+            return pendiente.then(Mono.from(delegate.close()));
+        });
+    }
+
+    @Override
+    public Connection unwrap() {
+        return delegate;
+    }
+
+    @Override
+    public Publisher<Void> beginTransaction() {
+        return delegate.beginTransaction();
+    }
+
+    @Override
+    public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+        return delegate.beginTransaction(definition);
+    }
+
+    @Override
+    public Publisher<Void> commitTransaction() {
+        return delegate.commitTransaction();
+    }
+
+    @Override
+    public Batch createBatch() {
+        return delegate.createBatch();
+    }
+
+    @Override
+    public Publisher<Void> createSavepoint(String name) {
+        return delegate.createSavepoint(name);
+    }
+
+    @Override
+    public Statement createStatement(String sql) {
+        return delegate.createStatement(sql);
+    }
+
+    @Override
+    public boolean isAutoCommit() {
+        return delegate.isAutoCommit();
+    }
+
+    @Override
+    public ConnectionMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public IsolationLevel getTransactionIsolationLevel() {
+        return delegate.getTransactionIsolationLevel();
+    }
+
+    @Override
+    public Publisher<Void> releaseSavepoint(String name) {
+        return delegate.releaseSavepoint(name);
+    }
+
+    @Override
+    public Publisher<Void> rollbackTransaction() {
+        return delegate.rollbackTransaction();
+    }
+
+    @Override
+    public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+        return delegate.rollbackTransactionToSavepoint(name);
+    }
+
+    @Override
+    public Publisher<Void> setAutoCommit(boolean autoCommit) {
+        return delegate.setAutoCommit(autoCommit);
+    }
+
+    @Override
+    public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+        return delegate.setLockWaitTimeout(timeout);
+    }
+
+    @Override
+    public Publisher<Void> setStatementTimeout(Duration timeout) {
+        return delegate.setStatementTimeout(timeout);
+    }
+
+    @Override
+    public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+        return delegate.setTransactionIsolationLevel(isolationLevel);
+    }
+
+    @Override
+    public Publisher<Boolean> validate(ValidationDepth depth) {
+        return delegate.validate(depth);
+    }
+}
@@ -0,0 +1,106 @@
+package rodriguez.ciro.r2dbc.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.dao.QueryTimeoutException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.deadline.Deadline;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Aplica el plazo de la solicitud ({@link Deadline} en el contexto de Reactor) a las conexiones que entrega: lo
+ * convierte en {@code statement_timeout} de PostgreSQL y, si la solicitud se cancela mientras la conexión sigue
+ * asignada, envía un CancelRequest para que el servidor deje de ejecutar la consulta.
+ */
+public class DeadlineConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private static final Duration TIMEOUT_MINIMO = Duration.ofMillis(1);
+    // setStatementTimeout(Duration.ZERO) desactivaría el límite; RESET vuelve al valor del rol o de la base de datos
+    private static final String RESTABLECER_TIMEOUT = "RESET statement_timeout";
+
+    private final ConnectionFactory delegate;
+    // Conexiones físicas con statement_timeout distinto al de la base de datos; las operaciones sin plazo lo restablecen
+    private final Map<Connection, Boolean> conTimeout = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Counter rechazadas;
+    private final Counter canceladas;
+    private final Timer tiempoDesperdiciado;
+
+    public DeadlineConnectionFactory(ConnectionFactory delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.rechazadas = Counter.builder("r2dbc.deadline.rejected")
+                .description("Operaciones no ejecutadas porque el plazo de la solicitud ya había vencido")
+                .register(meterRegistry);
+        this.canceladas = Counter.builder("r2dbc.deadline.cancelled")
+                .description("Consultas canceladas en PostgreSQL por vencimiento del plazo o desconexión del cliente")
+                .register(meterRegistry);
+        this.tiempoDesperdiciado = Timer.builder("r2dbc.deadline.wasted")
+                .description("Tiempo que una conexión estuvo asignada a una solicitud que luego se canceló")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.deferContextual(context -> Deadline.de(context)
+                .map(this::conPlazo)
+                .orElseGet(this::sinPlazo));
+    }
+
+    private Mono<Connection> conPlazo(Deadline deadline) {
+        if (deadline.vencido()) {
+            rechazadas.increment();
+            return Mono.error(new QueryTimeoutException("El plazo de la solicitud venció antes de ejecutar la consulta"));
+        }
+        return Mono.from(delegate.create())
+                .flatMap(connection -> {
+                    Duration restante = deadline.restante();
+                    Duration timeout = restante.compareTo(TIMEOUT_MINIMO) < 0 ? TIMEOUT_MINIMO : restante;
+                    conTimeout.put(fisica(connection), Boolean.TRUE);
+                    return Mono.from(connection.setStatementTimeout(timeout))
+                            .then(Mono.<Connection>fromSupplier(() ->
+                                    new DeadlineConnection(connection, deadline, canceladas, tiempoDesperdiciado)))
+                            .onErrorResume(error -> Mono.from(connection.close()).then(Mono.error(error)));
+                });
+    }
+
+    private Mono<Connection> sinPlazo() {
+        return Mono.from(delegate.create())
+                .flatMap(connection -> {
+                    if (conTimeout.remove(fisica(connection)) == null) {
+                        return Mono.just(connection);
+                    }
+                    return Flux.from(connection.createStatement(RESTABLECER_TIMEOUT).execute())
+                            .flatMap(Result::getRowsUpdated)
+                            .then(Mono.just(connection))
+                            .onErrorResume(error -> Mono.from(connection.close()).then(Mono.error(error)));
+                });
+    }
+
+    static Connection fisica(Connection connection) {
+        Connection actual = connection;
+        while (actual instanceof Wrapped<?> wrapped && wrapped.unwrap() instanceof Connection interna) {
+            actual = interna;
+        }
+        return actual;
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+}
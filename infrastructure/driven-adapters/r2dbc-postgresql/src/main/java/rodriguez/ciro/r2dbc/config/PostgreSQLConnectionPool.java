@@ -1,25 +1,57 @@
 package rodriguez.ciro.r2dbc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.r2dbc.pool.ConnectionPool;
 import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 
 import java.time.Duration;
+import java.util.Map;
 
 @Configuration
+@Profile("!in-memory")
+@ImportRuntimeHints(R2dbcRuntimeHints.class)
 public class PostgreSQLConnectionPool {
     /* Change these values for your project */
-    public static final int INITIAL_SIZE = 12;
-    public static final int MAX_SIZE = 15;
+    public static final int INITIAL_SIZE = 5;
+    public static final int MAX_SIZE = 10;
     public static final int MAX_IDLE_TIME = 30;
     public static final int DEFAULT_PORT = 5432;
 
-	@Bean
-	public ConnectionPool getConnectionConfig(PostgresqlConnectionProperties properties) {
-		PostgresqlConnectionConfiguration dbConfiguration = PostgresqlConnectionConfiguration.builder()
+    @Bean
+    public ConnectionPool lecturaConnectionPool(PostgresqlConnectionProperties properties) {
+        return crearPool(properties, "api-postgres-lectura-pool", properties.lectura());
+    }
+
+    @Bean
+    public ConnectionPool escrituraConnectionPool(PostgresqlConnectionProperties properties) {
+        return crearPool(properties, "api-postgres-escritura-pool", properties.escritura());
+    }
+
+    @Bean
+    @Primary
+    public ConnectionFactory connectionFactory(ConnectionPool lecturaConnectionPool,
+                                               ConnectionPool escrituraConnectionPool,
+                                               MeterRegistry meterRegistry) {
+        BulkheadRoutingConnectionFactory routing = new BulkheadRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(Map.of(
+                Bulkhead.LECTURA, lecturaConnectionPool,
+                Bulkhead.ESCRITURA, escrituraConnectionPool));
+        routing.setDefaultTargetConnectionFactory(escrituraConnectionPool);
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return new DeadlineConnectionFactory(routing, meterRegistry);
+    }
+
+    public static PostgresqlConnectionConfiguration configuracion(PostgresqlConnectionProperties properties) {
+        return PostgresqlConnectionConfiguration.builder()
                 .host(properties.host())
                 .port(properties.port())
                 .database(properties.database())
@@ -27,16 +59,28 @@ public class PostgreSQLConnectionPool {
                 .username(properties.username())
                 .password(properties.password())
                 .build();
+    }
 
-        ConnectionPoolConfiguration poolConfiguration = ConnectionPoolConfiguration.builder()
+    private static ConnectionPool crearPool(PostgresqlConnectionProperties properties, String nombre,
+                                            PostgresqlConnectionProperties.PoolProperties pool) {
+        PostgresqlConnectionConfiguration dbConfiguration = configuracion(properties);
+
+        int maxSize = pool != null && pool.maxSize() != null ? pool.maxSize() : MAX_SIZE;
+        int initialSize = pool != null && pool.initialSize() != null ? pool.initialSize() : Math.min(INITIAL_SIZE, maxSize);
+        ConnectionPoolConfiguration.Builder poolConfiguration = ConnectionPoolConfiguration.builder()
                 .connectionFactory(new PostgresqlConnectionFactory(dbConfiguration))
-                .name("api-postgres-connection-pool")
-                .initialSize(INITIAL_SIZE)
-                .maxSize(MAX_SIZE)
+                .name(nombre)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
                 .maxIdleTime(Duration.ofMinutes(MAX_IDLE_TIME))
-                .validationQuery("SELECT 1")
-                .build();
-
-		return new ConnectionPool(poolConfiguration);
-	}
-}
\ No newline at end of file
+                .validationQuery("SELECT 1");
+        if (pool != null && pool.maxAcquireTime() != null) {
+            poolConfiguration.maxAcquireTime(pool.maxAcquireTime());
+        }
+        if (pool != null && pool.maxPendingAcquire() != null) {
+            // Cola de espera acotada: al llenarse se falla de inmediato en lugar de acumular solicitudes
+            poolConfiguration.customizer(builder -> builder.maxPendingAcquire(pool.maxPendingAcquire()));
+        }
+        return new ConnectionPool(poolConfiguration.build());
+    }
+}
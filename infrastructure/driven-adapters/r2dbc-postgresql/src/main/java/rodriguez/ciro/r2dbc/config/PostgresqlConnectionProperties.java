@@ -3,6 +3,8 @@ package rodriguez.ciro.r2dbc.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "adapters.r2dbc")
 public record PostgresqlConnectionProperties(
         String host,
@@ -10,5 +12,15 @@ public record PostgresqlConnectionProperties(
         String database,
         String schema,
         String username,
-        String password) {
+        String password,
+        String schemaVersion,
+        PoolProperties lectura,
+        PoolProperties escritura) {
+
+    public record PoolProperties(
+            Integer initialSize,
+            Integer maxSize,
+            Duration maxAcquireTime,
+            Integer maxPendingAcquire) {
+    }
 }
@@ -0,0 +1,28 @@
+package rodriguez.ciro.r2dbc.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.r2dbc.entity.CredencialEntity;
+import rodriguez.ciro.r2dbc.entity.RolEntity;
+import rodriguez.ciro.r2dbc.entity.RolUsuarioEntity;
+import rodriguez.ciro.r2dbc.entity.UsuarioEntity;
+import rodriguez.ciro.r2dbc.entity.UsuarioVersionEntity;
+
+import java.util.stream.Stream;
+
+// El ObjectMapper de reactivecommons (ModelMapper) lee getters y setters y crea instancias por reflexión
+public class R2dbcRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        Stream.of(Usuario.class, Rol.class, UsuarioEntity.class, RolEntity.class, UsuarioVersionEntity.class,
+                        CredencialEntity.class, RolUsuarioEntity.class)
+                .forEach(tipo -> hints.reflection().registerType(tipo,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS));
+    }
+}
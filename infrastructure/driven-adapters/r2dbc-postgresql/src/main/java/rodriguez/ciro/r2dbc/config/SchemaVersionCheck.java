@@ -0,0 +1,54 @@
+package rodriguez.ciro.r2dbc.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Las migraciones corren aparte (--migrate-only); al arrancar solo se compara el último changeset aplicado
+@Slf4j
+@Component
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class SchemaVersionCheck implements ApplicationRunner {
+
+    static final String ULTIMO_CHANGESET = "SELECT id FROM databasechangelog ORDER BY orderexecuted DESC LIMIT 1";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final DatabaseClient databaseClient;
+    private final PostgresqlConnectionProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String esperada = properties.schemaVersion();
+        if (esperada == null || esperada.isBlank()) {
+            log.warn("Verificación de la versión del esquema deshabilitada");
+            return;
+        }
+        String aplicada = databaseClient.sql(ULTIMO_CHANGESET)
+                .map(row -> row.get("id", String.class))
+                .one()
+                .onErrorMap(error -> new IllegalStateException(
+                        "No fue posible consultar la versión del esquema en databasechangelog; " +
+                                "si la base de datos no ha sido migrada ejecute la aplicación con --migrate-only", error))
+                .block(TIMEOUT);
+        verificar(esperada, aplicada);
+        log.info("Esquema de base de datos en la versión {} (requerida {})", aplicada, esperada);
+    }
+
+    // Los ids de changeset tienen ancho fijo, así que el orden lexicográfico es el de aplicación
+    static void verificar(String esperada, String aplicada) {
+        if (aplicada == null) {
+            throw new IllegalStateException("La base de datos no tiene migraciones aplicadas; ejecute la aplicación con --migrate-only");
+        }
+        if (aplicada.compareTo(esperada) < 0) {
+            throw new IllegalStateException("El esquema de base de datos está en la versión " + aplicada +
+                    " y se requiere la " + esperada + "; ejecute la aplicación con --migrate-only");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package rodriguez.ciro.r2dbc.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+public record CredencialEntity(
+        @Column("id_usuario") Long idUsuario,
+        @Column("correo_electronico") String correoElectronico,
+        @Column("hash_contrasena") String hashContrasena,
+        @Column("id_rol") Long idRol,
+        @Column("nombre_rol") String nombreRol) {
+}
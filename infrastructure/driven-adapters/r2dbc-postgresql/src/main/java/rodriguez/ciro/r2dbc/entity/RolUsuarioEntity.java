@@ -0,0 +1,8 @@
+package rodriguez.ciro.r2dbc.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+public record RolUsuarioEntity(
+        @Column("id_usuario") Long idUsuario,
+        @Column("id_rol") Long idRol) {
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -40,4 +41,9 @@ public class UsuarioEntity {
     private BigDecimal salarioBase;
     @Column("id_rol")
     private Long idRol;
+    @Version
+    @Column("version")
+    private Long version;
+    @Column("hash_contrasena")
+    private String hashContrasena;
 }
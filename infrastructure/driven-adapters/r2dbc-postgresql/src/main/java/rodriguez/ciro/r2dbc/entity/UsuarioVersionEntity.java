@@ -0,0 +1,8 @@
+package rodriguez.ciro.r2dbc.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+public record UsuarioVersionEntity(
+        @Column("id_usuario") Long idUsuario,
+        @Column("version") Long version) {
+}
@@ -0,0 +1,11 @@
+package rodriguez.ciro.r2dbc.estadistica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.role-stats")
+public record EstadisticaRolProperties(
+        Duration refreshInterval,
+        Duration reconnectBackoff) {
+}
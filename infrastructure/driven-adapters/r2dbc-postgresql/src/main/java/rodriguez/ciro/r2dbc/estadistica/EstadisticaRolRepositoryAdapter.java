@@ -0,0 +1,134 @@
+package rodriguez.ciro.r2dbc.estadistica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+import rodriguez.ciro.model.estadistica.exception.EstadisticasNoCargadasException;
+import rodriguez.ciro.model.estadistica.gateways.EstadisticaRolRepository;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+import rodriguez.ciro.r2dbc.config.PostgreSQLConnectionPool;
+import rodriguez.ciro.r2dbc.config.PostgresqlConnectionProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Responde los agregados por rol desde una instantánea en memoria. Los triggers de usuarios mantienen
+ * estadisticas_roles en la misma transacción de cada registro y notifican por el canal estadisticas_roles; una
+ * conexión dedicada lo escucha y vuelve a leer la tabla, que tiene a lo sumo 16 filas por rol. Las notificaciones se
+ * muestrean cada refresh-interval, así que una ráfaga de registros produce una lectura por intervalo y no una por
+ * registro. Al conectarse, y al reconectarse, primero se suscribe y luego lee, para no perder cambios entre ambos pasos.
+ */
+@Slf4j
+@Repository
+@Profile("!in-memory")
+public class EstadisticaRolRepositoryAdapter implements EstadisticaRolRepository, SmartLifecycle {
+
+    static final String CANAL = "estadisticas_roles";
+    private static final String POR_ROL = "SELECT id_rol, sum(total_usuarios)::bigint AS total_usuarios, "
+            + "sum(suma_salarios) AS suma_salarios, min(salario_minimo) AS salario_minimo, "
+            + "max(salario_maximo) AS salario_maximo FROM estadisticas_roles GROUP BY id_rol ORDER BY id_rol";
+    private static final Duration REINTENTO_MAXIMO = Duration.ofSeconds(30);
+
+    private final DatabaseClient databaseClient;
+    private final PostgresqlConnectionFactory notificaciones;
+    private final Duration intervalo;
+    private final Duration reintento;
+    private final Counter lecturas;
+    private volatile List<EstadisticaRol> estadisticas;
+    private volatile Disposable escucha;
+
+    @Autowired
+    public EstadisticaRolRepositoryAdapter(DatabaseClient databaseClient, PostgresqlConnectionProperties conexion,
+                                           EstadisticaRolProperties properties, MeterRegistry meterRegistry) {
+        this(databaseClient, new PostgresqlConnectionFactory(PostgreSQLConnectionPool.configuracion(conexion)),
+                properties, meterRegistry);
+    }
+
+    EstadisticaRolRepositoryAdapter(DatabaseClient databaseClient, PostgresqlConnectionFactory notificaciones,
+                                    EstadisticaRolProperties properties, MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.notificaciones = notificaciones;
+        this.intervalo = properties.refreshInterval();
+        this.reintento = properties.reconnectBackoff();
+        this.lecturas = Counter.builder("role.stats.refreshes")
+                .description("Veces que se leyeron los agregados por rol")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<List<EstadisticaRol>> porRol() {
+        return Mono.fromCallable(() -> {
+            List<EstadisticaRol> actuales = estadisticas;
+            if (actuales == null) {
+                throw new EstadisticasNoCargadasException("Las estadísticas de los roles aún no se han cargado");
+            }
+            return actuales;
+        });
+    }
+
+    @Override
+    public void start() {
+        escucha = escuchar().subscribe();
+    }
+
+    @Override
+    public void stop() {
+        escucha.dispose();
+        escucha = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return escucha != null;
+    }
+
+    private Mono<Void> escuchar() {
+        return Mono.usingWhen(notificaciones.create(),
+                        conexion -> conexion.createStatement("LISTEN " + CANAL).execute()
+                                .flatMap(PostgresqlResult::getRowsUpdated)
+                                .thenMany(Flux.concat(Mono.just(Boolean.TRUE),
+                                                conexion.getNotifications().map(notificacion -> Boolean.TRUE)
+                                                        .sample(intervalo))
+                                        .onBackpressureLatest()
+                                        .concatMap(cambio -> leer(), 1))
+                                .then(Mono.<Void>error(() ->
+                                        new IllegalStateException("Se cerró la conexión de notificaciones"))),
+                        PostgresqlConnection::close)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reintento)
+                        .maxBackoff(REINTENTO_MAXIMO)
+                        .doBeforeRetry(senal -> log.warn("Escucha de estadísticas interrumpida, reintentando: {}",
+                                senal.failure().getMessage())));
+    }
+
+    private Mono<List<EstadisticaRol>> leer() {
+        return Bulkhead.LECTURA.aplicar(databaseClient.sql(POR_ROL)
+                        .map(fila -> new EstadisticaRol(
+                                fila.get("id_rol", Long.class),
+                                fila.get("total_usuarios", Long.class),
+                                fila.get("suma_salarios", BigDecimal.class),
+                                fila.get("salario_minimo", BigDecimal.class),
+                                fila.get("salario_maximo", BigDecimal.class)))
+                        .all()
+                        .collectList())
+                .doOnNext(leidas -> {
+                    estadisticas = List.copyOf(leidas);
+                    lecturas.increment();
+                    log.debug("Estadísticas de {} roles leídas", leidas.size());
+                });
+    }
+}
@@ -0,0 +1,17 @@
+package rodriguez.ciro.r2dbc.intento;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.brute-force")
+public record IntentoProperties(
+        Duration window,
+        Integer accountMaxFailures,
+        Integer originMaxFailures,
+        Duration lockout,
+        Duration maxLockout,
+        Integer capacity,
+        Duration flushInterval,
+        Integer batchSize) {
+}
@@ -0,0 +1,293 @@
+package rodriguez.ciro.r2dbc.intento;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+import rodriguez.ciro.model.intento.Bloqueo;
+import rodriguez.ciro.model.intento.gateways.IntentoRepository;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+import rodriguez.ciro.r2dbc.intento.SlidingWindowCounters.Contador;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Cuenta los fallos por cuenta y por origen en dos {@link SlidingWindowCounters} de capacidad fija y decide los
+ * bloqueos en memoria, sin consultar la base de datos. Cada nodo cuenta sus propios intentos. Solo los bloqueos nuevos
+ * pasan por una cola acotada y se guardan por lotes en la tabla bloqueos; al arrancar se recargan los vigentes. Si la
+ * cola se llena, los bloqueos siguen aplicándose en memoria y solo se pierde su registro. Cada escritura borra los
+ * bloqueos vencidos hace más de max-lockout, así que la tabla no crece con los orígenes de un ataque.
+ */
+@Slf4j
+@Repository
+@Profile("!in-memory")
+public class IntentoRepositoryAdapter implements IntentoRepository, SmartLifecycle {
+
+    static final String CUENTA = "CUENTA";
+    static final String ORIGEN = "ORIGEN";
+    private static final String INSERTAR = "INSERT INTO bloqueos (tipo, clave, nivel, bloqueado_hasta) "
+            + "SELECT * FROM unnest(:tipos::varchar[], :claves::varchar[], :niveles::int[], :hasta::timestamptz[])";
+    private static final String VIGENTES = "SELECT DISTINCT ON (tipo, clave) tipo, clave, nivel, bloqueado_hasta "
+            + "FROM bloqueos WHERE bloqueado_hasta > now() ORDER BY tipo, clave, bloqueado_hasta DESC";
+    private static final String PURGAR = "DELETE FROM bloqueos WHERE bloqueado_hasta < :limite";
+    private static final int LOTES_EN_COLA = 16;
+    private static final Duration REINTENTO = Duration.ofSeconds(1);
+    private static final Duration REINTENTO_MAXIMO = Duration.ofSeconds(30);
+    private static final Duration ESPERA_AL_DETENER = Duration.ofSeconds(10);
+
+    private final DatabaseClient databaseClient;
+    private final SlidingWindowCounters cuentas;
+    private final SlidingWindowCounters origenes;
+    private final ArrayBlockingQueue<Transicion> transiciones;
+    private final Duration intervalo;
+    private final int tamanoLote;
+    private final Duration retencion;
+    private final Clock reloj = Clock.systemUTC();
+    private final Counter bloqueosCuenta;
+    private final Counter bloqueosOrigen;
+    private final Counter rechazados;
+    private final Counter descartados;
+    private volatile Disposable carga;
+    private volatile Sinks.Empty<Void> detener;
+    private volatile Mono<Void> escrituras;
+
+    public IntentoRepositoryAdapter(DatabaseClient databaseClient, IntentoProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        SecureRandom aleatorio = new SecureRandom();
+        this.cuentas = new SlidingWindowCounters(properties.capacity(), aleatorio.nextLong(), properties.window(),
+                properties.accountMaxFailures(), properties.lockout(), properties.maxLockout());
+        this.origenes = new SlidingWindowCounters(properties.capacity(), aleatorio.nextLong(), properties.window(),
+                properties.originMaxFailures(), properties.lockout(), properties.maxLockout());
+        this.intervalo = properties.flushInterval();
+        this.tamanoLote = properties.batchSize();
+        this.retencion = properties.maxLockout();
+        this.transiciones = new ArrayBlockingQueue<>(tamanoLote * LOTES_EN_COLA);
+        Gauge.builder("auth.failures.tracked", cuentas, SlidingWindowCounters::claves)
+                .tag("tipo", "cuenta")
+                .description("Claves con fallos o bloqueos en memoria")
+                .register(meterRegistry);
+        Gauge.builder("auth.failures.tracked", origenes, SlidingWindowCounters::claves)
+                .tag("tipo", "origen")
+                .description("Claves con fallos o bloqueos en memoria")
+                .register(meterRegistry);
+        this.bloqueosCuenta = Counter.builder("auth.lockouts")
+                .tag("tipo", "cuenta")
+                .description("Bloqueos por intentos fallidos")
+                .register(meterRegistry);
+        this.bloqueosOrigen = Counter.builder("auth.lockouts")
+                .tag("tipo", "origen")
+                .description("Bloqueos por intentos fallidos")
+                .register(meterRegistry);
+        this.rechazados = Counter.builder("auth.lockouts.rejected")
+                .description("Inicios de sesión rechazados por un bloqueo vigente")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("auth.lockouts.dropped")
+                .description("Bloqueos que no se guardaron porque la cola estaba llena")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Bloqueo> bloqueo(String correoElectronico, String origen) {
+        return Mono.fromSupplier(() -> {
+            long ahora = reloj.millis();
+            long hasta = cuentas.bloqueadoHasta(cuentas.huella(cuenta(correoElectronico)), ahora);
+            if (origen != null) {
+                hasta = Math.max(hasta, origenes.bloqueadoHasta(origenes.huella(origen), ahora));
+            }
+            if (hasta == 0) {
+                return null;
+            }
+            rechazados.increment();
+            return new Bloqueo(Instant.ofEpochMilli(hasta));
+        });
+    }
+
+    @Override
+    public Mono<Void> registrarFallo(String correoElectronico, String origen) {
+        return Mono.fromRunnable(() -> {
+            long ahora = reloj.millis();
+            String cuenta = cuenta(correoElectronico);
+            Contador bloqueo = cuentas.fallar(cuentas.huella(cuenta), ahora);
+            if (bloqueo != null) {
+                bloqueosCuenta.increment();
+                encolar(new Transicion(CUENTA, cuenta, bloqueo.nivel(), bloqueo.bloqueadoHasta()));
+            }
+            if (origen != null) {
+                bloqueo = origenes.fallar(origenes.huella(origen), ahora);
+                if (bloqueo != null) {
+                    bloqueosOrigen.increment();
+                    encolar(new Transicion(ORIGEN, origen, bloqueo.nivel(), bloqueo.bloqueadoHasta()));
+                }
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> registrarExito(String correoElectronico) {
+        return Mono.fromRunnable(() -> cuentas.reiniciar(cuentas.huella(cuenta(correoElectronico))));
+    }
+
+    // Se detiene después del servidor web, para guardar también los bloqueos de las últimas solicitudes
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    @Override
+    public void start() {
+        Sinks.Empty<Void> senal = Sinks.empty();
+        Mono<Void> ciclo = Flux.interval(intervalo, intervalo)
+                .takeUntilOther(senal.asMono())
+                .onBackpressureDrop()
+                .concatMap(numero -> guardar())
+                .then()
+                .cache();
+        ciclo.subscribe();
+        carga = cargar().subscribe();
+        detener = senal;
+        escrituras = ciclo;
+    }
+
+    // Como en la actividad, se deja terminar la escritura en curso, cuyo lote ya salió de la cola, y luego se guarda
+    // lo que quede
+    @Override
+    public void stop() {
+        Mono<Void> ciclo = escrituras;
+        carga.dispose();
+        detener.tryEmitEmpty();
+        escrituras = null;
+        try {
+            ciclo.then(guardar()).block(ESPERA_AL_DETENER);
+        } catch (RuntimeException e) {
+            log.warn("No fue posible guardar los bloqueos pendientes al detener: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return escrituras != null;
+    }
+
+    private void encolar(Transicion transicion) {
+        log.warn("Bloqueo por intentos fallidos: {} {} hasta {}", transicion.tipo(), transicion.clave(),
+                Instant.ofEpochMilli(transicion.bloqueadoHasta()));
+        if (!transiciones.offer(transicion)) {
+            descartados.increment();
+        }
+    }
+
+    private Mono<Void> guardar() {
+        return Mono.defer(() -> {
+            int lotes = (transiciones.size() + tamanoLote - 1) / tamanoLote;
+            if (lotes == 0) {
+                return Mono.empty();
+            }
+            return Flux.range(0, lotes)
+                    .concatMap(numero -> {
+                        List<Transicion> lote = new ArrayList<>(tamanoLote);
+                        transiciones.drainTo(lote, tamanoLote);
+                        return insertar(lote);
+                    })
+                    .then(Mono.defer(this::purgar));
+        });
+    }
+
+    // Solo se recargan los bloqueos vigentes; los vencidos hace más de max-lockout ya no sirven ni como historial
+    private Mono<Void> purgar() {
+        OffsetDateTime limite = reloj.instant().minus(retencion).atOffset(ZoneOffset.UTC);
+        return Bulkhead.ESCRITURA.aplicar(databaseClient.sql(PURGAR)
+                        .bind("limite", limite)
+                        .fetch()
+                        .rowsUpdated())
+                .doOnNext(filas -> log.debug("{} bloqueos vencidos eliminados", filas))
+                .onErrorResume(error -> {
+                    log.warn("No fue posible eliminar los bloqueos vencidos: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Long> insertar(List<Transicion> lote) {
+        if (lote.isEmpty()) {
+            return Mono.empty();
+        }
+        String[] tipos = new String[lote.size()];
+        String[] claves = new String[lote.size()];
+        Integer[] niveles = new Integer[lote.size()];
+        OffsetDateTime[] hasta = new OffsetDateTime[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            Transicion transicion = lote.get(i);
+            tipos[i] = transicion.tipo();
+            claves[i] = transicion.clave();
+            niveles[i] = transicion.nivel();
+            hasta[i] = Instant.ofEpochMilli(transicion.bloqueadoHasta()).atOffset(ZoneOffset.UTC);
+        }
+        return Bulkhead.ESCRITURA.aplicar(databaseClient.sql(INSERTAR)
+                        .bind("tipos", tipos)
+                        .bind("claves", claves)
+                        .bind("niveles", niveles)
+                        .bind("hasta", hasta)
+                        .fetch()
+                        .rowsUpdated())
+                .doOnCancel(() -> devolver(lote))
+                .onErrorResume(error -> {
+                    log.warn("No fue posible guardar {} bloqueos: {}", lote.size(), error.getMessage());
+                    devolver(lote);
+                    return Mono.empty();
+                });
+    }
+
+    private void devolver(List<Transicion> lote) {
+        lote.forEach(transicion -> {
+            if (!transiciones.offer(transicion)) {
+                descartados.increment();
+            }
+        });
+    }
+
+    private Mono<Void> cargar() {
+        return Bulkhead.LECTURA.aplicar(databaseClient.sql(VIGENTES)
+                        .map(fila -> {
+                            SlidingWindowCounters tabla = CUENTA.equals(fila.get("tipo", String.class))
+                                    ? cuentas : origenes;
+                            tabla.restaurar(tabla.huella(fila.get("clave", String.class)),
+                                    fila.get("nivel", Integer.class),
+                                    fila.get("bloqueado_hasta", Instant.class).toEpochMilli(), reloj.millis());
+                            return Boolean.TRUE;
+                        })
+                        .all()
+                        .count())
+                .doOnNext(total -> log.info("{} bloqueos vigentes cargados", total))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, REINTENTO)
+                        .maxBackoff(REINTENTO_MAXIMO)
+                        .doBeforeRetry(senal -> log.warn("No fue posible cargar los bloqueos, reintentando: {}",
+                                senal.failure().getMessage())))
+                .then();
+    }
+
+    private static String cuenta(String correoElectronico) {
+        return correoElectronico.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Transicion(String tipo, String clave, int nivel, long bloqueadoHasta) {
+    }
+}
@@ -0,0 +1,205 @@
+package rodriguez.ciro.r2dbc.intento;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fallos por clave en una ventana deslizante, con bloqueo al superar el máximo. La tabla tiene capacidad fija: cada
+ * clave cae en una franja de {@link #VIAS} ranuras según su huella y, si la franja está llena, reemplaza la entrada
+ * menos reciente, prefiriendo las que no están bloqueadas. Así la memoria no crece con el número de claves distintas
+ * de un ataque; lo peor que este consigue es olvidar fallos antiguos de otras claves.
+ * <p>
+ * Cada entrada es un {@link Contador} inmutable que se reemplaza con compareAndSet, sin locks. La ventana deslizante
+ * se aproxima con dos ventanas fijas: los fallos de la anterior pesan según cuánto de ella sigue dentro de la
+ * ventana. Cada bloqueo consecutivo de una clave dura el doble que el anterior, hasta el máximo; la cuenta se reinicia
+ * cuando la clave pasa un bloqueo máximo sin volver a bloquearse.
+ */
+final class SlidingWindowCounters {
+
+    static final int VIAS = 8;
+    private static final int NIVEL_MAXIMO = 30;
+
+    private final AtomicReferenceArray<Contador> ranuras;
+    private final int mascaraFranjas;
+    private final long semilla;
+    private final long ventana;
+    private final int maximoFallos;
+    private final long bloqueo;
+    private final long bloqueoMaximo;
+
+    SlidingWindowCounters(int capacidad, long semilla, Duration ventana, int maximoFallos, Duration bloqueo,
+                          Duration bloqueoMaximo) {
+        int franjasPedidas = Math.max(1, (capacidad + VIAS - 1) / VIAS);
+        int franjas = franjasPedidas == 1 ? 1 : Integer.highestOneBit(franjasPedidas - 1) << 1;
+        this.ranuras = new AtomicReferenceArray<>(franjas * VIAS);
+        this.mascaraFranjas = franjas - 1;
+        this.semilla = semilla;
+        this.ventana = ventana.toMillis();
+        this.maximoFallos = maximoFallos;
+        this.bloqueo = bloqueo.toMillis();
+        this.bloqueoMaximo = bloqueoMaximo.toMillis();
+    }
+
+    // La semilla es secreta, así que un atacante no puede elegir claves que caigan en la misma franja
+    long huella(String clave) {
+        long h = semilla;
+        for (int i = 0; i < clave.length(); i++) {
+            h = (h ^ clave.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    // Milisegundos epoch hasta los que la clave está bloqueada, o 0 si no lo está
+    long bloqueadoHasta(long huella, long ahora) {
+        Contador contador = buscar(huella);
+        return contador != null && contador.bloqueadoHasta() > ahora ? contador.bloqueadoHasta() : 0;
+    }
+
+    // Devuelve el contador si este fallo bloqueó la clave, o null si no
+    Contador fallar(long huella, long ahora) {
+        while (true) {
+            int franja = franja(huella);
+            int indice = -1;
+            Contador actual = null;
+            for (int i = franja; i < franja + VIAS; i++) {
+                Contador contador = ranuras.get(i);
+                if (contador != null && contador.huella() == huella) {
+                    indice = i;
+                    actual = contador;
+                    break;
+                }
+            }
+            if (indice < 0) {
+                indice = victima(franja, ahora);
+            }
+            Contador anterior = actual != null ? actual : ranuras.get(indice);
+            if (actual == null && anterior != null && anterior.huella() == huella) {
+                continue;
+            }
+            Contador siguiente = siguiente(actual, huella, ahora);
+            if (ranuras.compareAndSet(indice, anterior, siguiente)) {
+                boolean bloqueoNuevo = siguiente.bloqueadoHasta() > ahora
+                        && (actual == null || actual.bloqueadoHasta() != siguiente.bloqueadoHasta());
+                return bloqueoNuevo ? siguiente : null;
+            }
+        }
+    }
+
+    void reiniciar(long huella) {
+        int franja = franja(huella);
+        for (int i = franja; i < franja + VIAS; i++) {
+            Contador contador = ranuras.get(i);
+            if (contador != null && contador.huella() == huella) {
+                ranuras.compareAndSet(i, contador, null);
+                return;
+            }
+        }
+    }
+
+    // Restaura un bloqueo guardado; si la clave ya tiene uno que termina más tarde se conserva ese
+    void restaurar(long huella, int nivel, long bloqueadoHasta, long ahora) {
+        while (true) {
+            Contador actual = buscar(huella);
+            if (actual != null && actual.bloqueadoHasta() >= bloqueadoHasta) {
+                return;
+            }
+            int franja = franja(huella);
+            int indice = actual != null ? indice(franja, actual) : victima(franja, ahora);
+            Contador anterior = actual != null ? actual : ranuras.get(indice);
+            Contador restaurado = new Contador(huella, ahora / ventana, 0, 0, nivel, ahora, bloqueadoHasta);
+            if (indice >= 0 && ranuras.compareAndSet(indice, anterior, restaurado)) {
+                return;
+            }
+        }
+    }
+
+    int claves() {
+        int claves = 0;
+        for (int i = 0; i < ranuras.length(); i++) {
+            if (ranuras.get(i) != null) {
+                claves++;
+            }
+        }
+        return claves;
+    }
+
+    int capacidad() {
+        return ranuras.length();
+    }
+
+    private Contador siguiente(Contador actual, long huella, long ahora) {
+        long numeroVentana = ahora / ventana;
+        int enVentana = 0;
+        int enAnterior = 0;
+        int nivel = 0;
+        long bloqueadoHasta = 0;
+        if (actual != null) {
+            if (actual.ventana() == numeroVentana) {
+                enVentana = actual.enVentana();
+                enAnterior = actual.enAnterior();
+            } else if (actual.ventana() == numeroVentana - 1) {
+                enAnterior = actual.enVentana();
+            }
+            bloqueadoHasta = actual.bloqueadoHasta();
+            nivel = ahora - actual.bloqueadoHasta() > bloqueoMaximo ? 0 : actual.nivel();
+        }
+        enVentana++;
+        double pesoAnterior = 1 - (double) (ahora % ventana) / ventana;
+        if (bloqueadoHasta <= ahora && enAnterior * pesoAnterior + enVentana >= maximoFallos) {
+            nivel = Math.min(nivel + 1, NIVEL_MAXIMO);
+            int duplicaciones = Math.min(nivel - 1, Long.numberOfLeadingZeros(bloqueo) - 1);
+            bloqueadoHasta = ahora + Math.min(bloqueo << duplicaciones, bloqueoMaximo);
+            enVentana = 0;
+            enAnterior = 0;
+        }
+        return new Contador(huella, numeroVentana, enVentana, enAnterior, nivel, ahora, bloqueadoHasta);
+    }
+
+    private Contador buscar(long huella) {
+        int franja = franja(huella);
+        for (int i = franja; i < franja + VIAS; i++) {
+            Contador contador = ranuras.get(i);
+            if (contador != null && contador.huella() == huella) {
+                return contador;
+            }
+        }
+        return null;
+    }
+
+    private int indice(int franja, Contador contador) {
+        for (int i = franja; i < franja + VIAS; i++) {
+            if (ranuras.get(i) == contador) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // La primera ranura libre o, si no hay, la de actividad menos reciente; un bloqueo vigente cuenta hasta su fin
+    private int victima(int franja, long ahora) {
+        int victima = franja;
+        long menosReciente = Long.MAX_VALUE;
+        for (int i = franja; i < franja + VIAS; i++) {
+            Contador contador = ranuras.get(i);
+            if (contador == null) {
+                return i;
+            }
+            long reciente = Math.max(contador.ultimoFallo(), contador.bloqueadoHasta());
+            if (reciente < menosReciente) {
+                menosReciente = reciente;
+                victima = i;
+            }
+        }
+        return victima;
+    }
+
+    private int franja(long huella) {
+        return ((int) huella & mascaraFranjas) * VIAS;
+    }
+
+    record Contador(long huella, long ventana, int enVentana, int enAnterior, int nivel, long ultimoFallo,
+                    long bloqueadoHasta) {
+    }
+}
@@ -0,0 +1,12 @@
+package rodriguez.ciro.r2dbc.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.outbox")
+public record OutboxProperties(
+        Duration pollInterval,
+        Integer batchSize,
+        Duration claimTimeout) {
+}
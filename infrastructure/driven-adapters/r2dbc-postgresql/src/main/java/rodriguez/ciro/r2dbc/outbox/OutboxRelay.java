@@ -0,0 +1,138 @@
+package rodriguez.ciro.r2dbc.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.evento.Evento;
+import rodriguez.ciro.model.evento.gateways.PublicadorEventos;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Publica los eventos del outbox. Cada poll-interval reclama hasta batch-size eventos con FOR UPDATE SKIP LOCKED,
+ * marcándolos como reclamados durante claim-timeout, de modo que varios nodos publican lotes distintos en paralelo
+ * sin esperarse. El lote se entrega al {@link PublicadorEventos} en orden de id y, cuando termina, se borra. Si el
+ * publicador falla o el nodo cae, las filas quedan reclamadas hasta que vence el plazo y otro ciclo las vuelve a
+ * publicar. Mientras se reclaman lotes completos se sigue drenando sin esperar al siguiente ciclo.
+ */
+@Slf4j
+@Component
+@Profile("!in-memory")
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final String RECLAMAR = "UPDATE outbox SET reclamado_hasta = now() + make_interval(secs => :plazo) "
+            + "WHERE id_evento IN (SELECT id_evento FROM outbox "
+            + "WHERE reclamado_hasta IS NULL OR reclamado_hasta < now() "
+            + "ORDER BY id_evento LIMIT :lote FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id_evento, tipo, clave, contenido::text AS contenido, creado_en";
+    private static final String BORRAR = "DELETE FROM outbox WHERE id_evento = ANY(:ids::bigint[])";
+
+    private final DatabaseClient databaseClient;
+    private final PublicadorEventos publicador;
+    private final Duration intervalo;
+    private final int tamanoLote;
+    private final double plazoSegundos;
+    private final Clock reloj = Clock.systemUTC();
+    private final Timer retraso;
+    private final Counter publicados;
+    private final DistributionSummary lotes;
+    private final Counter fallos;
+    private volatile Disposable relevo;
+
+    public OutboxRelay(DatabaseClient databaseClient, PublicadorEventos publicador, OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.publicador = publicador;
+        this.intervalo = properties.pollInterval();
+        this.tamanoLote = properties.batchSize();
+        this.plazoSegundos = properties.claimTimeout().toMillis() / 1000.0;
+        this.retraso = Timer.builder("outbox.relay.lag")
+                .description("Tiempo entre que se guarda un evento y se publica")
+                .register(meterRegistry);
+        this.publicados = Counter.builder("outbox.relayed")
+                .description("Eventos publicados desde el outbox")
+                .register(meterRegistry);
+        this.lotes = DistributionSummary.builder("outbox.relay.batch")
+                .description("Eventos publicados por cada lote reclamado")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("outbox.publish.failures")
+                .description("Lotes que el publicador no pudo entregar")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        relevo = Flux.interval(intervalo, intervalo)
+                .onBackpressureDrop()
+                .concatMap(numero -> relevar())
+                .subscribe();
+    }
+
+    // Lo reclamado y no confirmado se libera solo al vencer el plazo, así que no hace falta drenar al detener
+    @Override
+    public void stop() {
+        relevo.dispose();
+        relevo = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return relevo != null;
+    }
+
+    private Mono<Void> relevar() {
+        return relevarLote()
+                .expand(publicadosEnLote -> publicadosEnLote == tamanoLote ? relevarLote() : Mono.empty())
+                .onErrorResume(error -> {
+                    log.warn("No fue posible reclamar eventos del outbox: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Integer> relevarLote() {
+        return Bulkhead.ESCRITURA.aplicar(databaseClient.sql(RECLAMAR)
+                        .bind("plazo", plazoSegundos)
+                        .bind("lote", tamanoLote)
+                        .map(fila -> new Evento(fila.get("id_evento", Long.class), fila.get("tipo", String.class),
+                                fila.get("clave", String.class), fila.get("contenido", String.class),
+                                fila.get("creado_en", Instant.class)))
+                        .all()
+                        .collectSortedList(Comparator.comparing(Evento::idEvento)))
+                .flatMap(eventos -> eventos.isEmpty() ? Mono.just(0) : publicar(eventos));
+    }
+
+    private Mono<Integer> publicar(List<Evento> eventos) {
+        return publicador.publicar(eventos)
+                .then(Mono.fromRunnable(() -> {
+                    Instant ahora = reloj.instant();
+                    eventos.forEach(evento -> retraso.record(Duration.between(evento.creadoEn(), ahora)));
+                    publicados.increment(eventos.size());
+                    lotes.record(eventos.size());
+                }))
+                .then(Bulkhead.ESCRITURA.aplicar(databaseClient.sql(BORRAR)
+                        .bind("ids", eventos.stream().map(Evento::idEvento).toArray(Long[]::new))
+                        .fetch()
+                        .rowsUpdated()))
+                .thenReturn(eventos.size())
+                .onErrorResume(error -> {
+                    fallos.increment();
+                    log.warn("No fue posible publicar {} eventos del outbox: {}", eventos.size(), error.getMessage());
+                    return Mono.just(0);
+                });
+    }
+}
@@ -0,0 +1,136 @@
+package rodriguez.ciro.r2dbc.permiso;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import rodriguez.ciro.model.permiso.AsignacionPermiso;
+import rodriguez.ciro.model.permiso.MatrizPermisos;
+import rodriguez.ciro.model.permiso.exception.PermisosNoCargadosException;
+import rodriguez.ciro.model.permiso.gateways.PermisoRepository;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+import rodriguez.ciro.r2dbc.config.PostgreSQLConnectionPool;
+import rodriguez.ciro.r2dbc.config.PostgresqlConnectionProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compila los permisos de cada rol en una {@link MatrizPermisos} y la publica en un campo volátil. Un trigger sobre
+ * roles, permisos y roles_permisos notifica cada cambio por el canal permisos; una conexión dedicada lo escucha y
+ * vuelve a compilar la matriz completa con una sola consulta, que lee todo de la misma instantánea. Las
+ * notificaciones que llegan durante una compilación se agrupan en la siguiente. Al conectarse, y al reconectarse,
+ * primero se suscribe y luego compila, para no perder cambios entre ambos pasos.
+ */
+@Slf4j
+@Repository
+@Profile("!in-memory")
+public class PermisoRepositoryAdapter implements PermisoRepository, SmartLifecycle {
+
+    static final String CANAL = "permisos";
+    private static final String PERMISOS = "SELECT p.nombre, rp.id_rol FROM permisos p "
+            + "LEFT JOIN roles_permisos rp ON rp.id_permiso = p.id_permiso ORDER BY p.id_permiso";
+    private static final Duration REINTENTO = Duration.ofSeconds(1);
+    private static final Duration REINTENTO_MAXIMO = Duration.ofSeconds(30);
+
+    private final DatabaseClient databaseClient;
+    private final PostgresqlConnectionFactory notificaciones;
+    private final Counter compilaciones;
+    private volatile MatrizPermisos matriz;
+    private volatile Disposable escucha;
+
+    @Autowired
+    public PermisoRepositoryAdapter(DatabaseClient databaseClient, PostgresqlConnectionProperties conexion,
+                                    MeterRegistry meterRegistry) {
+        this(databaseClient, new PostgresqlConnectionFactory(PostgreSQLConnectionPool.configuracion(conexion)),
+                meterRegistry);
+    }
+
+    PermisoRepositoryAdapter(DatabaseClient databaseClient, PostgresqlConnectionFactory notificaciones,
+                             MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.notificaciones = notificaciones;
+        this.compilaciones = Counter.builder("permissions.compilations")
+                .description("Veces que se compiló la matriz de permisos")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<MatrizPermisos> matriz() {
+        return Mono.fromCallable(() -> {
+            MatrizPermisos actual = matriz;
+            if (actual == null) {
+                throw new PermisosNoCargadosException("Los permisos de los roles aún no se han cargado");
+            }
+            return actual;
+        });
+    }
+
+    @Override
+    public void start() {
+        escucha = escuchar().subscribe();
+    }
+
+    @Override
+    public void stop() {
+        escucha.dispose();
+        escucha = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return escucha != null;
+    }
+
+    private Mono<Void> escuchar() {
+        return Mono.usingWhen(notificaciones.create(),
+                        conexion -> conexion.createStatement("LISTEN " + CANAL).execute()
+                                .flatMap(PostgresqlResult::getRowsUpdated)
+                                .thenMany(Flux.concat(Mono.just(Boolean.TRUE),
+                                                conexion.getNotifications().map(notificacion -> Boolean.TRUE))
+                                        .onBackpressureLatest()
+                                        .concatMap(cambio -> compilar(), 1))
+                                .then(Mono.<Void>error(() ->
+                                        new IllegalStateException("Se cerró la conexión de notificaciones"))),
+                        PostgresqlConnection::close)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, REINTENTO)
+                        .maxBackoff(REINTENTO_MAXIMO)
+                        .doBeforeRetry(senal -> log.warn("Escucha de permisos interrumpida, reintentando: {}",
+                                senal.failure().getMessage())));
+    }
+
+    private Mono<MatrizPermisos> compilar() {
+        return Mono.defer(() -> {
+            List<String> permisos = new ArrayList<>();
+            List<AsignacionPermiso> asignaciones = new ArrayList<>();
+            return Bulkhead.LECTURA.aplicar(databaseClient.sql(PERMISOS)
+                    .map(fila -> {
+                        String permiso = fila.get("nombre", String.class);
+                        Long idRol = fila.get("id_rol", Long.class);
+                        permisos.add(permiso);
+                        if (idRol != null) {
+                            asignaciones.add(new AsignacionPermiso(idRol, permiso));
+                        }
+                        return Boolean.TRUE;
+                    })
+                    .all()
+                    .then(Mono.fromSupplier(() -> MatrizPermisos.compilar(permisos, asignaciones))));
+        }).doOnNext(compilada -> {
+            matriz = compilada;
+            compilaciones.increment();
+            log.info("Matriz de permisos compilada: {} permisos en {} roles", compilada.permisos(), compilada.roles());
+        });
+    }
+}
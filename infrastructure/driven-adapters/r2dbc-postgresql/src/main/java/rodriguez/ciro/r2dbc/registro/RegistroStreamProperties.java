@@ -0,0 +1,21 @@
+package rodriguez.ciro.r2dbc.registro;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.registration-stream")
+public record RegistroStreamProperties(
+        Integer subscriberBuffer,
+        SlowSubscriberPolicy slowSubscriberPolicy,
+        Integer batchSize,
+        Duration flushInterval,
+        Duration reconnectBackoff) {
+
+    public enum SlowSubscriberPolicy {
+        // Descarta los registros más antiguos del buffer del suscriptor y sigue entregando los nuevos
+        DROP_OLDEST,
+        // Termina el stream del suscriptor, que reconecta y recupera lo perdido con su último id
+        DISCONNECT
+    }
+}
@@ -0,0 +1,223 @@
+package rodriguez.ciro.r2dbc.registro;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.gateways.RegistroUsuarioRepository;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+import rodriguez.ciro.r2dbc.config.PostgreSQLConnectionPool;
+import rodriguez.ciro.r2dbc.config.PostgresqlConnectionProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Difunde los usuarios registrados a todos los suscriptores del nodo desde una única conexión dedicada, fuera de los
+ * pools, que escucha el canal usuarios_registrados que alimenta el trigger de la tabla; así llegan también los
+ * registros hechos en otros nodos. Los ids notificados se agrupan y se leen con una consulta por lote, y solo si hay
+ * suscriptores. Cada suscriptor tiene su propio buffer acotado: uno lento no frena a los demás ni a la escucha, y al
+ * llenarse su buffer se descartan sus registros más antiguos o se termina su stream, según la política configurada.
+ * Si se pierde la conexión de escucha se terminan todos los streams abiertos, para que cada suscriptor reconecte y
+ * recupere con su último id lo registrado mientras no se escuchaba.
+ */
+@Slf4j
+@Repository
+@Profile("!in-memory")
+public class RegistroUsuarioRepositoryAdapter implements RegistroUsuarioRepository, SmartLifecycle {
+
+    static final String CANAL = "usuarios_registrados";
+    private static final String COLUMNAS = "SELECT id_usuario, nombres, apellidos, tipo_documento, numero_documento, "
+            + "fecha_nacimiento, direccion, telefono, correo_electronico, salario_base, id_rol, version FROM usuarios ";
+    private static final String POR_IDS = COLUMNAS + "WHERE id_usuario = ANY(:ids::bigint[]) ORDER BY id_usuario";
+    private static final String DESPUES_DE = COLUMNAS + "WHERE id_usuario > :desde ORDER BY id_usuario LIMIT :lote";
+    private static final Duration REINTENTO_MAXIMO = Duration.ofSeconds(30);
+
+    private final DatabaseClient databaseClient;
+    private final PostgresqlConnectionFactory notificaciones;
+    private final Sinks.Many<Usuario> registros = Sinks.many().multicast().directBestEffort();
+    private final int bufferSuscriptor;
+    private final RegistroStreamProperties.SlowSubscriberPolicy politica;
+    private final int tamanoLote;
+    private final Duration intervalo;
+    private final Duration reintento;
+    private final Counter descartados;
+    private final Counter desconectados;
+    private volatile Sinks.One<Boolean> interrupcion = Sinks.one();
+    private volatile Disposable escucha;
+
+    @Autowired
+    public RegistroUsuarioRepositoryAdapter(DatabaseClient databaseClient, PostgresqlConnectionProperties conexion,
+                                            RegistroStreamProperties properties, MeterRegistry meterRegistry) {
+        this(databaseClient, new PostgresqlConnectionFactory(PostgreSQLConnectionPool.configuracion(conexion)),
+                properties, meterRegistry);
+    }
+
+    RegistroUsuarioRepositoryAdapter(DatabaseClient databaseClient, PostgresqlConnectionFactory notificaciones,
+                                     RegistroStreamProperties properties, MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.notificaciones = notificaciones;
+        this.bufferSuscriptor = properties.subscriberBuffer();
+        this.politica = properties.slowSubscriberPolicy();
+        this.tamanoLote = properties.batchSize();
+        this.intervalo = properties.flushInterval();
+        this.reintento = properties.reconnectBackoff();
+        Gauge.builder("usuarios.stream.subscribers", registros, Sinks.Many::currentSubscriberCount)
+                .description("Suscriptores del stream de registros en este nodo")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("usuarios.stream.dropped")
+                .description("Registros descartados del buffer de un suscriptor lento")
+                .register(meterRegistry);
+        this.desconectados = Counter.builder("usuarios.stream.disconnected")
+                .description("Suscriptores desconectados por llenar su buffer")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Flux<Usuario> nuevos() {
+        return Flux.defer(() -> {
+            Flux<Usuario> difundidos = registros.asFlux().takeUntilOther(interrupcion.asMono());
+            return switch (politica) {
+                case DROP_OLDEST -> difundidos
+                        .onBackpressureBuffer(bufferSuscriptor, usuario -> descartados.increment(),
+                                BufferOverflowStrategy.DROP_OLDEST);
+                case DISCONNECT -> difundidos
+                        .onBackpressureBuffer(bufferSuscriptor)
+                        .onErrorResume(Exceptions::isOverflow, error -> {
+                            desconectados.increment();
+                            return Flux.empty();
+                        });
+            };
+        });
+    }
+
+    // Páginas de batch-size por clave; cada página se pide cuando el suscriptor consumió la anterior
+    @Override
+    public Flux<Usuario> registradosDespuesDe(Long idUsuario) {
+        return pagina(idUsuario)
+                .expand(pagina -> pagina.size() == tamanoLote
+                        ? pagina(pagina.get(pagina.size() - 1).getIdUsuario())
+                        : Mono.empty())
+                .concatMapIterable(pagina -> pagina);
+    }
+
+    @Override
+    public void start() {
+        escucha = escuchar().subscribe();
+    }
+
+    // Termina los streams abiertos para que el apagado ordenado del servidor no los espere
+    @Override
+    public void stop() {
+        escucha.dispose();
+        escucha = null;
+        registros.tryEmitComplete();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return escucha != null;
+    }
+
+    private Mono<List<Usuario>> pagina(Long desde) {
+        return Bulkhead.LECTURA.aplicar(databaseClient.sql(DESPUES_DE)
+                .bind("desde", desde)
+                .bind("lote", tamanoLote)
+                .map(RegistroUsuarioRepositoryAdapter::usuario)
+                .all()
+                .collectList());
+    }
+
+    private Mono<Void> escuchar() {
+        return Mono.usingWhen(notificaciones.create(),
+                        conexion -> conexion.createStatement("LISTEN " + CANAL).execute()
+                                .flatMap(PostgresqlResult::getRowsUpdated)
+                                .thenMany(conexion.getNotifications())
+                                .filter(notificacion -> registros.currentSubscriberCount() > 0)
+                                .concatMapIterable(RegistroUsuarioRepositoryAdapter::ids)
+                                .bufferTimeout(tamanoLote, intervalo, true)
+                                .concatMap(this::cargar)
+                                .doOnNext(registros::tryEmitNext)
+                                .then(Mono.<Void>error(() ->
+                                        new IllegalStateException("Se cerró la conexión de notificaciones"))),
+                        PostgresqlConnection::close)
+                .doOnError(error -> interrumpir())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reintento)
+                        .maxBackoff(REINTENTO_MAXIMO)
+                        .doBeforeRetry(senal -> log.warn("Escucha de registros interrumpida, reintentando: {}",
+                                senal.failure().getMessage())));
+    }
+
+    private void interrumpir() {
+        Sinks.One<Boolean> anterior = interrupcion;
+        interrupcion = Sinks.one();
+        anterior.tryEmitValue(Boolean.TRUE);
+    }
+
+    private Flux<Usuario> cargar(List<Long> ids) {
+        return Bulkhead.LECTURA.aplicar(databaseClient.sql(POR_IDS)
+                        .bind("ids", ids.toArray(Long[]::new))
+                        .map(RegistroUsuarioRepositoryAdapter::usuario)
+                        .all())
+                .onErrorResume(error -> {
+                    log.warn("No fue posible leer {} usuarios registrados: {}", ids.size(), error.getMessage());
+                    return Flux.empty();
+                });
+    }
+
+    static List<Long> ids(Notification notificacion) {
+        String carga = notificacion.getParameter();
+        List<Long> ids = new ArrayList<>();
+        if (carga == null) {
+            return ids;
+        }
+        for (String id : carga.split(",")) {
+            try {
+                ids.add(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                log.warn("Id inválido en la notificación de registro: {}", id);
+            }
+        }
+        return ids;
+    }
+
+    private static Usuario usuario(Readable fila) {
+        Long idRol = fila.get("id_rol", Long.class);
+        return Usuario.builder()
+                .idUsuario(fila.get("id_usuario", Long.class))
+                .nombres(fila.get("nombres", String.class))
+                .apellidos(fila.get("apellidos", String.class))
+                .tipoDocumento(fila.get("tipo_documento", String.class))
+                .numeroDocumento(fila.get("numero_documento", String.class))
+                .fechaNacimiento(fila.get("fecha_nacimiento", LocalDate.class))
+                .direccion(fila.get("direccion", String.class))
+                .telefono(fila.get("telefono", String.class))
+                .correoElectronico(fila.get("correo_electronico", String.class))
+                .salarioBase(fila.get("salario_base", BigDecimal.class))
+                .rol(idRol != null ? Rol.builder().idRol(idRol).build() : null)
+                .version(fila.get("version", Long.class))
+                .build();
+    }
+}
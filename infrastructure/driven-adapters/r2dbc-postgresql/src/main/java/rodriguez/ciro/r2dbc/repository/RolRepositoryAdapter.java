@@ -1,11 +1,14 @@
 package rodriguez.ciro.r2dbc.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
 import rodriguez.ciro.model.rol.gateways.RolRepository;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
 
 @Repository
+@Profile("!in-memory & !imperative")
 @RequiredArgsConstructor
 public class RolRepositoryAdapter implements RolRepository {
 
@@ -16,6 +19,7 @@ public class RolRepositoryAdapter implements RolRepository {
         if (idRol == null) {
             return Mono.just(false);
         }
-        return repository.existsById(idRol);
+        // Solo se consulta al registrar usuarios
+        return Bulkhead.ESCRITURA.aplicar(repository.existsById(idRol));
     }
 }
@@ -1,17 +1,57 @@
 package rodriguez.ciro.r2dbc.repository;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.ReactiveQueryByExampleExecutor;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.r2dbc.entity.CredencialEntity;
+import rodriguez.ciro.r2dbc.entity.RolUsuarioEntity;
 import rodriguez.ciro.r2dbc.entity.UsuarioEntity;
+import rodriguez.ciro.r2dbc.entity.UsuarioVersionEntity;
+
+import java.util.Collection;
 
 public interface UsuarioReactiveRepository extends ReactiveCrudRepository<UsuarioEntity, Long>, ReactiveQueryByExampleExecutor<UsuarioEntity> {
 
+    String COLUMNAS = "u.id_usuario, u.nombres, u.apellidos, u.tipo_documento, u.numero_documento, " +
+            "u.fecha_nacimiento, u.direccion, u.telefono, u.correo_electronico, u.salario_base, u.id_rol, u.version, " +
+            "u.hash_contrasena";
+
+    // usuarios está particionada por id_usuario: el correo y el documento se resuelven primero en su tabla de búsqueda
+    // (una sola partición por su propia clave) y el id resultante poda las demás particiones de usuarios al ejecutar
+    String ID_POR_CORREO = "(SELECT id_usuario FROM usuarios_correos WHERE correo_electronico = :correoElectronico)";
+    String ID_POR_DOCUMENTO = "(SELECT id_usuario FROM usuarios_documentos " +
+            "WHERE tipo_documento = :tipoDocumento AND numero_documento = :numeroDocumento)";
+
+    @Query("SELECT EXISTS (SELECT 1 FROM usuarios_correos WHERE correo_electronico = :correoElectronico)")
     Mono<Boolean> existsByCorreoElectronico(String correoElectronico);
 
+    @Query("SELECT EXISTS (SELECT 1 FROM usuarios_documentos " +
+            "WHERE tipo_documento = :tipoDocumento AND numero_documento = :numeroDocumento)")
     Mono<Boolean> existsByTipoDocumentoAndNumeroDocumento(String tipoDocumento, String numeroDocumento);
 
+    @Query("SELECT " + COLUMNAS + " FROM usuarios u WHERE u.id_usuario = " + ID_POR_DOCUMENTO)
     Mono<UsuarioEntity> findByTipoDocumentoAndNumeroDocumento(String tipoDocumento, String numeroDocumento);
 
+    @Query("SELECT " + COLUMNAS + " FROM usuarios u WHERE u.id_usuario = " + ID_POR_CORREO)
     Mono<UsuarioEntity> findByCorreoElectronico(String correoElectronico);
+
+    // Resueltas con index-only scan sobre la tabla de búsqueda y sobre pk_usuarios, que incluye la versión
+    @Query("SELECT u.id_usuario, u.version FROM usuarios u WHERE u.id_usuario = " + ID_POR_DOCUMENTO)
+    Mono<UsuarioVersionEntity> findVersionByTipoDocumentoAndNumeroDocumento(String tipoDocumento, String numeroDocumento);
+
+    @Query("SELECT u.id_usuario, u.version FROM usuarios u WHERE u.id_usuario = " + ID_POR_CORREO)
+    Mono<UsuarioVersionEntity> findVersionByCorreoElectronico(String correoElectronico);
+
+    @Query("SELECT u.id_usuario, u.correo_electronico, u.hash_contrasena, u.id_rol, r.nombre AS nombre_rol " +
+            "FROM usuarios u LEFT JOIN roles r ON r.id_rol = u.id_rol WHERE u.id_usuario = " + ID_POR_CORREO)
+    Mono<CredencialEntity> findCredencialByCorreoElectronico(String correoElectronico);
+
+    @Query("SELECT u.id_usuario, u.correo_electronico, u.hash_contrasena, u.id_rol, r.nombre AS nombre_rol " +
+            "FROM usuarios u LEFT JOIN roles r ON r.id_rol = u.id_rol WHERE u.id_usuario = :idUsuario")
+    Mono<CredencialEntity> findCredencialByIdUsuario(Long idUsuario);
+
+    @Query("SELECT id_usuario, id_rol FROM usuarios WHERE id_usuario IN (:idsUsuario)")
+    Flux<RolUsuarioEntity> findRolesByIdUsuarioIn(Collection<Long> idsUsuario);
 }
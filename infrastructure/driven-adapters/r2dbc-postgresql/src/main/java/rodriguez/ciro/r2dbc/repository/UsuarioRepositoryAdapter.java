@@ -2,66 +2,96 @@ package rodriguez.ciro.r2dbc.repository;
 
 import lombok.extern.slf4j.Slf4j;
 import org.reactivecommons.utils.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.credencial.CredencialUsuario;
+import rodriguez.ciro.model.evento.Evento;
 import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.RolUsuario;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
 import rodriguez.ciro.model.usuario.gateways.UsuarioRepository;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
 import rodriguez.ciro.r2dbc.entity.UsuarioEntity;
 import rodriguez.ciro.r2dbc.helper.ReactiveAdapterOperations;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
 @Slf4j
 @Repository
+@Profile("!in-memory & !imperative")
 public class UsuarioRepositoryAdapter extends ReactiveAdapterOperations<
         Usuario,
         UsuarioEntity,
         Long,
         UsuarioReactiveRepository
         > implements UsuarioRepository {
-    public UsuarioRepositoryAdapter(UsuarioReactiveRepository repository, ObjectMapper mapper) {
+    // El usuario y su evento UsuarioRegistrado se insertan en la misma sentencia, así que ambos se confirman juntos
+    private static final String INSERTAR = "WITH nuevo AS (INSERT INTO usuarios (nombres, apellidos, tipo_documento, "
+            + "numero_documento, fecha_nacimiento, direccion, telefono, correo_electronico, salario_base, id_rol, "
+            + "hash_contrasena) VALUES (:nombres, :apellidos, :tipoDocumento, :numeroDocumento, :fechaNacimiento, "
+            + ":direccion, :telefono, :correoElectronico, :salarioBase, :idRol, :hashContrasena) "
+            + "RETURNING id_usuario, correo_electronico, id_rol), "
+            + "evento AS (INSERT INTO outbox (tipo, clave, contenido) SELECT :tipoEvento, id_usuario::text, "
+            + "jsonb_build_object('idUsuario', id_usuario, 'correoElectronico', correo_electronico, 'idRol', id_rol, "
+            + "'registradoEn', now()) FROM nuevo) "
+            + "SELECT id_usuario FROM nuevo";
+
+    private final DatabaseClient databaseClient;
+
+    public UsuarioRepositoryAdapter(UsuarioReactiveRepository repository, ObjectMapper mapper,
+                                    DatabaseClient databaseClient) {
         super(repository, mapper, d -> mapper.map(d, Usuario.class));
+        this.databaseClient = databaseClient;
     }
 
     @Override
     public Mono<Usuario> guardar(Usuario usuario) {
         log.debug("Guardando usuario en base de datos");
-        return Mono.just(usuario)
-                .map(u -> {
-                    UsuarioEntity entity = mapper.map(u, UsuarioEntity.class);
-                    if (u.getRol() != null) {
-                        entity.setIdRol(u.getRol().getIdRol());
-                    }
-                    return entity;
-                })
-                .flatMap(repository::save)
-                .map(usuarioData -> {
-                    Usuario domain = mapper.map(usuarioData, Usuario.class);
-                    if (usuarioData.getIdRol() != null) {
-                        domain.setRol(Rol.builder().idRol(usuarioData.getIdRol()).build());
-                    }
-                    return domain;
-                })
-                .doOnSuccess(u -> log.debug("Usuario guardado exitosamente con ID: {}", u.getIdUsuario()));
+        Long idRol = usuario.getRol() != null ? usuario.getRol().getIdRol() : null;
+        return Bulkhead.ESCRITURA.aplicar(databaseClient.sql(INSERTAR)
+                .bind("nombres", Parameter.fromOrEmpty(usuario.getNombres(), String.class))
+                .bind("apellidos", Parameter.fromOrEmpty(usuario.getApellidos(), String.class))
+                .bind("tipoDocumento", Parameter.fromOrEmpty(usuario.getTipoDocumento(), String.class))
+                .bind("numeroDocumento", Parameter.fromOrEmpty(usuario.getNumeroDocumento(), String.class))
+                .bind("fechaNacimiento", Parameter.fromOrEmpty(usuario.getFechaNacimiento(), LocalDate.class))
+                .bind("direccion", Parameter.fromOrEmpty(usuario.getDireccion(), String.class))
+                .bind("telefono", Parameter.fromOrEmpty(usuario.getTelefono(), String.class))
+                .bind("correoElectronico", Parameter.fromOrEmpty(usuario.getCorreoElectronico(), String.class))
+                .bind("salarioBase", Parameter.fromOrEmpty(usuario.getSalarioBase(), BigDecimal.class))
+                .bind("idRol", Parameter.fromOrEmpty(idRol, Long.class))
+                .bind("hashContrasena", Parameter.fromOrEmpty(usuario.getHashContrasena(), String.class))
+                .bind("tipoEvento", Evento.USUARIO_REGISTRADO)
+                .map(fila -> fila.get("id_usuario", Long.class))
+                .one()
+                .map(idUsuario -> usuario.toBuilder().idUsuario(idUsuario).version(0L).build())
+                .doOnSuccess(u -> log.debug("Usuario guardado exitosamente con ID: {}", u.getIdUsuario())));
     }
 
     @Override
     public Mono<Boolean> existePorCorreoElectronico(String correoElectronico) {
         log.debug("Verificando existencia de usuario con correo: {}", correoElectronico);
-        return repository.existsByCorreoElectronico(correoElectronico)
-                .doOnNext(existe -> log.debug("Usuario con correo {} existe: {}", correoElectronico, existe));
+        return Bulkhead.ESCRITURA.aplicar(repository.existsByCorreoElectronico(correoElectronico)
+                .doOnNext(existe -> log.debug("Usuario con correo {} existe: {}", correoElectronico, existe)));
     }
 
     @Override
     public Mono<Boolean> existePorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
         log.debug("Verificando existencia de usuario con documento: {} - {}", tipoDocumento, numeroDocumento);
-        return repository.existsByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
-                .doOnNext(existe -> log.debug("Usuario con documento {} - {} existe: {}", tipoDocumento, numeroDocumento, existe));
+        return Bulkhead.ESCRITURA.aplicar(repository.existsByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
+                .doOnNext(existe -> log.debug("Usuario con documento {} - {} existe: {}", tipoDocumento, numeroDocumento, existe)));
     }
 
     @Override
     public Mono<Usuario> buscarPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
         log.debug("Buscando usuario con documento: {} - {}", tipoDocumento, numeroDocumento);
-        return repository.findByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
+        return Bulkhead.LECTURA.aplicar(repository.findByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
                 .map(usuarioData -> {
                     Usuario domain = mapper.map(usuarioData, Usuario.class);
                     if (usuarioData.getIdRol() != null) {
@@ -69,13 +99,13 @@ public class UsuarioRepositoryAdapter extends ReactiveAdapterOperations<
                     }
                     return domain;
                 })
-                .doOnSuccess(u -> log.debug("Usuario encontrado con ID: {}", u != null ? u.getIdUsuario() : "null"));
+                .doOnSuccess(u -> log.debug("Usuario encontrado con ID: {}", u != null ? u.getIdUsuario() : "null")));
     }
 
     @Override
     public Mono<Usuario> buscarPorCorreoElectronico(String correoElectronico) {
         log.debug("Buscando usuario con correo: {}", correoElectronico);
-        return repository.findByCorreoElectronico(correoElectronico)
+        return Bulkhead.LECTURA.aplicar(repository.findByCorreoElectronico(correoElectronico)
                 .map(usuarioData -> {
                     Usuario domain = mapper.map(usuarioData, Usuario.class);
                     if (usuarioData.getIdRol() != null) {
@@ -83,6 +113,41 @@ public class UsuarioRepositoryAdapter extends ReactiveAdapterOperations<
                     }
                     return domain;
                 })
-                .doOnSuccess(u -> log.debug("Usuario encontrado por email con ID: {}", u != null ? u.getIdUsuario() : "null"));
+                .doOnSuccess(u -> log.debug("Usuario encontrado por email con ID: {}", u != null ? u.getIdUsuario() : "null")));
+    }
+
+    @Override
+    public Mono<VersionUsuario> buscarVersionPorTipoYNumeroDocumento(String tipoDocumento, String numeroDocumento) {
+        return Bulkhead.LECTURA.aplicar(repository.findVersionByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
+                .map(version -> new VersionUsuario(version.idUsuario(), version.version())));
+    }
+
+    @Override
+    public Mono<VersionUsuario> buscarVersionPorCorreoElectronico(String correoElectronico) {
+        return Bulkhead.LECTURA.aplicar(repository.findVersionByCorreoElectronico(correoElectronico)
+                .map(version -> new VersionUsuario(version.idUsuario(), version.version())));
+    }
+
+    @Override
+    public Mono<CredencialUsuario> buscarCredencialPorCorreoElectronico(String correoElectronico) {
+        return Bulkhead.LECTURA.aplicar(repository.findCredencialByCorreoElectronico(correoElectronico)
+                .map(credencial -> new CredencialUsuario(credencial.idUsuario(), credencial.correoElectronico(),
+                        credencial.hashContrasena(), credencial.idRol(), credencial.nombreRol())));
+    }
+
+    @Override
+    public Mono<CredencialUsuario> buscarCredencialPorIdUsuario(Long idUsuario) {
+        return Bulkhead.LECTURA.aplicar(repository.findCredencialByIdUsuario(idUsuario)
+                .map(credencial -> new CredencialUsuario(credencial.idUsuario(), credencial.correoElectronico(),
+                        credencial.hashContrasena(), credencial.idRol(), credencial.nombreRol())));
+    }
+
+    @Override
+    public Flux<RolUsuario> buscarRolesPorIdUsuario(Collection<Long> idsUsuario) {
+        if (idsUsuario.isEmpty()) {
+            return Flux.empty();
+        }
+        return Bulkhead.LECTURA.aplicar(repository.findRolesByIdUsuarioIn(idsUsuario)
+                .map(rol -> new RolUsuario(rol.idUsuario(), rol.idRol())));
     }
 }
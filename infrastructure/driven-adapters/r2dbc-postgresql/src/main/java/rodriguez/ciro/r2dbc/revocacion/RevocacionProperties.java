@@ -0,0 +1,12 @@
+package rodriguez.ciro.r2dbc.revocacion;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.token-revocation")
+public record RevocacionProperties(
+        Integer maxEntries,
+        Duration pruneInterval,
+        Duration reconnectBackoff) {
+}
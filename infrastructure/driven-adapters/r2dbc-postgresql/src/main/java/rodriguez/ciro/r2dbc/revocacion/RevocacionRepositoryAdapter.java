@@ -0,0 +1,188 @@
+package rodriguez.ciro.r2dbc.revocacion;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import rodriguez.ciro.model.token.exception.RevocacionesNoSincronizadasException;
+import rodriguez.ciro.model.token.gateways.RevocacionRepository;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+import rodriguez.ciro.r2dbc.config.PostgreSQLConnectionPool;
+import rodriguez.ciro.r2dbc.config.PostgresqlConnectionProperties;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Guarda las revocaciones en revoked_tokens y las responde desde un {@link RevokedTokenSet}. Una conexión dedicada,
+ * fuera de los pools, escucha el canal revoked_tokens que alimenta el trigger de la tabla, así que cada nodo recibe
+ * las revocaciones de los demás. Al conectarse, y al reconectarse, primero se suscribe a las notificaciones y luego
+ * carga las revocaciones vigentes, para no perder las que lleguen entre ambos pasos. Hasta la primera carga completa
+ * las consultas fallan en lugar de aceptar un token que podría estar revocado; durante una reconexión se sigue
+ * respondiendo con lo que ya hay en memoria.
+ */
+@Slf4j
+@Repository
+@Profile("!in-memory")
+public class RevocacionRepositoryAdapter implements RevocacionRepository, SmartLifecycle {
+
+    static final String CANAL = "revoked_tokens";
+    private static final String INSERTAR = "INSERT INTO revoked_tokens (id_token, expira_en) VALUES (:idToken, :expiraEn) "
+            + "ON CONFLICT (id_token) DO NOTHING";
+    private static final String VIGENTES = "SELECT id_token, expira_en FROM revoked_tokens WHERE expira_en > now()";
+    private static final String BORRAR_EXPIRADAS = "DELETE FROM revoked_tokens WHERE expira_en <= now()";
+    private static final Duration REINTENTO_MAXIMO = Duration.ofSeconds(30);
+
+    private final DatabaseClient databaseClient;
+    private final PostgresqlConnectionFactory notificaciones;
+    private final RevokedTokenSet revocados;
+    private final Duration intervaloPoda;
+    private final Duration reintento;
+    private final Clock reloj = Clock.systemUTC();
+    private volatile boolean sincronizado;
+    private volatile Disposable suscripciones;
+
+    @Autowired
+    public RevocacionRepositoryAdapter(DatabaseClient databaseClient, PostgresqlConnectionProperties conexion,
+                                       RevocacionProperties properties, MeterRegistry meterRegistry) {
+        this(databaseClient, new PostgresqlConnectionFactory(PostgreSQLConnectionPool.configuracion(conexion)),
+                properties, meterRegistry);
+    }
+
+    RevocacionRepositoryAdapter(DatabaseClient databaseClient, PostgresqlConnectionFactory notificaciones,
+                                RevocacionProperties properties, MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.notificaciones = notificaciones;
+        this.revocados = new RevokedTokenSet(properties.maxEntries());
+        this.intervaloPoda = properties.pruneInterval();
+        this.reintento = properties.reconnectBackoff();
+        Gauge.builder("tokens.revoked.entries", revocados, RevokedTokenSet::entradas)
+                .description("Revocaciones en memoria, incluidas las expiradas que aún no se podan")
+                .register(meterRegistry);
+        Gauge.builder("tokens.revoked.memory", revocados, RevokedTokenSet::bytes)
+                .description("Memoria de la tabla de revocaciones")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("tokens.revoked.synchronized", this, adapter -> adapter.sincronizado ? 1 : 0)
+                .description("1 si las revocaciones existentes ya se cargaron")
+                .register(meterRegistry);
+    }
+
+    // Se agrega en memoria antes de guardar: si la inserción falla el token queda revocado al menos en este nodo
+    @Override
+    public Mono<Void> revocar(String idToken, Instant expiraEn) {
+        return Mono.fromRunnable(() -> revocados.agregar(idToken, expiraEn.getEpochSecond(), ahora()))
+                .then(Bulkhead.ESCRITURA.aplicar(databaseClient.sql(INSERTAR)
+                        .bind("idToken", idToken)
+                        .bind("expiraEn", expiraEn)
+                        .fetch()
+                        .rowsUpdated()))
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> estaRevocado(String idToken) {
+        return Mono.fromCallable(() -> {
+            if (!sincronizado) {
+                throw new RevocacionesNoSincronizadasException("Las revocaciones de tokens aún no se han cargado");
+            }
+            return revocados.contiene(idToken, ahora());
+        });
+    }
+
+    @Override
+    public void start() {
+        suscripciones = Disposables.composite(
+                escuchar().subscribe(),
+                podar().subscribe());
+    }
+
+    @Override
+    public void stop() {
+        suscripciones.dispose();
+        suscripciones = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return suscripciones != null;
+    }
+
+    private Mono<Void> escuchar() {
+        return Mono.usingWhen(notificaciones.create(),
+                        conexion -> conexion.createStatement("LISTEN " + CANAL).execute()
+                                .flatMap(PostgresqlResult::getRowsUpdated)
+                                .thenMany(Flux.merge(
+                                        conexion.getNotifications().doOnNext(this::aplicar).then(),
+                                        cargar()))
+                                .then(Mono.<Void>error(() ->
+                                        new IllegalStateException("Se cerró la conexión de notificaciones"))),
+                        PostgresqlConnection::close)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reintento)
+                        .maxBackoff(REINTENTO_MAXIMO)
+                        .doBeforeRetry(senal -> log.warn("Escucha de revocaciones interrumpida, reintentando: {}",
+                                senal.failure().getMessage())));
+    }
+
+    private Mono<Void> cargar() {
+        return Bulkhead.LECTURA.aplicar(databaseClient.sql(VIGENTES)
+                        .map(fila -> {
+                            revocados.agregar(fila.get("id_token", String.class),
+                                    fila.get("expira_en", Instant.class).getEpochSecond(), ahora());
+                            return Boolean.TRUE;
+                        })
+                        .all()
+                        .count())
+                .doOnNext(total -> {
+                    sincronizado = true;
+                    log.info("{} revocaciones de tokens vigentes cargadas; {} en memoria ({} bytes)",
+                            total, revocados.entradas(), revocados.bytes());
+                })
+                .then();
+    }
+
+    private void aplicar(Notification notificacion) {
+        String carga = notificacion.getParameter();
+        int separador = carga == null ? -1 : carga.lastIndexOf(':');
+        try {
+            revocados.agregar(carga.substring(0, separador), Long.parseLong(carga.substring(separador + 1)), ahora());
+        } catch (RuntimeException e) {
+            log.warn("Notificación de revocación inválida: {}", carga);
+        }
+    }
+
+    // Cada nodo poda su memoria; el borrado en la tabla es idempotente y usa el índice de expira_en
+    private Flux<Long> podar() {
+        return Flux.interval(intervaloPoda, intervaloPoda)
+                .onBackpressureDrop()
+                .doOnNext(tick -> {
+                    int podadas = revocados.podar(ahora());
+                    if (podadas > 0) {
+                        log.debug("{} revocaciones expiradas descartadas de memoria", podadas);
+                    }
+                })
+                .concatMap(tick -> Bulkhead.ESCRITURA.aplicar(databaseClient.sql(BORRAR_EXPIRADAS).fetch().rowsUpdated())
+                        .onErrorResume(error -> {
+                            log.warn("No fue posible borrar las revocaciones expiradas: {}", error.getMessage());
+                            return Mono.empty();
+                        }));
+    }
+
+    private long ahora() {
+        return reloj.instant().getEpochSecond();
+    }
+}
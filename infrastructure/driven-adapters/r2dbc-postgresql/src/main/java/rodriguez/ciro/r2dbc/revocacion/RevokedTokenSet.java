@@ -0,0 +1,186 @@
+package rodriguez.ciro.r2dbc.revocacion;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Ids de tokens revocados con su expiración, en un único long[] con direccionamiento abierto: cada entrada ocupa tres
+ * posiciones (128 bits del id y la expiración en segundos, 0 si la ranura está libre), 24 bytes sin objetos por entrada.
+ * Consultar no toma locks ni asigna memoria: lee la tabla publicada y sondea linealmente, leyendo la expiración con
+ * semántica acquire; agregar escribe el id antes de publicar la expiración con release. Las escrituras, poco
+ * frecuentes, se serializan. Al pasar de media tabla o al podar se construye una tabla nueva solo con las entradas
+ * vigentes y se publica de una vez, así que la memoria sigue a las revocaciones vigentes y no a las históricas.
+ */
+final class RevokedTokenSet {
+
+    private static final VarHandle ELEMENTOS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int CAMPOS = 3;
+    private static final int RANURAS_MINIMAS = 1024;
+    private static final long LIBRE = 0;
+    private static final int CARACTERES_ID = 22;
+
+    private final int maxEntradas;
+    private volatile long[] tabla = new long[RANURAS_MINIMAS * CAMPOS];
+    private volatile int ocupadas;
+
+    RevokedTokenSet(int maxEntradas) {
+        this.maxEntradas = maxEntradas;
+    }
+
+    boolean contiene(String idToken, long ahora) {
+        long alto = mitad(idToken, true);
+        long bajo = mitad(idToken, false);
+        long[] vigente = tabla;
+        int mascara = vigente.length / CAMPOS - 1;
+        for (int ranura = indice(alto, bajo) & mascara; ; ranura = (ranura + 1) & mascara) {
+            int i = ranura * CAMPOS;
+            long expiraEn = (long) ELEMENTOS.getAcquire(vigente, i + 2);
+            if (expiraEn == LIBRE) {
+                return false;
+            }
+            if (vigente[i] == alto && vigente[i + 1] == bajo) {
+                return expiraEn > ahora;
+            }
+        }
+    }
+
+    // Lanza IllegalStateException si con las entradas vigentes se supera maxEntradas; no se descarta una revocación
+    synchronized void agregar(String idToken, long expiraEn, long ahora) {
+        if (expiraEn <= ahora) {
+            return;
+        }
+        long alto = mitad(idToken, true);
+        long bajo = mitad(idToken, false);
+        long[] vigente = tabla;
+        int i = ranura(vigente, alto, bajo);
+        if (vigente[i + 2] != LIBRE) {
+            if (expiraEn > vigente[i + 2]) {
+                ELEMENTOS.setRelease(vigente, i + 2, expiraEn);
+            }
+            return;
+        }
+        if (ocupadas >= maxEntradas || (ocupadas + 1) * 2 > vigente.length / CAMPOS) {
+            vigente = reconstruir(ahora, 1);
+            i = ranura(vigente, alto, bajo);
+        }
+        vigente[i] = alto;
+        vigente[i + 1] = bajo;
+        ELEMENTOS.setRelease(vigente, i + 2, expiraEn);
+        ocupadas++;
+    }
+
+    // Retorna cuántas entradas expiradas se descartaron
+    synchronized int podar(long ahora) {
+        long[] vigente = tabla;
+        int expiradas = 0;
+        for (int i = 0; i < vigente.length; i += CAMPOS) {
+            if (vigente[i + 2] != LIBRE && vigente[i + 2] <= ahora) {
+                expiradas++;
+            }
+        }
+        if (expiradas > 0) {
+            reconstruir(ahora, 0);
+        }
+        return expiradas;
+    }
+
+    int entradas() {
+        return ocupadas;
+    }
+
+    long bytes() {
+        return (long) tabla.length * Long.BYTES;
+    }
+
+    private long[] reconstruir(long ahora, int adicionales) {
+        long[] anterior = tabla;
+        int vigentes = 0;
+        for (int i = 0; i < anterior.length; i += CAMPOS) {
+            if (anterior[i + 2] > ahora) {
+                vigentes++;
+            }
+        }
+        if (vigentes + adicionales > maxEntradas) {
+            throw new IllegalStateException("Se alcanzó el máximo de " + maxEntradas + " tokens revocados vigentes");
+        }
+        // Entre un tercio y la mitad de ocupación tras crecer, para no reconstruir en cada inserción
+        int ranuras = Math.max(RANURAS_MINIMAS, Integer.highestOneBit(Math.max(1, (vigentes + adicionales) * 3)) << 1);
+        long[] nueva = new long[ranuras * CAMPOS];
+        for (int i = 0; i < anterior.length; i += CAMPOS) {
+            if (anterior[i + 2] > ahora) {
+                int destino = ranura(nueva, anterior[i], anterior[i + 1]);
+                nueva[destino] = anterior[i];
+                nueva[destino + 1] = anterior[i + 1];
+                nueva[destino + 2] = anterior[i + 2];
+            }
+        }
+        ocupadas = vigentes;
+        tabla = nueva;
+        return nueva;
+    }
+
+    // Posición de la entrada con ese id o de la primera ranura libre
+    private static int ranura(long[] tabla, long alto, long bajo) {
+        int mascara = tabla.length / CAMPOS - 1;
+        for (int ranura = indice(alto, bajo) & mascara; ; ranura = (ranura + 1) & mascara) {
+            int i = ranura * CAMPOS;
+            if (tabla[i + 2] == LIBRE || (tabla[i] == alto && tabla[i + 1] == bajo)) {
+                return i;
+            }
+        }
+    }
+
+    private static int indice(long alto, long bajo) {
+        long mezcla = (alto ^ bajo) * 0x9E3779B97F4A7C15L;
+        return (int) (mezcla >>> 32);
+    }
+
+    /**
+     * Los ids que emite este servicio son 16 bytes aleatorios en base64url (22 caracteres) y se decodifican tal cual a
+     * 128 bits. Cualquier otro id se reduce a dos hashes de 64 bits con semillas distintas.
+     */
+    static long mitad(String idToken, boolean alta) {
+        if (idToken.length() == CARACTERES_ID) {
+            long alto = 0;
+            long bajo = 0;
+            for (int i = 0; i < CARACTERES_ID; i++) {
+                int valor = valorBase64Url(idToken.charAt(i));
+                if (valor < 0) {
+                    return hash(idToken, alta);
+                }
+                // El último carácter solo aporta sus 2 bits altos: 21 × 6 + 2 = 128
+                int bits = i < CARACTERES_ID - 1 ? 6 : 2;
+                valor >>>= 6 - bits;
+                alto = (alto << bits) | (bajo >>> (Long.SIZE - bits));
+                bajo = (bajo << bits) | valor;
+            }
+            return alta ? alto : bajo;
+        }
+        return hash(idToken, alta);
+    }
+
+    private static long hash(String idToken, boolean alta) {
+        long h = alta ? 0xCBF29CE484222325L : 0x84222325CBF29CE4L;
+        for (int i = 0; i < idToken.length(); i++) {
+            h = (h ^ idToken.charAt(i)) * (alta ? 0x100000001B3L : 0x9E3779B97F4A7C15L);
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static int valorBase64Url(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        }
+        return c == '-' ? 62 : c == '_' ? 63 : -1;
+    }
+}
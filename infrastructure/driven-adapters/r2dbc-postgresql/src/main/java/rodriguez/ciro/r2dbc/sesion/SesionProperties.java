@@ -0,0 +1,13 @@
+package rodriguez.ciro.r2dbc.sesion;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.sessions")
+public record SesionProperties(
+        Duration ttl,
+        Duration tick,
+        Integer batchSize,
+        Duration flushInterval) {
+}
@@ -0,0 +1,262 @@
+package rodriguez.ciro.r2dbc.sesion;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.retry.Retry;
+import rodriguez.ciro.model.sesion.Sesion;
+import rodriguez.ciro.model.sesion.gateways.SesionRepository;
+import rodriguez.ciro.r2dbc.config.Bulkhead;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guarda las sesiones en la tabla sesiones y sigue sus expiraciones en una {@link TimingWheel}, sin tareas por sesión
+ * ni barridos periódicos de la tabla. Las sesiones nuevas se agrupan y se insertan con una sola sentencia por lote;
+ * {@link #abrir} completa cuando su lote ya está guardado. Las expiradas se borran también por lotes, por id. Al
+ * arrancar se descartan las filas expiradas mientras el nodo estuvo detenido y se reconstruye la rueda recorriendo las
+ * vigentes por bloques. La tabla guarda como id los primeros 128 bits del SHA-256 del token de
+ * refresco, nunca el token.
+ */
+@Slf4j
+@Repository
+@Profile("!in-memory")
+public class SesionRepositoryAdapter implements SesionRepository, SmartLifecycle {
+
+    private static final String INSERTAR = "INSERT INTO sesiones (id_sesion, id_usuario, expira_en) "
+            + "SELECT * FROM unnest(:ids::uuid[], :usuarios::bigint[], :expiraciones::timestamptz[])";
+    private static final String CONSUMIR = "DELETE FROM sesiones WHERE id_sesion = :id RETURNING id_usuario, expira_en";
+    private static final String BORRAR = "DELETE FROM sesiones WHERE id_sesion = ANY(:ids::uuid[]) AND expira_en <= now()";
+    private static final String BORRAR_EXPIRADAS = "DELETE FROM sesiones WHERE expira_en <= now()";
+    private static final String VIGENTES = "SELECT id_sesion, expira_en FROM sesiones WHERE expira_en > now()";
+    private static final int BYTES_TOKEN = 32;
+    private static final int CARACTERES_TOKEN = 43;
+    private static final int FILAS_POR_BLOQUE = 10_000;
+    private static final Duration REINTENTO = Duration.ofSeconds(1);
+    private static final Duration REINTENTO_MAXIMO = Duration.ofSeconds(30);
+    private static final long ESPERA_AL_DETENER_SEGUNDOS = 10;
+
+    private final DatabaseClient databaseClient;
+    private final Duration ttl;
+    private final Duration tick;
+    private final int tamanoLote;
+    private final Duration intervaloEscritura;
+    private final Clock reloj = Clock.systemUTC();
+    // DRBG no vuelve a leer entropía del sistema después de la semilla, así que no bloquea en los event loops
+    private final SecureRandom aleatorio;
+    private final TimingWheel rueda;
+    private final Counter expiradas;
+    private final DistributionSummary lotes;
+    private volatile FluxSink<Pendiente> pendientes;
+    private volatile CompletableFuture<Void> escritura;
+    private volatile Disposable tareas;
+
+    public SesionRepositoryAdapter(DatabaseClient databaseClient, SesionProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.ttl = properties.ttl();
+        this.tick = properties.tick();
+        this.tamanoLote = properties.batchSize();
+        this.intervaloEscritura = properties.flushInterval();
+        this.rueda = new TimingWheel(tick, reloj.instant());
+        try {
+            this.aleatorio = SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("DRBG no está disponible en esta JVM", e);
+        }
+        this.aleatorio.nextBytes(new byte[BYTES_TOKEN]);
+        Gauge.builder("sessions.active", rueda, TimingWheel::tamano)
+                .description("Sesiones vigentes que sigue este nodo")
+                .register(meterRegistry);
+        this.expiradas = Counter.builder("sessions.expired")
+                .description("Sesiones retiradas de la rueda al expirar")
+                .register(meterRegistry);
+        this.lotes = DistributionSummary.builder("sessions.persist.batch")
+                .description("Sesiones guardadas por cada inserción")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Sesion> abrir(Long idUsuario) {
+        return Mono.defer(() -> {
+            FluxSink<Pendiente> cola = pendientes;
+            if (cola == null) {
+                return Mono.error(new IllegalStateException("El almacén de sesiones no está iniciado"));
+            }
+            byte[] bytes = new byte[BYTES_TOKEN];
+            aleatorio.nextBytes(bytes);
+            String tokenRefresco = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+            UUID id = id(tokenRefresco);
+            Instant expiraEn = reloj.instant().plus(ttl).truncatedTo(ChronoUnit.SECONDS);
+            return Mono.<Void>create(resultado -> cola.next(new Pendiente(id, idUsuario, expiraEn, resultado)))
+                    .then(Mono.fromSupplier(() -> {
+                        programar(id, expiraEn);
+                        return new Sesion(tokenRefresco, idUsuario, expiraEn);
+                    }));
+        });
+    }
+
+    // El borrado con RETURNING garantiza que, aunque dos nodos reciban el mismo token a la vez, solo uno lo consume
+    @Override
+    public Mono<Sesion> consumir(String tokenRefresco) {
+        if (tokenRefresco == null || tokenRefresco.length() != CARACTERES_TOKEN) {
+            return Mono.empty();
+        }
+        UUID id = id(tokenRefresco);
+        return Bulkhead.ESCRITURA.aplicar(databaseClient.sql(CONSUMIR)
+                        .bind("id", id)
+                        .map(fila -> new Sesion(tokenRefresco, fila.get("id_usuario", Long.class),
+                                fila.get("expira_en", Instant.class)))
+                        .one())
+                .doOnNext(sesion -> rueda.cancelar(id))
+                .filter(sesion -> sesion.expiraEn().isAfter(reloj.instant()));
+    }
+
+    // Arranca antes que el servidor web y se detiene después, para que no lleguen sesiones sin quien las guarde
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    @Override
+    public void start() {
+        escritura = Flux.<Pendiente>create(cola -> pendientes = cola)
+                .bufferTimeout(tamanoLote, intervaloEscritura, true)
+                .concatMap(this::insertar)
+                .then()
+                .toFuture();
+        tareas = Disposables.composite(
+                cargar().subscribe(),
+                expirar().subscribe());
+    }
+
+    @Override
+    public void stop() {
+        FluxSink<Pendiente> cola = pendientes;
+        pendientes = null;
+        tareas.dispose();
+        tareas = null;
+        cola.complete();
+        try {
+            escritura.get(ESPERA_AL_DETENER_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("No fue posible guardar las últimas sesiones al detener: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return tareas != null;
+    }
+
+    private Mono<Void> insertar(List<Pendiente> lote) {
+        UUID[] ids = new UUID[lote.size()];
+        Long[] usuarios = new Long[lote.size()];
+        OffsetDateTime[] expiraciones = new OffsetDateTime[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            Pendiente pendiente = lote.get(i);
+            ids[i] = pendiente.id();
+            usuarios[i] = pendiente.idUsuario();
+            expiraciones[i] = pendiente.expiraEn().atOffset(ZoneOffset.UTC);
+        }
+        return Bulkhead.ESCRITURA.aplicar(databaseClient.sql(INSERTAR)
+                        .bind("ids", ids)
+                        .bind("usuarios", usuarios)
+                        .bind("expiraciones", expiraciones)
+                        .fetch()
+                        .rowsUpdated())
+                .doOnNext(filas -> {
+                    lotes.record(lote.size());
+                    lote.forEach(pendiente -> pendiente.resultado().success());
+                })
+                .onErrorResume(error -> {
+                    lote.forEach(pendiente -> pendiente.resultado().error(error));
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> cargar() {
+        return Bulkhead.ESCRITURA.aplicar(databaseClient.sql(BORRAR_EXPIRADAS).fetch().rowsUpdated())
+                .then(Bulkhead.LECTURA.aplicar(databaseClient.sql(VIGENTES)
+                        .filter(sentencia -> sentencia.fetchSize(FILAS_POR_BLOQUE))
+                        .map(fila -> {
+                            programar(fila.get("id_sesion", UUID.class), fila.get("expira_en", Instant.class));
+                            return Boolean.TRUE;
+                        })
+                        .all()
+                        .count()))
+                .doOnNext(total -> log.info("{} sesiones vigentes cargadas en la rueda de expiración", total))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, REINTENTO)
+                        .maxBackoff(REINTENTO_MAXIMO)
+                        .doBeforeRetry(senal -> log.warn("No fue posible cargar las sesiones, reintentando: {}",
+                                senal.failure().getMessage())))
+                .then();
+    }
+
+    // Un tick descartado no pierde expiraciones: el siguiente avanza la rueda hasta la hora actual
+    private Flux<Long> expirar() {
+        return Flux.interval(tick, tick)
+                .onBackpressureDrop()
+                .concatMap(numero -> {
+                    List<UUID> expiradosEnTick = new ArrayList<>();
+                    expiradas.increment(rueda.avanzar(reloj.instant(), expiradosEnTick::add));
+                    return Flux.fromIterable(expiradosEnTick)
+                            .buffer(tamanoLote)
+                            .concatMap(ids -> Bulkhead.ESCRITURA.aplicar(databaseClient.sql(BORRAR)
+                                    .bind("ids", ids.toArray(UUID[]::new))
+                                    .fetch()
+                                    .rowsUpdated()))
+                            .onErrorResume(error -> {
+                                log.warn("No fue posible borrar sesiones expiradas: {}", error.getMessage());
+                                return Mono.empty();
+                            });
+                });
+    }
+
+    // Se programa un tick después de la expiración, para que el borrado no se adelante al reloj de la base de datos
+    private void programar(UUID id, Instant expiraEn) {
+        rueda.programar(id, expiraEn.plus(tick));
+    }
+
+    static UUID id(String tokenRefresco) {
+        try {
+            ByteBuffer hash = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(tokenRefresco.getBytes(StandardCharsets.US_ASCII)));
+            return new UUID(hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible en esta JVM", e);
+        }
+    }
+
+    private record Pendiente(UUID id, Long idUsuario, Instant expiraEn, MonoSink<Void> resultado) {
+    }
+}
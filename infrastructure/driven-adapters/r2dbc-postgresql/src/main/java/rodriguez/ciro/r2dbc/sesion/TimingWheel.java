@@ -0,0 +1,213 @@
+package rodriguez.ciro.r2dbc.sesion;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de tiempo jerárquica (Varghese y Lauck) con las expiraciones de las sesiones: cuatro niveles de 64 ranuras,
+ * cada uno con ticks 64 veces más largos que el anterior, así que con ticks de un segundo el último nivel alcanza 194
+ * días. Programar y cancelar son O(1): cada entrada vive en la lista doblemente enlazada de su ranura y en una tabla
+ * hash propia, encadenada por la misma entrada, sin objetos adicionales por sesión. Avanzar un tick vacía una ranura
+ * del primer nivel y, cada 64 ticks, redistribuye hacia abajo una ranura del nivel siguiente; una entrada baja como
+ * mucho tres veces en toda su vida. Las expiraciones más lejanas que el alcance se dejan en el último nivel y se
+ * reubican al bajar.
+ */
+final class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+    private static final long ALCANCE = 1L << (BITS * NIVELES);
+    private static final int CAPACIDAD_MINIMA = 1024;
+
+    private final long milisPorTick;
+    private final Entrada[][] ranuras = new Entrada[NIVELES][RANURAS];
+    private Entrada[] tabla = new Entrada[CAPACIDAD_MINIMA];
+    private int tamano;
+    private long tickActual;
+
+    TimingWheel(Duration tick, Instant inicio) {
+        this.milisPorTick = tick.toMillis();
+        this.tickActual = inicio.toEpochMilli() / milisPorTick;
+    }
+
+    // Reemplaza la expiración anterior del mismo id; devuelve false, sin programarla, si ya pasó
+    synchronized boolean programar(UUID id, Instant expiraEn) {
+        long alto = id.getMostSignificantBits();
+        long bajo = id.getLeastSignificantBits();
+        Entrada anterior = quitar(alto, bajo);
+        if (anterior != null) {
+            desenlazar(anterior);
+        }
+        long tick = Math.ceilDiv(expiraEn.toEpochMilli(), milisPorTick);
+        if (tick <= tickActual) {
+            return false;
+        }
+        Entrada entrada = new Entrada(alto, bajo, tick);
+        agregar(entrada);
+        enlazar(entrada);
+        return true;
+    }
+
+    synchronized boolean cancelar(UUID id) {
+        Entrada entrada = quitar(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (entrada == null) {
+            return false;
+        }
+        desenlazar(entrada);
+        return true;
+    }
+
+    // Procesa los ticks hasta ahora y entrega los ids expirados; devuelve cuántos expiraron
+    synchronized int avanzar(Instant ahora, Consumer<UUID> expirado) {
+        long objetivo = ahora.toEpochMilli() / milisPorTick;
+        if (tamano == 0) {
+            tickActual = Math.max(tickActual, objetivo);
+            return 0;
+        }
+        int expirados = 0;
+        while (tickActual < objetivo) {
+            tickActual++;
+            bajar();
+            int indice = (int) (tickActual & MASCARA);
+            Entrada entrada = ranuras[0][indice];
+            ranuras[0][indice] = null;
+            while (entrada != null) {
+                Entrada siguiente = entrada.siguiente;
+                entrada.anterior = null;
+                entrada.siguiente = null;
+                quitar(entrada.alto, entrada.bajo);
+                expirado.accept(new UUID(entrada.alto, entrada.bajo));
+                expirados++;
+                entrada = siguiente;
+            }
+        }
+        return expirados;
+    }
+
+    synchronized int tamano() {
+        return tamano;
+    }
+
+    // Al completar una vuelta de un nivel se redistribuye la ranura que corresponde del nivel superior
+    private void bajar() {
+        for (int nivel = 1; nivel < NIVELES; nivel++) {
+            int desplazamiento = BITS * nivel;
+            if ((tickActual & ((1L << desplazamiento) - 1)) != 0) {
+                return;
+            }
+            int indice = (int) ((tickActual >>> desplazamiento) & MASCARA);
+            Entrada entrada = ranuras[nivel][indice];
+            ranuras[nivel][indice] = null;
+            while (entrada != null) {
+                Entrada siguiente = entrada.siguiente;
+                entrada.anterior = null;
+                entrada.siguiente = null;
+                enlazar(entrada);
+                entrada = siguiente;
+            }
+        }
+    }
+
+    private void enlazar(Entrada entrada) {
+        long tick = entrada.tick;
+        long delta = tick - tickActual;
+        if (delta >= ALCANCE) {
+            delta = ALCANCE - 1;
+            tick = tickActual + delta;
+        }
+        int nivel = delta < RANURAS ? 0 : (63 - Long.numberOfLeadingZeros(delta)) / BITS;
+        int indice = (int) ((tick >>> (BITS * nivel)) & MASCARA);
+        Entrada cabeza = ranuras[nivel][indice];
+        entrada.nivel = (byte) nivel;
+        entrada.indice = (byte) indice;
+        entrada.siguiente = cabeza;
+        if (cabeza != null) {
+            cabeza.anterior = entrada;
+        }
+        ranuras[nivel][indice] = entrada;
+    }
+
+    private void desenlazar(Entrada entrada) {
+        if (entrada.anterior != null) {
+            entrada.anterior.siguiente = entrada.siguiente;
+        } else {
+            ranuras[entrada.nivel][entrada.indice] = entrada.siguiente;
+        }
+        if (entrada.siguiente != null) {
+            entrada.siguiente.anterior = entrada.anterior;
+        }
+        entrada.anterior = null;
+        entrada.siguiente = null;
+    }
+
+    private void agregar(Entrada entrada) {
+        if (tamano + 1 > tabla.length - (tabla.length >> 2)) {
+            redimensionar(tabla.length << 1);
+        }
+        int posicion = posicion(entrada.alto, entrada.bajo, tabla.length);
+        entrada.siguienteEnTabla = tabla[posicion];
+        tabla[posicion] = entrada;
+        tamano++;
+    }
+
+    private Entrada quitar(long alto, long bajo) {
+        int posicion = posicion(alto, bajo, tabla.length);
+        Entrada previa = null;
+        for (Entrada entrada = tabla[posicion]; entrada != null; previa = entrada, entrada = entrada.siguienteEnTabla) {
+            if (entrada.alto == alto && entrada.bajo == bajo) {
+                if (previa == null) {
+                    tabla[posicion] = entrada.siguienteEnTabla;
+                } else {
+                    previa.siguienteEnTabla = entrada.siguienteEnTabla;
+                }
+                entrada.siguienteEnTabla = null;
+                tamano--;
+                if (tabla.length > CAPACIDAD_MINIMA && tamano < tabla.length >> 3) {
+                    redimensionar(tabla.length >> 1);
+                }
+                return entrada;
+            }
+        }
+        return null;
+    }
+
+    private void redimensionar(int capacidad) {
+        Entrada[] nueva = new Entrada[capacidad];
+        for (Entrada cabeza : tabla) {
+            for (Entrada entrada = cabeza; entrada != null; ) {
+                Entrada siguiente = entrada.siguienteEnTabla;
+                int posicion = posicion(entrada.alto, entrada.bajo, capacidad);
+                entrada.siguienteEnTabla = nueva[posicion];
+                nueva[posicion] = entrada;
+                entrada = siguiente;
+            }
+        }
+        tabla = nueva;
+    }
+
+    // Los ids salen de un hash criptográfico, así que cualquier grupo de bits ya está bien distribuido
+    private static int posicion(long alto, long bajo, int capacidad) {
+        return (int) (alto ^ bajo) & (capacidad - 1);
+    }
+
+    private static final class Entrada {
+        private final long alto;
+        private final long bajo;
+        private final long tick;
+        private Entrada anterior;
+        private Entrada siguiente;
+        private Entrada siguienteEnTabla;
+        private byte nivel;
+        private byte indice;
+
+        private Entrada(long alto, long bajo, long tick) {
+            this.alto = alto;
+            this.bajo = bajo;
+            this.tick = tick;
+        }
+    }
+}
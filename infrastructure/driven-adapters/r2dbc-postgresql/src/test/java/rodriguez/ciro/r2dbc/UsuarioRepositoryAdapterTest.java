@@ -3,20 +3,30 @@ package rodriguez.ciro.r2dbc;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.reactivecommons.utils.ObjectMapper;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.r2dbc.core.RowsFetchSpec;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import rodriguez.ciro.model.evento.Evento;
 import rodriguez.ciro.model.rol.Rol;
 import rodriguez.ciro.model.usuario.Usuario;
-import rodriguez.ciro.r2dbc.entity.UsuarioEntity;
 import rodriguez.ciro.r2dbc.repository.UsuarioReactiveRepository;
 import rodriguez.ciro.r2dbc.repository.UsuarioRepositoryAdapter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.function.Function;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,11 +38,21 @@ class UsuarioRepositoryAdapterTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private DatabaseClient.GenericExecuteSpec executeSpec;
+
+    @Mock
+    private RowsFetchSpec<Long> rowsFetchSpec;
+
     private UsuarioRepositoryAdapter usuarioRepositoryAdapter;
 
     @BeforeEach
     void setUp() {
-        usuarioRepositoryAdapter = new UsuarioRepositoryAdapter(usuarioReactiveRepository, objectMapper);
+        usuarioRepositoryAdapter = new UsuarioRepositoryAdapter(usuarioReactiveRepository, objectMapper,
+                databaseClient);
     }
 
     @Test
@@ -51,55 +71,22 @@ class UsuarioRepositoryAdapterTest {
                 .rol(Rol.builder().idRol(2L).build())
                 .build();
 
-        UsuarioEntity usuarioEntity = UsuarioEntity.builder()
-                .nombres("Juan Carlos")
-                .apellidos("Pérez García")
-                .tipoDocumento("CC")
-                .numeroDocumento("12345678")
-                .fechaNacimiento(LocalDate.of(1990, 5, 15))
-                .direccion("Calle 123 #45-67")
-                .telefono("3001234567")
-                .correoElectronico("juan.perez@email.com")
-                .salarioBase(new BigDecimal("3000000"))
-                .idRol(2L)
-                .build();
-
-        UsuarioEntity usuarioEntityGuardado = UsuarioEntity.builder()
-                .idUsuario(1L)
-                .nombres("Juan Carlos")
-                .apellidos("Pérez García")
-                .tipoDocumento("CC")
-                .numeroDocumento("12345678")
-                .fechaNacimiento(LocalDate.of(1990, 5, 15))
-                .direccion("Calle 123 #45-67")
-                .telefono("3001234567")
-                .correoElectronico("juan.perez@email.com")
-                .salarioBase(new BigDecimal("3000000"))
-                .idRol(2L)
-                .build();
-
-        Usuario usuarioGuardado = Usuario.builder()
-                .idUsuario(1L)
-                .nombres("Juan Carlos")
-                .apellidos("Pérez García")
-                .tipoDocumento("CC")
-                .numeroDocumento("12345678")
-                .fechaNacimiento(LocalDate.of(1990, 5, 15))
-                .direccion("Calle 123 #45-67")
-                .telefono("3001234567")
-                .correoElectronico("juan.perez@email.com")
-                .salarioBase(new BigDecimal("3000000"))
-                .rol(Rol.builder().idRol(2L).build())
-                .build();
-
-        when(objectMapper.map(usuario, UsuarioEntity.class)).thenReturn(usuarioEntity);
-        when(usuarioReactiveRepository.save(usuarioEntity)).thenReturn(Mono.just(usuarioEntityGuardado));
-        when(objectMapper.map(usuarioEntityGuardado, Usuario.class)).thenReturn(usuarioGuardado);
+        when(databaseClient.sql(anyString())).thenReturn(executeSpec);
+        when(executeSpec.map(any(Function.class))).thenReturn(rowsFetchSpec);
+        when(rowsFetchSpec.one()).thenReturn(Mono.just(1L));
 
         // When & Then
         StepVerifier.create(usuarioRepositoryAdapter.guardar(usuario))
-                .expectNext(usuarioGuardado)
+                .assertNext(usuarioGuardado -> {
+                    assertEquals(1L, usuarioGuardado.getIdUsuario());
+                    assertEquals(0L, usuarioGuardado.getVersion());
+                    assertEquals(2L, usuarioGuardado.getRol().getIdRol());
+                })
                 .verifyComplete();
+        verify(databaseClient).sql(contains("INSERT INTO outbox"));
+        verify(executeSpec).bind("correoElectronico", Parameter.from("juan.perez@email.com"));
+        verify(executeSpec).bind("idRol", Parameter.from(2L));
+        verify(executeSpec).bind("tipoEvento", Evento.USUARIO_REGISTRADO);
     }
 
     @Test
@@ -0,0 +1,52 @@
+package rodriguez.ciro.r2dbc.actividad;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Mono;
+import reactor.test.publisher.PublisherProbe;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActividadRepositoryAdapterTest {
+
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec executeSpec =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    @SuppressWarnings("unchecked")
+    private final FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ActividadRepositoryAdapter adapter = new ActividadRepositoryAdapter(databaseClient,
+            new ActividadProperties(Duration.ofMillis(20), 100, Duration.ofSeconds(5)), meterRegistry);
+
+    @Test
+    void deberiaTerminarLaEscrituraEnCursoAlDetener() {
+        // Given
+        PublisherProbe<Long> escrituraLenta = PublisherProbe.of(Mono.delay(Duration.ofMillis(300)).thenReturn(1L));
+        when(databaseClient.sql(anyString())).thenReturn(executeSpec);
+        when(executeSpec.fetch()).thenReturn(fetchSpec);
+        when(fetchSpec.rowsUpdated()).thenReturn(escrituraLenta.mono());
+
+        adapter.registrarInicioSesion(1L).block();
+        adapter.start();
+        verify(fetchSpec, timeout(1000)).rowsUpdated();
+
+        // When
+        adapter.stop();
+
+        // Then
+        escrituraLenta.assertWasSubscribed();
+        escrituraLenta.assertWasNotCancelled();
+        assertEquals(0.0, meterRegistry.get("activity.pending").gauge().value());
+    }
+}
@@ -0,0 +1,65 @@
+package rodriguez.ciro.r2dbc.actividad;
+
+import org.junit.jupiter.api.Test;
+import rodriguez.ciro.r2dbc.actividad.ActivityBuffer.UltimaActividad;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityBufferTest {
+
+    private static final Instant INICIO = Instant.parse("2027-01-01T00:00:00Z");
+
+    @Test
+    void deberiaConservarSoloLaHoraMasRecienteDeCadaCampoPorUsuario() {
+        // Given
+        ActivityBuffer buffer = new ActivityBuffer();
+        buffer.registrar(1L, INICIO, INICIO);
+        buffer.registrar(1L, null, INICIO.plusSeconds(30));
+        buffer.registrar(1L, null, INICIO.plusSeconds(10));
+
+        // When
+        List<UltimaActividad> lote = buffer.drenar(10);
+
+        // Then
+        assertEquals(List.of(new UltimaActividad(1L, INICIO, INICIO.plusSeconds(30))), lote);
+        assertEquals(0, buffer.pendientes());
+    }
+
+    @Test
+    void deberiaDrenarComoMaximoElTamanoDelLoteOrdenadoPorUsuario() {
+        // Given
+        ActivityBuffer buffer = new ActivityBuffer();
+        for (long idUsuario = 10; idUsuario > 0; idUsuario--) {
+            buffer.registrar(idUsuario, null, INICIO);
+        }
+
+        // When
+        List<UltimaActividad> lote = buffer.drenar(4);
+
+        // Then
+        assertEquals(4, lote.size());
+        assertEquals(6, buffer.pendientes());
+        for (int i = 1; i < lote.size(); i++) {
+            assertTrue(lote.get(i - 1).idUsuario() < lote.get(i).idUsuario());
+        }
+    }
+
+    @Test
+    void deberiaCombinarUnLoteDevueltoConLaActividadRegistradaMientrasTanto() {
+        // Given
+        ActivityBuffer buffer = new ActivityBuffer();
+        buffer.registrar(1L, INICIO, INICIO);
+        List<UltimaActividad> lote = buffer.drenar(10);
+        buffer.registrar(1L, null, INICIO.plusSeconds(5));
+
+        // When: la escritura del lote falló
+        buffer.devolver(lote);
+
+        // Then
+        assertEquals(List.of(new UltimaActividad(1L, INICIO, INICIO.plusSeconds(5))), buffer.drenar(10));
+    }
+}
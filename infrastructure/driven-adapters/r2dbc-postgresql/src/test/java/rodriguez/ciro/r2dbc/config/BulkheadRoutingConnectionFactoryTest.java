@@ -0,0 +1,63 @@
+package rodriguez.ciro.r2dbc.config;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+class BulkheadRoutingConnectionFactoryTest {
+
+    private final Connection conexionLectura = mock(Connection.class);
+    private final Connection conexionEscritura = mock(Connection.class);
+    private BulkheadRoutingConnectionFactory routing;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory escritura = fabrica(conexionEscritura);
+        routing = new BulkheadRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(Map.of(
+                Bulkhead.LECTURA, fabrica(conexionLectura),
+                Bulkhead.ESCRITURA, escritura));
+        routing.setDefaultTargetConnectionFactory(escritura);
+        routing.afterPropertiesSet();
+    }
+
+    @Test
+    void deberiaTomarLaConexionDelPoolIndicadoPorElAdaptador() {
+        StepVerifier.create(Bulkhead.LECTURA.aplicar(Mono.from(routing.create())))
+                .expectNext(conexionLectura)
+                .verifyComplete();
+        StepVerifier.create(Bulkhead.ESCRITURA.aplicar(Mono.from(routing.create())))
+                .expectNext(conexionEscritura)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaUsarElPoolDeEscrituraSinMarca() {
+        StepVerifier.create(Mono.from(routing.create()))
+                .expectNext(conexionEscritura)
+                .verifyComplete();
+    }
+
+    private static ConnectionFactory fabrica(Connection conexion) {
+        return new ConnectionFactory() {
+            @Override
+            public Publisher<? extends Connection> create() {
+                return Mono.just(conexion);
+            }
+
+            @Override
+            public ConnectionFactoryMetadata getMetadata() {
+                return () -> "test";
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package rodriguez.ciro.r2dbc.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+import rodriguez.ciro.model.deadline.Deadline;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeadlineConnectionFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PostgresqlConnection conexion = mock(PostgresqlConnection.class);
+    private final PostgresqlStatement restablecer = mock(PostgresqlStatement.class);
+    private final ConnectionFactory delegate = mock(ConnectionFactory.class);
+    private DeadlineConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(Mono.just(conexion)).when(delegate).create();
+        when(conexion.setStatementTimeout(any(Duration.class))).thenReturn(Mono.empty());
+        when(conexion.cancelRequest()).thenReturn(Mono.empty());
+        when(conexion.close()).thenReturn(Mono.empty());
+        when(conexion.createStatement("RESET statement_timeout")).thenReturn(restablecer);
+        doReturn(Flux.empty()).when(restablecer).execute();
+        connectionFactory = new DeadlineConnectionFactory(delegate, meterRegistry);
+    }
+
+    @Test
+    void deberiaAplicarElPlazoRestanteComoStatementTimeout() {
+        // Given
+        Deadline deadline = Deadline.en(Duration.ofSeconds(2));
+
+        // When & Then
+        StepVerifier.create(connectionFactory.create().contextWrite(Context.of(Deadline.CONTEXT_KEY, deadline)))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(conexion).setStatementTimeout(argThat(timeout ->
+                timeout.compareTo(Duration.ofSeconds(1)) > 0 && timeout.compareTo(Duration.ofSeconds(2)) <= 0));
+    }
+
+    @Test
+    void deberiaRestablecerElTimeoutSoloSiUnaSolicitudAnteriorLoCambio() {
+        // Given
+        Deadline deadline = Deadline.en(Duration.ofSeconds(2));
+        connectionFactory.create().contextWrite(Context.of(Deadline.CONTEXT_KEY, deadline)).block();
+
+        // When
+        connectionFactory.create().block();
+        connectionFactory.create().block();
+
+        // Then
+        verify(conexion).createStatement("RESET statement_timeout");
+        verify(restablecer).execute();
+        verify(conexion, never()).setStatementTimeout(Duration.ZERO);
+    }
+
+    @Test
+    void deberiaRechazarSinTomarConexionSiElPlazoVencio() {
+        // Given
+        Deadline deadline = Deadline.en(Duration.ZERO);
+
+        // When & Then
+        StepVerifier.create(connectionFactory.create().contextWrite(Context.of(Deadline.CONTEXT_KEY, deadline)))
+                .expectError(QueryTimeoutException.class)
+                .verify();
+        verify(delegate, never()).create();
+        assertEquals(1.0, meterRegistry.counter("r2dbc.deadline.rejected").count());
+    }
+
+    @Test
+    void deberiaCancelarLaConsultaEnPostgresCuandoSeCancelaLaSolicitud() {
+        // Given
+        Deadline deadline = Deadline.en(Duration.ofSeconds(2));
+        Connection asignada = connectionFactory.create().contextWrite(Context.of(Deadline.CONTEXT_KEY, deadline)).block();
+
+        // When
+        deadline.cancelar();
+        Mono.from(asignada.close()).block();
+
+        // Then
+        verify(conexion).cancelRequest();
+        verify(conexion).close();
+        assertEquals(1.0, meterRegistry.counter("r2dbc.deadline.cancelled").count());
+    }
+
+    @Test
+    void deberiaNoCancelarUnaConexionYaDevueltaAlPool() {
+        // Given
+        Deadline deadline = Deadline.en(Duration.ofSeconds(2));
+        Connection asignada = connectionFactory.create().contextWrite(Context.of(Deadline.CONTEXT_KEY, deadline)).block();
+        Mono.from(asignada.close()).block();
+
+        // When
+        deadline.cancelar();
+
+        // Then
+        verify(conexion, never()).cancelRequest();
+    }
+}
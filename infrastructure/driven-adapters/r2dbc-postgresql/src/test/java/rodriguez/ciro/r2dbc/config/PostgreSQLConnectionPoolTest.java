@@ -1,11 +1,18 @@
 package rodriguez.ciro.r2dbc.config;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.when;
 
@@ -28,10 +35,24 @@ class PostgreSQLConnectionPoolTest {
         when(properties.schema()).thenReturn("schema");
         when(properties.username()).thenReturn("username");
         when(properties.password()).thenReturn("password");
+        when(properties.lectura()).thenReturn(
+                new PostgresqlConnectionProperties.PoolProperties(2, 8, Duration.ofSeconds(1), 100));
     }
 
     @Test
     void getConnectionConfigSuccess() {
-        assertNotNull(connectionPool.getConnectionConfig(properties));
+        ConnectionPool lectura = connectionPool.lecturaConnectionPool(properties);
+        ConnectionPool escritura = connectionPool.escrituraConnectionPool(properties);
+
+        assertEquals(8, lectura.getMetrics().orElseThrow().getMaxAllocatedSize());
+        assertEquals(PostgreSQLConnectionPool.MAX_SIZE, escritura.getMetrics().orElseThrow().getMaxAllocatedSize());
+
+        ConnectionFactory connectionFactory = connectionPool.connectionFactory(lectura, escritura, new SimpleMeterRegistry());
+        assertNotNull(connectionFactory);
+        assertInstanceOf(BulkheadRoutingConnectionFactory.class,
+                assertInstanceOf(DeadlineConnectionFactory.class, connectionFactory).unwrap());
+
+        lectura.dispose();
+        escritura.dispose();
     }
 }
@@ -0,0 +1,46 @@
+package rodriguez.ciro.r2dbc.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class SchemaVersionCheckTest {
+
+    @Test
+    void deberiaAceptarEsquemaEnLaVersionRequeridaOPosterior() {
+        assertDoesNotThrow(() -> SchemaVersionCheck.verificar("004", "004"));
+        assertDoesNotThrow(() -> SchemaVersionCheck.verificar("004", "005"));
+    }
+
+    @Test
+    void deberiaFallarConEsquemaDesactualizado() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> SchemaVersionCheck.verificar("004", "003"));
+
+        assertTrue(error.getMessage().contains("--migrate-only"));
+    }
+
+    @Test
+    void deberiaFallarSinMigracionesAplicadas() {
+        assertThrows(IllegalStateException.class, () -> SchemaVersionCheck.verificar("004", null));
+    }
+
+    @Test
+    void deberiaOmitirLaConsultaSinVersionConfigurada() {
+        // Given
+        DatabaseClient databaseClient = mock(DatabaseClient.class);
+        PostgresqlConnectionProperties properties = new PostgresqlConnectionProperties(
+                "localhost", 5432, "autenticacion", null, "root", "secret", " ", null, null);
+
+        // When
+        new SchemaVersionCheck(databaseClient, properties).run(null);
+
+        // Then
+        verifyNoInteractions(databaseClient);
+    }
+}
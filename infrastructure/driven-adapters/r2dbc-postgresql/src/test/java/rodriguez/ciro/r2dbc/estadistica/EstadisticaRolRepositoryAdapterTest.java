@@ -0,0 +1,140 @@
+package rodriguez.ciro.r2dbc.estadistica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+import rodriguez.ciro.model.estadistica.exception.EstadisticasNoCargadasException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EstadisticaRolRepositoryAdapterTest {
+
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec porRol =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    private final PostgresqlConnectionFactory notificaciones = mock(PostgresqlConnectionFactory.class);
+    private final PostgresqlConnection conexion = mock(PostgresqlConnection.class);
+    private final PostgresqlStatement listen = mock(PostgresqlStatement.class);
+    private final Sinks.Many<Notification> recibidas = Sinks.many().unicast().onBackpressureBuffer();
+    private final AtomicReference<List<Readable>> filas = new AtomicReference<>(List.of());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EstadisticaRolRepositoryAdapter adapter = new EstadisticaRolRepositoryAdapter(databaseClient,
+            notificaciones, new EstadisticaRolProperties(Duration.ofMillis(50), Duration.ofMillis(50)),
+            meterRegistry);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doReturn(Mono.just(conexion)).when(notificaciones).create();
+        when(conexion.createStatement("LISTEN estadisticas_roles")).thenReturn(listen);
+        doReturn(Flux.empty()).when(listen).execute();
+        when(conexion.getNotifications()).thenReturn(recibidas.asFlux());
+        when(conexion.close()).thenReturn(Mono.empty());
+        when(databaseClient.sql(contains("FROM estadisticas_roles"))).thenReturn(porRol);
+        // Aplica el mapper del adaptador a las filas que los triggers dejaron en la tabla al momento de cada lectura
+        when(porRol.map(any(Function.class))).thenAnswer(invocacion -> {
+            Function<Readable, Object> mapper = invocacion.getArgument(0);
+            return mock(RowsFetchSpec.class, consulta -> "all".equals(consulta.getMethod().getName())
+                    ? Flux.defer(() -> Flux.fromIterable(filas.get())).map(mapper)
+                    : RETURNS_DEFAULTS.answer(consulta));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (adapter.isRunning()) {
+            adapter.stop();
+        }
+    }
+
+    @Test
+    void deberiaFallarMientrasNoSeHayanCargadoLasEstadisticas() {
+        StepVerifier.create(adapter.porRol())
+                .expectError(EstadisticasNoCargadasException.class)
+                .verify();
+    }
+
+    @Test
+    void deberiaLeerLasEstadisticasMantenidasPorLosTriggersAlIniciar() {
+        // Given
+        filas.set(List.of(
+                fila(1L, 3L, "9000000.00", "2000000.00", "4000000.00"),
+                fila(2L, 1L, "3000000.00", "3000000.00", "3000000.00")));
+
+        // When
+        adapter.start();
+
+        // Then
+        StepVerifier.create(adapter.porRol())
+                .assertNext(estadisticas -> {
+                    assertEquals(2, estadisticas.size());
+                    EstadisticaRol administradores = estadisticas.get(0);
+                    assertEquals(1L, administradores.idRol());
+                    assertEquals(3L, administradores.totalUsuarios());
+                    assertEquals(new BigDecimal("2000000.00"), administradores.salarioMinimo());
+                    assertEquals(new BigDecimal("4000000.00"), administradores.salarioMaximo());
+                    assertEquals(new BigDecimal("3000000.00"), administradores.salarioPromedio());
+                })
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.get("role.stats.refreshes").counter().count());
+    }
+
+    @Test
+    void deberiaReleerUnaSolaVezPorIntervaloAnteUnaRafagaDeNotificaciones() {
+        // Given
+        filas.set(List.of(fila(1L, 1L, "3000000.00", "3000000.00", "3000000.00")));
+        adapter.start();
+        filas.set(List.of(fila(1L, 3L, "9000000.00", "2000000.00", "4000000.00")));
+
+        // When
+        recibidas.tryEmitNext(mock(Notification.class));
+        recibidas.tryEmitNext(mock(Notification.class));
+        recibidas.tryEmitNext(mock(Notification.class));
+
+        // Then
+        verify(databaseClient, after(300).times(2)).sql(contains("FROM estadisticas_roles"));
+        StepVerifier.create(adapter.porRol())
+                .assertNext(estadisticas -> assertEquals(3L, estadisticas.get(0).totalUsuarios()))
+                .verifyComplete();
+        assertEquals(2.0, meterRegistry.get("role.stats.refreshes").counter().count());
+    }
+
+    private static Readable fila(Long idRol, Long totalUsuarios, String sumaSalarios, String salarioMinimo,
+                                 String salarioMaximo) {
+        Readable fila = mock(Readable.class);
+        when(fila.get("id_rol", Long.class)).thenReturn(idRol);
+        when(fila.get("total_usuarios", Long.class)).thenReturn(totalUsuarios);
+        when(fila.get("suma_salarios", BigDecimal.class)).thenReturn(new BigDecimal(sumaSalarios));
+        when(fila.get("salario_minimo", BigDecimal.class)).thenReturn(new BigDecimal(salarioMinimo));
+        when(fila.get("salario_maximo", BigDecimal.class)).thenReturn(new BigDecimal(salarioMaximo));
+        return fila;
+    }
+}
@@ -0,0 +1,60 @@
+package rodriguez.ciro.r2dbc.intento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.publisher.PublisherProbe;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IntentoRepositoryAdapterTest {
+
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class, Answers.RETURNS_DEEP_STUBS);
+    private final DatabaseClient.GenericExecuteSpec executeSpec =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    @SuppressWarnings("unchecked")
+    private final FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+    private final IntentoRepositoryAdapter adapter = new IntentoRepositoryAdapter(databaseClient,
+            new IntentoProperties(Duration.ofMinutes(15), 2, 100, Duration.ofMinutes(1), Duration.ofHours(1), 1024,
+                    Duration.ofMillis(20), 500),
+            new SimpleMeterRegistry());
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deberiaTerminarLaEscrituraEnCursoYPurgarLosVencidosAlDetener() {
+        // Given
+        PublisherProbe<Long> insercionLenta = PublisherProbe.of(Mono.delay(Duration.ofMillis(300)).thenReturn(1L));
+        when(databaseClient.sql(contains("SELECT DISTINCT ON")).map(any(Function.class)).all())
+                .thenReturn(Flux.empty());
+        when(databaseClient.sql(contains("INSERT INTO bloqueos"))).thenReturn(executeSpec);
+        when(databaseClient.sql(contains("DELETE FROM bloqueos"))).thenReturn(executeSpec);
+        when(executeSpec.fetch()).thenReturn(fetchSpec);
+        when(fetchSpec.rowsUpdated()).thenReturn(insercionLenta.mono(), Mono.just(0L));
+
+        adapter.registrarFallo("juan.perez@email.com", null).block();
+        adapter.registrarFallo("juan.perez@email.com", null).block();
+        adapter.start();
+        verify(databaseClient, timeout(1000)).sql(contains("INSERT INTO bloqueos"));
+
+        // When
+        adapter.stop();
+
+        // Then
+        insercionLenta.assertWasSubscribed();
+        insercionLenta.assertWasNotCancelled();
+        verify(databaseClient).sql(contains("DELETE FROM bloqueos"));
+    }
+}
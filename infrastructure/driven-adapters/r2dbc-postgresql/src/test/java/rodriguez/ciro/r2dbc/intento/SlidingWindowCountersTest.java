@@ -0,0 +1,146 @@
+package rodriguez.ciro.r2dbc.intento;
+
+import org.junit.jupiter.api.Test;
+import rodriguez.ciro.r2dbc.intento.SlidingWindowCounters.Contador;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowCountersTest {
+
+    private static final long INICIO = 1_800_000_000_000L;
+    private static final Duration VENTANA = Duration.ofMinutes(15);
+    private static final Duration BLOQUEO = Duration.ofMinutes(1);
+    private static final Duration BLOQUEO_MAXIMO = Duration.ofMinutes(5);
+
+    @Test
+    void deberiaBloquearAlAlcanzarElMaximoDeFallosYNotificarSoloLaTransicion() {
+        // Given
+        SlidingWindowCounters contadores = new SlidingWindowCounters(1024, 1L, VENTANA, 3, BLOQUEO, BLOQUEO_MAXIMO);
+        long huella = contadores.huella("juan.perez@email.com");
+
+        // When
+        Contador primero = contadores.fallar(huella, INICIO);
+        Contador segundo = contadores.fallar(huella, INICIO + 1);
+        Contador tercero = contadores.fallar(huella, INICIO + 2);
+
+        // Then
+        assertNull(primero);
+        assertNull(segundo);
+        assertNotNull(tercero);
+        assertEquals(1, tercero.nivel());
+        assertEquals(INICIO + 2 + BLOQUEO.toMillis(), contadores.bloqueadoHasta(huella, INICIO + 3));
+        assertEquals(0, contadores.bloqueadoHasta(huella, INICIO + 2 + BLOQUEO.toMillis()));
+        assertEquals(0, contadores.bloqueadoHasta(contadores.huella("otra@email.com"), INICIO + 3));
+    }
+
+    @Test
+    void deberiaDuplicarCadaBloqueoConsecutivoHastaElMaximo() {
+        // Given
+        SlidingWindowCounters contadores = new SlidingWindowCounters(1024, 1L, VENTANA, 1, BLOQUEO, BLOQUEO_MAXIMO);
+        long huella = contadores.huella("203.0.113.7");
+        List<Long> duraciones = new ArrayList<>();
+        long ahora = INICIO;
+
+        // When: cada fallo llega justo cuando termina el bloqueo anterior
+        for (int i = 0; i < 5; i++) {
+            Contador bloqueo = contadores.fallar(huella, ahora);
+            duraciones.add(bloqueo.bloqueadoHasta() - ahora);
+            ahora = bloqueo.bloqueadoHasta();
+        }
+
+        // Then
+        assertEquals(List.of(60_000L, 120_000L, 240_000L, 300_000L, 300_000L), duraciones);
+    }
+
+    @Test
+    void deberiaPonderarLosFallosDeLaVentanaAnteriorSegunCuantoSigueDentro() {
+        // Given: dos fallos al final de una ventana
+        SlidingWindowCounters contadores = new SlidingWindowCounters(1024, 1L, VENTANA, 3, BLOQUEO, BLOQUEO_MAXIMO);
+        long inicioVentana = (INICIO / VENTANA.toMillis() + 1) * VENTANA.toMillis();
+        long temprano = contadores.huella("temprano@email.com");
+        long tarde = contadores.huella("tarde@email.com");
+        for (long huella : new long[]{temprano, tarde}) {
+            contadores.fallar(huella, inicioVentana - 2);
+            contadores.fallar(huella, inicioVentana - 1);
+        }
+
+        // When: un fallo más al empezar la siguiente y otro cuando ya casi termina
+        Contador alEmpezar = contadores.fallar(temprano, inicioVentana);
+        Contador alTerminar = contadores.fallar(tarde, inicioVentana + VENTANA.toMillis() - 1);
+
+        // Then
+        assertNotNull(alEmpezar);
+        assertNull(alTerminar);
+    }
+
+    @Test
+    void deberiaOlvidarLosFallosDeUnaCuentaAlReiniciarla() {
+        // Given
+        SlidingWindowCounters contadores = new SlidingWindowCounters(1024, 1L, VENTANA, 3, BLOQUEO, BLOQUEO_MAXIMO);
+        long huella = contadores.huella("juan.perez@email.com");
+        contadores.fallar(huella, INICIO);
+        contadores.fallar(huella, INICIO);
+
+        // When
+        contadores.reiniciar(huella);
+
+        // Then
+        assertNull(contadores.fallar(huella, INICIO));
+        assertNull(contadores.fallar(huella, INICIO));
+        assertNotNull(contadores.fallar(huella, INICIO));
+    }
+
+    @Test
+    void deberiaMantenerLaCapacidadYConservarLosBloqueosAnteMillonesDeClaves() {
+        // Given
+        SlidingWindowCounters contadores = new SlidingWindowCounters(1024, 7L, VENTANA, 2, BLOQUEO, BLOQUEO_MAXIMO);
+        long bloqueada = contadores.huella("victima@email.com");
+        contadores.fallar(bloqueada, INICIO);
+        long hasta = contadores.fallar(bloqueada, INICIO).bloqueadoHasta();
+
+        // When: un ataque con un millón de claves distintas, un fallo por clave
+        for (int i = 0; i < 1_000_000; i++) {
+            contadores.fallar(contadores.huella("atacante-" + i + "@email.com"), INICIO + 1);
+        }
+
+        // Then
+        assertEquals(1024, contadores.capacidad());
+        assertTrue(contadores.claves() <= contadores.capacidad());
+        assertEquals(hasta, contadores.bloqueadoHasta(bloqueada, INICIO + 2));
+    }
+
+    @Test
+    void deberiaContarCadaFalloConcurrenteUnaSolaVez() {
+        // Given
+        SlidingWindowCounters contadores = new SlidingWindowCounters(1024, 1L, Duration.ofHours(1), 8000, BLOQUEO,
+                BLOQUEO_MAXIMO);
+        long huella = contadores.huella("203.0.113.7");
+        AtomicInteger bloqueos = new AtomicInteger();
+
+        // When: ocho hilos registran 1000 fallos cada uno sobre la misma clave
+        List<CompletableFuture<Void>> hilos = new ArrayList<>();
+        for (int h = 0; h < 8; h++) {
+            hilos.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (contadores.fallar(huella, INICIO) != null) {
+                        bloqueos.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        hilos.forEach(CompletableFuture::join);
+
+        // Then: el fallo número 8000 bloquea una sola vez
+        assertEquals(1, bloqueos.get());
+        assertTrue(contadores.bloqueadoHasta(huella, INICIO) > INICIO);
+    }
+}
@@ -0,0 +1,128 @@
+package rodriguez.ciro.r2dbc.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.publisher.PublisherProbe;
+import rodriguez.ciro.model.evento.Evento;
+import rodriguez.ciro.model.evento.gateways.PublicadorEventos;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec reclamar =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    private final DatabaseClient.GenericExecuteSpec borrar =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    @SuppressWarnings("unchecked")
+    private final FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+    private final PublicadorEventos publicador = mock(PublicadorEventos.class);
+    private final PublisherProbe<Long> borrado = PublisherProbe.of(Mono.just(2L));
+    private final Queue<List<Readable>> lotes = new ConcurrentLinkedQueue<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxRelay relay = new OutboxRelay(databaseClient, publicador,
+            new OutboxProperties(Duration.ofMillis(10), 10, Duration.ofSeconds(30)), meterRegistry);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(databaseClient.sql(contains("FOR UPDATE SKIP LOCKED"))).thenReturn(reclamar);
+        when(databaseClient.sql(contains("DELETE FROM outbox"))).thenReturn(borrar);
+        when(borrar.fetch()).thenReturn(fetchSpec);
+        when(fetchSpec.rowsUpdated()).thenReturn(borrado.mono());
+        // Cada reclamo devuelve el siguiente lote pendiente, o ninguna fila
+        when(reclamar.map(any(Function.class))).thenAnswer(invocacion -> {
+            Function<Readable, Object> mapper = invocacion.getArgument(0);
+            return mock(RowsFetchSpec.class, consulta -> "all".equals(consulta.getMethod().getName())
+                    ? Flux.defer(() -> {
+                        List<Readable> lote = lotes.poll();
+                        return lote == null ? Flux.empty() : Flux.fromIterable(lote);
+                    }).map(mapper)
+                    : RETURNS_DEFAULTS.answer(consulta));
+        });
+        lotes.add(List.of(fila(2L), fila(1L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    @Test
+    void deberiaBorrarElLoteSoloDespuesDePublicarloEnOrden() {
+        // Given
+        Sinks.Empty<Void> publicacion = Sinks.empty();
+        when(publicador.publicar(anyList())).thenReturn(publicacion.asMono());
+
+        // When
+        relay.start();
+
+        // Then
+        verify(publicador, timeout(1000)).publicar(argThat(eventos ->
+                eventos.stream().map(Evento::idEvento).toList().equals(List.of(1L, 2L))));
+        verify(reclamar).bind("lote", 10);
+        borrado.assertWasNotSubscribed();
+
+        publicacion.tryEmitEmpty();
+
+        verify(borrar).bind(eq("ids"), argThat(ids -> Arrays.equals((Long[]) ids, new Long[]{1L, 2L})));
+        borrado.assertWasSubscribed();
+        assertEquals(2.0, meterRegistry.get("outbox.relayed").counter().count());
+    }
+
+    @Test
+    void deberiaDejarLasFilasReclamadasCuandoElPublicadorFalla() {
+        // Given
+        when(publicador.publicar(anyList())).thenReturn(Mono.error(new IllegalStateException("Broker no disponible")));
+
+        // When
+        relay.start();
+
+        // Then
+        verify(publicador, timeout(1000)).publicar(anyList());
+        verify(databaseClient, timeout(1000).atLeast(2)).sql(contains("FOR UPDATE SKIP LOCKED"));
+        borrado.assertWasNotSubscribed();
+        assertEquals(1.0, meterRegistry.get("outbox.publish.failures").counter().count());
+        assertEquals(0.0, meterRegistry.get("outbox.relayed").counter().count());
+    }
+
+    private static Readable fila(long idEvento) {
+        Readable fila = mock(Readable.class);
+        when(fila.get("id_evento", Long.class)).thenReturn(idEvento);
+        when(fila.get("tipo", String.class)).thenReturn(Evento.USUARIO_REGISTRADO);
+        when(fila.get("clave", String.class)).thenReturn(String.valueOf(idEvento));
+        when(fila.get("contenido", String.class)).thenReturn("{\"idUsuario\":" + idEvento + "}");
+        when(fila.get("creado_en", Instant.class)).thenReturn(Instant.now());
+        return fila;
+    }
+}
@@ -0,0 +1,134 @@
+package rodriguez.ciro.r2dbc.permiso;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.permiso.exception.PermisosNoCargadosException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PermisoRepositoryAdapterTest {
+
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec permisos =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    private final PostgresqlConnectionFactory notificaciones = mock(PostgresqlConnectionFactory.class);
+    private final PostgresqlConnection conexion = mock(PostgresqlConnection.class);
+    private final PostgresqlStatement listen = mock(PostgresqlStatement.class);
+    private final Sinks.Many<Notification> recibidas = Sinks.many().unicast().onBackpressureBuffer();
+    private final AtomicReference<List<Readable>> filas = new AtomicReference<>(List.of());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PermisoRepositoryAdapter adapter =
+            new PermisoRepositoryAdapter(databaseClient, notificaciones, meterRegistry);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doReturn(Mono.just(conexion)).when(notificaciones).create();
+        when(conexion.createStatement("LISTEN permisos")).thenReturn(listen);
+        doReturn(Flux.empty()).when(listen).execute();
+        when(conexion.getNotifications()).thenReturn(recibidas.asFlux());
+        when(conexion.close()).thenReturn(Mono.empty());
+        when(databaseClient.sql(contains("FROM permisos"))).thenReturn(permisos);
+        // Aplica el mapper del adaptador a las filas vigentes al momento de cada compilación
+        when(permisos.map(any(Function.class))).thenAnswer(invocacion -> {
+            Function<Readable, Object> mapper = invocacion.getArgument(0);
+            return mock(RowsFetchSpec.class, consulta -> "all".equals(consulta.getMethod().getName())
+                    ? Flux.defer(() -> Flux.fromIterable(filas.get())).map(mapper)
+                    : RETURNS_DEFAULTS.answer(consulta));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (adapter.isRunning()) {
+            adapter.stop();
+        }
+    }
+
+    @Test
+    void deberiaFallarMientrasNoSeHayaCompiladoLaMatriz() {
+        StepVerifier.create(adapter.matriz())
+                .expectError(PermisosNoCargadosException.class)
+                .verify();
+    }
+
+    @Test
+    void deberiaCompilarLaMatrizAlIniciar() {
+        // Given
+        filas.set(List.of(
+                fila("usuarios:leer", 1L),
+                fila("usuarios:leer", 2L),
+                fila("usuarios:registrar", 1L),
+                fila("roles:administrar", null)));
+
+        // When
+        adapter.start();
+
+        // Then
+        StepVerifier.create(adapter.matriz())
+                .assertNext(matriz -> {
+                    assertEquals(3, matriz.permisos());
+                    assertEquals(2, matriz.roles());
+                    assertTrue(matriz.permite(1L, "usuarios:registrar"));
+                    assertTrue(matriz.permite(2L, "usuarios:leer"));
+                    assertFalse(matriz.permite(2L, "usuarios:registrar"));
+                    assertFalse(matriz.permite(1L, "roles:administrar"));
+                })
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.get("permissions.compilations").counter().count());
+    }
+
+    @Test
+    void deberiaRecompilarLaMatrizAlRecibirUnaNotificacion() {
+        // Given
+        filas.set(List.of(fila("usuarios:leer", 1L), fila("usuarios:registrar", 1L)));
+        adapter.start();
+        filas.set(List.of(fila("usuarios:leer", 1L), fila("usuarios:registrar", 2L)));
+
+        // When
+        recibidas.tryEmitNext(mock(Notification.class));
+
+        // Then
+        StepVerifier.create(adapter.matriz())
+                .assertNext(matriz -> {
+                    assertFalse(matriz.permite(1L, "usuarios:registrar"));
+                    assertTrue(matriz.permite(2L, "usuarios:registrar"));
+                    assertTrue(matriz.permite(1L, "usuarios:leer"));
+                })
+                .verifyComplete();
+        assertEquals(2.0, meterRegistry.get("permissions.compilations").counter().count());
+    }
+
+    private static Readable fila(String permiso, Long idRol) {
+        Readable fila = mock(Readable.class);
+        when(fila.get("nombre", String.class)).thenReturn(permiso);
+        when(fila.get("id_rol", Long.class)).thenReturn(idRol);
+        return fila;
+    }
+}
@@ -0,0 +1,160 @@
+package rodriguez.ciro.r2dbc.registro;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegistroUsuarioRepositoryAdapterTest {
+
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec despuesDe =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    private final DatabaseClient.GenericExecuteSpec porIds =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    private final PostgresqlConnectionFactory notificaciones = mock(PostgresqlConnectionFactory.class);
+    private final PostgresqlConnection conexion = mock(PostgresqlConnection.class);
+    private final PostgresqlStatement listen = mock(PostgresqlStatement.class);
+    private final Sinks.Many<Notification> recibidas = Sinks.many().unicast().onBackpressureBuffer();
+    private final Queue<Flux<Readable>> paginas = new ConcurrentLinkedQueue<>();
+    private final Queue<Flux<Readable>> cargas = new ConcurrentLinkedQueue<>();
+    private RegistroUsuarioRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(Mono.just(conexion)).when(notificaciones).create();
+        when(conexion.createStatement("LISTEN usuarios_registrados")).thenReturn(listen);
+        doReturn(Flux.empty()).when(listen).execute();
+        when(conexion.getNotifications()).thenReturn(recibidas.asFlux(), Flux.never());
+        when(conexion.close()).thenReturn(Mono.empty());
+        when(databaseClient.sql(contains("id_usuario > :desde"))).thenReturn(despuesDe);
+        when(databaseClient.sql(contains("ANY(:ids::bigint[])"))).thenReturn(porIds);
+        filas(despuesDe, paginas);
+        filas(porIds, cargas);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (adapter.isRunning()) {
+            adapter.stop();
+        }
+    }
+
+    @Test
+    void deberiaEntregarEnVivoUnRegistroConfirmadoDuranteLaRepeticion() {
+        // Given
+        adapter = adaptador(10);
+        adapter.start();
+        Sinks.Many<Readable> pagina = Sinks.many().unicast().onBackpressureBuffer();
+        paginas.add(pagina.asFlux());
+        cargas.add(Flux.just(fila(12L)));
+        List<Long> repetidos = new CopyOnWriteArrayList<>();
+
+        // When & Then
+        StepVerifier.create(adapter.nuevos().map(Usuario::getIdUsuario))
+                .then(() -> {
+                    adapter.registradosDespuesDe(10L).map(Usuario::getIdUsuario).subscribe(repetidos::add);
+                    pagina.tryEmitNext(fila(11L));
+                    // 12 se confirma después de que la repetición leyó 11 y antes de que lea 13
+                    recibidas.tryEmitNext(notificacion("12"));
+                })
+                .expectNext(12L)
+                .then(() -> {
+                    pagina.tryEmitNext(fila(13L));
+                    pagina.tryEmitComplete();
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(2));
+        assertEquals(List.of(11L, 13L), repetidos);
+    }
+
+    @Test
+    void deberiaRepetirPorPaginasDesdeElUltimoId() {
+        // Given
+        adapter = adaptador(2);
+        paginas.add(Flux.just(fila(11L), fila(12L)));
+        paginas.add(Flux.just(fila(13L)));
+
+        // When & Then
+        StepVerifier.create(adapter.registradosDespuesDe(10L).map(Usuario::getIdUsuario))
+                .expectNext(11L, 12L, 13L)
+                .verifyComplete();
+        verify(despuesDe).bind("desde", 10L);
+        verify(despuesDe).bind("desde", 12L);
+    }
+
+    @Test
+    void deberiaTerminarLosStreamsAbiertosAlPerderLaEscucha() {
+        // Given
+        adapter = adaptador(10);
+        adapter.start();
+
+        // When & Then
+        StepVerifier.create(adapter.nuevos())
+                .then(recibidas::tryEmitComplete)
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+    }
+
+    private RegistroUsuarioRepositoryAdapter adaptador(int tamanoLote) {
+        return new RegistroUsuarioRepositoryAdapter(databaseClient, notificaciones,
+                new RegistroStreamProperties(100, RegistroStreamProperties.SlowSubscriberPolicy.DROP_OLDEST,
+                        tamanoLote, Duration.ofMillis(10), Duration.ofMillis(50)),
+                new SimpleMeterRegistry());
+    }
+
+    // Cada consulta devuelve las siguientes filas de la cola, mapeadas con el mapper del adaptador
+    @SuppressWarnings("unchecked")
+    private static void filas(DatabaseClient.GenericExecuteSpec spec, Queue<Flux<Readable>> resultados) {
+        when(spec.map(any(Function.class))).thenAnswer(invocacion -> {
+            Function<Readable, Object> mapper = invocacion.getArgument(0);
+            return mock(RowsFetchSpec.class, consulta -> "all".equals(consulta.getMethod().getName())
+                    ? Flux.defer(() -> {
+                        Flux<Readable> filas = resultados.poll();
+                        return filas == null ? Flux.empty() : filas;
+                    }).map(mapper)
+                    : RETURNS_DEFAULTS.answer(consulta));
+        });
+    }
+
+    private static Readable fila(Long idUsuario) {
+        Readable fila = mock(Readable.class);
+        when(fila.get("id_usuario", Long.class)).thenReturn(idUsuario);
+        return fila;
+    }
+
+    private static Notification notificacion(String carga) {
+        Notification notificacion = mock(Notification.class);
+        when(notificacion.getParameter()).thenReturn(carga);
+        return notificacion;
+    }
+}
@@ -0,0 +1,129 @@
+package rodriguez.ciro.r2dbc.revocacion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.token.exception.RevocacionesNoSincronizadasException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocacionRepositoryAdapterTest {
+
+    private static final String ID_TOKEN = "AAECAwQFBgcICQoLDA0ODw";
+
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class, Answers.RETURNS_DEEP_STUBS);
+    private final DatabaseClient.GenericExecuteSpec executeSpec =
+            mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    @SuppressWarnings("unchecked")
+    private final FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+    private final PostgresqlConnectionFactory notificaciones = mock(PostgresqlConnectionFactory.class);
+    private final PostgresqlConnection conexion = mock(PostgresqlConnection.class);
+    private final PostgresqlStatement listen = mock(PostgresqlStatement.class);
+    private final Sinks.Many<Notification> recibidas = Sinks.many().unicast().onBackpressureBuffer();
+    private RevocacionRepositoryAdapter adapter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doReturn(Mono.just(conexion)).when(notificaciones).create();
+        when(conexion.createStatement("LISTEN revoked_tokens")).thenReturn(listen);
+        doReturn(Flux.empty()).when(listen).execute();
+        when(conexion.getNotifications()).thenReturn(recibidas.asFlux());
+        when(conexion.close()).thenReturn(Mono.empty());
+        when(databaseClient.sql(contains("SELECT id_token")).map(any(Function.class)).all())
+                .thenReturn(Flux.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (adapter.isRunning()) {
+            adapter.stop();
+        }
+    }
+
+    @Test
+    void deberiaAgregarElTokenNotificadoPorOtroNodo() {
+        // Given
+        adapter = adaptador(Duration.ofHours(1));
+        StepVerifier.create(adapter.estaRevocado(ID_TOKEN))
+                .expectError(RevocacionesNoSincronizadasException.class)
+                .verify();
+        adapter.start();
+
+        // When
+        recibidas.tryEmitNext(notificacion(ID_TOKEN + ":" + Instant.now().plusSeconds(300).getEpochSecond()));
+
+        // Then
+        StepVerifier.create(adapter.estaRevocado(ID_TOKEN))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(adapter.estaRevocado("BAECAwQFBgcICQoLDA0ODw"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaIgnorarUnaNotificacionInvalida() {
+        // Given
+        adapter = adaptador(Duration.ofHours(1));
+        adapter.start();
+
+        // When
+        recibidas.tryEmitNext(notificacion("sin-expiracion"));
+        recibidas.tryEmitNext(notificacion(ID_TOKEN + ":" + Instant.now().plusSeconds(300).getEpochSecond()));
+
+        // Then
+        StepVerifier.create(adapter.estaRevocado(ID_TOKEN))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaSeguirPodandoDespuesDeUnBorradoLento() {
+        // Given
+        when(databaseClient.sql(contains("DELETE FROM revoked_tokens"))).thenReturn(executeSpec);
+        when(executeSpec.fetch()).thenReturn(fetchSpec);
+        when(fetchSpec.rowsUpdated()).thenReturn(Mono.delay(Duration.ofMillis(400)).thenReturn(0L), Mono.just(0L));
+        adapter = adaptador(Duration.ofMillis(5));
+
+        // When
+        adapter.start();
+
+        // Then
+        verify(fetchSpec, timeout(2000).atLeast(2)).rowsUpdated();
+    }
+
+    private RevocacionRepositoryAdapter adaptador(Duration intervaloPoda) {
+        return new RevocacionRepositoryAdapter(databaseClient, notificaciones,
+                new RevocacionProperties(1000, intervaloPoda, Duration.ofMillis(50)), new SimpleMeterRegistry());
+    }
+
+    private static Notification notificacion(String carga) {
+        Notification notificacion = mock(Notification.class);
+        when(notificacion.getParameter()).thenReturn(carga);
+        return notificacion;
+    }
+}
@@ -0,0 +1,129 @@
+package rodriguez.ciro.r2dbc.revocacion;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevokedTokenSetTest {
+
+    private static final long AHORA = 1_800_000_000L;
+
+    @Test
+    void deberiaContenerUnIdRevocadoHastaQueExpira() {
+        // Given
+        RevokedTokenSet revocados = new RevokedTokenSet(100);
+        String id = idAleatorio();
+
+        // When
+        revocados.agregar(id, AHORA + 60, AHORA);
+
+        // Then
+        assertTrue(revocados.contiene(id, AHORA));
+        assertFalse(revocados.contiene(id, AHORA + 60));
+        assertFalse(revocados.contiene(idAleatorio(), AHORA));
+    }
+
+    @Test
+    void deberiaDecodificarLosIdsBase64UrlSinPerderBits() {
+        // Given
+        byte[] bytes = new byte[16];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        ByteBuffer esperado = ByteBuffer.wrap(bytes);
+        String id = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        // When & Then
+        assertEquals(esperado.getLong(0), RevokedTokenSet.mitad(id, true));
+        assertEquals(esperado.getLong(8), RevokedTokenSet.mitad(id, false));
+    }
+
+    @Test
+    void deberiaAceptarIdsConOtroFormato() {
+        // Given
+        RevokedTokenSet revocados = new RevokedTokenSet(100);
+
+        // When
+        revocados.agregar("id-externo:42", AHORA + 60, AHORA);
+
+        // Then
+        assertTrue(revocados.contiene("id-externo:42", AHORA));
+        assertFalse(revocados.contiene("id-externo:43", AHORA));
+    }
+
+    @Test
+    void deberiaCrecerYPodarSinPerderLasEntradasVigentes() {
+        // Given
+        RevokedTokenSet revocados = new RevokedTokenSet(20_000);
+        String[] vigentes = new String[1_000];
+        for (int i = 0; i < vigentes.length; i++) {
+            vigentes[i] = idAleatorio();
+            revocados.agregar(vigentes[i], AHORA + 600, AHORA);
+            for (int j = 0; j < 9; j++) {
+                revocados.agregar(idAleatorio(), AHORA + 60, AHORA);
+            }
+        }
+        long bytesAntesDePodar = revocados.bytes();
+
+        // When
+        int podadas = revocados.podar(AHORA + 60);
+
+        // Then
+        assertEquals(9_000, podadas);
+        assertEquals(1_000, revocados.entradas());
+        assertTrue(revocados.bytes() < bytesAntesDePodar);
+        for (String id : vigentes) {
+            assertTrue(revocados.contiene(id, AHORA + 60));
+        }
+    }
+
+    @Test
+    void deberiaRechazarRevocacionesPorEncimaDelMaximoVigente() {
+        // Given
+        RevokedTokenSet revocados = new RevokedTokenSet(600);
+        for (int i = 0; i < 600; i++) {
+            revocados.agregar(idAleatorio(), AHORA + 60, AHORA);
+        }
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> revocados.agregar(idAleatorio(), AHORA + 60, AHORA));
+        revocados.agregar(idAleatorio(), AHORA + 120, AHORA + 60);
+        assertEquals(1, revocados.entradas());
+    }
+
+    @Test
+    void deberiaResponderConsultasConcurrentesMientrasSeAgregan() throws Exception {
+        // Given
+        RevokedTokenSet revocados = new RevokedTokenSet(100_000);
+        String fijo = idAleatorio();
+        revocados.agregar(fijo, AHORA + 60, AHORA);
+        boolean[] siempreEncontrado = {true};
+        Thread lector = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                siempreEncontrado[0] &= revocados.contiene(fijo, AHORA);
+            }
+        });
+
+        // When
+        lector.start();
+        for (int i = 0; i < 20_000; i++) {
+            revocados.agregar(idAleatorio(), AHORA + 60, AHORA);
+        }
+        lector.join();
+
+        // Then
+        assertTrue(siempreEncontrado[0]);
+        assertEquals(20_001, revocados.entradas());
+    }
+
+    private static String idAleatorio() {
+        byte[] bytes = new byte[16];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,189 @@
+package rodriguez.ciro.r2dbc.sesion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.sesion.Sesion;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SesionRepositoryAdapterTest {
+
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DatabaseClient.GenericExecuteSpec insertar = sentencia();
+    private final DatabaseClient.GenericExecuteSpec consumir = sentencia();
+    private final DatabaseClient.GenericExecuteSpec borrar = sentencia();
+    private final DatabaseClient.GenericExecuteSpec borrarExpiradas = sentencia();
+    private final DatabaseClient.GenericExecuteSpec vigentes = sentencia();
+    private FetchSpec<Map<String, Object>> borradoInicial;
+    private SesionRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        when(databaseClient.sql(contains("INSERT INTO sesiones"))).thenReturn(insertar);
+        when(databaseClient.sql(contains("RETURNING id_usuario"))).thenReturn(consumir);
+        when(databaseClient.sql(contains("ANY(:ids::uuid[])"))).thenReturn(borrar);
+        when(databaseClient.sql(eq("DELETE FROM sesiones WHERE expira_en <= now()"))).thenReturn(borrarExpiradas);
+        when(databaseClient.sql(contains("SELECT id_sesion"))).thenReturn(vigentes);
+        borradoInicial = filasActualizadas(borrarExpiradas, Mono.just(0L));
+        filasActualizadas(borrar, Mono.just(1L));
+        filas(vigentes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null && adapter.isRunning()) {
+            adapter.stop();
+        }
+    }
+
+    @Test
+    void deberiaGuardarLasSesionesNuevasEnUnSoloLote() {
+        // Given
+        FetchSpec<Map<String, Object>> insercion = filasActualizadas(insertar, Mono.just(2L));
+        adapter = adaptador(Duration.ofSeconds(1), 2);
+        adapter.start();
+
+        // When & Then
+        StepVerifier.create(Mono.zip(adapter.abrir(1L), adapter.abrir(2L)))
+                .assertNext(sesiones -> {
+                    assertEquals(43, sesiones.getT1().tokenRefresco().length());
+                    assertEquals(1L, sesiones.getT1().idUsuario());
+                    assertEquals(2L, sesiones.getT2().idUsuario());
+                })
+                .verifyComplete();
+        verify(insertar).bind(eq("ids"), argThat(ids -> ((UUID[]) ids).length == 2));
+        verify(insercion).rowsUpdated();
+        assertEquals(2.0, meterRegistry.get("sessions.active").gauge().value());
+    }
+
+    @Test
+    void deberiaFallarLasSesionesDelLoteSinProgramarlasCuandoLaInsercionFalla() {
+        // Given
+        filasActualizadas(insertar, Mono.error(new IllegalStateException("Conexión cerrada")));
+        adapter = adaptador(Duration.ofSeconds(1), 1);
+        adapter.start();
+
+        // When & Then
+        StepVerifier.create(adapter.abrir(1L))
+                .expectErrorMessage("Conexión cerrada")
+                .verify();
+        assertEquals(0.0, meterRegistry.get("sessions.active").gauge().value());
+    }
+
+    @Test
+    void deberiaGuardarLasSesionesPendientesAlDetener() {
+        // Given
+        filasActualizadas(insertar, Mono.just(1L));
+        adapter = adaptador(Duration.ofSeconds(1), 10);
+        adapter.start();
+        Mono<Sesion> pendiente = adapter.abrir(1L).cache();
+        pendiente.subscribe();
+
+        // When
+        adapter.stop();
+
+        // Then
+        StepVerifier.create(pendiente)
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(insertar).bind(eq("ids"), argThat(ids -> ((UUID[]) ids).length == 1));
+    }
+
+    @Test
+    void deberiaConsumirUnaSesionYRetirarlaDeLaRueda() {
+        // Given
+        filasActualizadas(insertar, Mono.just(1L));
+        adapter = adaptador(Duration.ofSeconds(1), 1);
+        adapter.start();
+        Sesion abierta = adapter.abrir(1L).block();
+        filas(consumir, fila(Map.of("id_usuario", 1L, "expira_en", abierta.expiraEn())));
+
+        // When & Then
+        StepVerifier.create(adapter.consumir(abierta.tokenRefresco()))
+                .expectNext(abierta)
+                .verifyComplete();
+        verify(consumir).bind("id", SesionRepositoryAdapter.id(abierta.tokenRefresco()));
+        assertEquals(0.0, meterRegistry.get("sessions.active").gauge().value());
+    }
+
+    @Test
+    void deberiaBorrarPorIdLasSesionesCargadasAlExpirar() {
+        // Given
+        UUID id = UUID.randomUUID();
+        filas(vigentes, fila(Map.of("id_sesion", id, "expira_en", Instant.now().plusMillis(100))));
+        adapter = adaptador(Duration.ofMillis(20), 10);
+
+        // When
+        adapter.start();
+
+        // Then
+        verify(borradoInicial).rowsUpdated();
+        verify(borrar, timeout(2000)).bind(eq("ids"), argThat(ids -> Arrays.equals((UUID[]) ids, new UUID[]{id})));
+        assertEquals(1.0, meterRegistry.get("sessions.expired").counter().count());
+        assertEquals(0.0, meterRegistry.get("sessions.active").gauge().value());
+    }
+
+    private SesionRepositoryAdapter adaptador(Duration tick, int tamanoLote) {
+        return new SesionRepositoryAdapter(databaseClient,
+                new SesionProperties(Duration.ofDays(7), tick, tamanoLote, Duration.ofHours(1)), meterRegistry);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec sentencia() {
+        return mock(DatabaseClient.GenericExecuteSpec.class, Answers.RETURNS_SELF);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FetchSpec<Map<String, Object>> filasActualizadas(DatabaseClient.GenericExecuteSpec spec,
+                                                                    Mono<Long> resultado) {
+        FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+        when(spec.fetch()).thenReturn(fetchSpec);
+        when(fetchSpec.rowsUpdated()).thenReturn(resultado);
+        return fetchSpec;
+    }
+
+    // Aplica el mapper del adaptador a las filas dadas, que la consulta devuelve en orden
+    @SuppressWarnings("unchecked")
+    private static void filas(DatabaseClient.GenericExecuteSpec spec, Readable... filas) {
+        when(spec.map(any(Function.class))).thenAnswer(invocacion -> {
+            Function<Readable, Object> mapper = invocacion.getArgument(0);
+            return mock(RowsFetchSpec.class, consulta -> switch (consulta.getMethod().getName()) {
+                case "all" -> Flux.fromArray(filas).map(mapper);
+                case "one" -> Flux.fromArray(filas).map(mapper).next();
+                default -> RETURNS_DEFAULTS.answer(consulta);
+            });
+        });
+    }
+
+    private static Readable fila(Map<String, Object> columnas) {
+        Readable fila = mock(Readable.class);
+        columnas.forEach((columna, valor) -> when(fila.get(columna, valor.getClass())).thenAnswer(i -> valor));
+        return fila;
+    }
+}
@@ -0,0 +1,113 @@
+package rodriguez.ciro.r2dbc.sesion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final Instant INICIO = Instant.parse("2027-01-01T00:00:00Z");
+
+    @Test
+    void deberiaExpirarEnElTickDeLaExpiracionYNoAntes() {
+        // Given
+        TimingWheel rueda = new TimingWheel(Duration.ofSeconds(1), INICIO);
+        UUID id = UUID.randomUUID();
+        List<UUID> expirados = new ArrayList<>();
+        rueda.programar(id, INICIO.plusSeconds(10));
+
+        // When & Then
+        assertEquals(0, rueda.avanzar(INICIO.plusMillis(9999), expirados::add));
+        assertEquals(1, rueda.avanzar(INICIO.plusSeconds(10), expirados::add));
+        assertEquals(List.of(id), expirados);
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    void deberiaNoExpirarUnaSesionCancelada() {
+        // Given
+        TimingWheel rueda = new TimingWheel(Duration.ofSeconds(1), INICIO);
+        UUID id = UUID.randomUUID();
+        rueda.programar(id, INICIO.plusSeconds(100_000));
+
+        // When
+        boolean cancelada = rueda.cancelar(id);
+
+        // Then
+        assertTrue(cancelada);
+        assertFalse(rueda.cancelar(id));
+        assertEquals(0, rueda.avanzar(INICIO.plusSeconds(200_000), expirado -> { }));
+    }
+
+    @Test
+    void deberiaReemplazarLaExpiracionAlReprogramarYDescartarLasPasadas() {
+        // Given
+        TimingWheel rueda = new TimingWheel(Duration.ofSeconds(1), INICIO);
+        UUID id = UUID.randomUUID();
+        List<UUID> expirados = new ArrayList<>();
+
+        // When
+        rueda.programar(id, INICIO.plusSeconds(5));
+        rueda.programar(id, INICIO.plusSeconds(5000));
+
+        // Then
+        assertFalse(rueda.programar(UUID.randomUUID(), INICIO));
+        assertEquals(1, rueda.tamano());
+        assertEquals(0, rueda.avanzar(INICIO.plusSeconds(4999), expirados::add));
+        assertEquals(1, rueda.avanzar(INICIO.plusSeconds(5000), expirados::add));
+    }
+
+    @Test
+    void deberiaExpirarCadaEntradaEnSuTickEnTodosLosNiveles() {
+        // Given: expiraciones repartidas en los cuatro niveles y más allá del alcance
+        TimingWheel rueda = new TimingWheel(Duration.ofSeconds(1), INICIO);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        Map<UUID, Long> esperados = new HashMap<>();
+        long maximo = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long segundos = 1 + aleatorio.nextLong(switch (i % 4) {
+                case 0 -> 64L;
+                case 1 -> 4096L;
+                case 2 -> 262_144L;
+                default -> 40_000_000L;
+            });
+            UUID id = UUID.randomUUID();
+            rueda.programar(id, INICIO.plusSeconds(segundos));
+            esperados.put(id, segundos);
+            maximo = Math.max(maximo, segundos);
+        }
+        for (UUID id : new ArrayList<>(esperados.keySet()).subList(0, 5000)) {
+            rueda.cancelar(id);
+            esperados.remove(id);
+        }
+
+        // When: se avanza en saltos irregulares, como un intervalo que a veces se retrasa
+        Map<UUID, Long> expirados = new HashMap<>();
+        long segundo = 0;
+        while (segundo < maximo) {
+            long desde = segundo;
+            long hasta = Math.min(maximo, segundo + 1 + aleatorio.nextLong(5000));
+            rueda.avanzar(INICIO.plusSeconds(hasta), id -> {
+                assertTrue(esperados.get(id) <= hasta, "expiró antes de tiempo");
+                assertTrue(esperados.get(id) > desde, "expiró tarde");
+                expirados.put(id, hasta);
+            });
+            segundo = hasta;
+        }
+
+        // Then
+        assertEquals(esperados.keySet(), expirados.keySet());
+        assertEquals(0, rueda.tamano());
+    }
+}
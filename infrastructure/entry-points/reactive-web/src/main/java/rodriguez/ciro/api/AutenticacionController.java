@@ -0,0 +1,143 @@
+package rodriguez.ciro.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.dto.LoginRequest;
+import rodriguez.ciro.api.dto.LoginResponse;
+import rodriguez.ciro.api.dto.RevocarTokenRequest;
+import rodriguez.ciro.api.dto.TokenRefrescoRequest;
+import rodriguez.ciro.model.sesion.SesionIniciada;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.usecase.autenticarusuario.AutenticarUsuarioUseCase;
+import rodriguez.ciro.usecase.refrescarsesion.RefrescarSesionUseCase;
+import rodriguez.ciro.usecase.revocartoken.RevocarTokenUseCase;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/v1/auth", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+@Tag(name = "Autenticación", description = "API para autenticación de usuarios")
+public class AutenticacionController {
+
+    private static final String TIPO_TOKEN = "Bearer";
+    private static final String PREFIJO_BEARER = TIPO_TOKEN + " ";
+
+    private final AutenticarUsuarioUseCase autenticarUsuarioUseCase;
+    private final RevocarTokenUseCase revocarTokenUseCase;
+    private final RefrescarSesionUseCase refrescarSesionUseCase;
+
+    @PostMapping("/login")
+    @Operation(summary = "Iniciar sesión", description = "Verifica el correo electrónico y la contraseña de un usuario, emite un token de acceso firmado y abre una sesión con su token de refresco")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Credenciales válidas, se emite el token"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "401", description = "Correo electrónico o contraseña incorrectos"),
+            @ApiResponse(responseCode = "429", description = "Cuenta u origen bloqueados por intentos fallidos"),
+            @ApiResponse(responseCode = "503", description = "Capacidad de verificación de contraseñas agotada"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Mono<LoginResponse> login(@Valid @RequestBody LoginRequest request, ServerHttpRequest httpRequest) {
+        log.info("Inicio de sesión de usuario con correo: {}", request.getCorreoElectronico());
+
+        return autenticarUsuarioUseCase.autenticar(request.getCorreoElectronico(), request.getContrasena(),
+                        origen(httpRequest))
+                .map(AutenticacionController::respuesta)
+                .doOnSuccess(response ->
+                        log.info("Inicio de sesión exitoso del usuario con ID: {}", response.getIdUsuario()))
+                .doOnError(error ->
+                        log.warn("Inicio de sesión fallido: {}", error.getMessage()));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refrescar la sesión", description = "Consume el token de refresco y emite un token de acceso y un token de refresco nuevos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sesión refrescada"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "401", description = "Token de refresco inválido, expirado o ya usado")
+    })
+    public Mono<LoginResponse> refrescar(@Valid @RequestBody TokenRefrescoRequest request) {
+        return refrescarSesionUseCase.refrescar(request.getTokenRefresco())
+                .map(AutenticacionController::respuesta)
+                .doOnSuccess(response ->
+                        log.info("Sesión refrescada del usuario con ID: {}", response.getIdUsuario()))
+                .doOnError(error ->
+                        log.warn("Refresco de sesión fallido: {}", error.getMessage()));
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Cerrar sesión", description = "Revoca el token de acceso enviado en Authorization y, si se envía, cierra la sesión del token de refresco")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revocado"),
+            @ApiResponse(responseCode = "401", description = "Token ausente, inválido o expirado")
+    })
+    public Mono<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                             @RequestBody(required = false) TokenRefrescoRequest request) {
+        return revocarTokenUseCase.cerrarSesion(token(authorization))
+                .then(Mono.defer(() -> refrescarSesionUseCase.cerrar(request != null ? request.getTokenRefresco() : null)))
+                .doOnSuccess(vacio -> log.info("Sesión cerrada"));
+    }
+
+    @PostMapping("/revocaciones")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Revocar un token", description = "Revoca cualquier token vigente; requiere un token con el permiso TOKENS_REVOCAR")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revocado"),
+            @ApiResponse(responseCode = "400", description = "El token a revocar no es válido"),
+            @ApiResponse(responseCode = "401", description = "Token ausente, inválido o revocado"),
+            @ApiResponse(responseCode = "403", description = "El rol del token no tiene el permiso TOKENS_REVOCAR")
+    })
+    public Mono<Void> revocar(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                              @Valid @RequestBody RevocarTokenRequest request) {
+        return revocarTokenUseCase.revocar(token(authorization), request.getToken())
+                .doOnSuccess(vacio -> log.info("Token revocado"));
+    }
+
+    // La dirección de la conexión; detrás de un proxy se toma de Forwarded solo si el servidor está configurado para ello
+    private static String origen(ServerHttpRequest httpRequest) {
+        InetSocketAddress direccion = httpRequest.getRemoteAddress();
+        return direccion == null || direccion.getAddress() == null ? null : direccion.getAddress().getHostAddress();
+    }
+
+    private static LoginResponse respuesta(SesionIniciada sesion) {
+        ClaimsToken claims = sesion.tokenAcceso().claims();
+        return LoginResponse.builder()
+                .tokenAcceso(sesion.tokenAcceso().valor())
+                .tipoToken(TIPO_TOKEN)
+                .expiraEnSegundos(Duration.between(claims.emitidoEn(), claims.expiraEn()).toSeconds())
+                .tokenRefresco(sesion.sesion().tokenRefresco())
+                .refrescoExpiraEnSegundos(Duration.between(Instant.now(), sesion.sesion().expiraEn()).toSeconds())
+                .idUsuario(claims.idUsuario())
+                .correoElectronico(claims.correoElectronico())
+                .idRol(claims.idRol())
+                .rol(claims.nombreRol())
+                .build();
+    }
+
+    // Sin el esquema Bearer se trata como token ausente y la verificación responde 401
+    private static String token(String authorization) {
+        return authorization != null && authorization.startsWith(PREFIJO_BEARER)
+                ? authorization.substring(PREFIJO_BEARER.length())
+                : null;
+    }
+}
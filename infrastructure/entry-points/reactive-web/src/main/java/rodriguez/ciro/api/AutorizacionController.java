@@ -0,0 +1,48 @@
+package rodriguez.ciro.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.dto.ResultadoPermisoDto;
+import rodriguez.ciro.api.dto.VerificarPermisosRequest;
+import rodriguez.ciro.api.dto.VerificarPermisosResponse;
+import rodriguez.ciro.model.permiso.VerificacionPermiso;
+import rodriguez.ciro.usecase.verificarpermisos.VerificarPermisosUseCase;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/v1/autorizacion", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+@Tag(name = "Autorización", description = "API para verificar los permisos de los usuarios")
+public class AutorizacionController {
+
+    private final VerificarPermisosUseCase verificarPermisosUseCase;
+
+    @PostMapping("/verificar")
+    @Operation(summary = "Verificar permisos", description = "Indica, para cada par de usuario y permiso, si el rol del usuario tiene el permiso; los usuarios y permisos inexistentes no tienen permiso")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado de cada par, en el mismo orden de la solicitud"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "503", description = "Los permisos aún no se han cargado")
+    })
+    public Mono<VerificarPermisosResponse> verificar(@Valid @RequestBody VerificarPermisosRequest request) {
+        return verificarPermisosUseCase.verificar(request.getVerificaciones().stream()
+                        .map(verificacion -> new VerificacionPermiso(verificacion.getIdUsuario(), verificacion.getPermiso()))
+                        .toList())
+                .map(resultados -> new VerificarPermisosResponse(resultados.stream()
+                        .map(resultado -> new ResultadoPermisoDto(resultado.idUsuario(), resultado.permiso(),
+                                resultado.permitido()))
+                        .toList()))
+                .doOnSuccess(response -> log.debug("{} permisos verificados", response.getResultados().size()));
+    }
+}
@@ -0,0 +1,41 @@
+package rodriguez.ciro.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.usecase.consultarclavespublicas.ConsultarClavesPublicasUseCase;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Autenticación", description = "API para autenticación de usuarios")
+public class ClavesPublicasController {
+
+    // Más corto que el tiempo que una clave retirada sigue publicada, para que los clientes vean las rotaciones
+    private static final CacheControl CACHE_CONTROL_JWKS = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final ConsultarClavesPublicasUseCase consultarClavesPublicasUseCase;
+
+    // El JWKS ya viene serializado; se escribe tal cual sin pasar por Jackson
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Claves públicas", description = "Claves públicas vigentes para verificar los tokens (JWKS)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Conjunto de claves públicas")
+    })
+    public Mono<ResponseEntity<byte[]>> jwks() {
+        return consultarClavesPublicasUseCase.consultar()
+                .map(jwks -> ResponseEntity.ok()
+                        .cacheControl(CACHE_CONTROL_JWKS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(jwks));
+    }
+}
@@ -0,0 +1,96 @@
+package rodriguez.ciro.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.dto.AnaliticaUsuariosResponse;
+import rodriguez.ciro.api.dto.EstadisticaRolDto;
+import rodriguez.ciro.api.dto.EstadisticasRolesResponse;
+import rodriguez.ciro.api.dto.GrupoUsuariosDto;
+import rodriguez.ciro.model.analitica.Agrupacion;
+import rodriguez.ciro.model.analitica.FiltroUsuarios;
+import rodriguez.ciro.model.analitica.GrupoUsuarios;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+import rodriguez.ciro.usecase.consultaranalitica.ConsultarAnaliticaUsuariosUseCase;
+import rodriguez.ciro.usecase.consultarestadisticas.ConsultarEstadisticasRolesUseCase;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping(value = "/api/v1/estadisticas", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+@Tag(name = "Estadísticas", description = "API de agregados de usuarios para los tableros")
+public class EstadisticasController {
+
+    private final ConsultarEstadisticasRolesUseCase consultarEstadisticasRolesUseCase;
+    private final ConsultarAnaliticaUsuariosUseCase consultarAnaliticaUsuariosUseCase;
+
+    @GetMapping("/roles")
+    @Operation(summary = "Estadísticas por rol", description = "Cantidad de usuarios y suma, mínimo, máximo y promedio del salario base de cada rol con usuarios, mantenidos con cada registro")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Agregados de cada rol, ordenados por id"),
+            @ApiResponse(responseCode = "503", description = "Las estadísticas aún no se han cargado")
+    })
+    public Mono<EstadisticasRolesResponse> porRol() {
+        return consultarEstadisticasRolesUseCase.consultar()
+                .map(estadisticas -> new EstadisticasRolesResponse(estadisticas.stream()
+                        .map(EstadisticasController::mapToDto)
+                        .toList()));
+    }
+
+    @GetMapping("/usuarios")
+    @Operation(summary = "Analítica de usuarios", description = "Cantidad de usuarios y suma, mínimo, máximo y promedio del salario base de los usuarios que cumplen el filtro, en total o agrupados por rol, tipo de documento o año de nacimiento, calculados sobre una copia en memoria")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Grupos con al menos un usuario, ordenados por su clave"),
+            @ApiResponse(responseCode = "400", description = "Rango de salario o de fechas invertido, o parámetro inválido"),
+            @ApiResponse(responseCode = "404", description = "La analítica no está habilitada en este nodo"),
+            @ApiResponse(responseCode = "503", description = "La copia de los usuarios aún no se ha cargado")
+    })
+    public Mono<AnaliticaUsuariosResponse> usuarios(
+            @RequestParam(required = false) Long idRol,
+            @RequestParam(required = false) String tipoDocumento,
+            @RequestParam(required = false) BigDecimal salarioMinimo,
+            @RequestParam(required = false) BigDecimal salarioMaximo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nacidoDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nacidoHasta,
+            @RequestParam(defaultValue = "NINGUNA") Agrupacion agruparPor) {
+        FiltroUsuarios filtro = new FiltroUsuarios(idRol, tipoDocumento, salarioMinimo, salarioMaximo,
+                nacidoDesde, nacidoHasta);
+        return consultarAnaliticaUsuariosUseCase.consultar(filtro, agruparPor)
+                .map(grupos -> new AnaliticaUsuariosResponse(agruparPor.name(), grupos.stream()
+                        .map(EstadisticasController::mapToDto)
+                        .toList()));
+    }
+
+    private static EstadisticaRolDto mapToDto(EstadisticaRol estadistica) {
+        return EstadisticaRolDto.builder()
+                .idRol(estadistica.idRol())
+                .totalUsuarios(estadistica.totalUsuarios())
+                .sumaSalarios(estadistica.sumaSalarios())
+                .salarioMinimo(estadistica.salarioMinimo())
+                .salarioMaximo(estadistica.salarioMaximo())
+                .salarioPromedio(estadistica.salarioPromedio())
+                .build();
+    }
+
+    private static GrupoUsuariosDto mapToDto(GrupoUsuarios grupo) {
+        return GrupoUsuariosDto.builder()
+                .clave(grupo.clave())
+                .totalUsuarios(grupo.totalUsuarios())
+                .sumaSalarios(grupo.sumaSalarios())
+                .salarioMinimo(grupo.salarioMinimo())
+                .salarioMaximo(grupo.salarioMaximo())
+                .salarioPromedio(grupo.salarioPromedio())
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package rodriguez.ciro.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.api.config.RegistrationStreamProperties;
+import rodriguez.ciro.api.dto.UsuarioResponse;
+import rodriguez.ciro.usecase.seguirregistros.SeguirRegistrosUseCase;
+
+import java.time.Duration;
+
+@Slf4j
+@RestController
+@Tag(name = "Usuarios", description = "API para gestión de usuarios")
+public class RegistrosController {
+
+    static final String LAST_EVENT_ID = "Last-Event-ID";
+    static final String EVENTO = "usuario-registrado";
+
+    private final SeguirRegistrosUseCase seguirRegistrosUseCase;
+    private final Duration heartbeat;
+
+    public RegistrosController(SeguirRegistrosUseCase seguirRegistrosUseCase, RegistrationStreamProperties properties) {
+        this.seguirRegistrosUseCase = seguirRegistrosUseCase;
+        this.heartbeat = properties.heartbeat();
+    }
+
+    @GetMapping(value = "/api/v1/usuarios/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Seguir registros", description = "Envía cada usuario registrado como un evento usuario-registrado cuyo id es el id del usuario; al reconectar con Last-Event-ID se repiten los registrados después de ese id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream de usuarios registrados"),
+            @ApiResponse(responseCode = "400", description = "Last-Event-ID inválido")
+    })
+    public Flux<ServerSentEvent<UsuarioResponse>> seguirRegistros(
+            @Parameter(description = "Id del último usuario recibido, para continuar desde él")
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        Long ultimoIdUsuario = ultimoIdUsuario(lastEventId);
+        log.debug("Nueva suscripción a registros desde el id {}", ultimoIdUsuario);
+
+        // El primer comentario sale de inmediato para confirmar la respuesta; los siguientes mantienen viva la
+        // conexión en los proxies. Si el stream de registros termina, la respuesta termina con él
+        return seguirRegistrosUseCase.seguir(ultimoIdUsuario)
+                .map(usuario -> ServerSentEvent.builder(UsuarioController.mapToResponse(usuario))
+                        .id(String.valueOf(usuario.getIdUsuario()))
+                        .event(EVENTO)
+                        .build())
+                .publish(registros -> Flux.merge(registros,
+                        Flux.interval(Duration.ZERO, heartbeat)
+                                .map(latido -> ServerSentEvent.<UsuarioResponse>builder().comment("").build())
+                                .takeUntilOther(registros.then())));
+    }
+
+    private static Long ultimoIdUsuario(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El encabezado " + LAST_EVENT_ID + " debe ser un id de usuario");
+        }
+    }
+}
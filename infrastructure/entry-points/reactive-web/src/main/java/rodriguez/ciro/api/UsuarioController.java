@@ -8,27 +8,51 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.config.ApiRuntimeHints;
 import rodriguez.ciro.api.dto.RegistrarUsuarioRequest;
 import rodriguez.ciro.api.dto.RolDto;
 import rodriguez.ciro.api.dto.UsuarioResponse;
+import rodriguez.ciro.api.idempotency.IdempotencyStore;
 import rodriguez.ciro.model.rol.Rol;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
 import rodriguez.ciro.usecase.registrarusuario.RegistrarUsuarioUseCase;
+import rodriguez.ciro.usecase.registrarusuario.exception.DocumentoAlreadyExistsException;
+import rodriguez.ciro.usecase.registrarusuario.exception.EmailAlreadyExistsException;
 import rodriguez.ciro.usecase.buscarusuario.BuscarUsuarioPorDocumentoUseCase;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
 @Slf4j
 @RestController
 @RequestMapping(value = "/api/v1/usuarios", produces = MediaType.APPLICATION_JSON_VALUE)
 @RequiredArgsConstructor
+@ImportRuntimeHints(ApiRuntimeHints.class)
 @Tag(name = "Usuarios", description = "API para gestión de usuarios")
 public class UsuarioController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+    // Reemplaza el no-store de SecurityHeadersConfig: se puede guardar pero siempre se revalida con el ETag
+    private static final CacheControl CACHE_CONTROL_CONSULTAS = CacheControl.noCache().cachePrivate();
+
     private final RegistrarUsuarioUseCase registrarUsuarioUseCase;
     private final BuscarUsuarioPorDocumentoUseCase buscarUsuarioPorDocumentoUseCase;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -37,15 +61,61 @@ public class UsuarioController {
             @ApiResponse(responseCode = "201", description = "Usuario registrado exitosamente"),
             @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
             @ApiResponse(responseCode = "409", description = "Correo electrónico ya registrado"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key usada con otra solicitud"),
+            @ApiResponse(responseCode = "503", description = "Capacidad de hash de contraseñas agotada"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public Mono<UsuarioResponse> registrarUsuario(@Valid @RequestBody RegistrarUsuarioRequest request) {
+    public Mono<UsuarioResponse> registrarUsuario(
+            @Parameter(description = "Clave para reintentar el registro sin repetirlo")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody RegistrarUsuarioRequest request,
+            ServerHttpResponse response) {
+        if (idempotencyKey == null) {
+            return registrar(request);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+            return Mono.error(new IllegalArgumentException(
+                    "El encabezado " + IDEMPOTENCY_KEY + " debe tener entre 1 y " + IDEMPOTENCY_KEY_MAX_LENGTH + " caracteres"));
+        }
+        return idempotencyStore.ejecutar(idempotencyKey, huellaIdempotencia(request), () -> registrar(request),
+                        UsuarioController::esResultadoDefinitivo)
+                .map(resultado -> {
+                    if (resultado.repetido()) {
+                        log.info("Registro repetido con {}: {}", IDEMPOTENCY_KEY, idempotencyKey);
+                        response.getHeaders().set(IDEMPOTENT_REPLAYED, "true");
+                    }
+                    return resultado.valor();
+                });
+    }
+
+    // La solicitud se conserva durante el TTL de la clave, así que en lugar de la contraseña guarda su SHA-256
+    private static RegistrarUsuarioRequest huellaIdempotencia(RegistrarUsuarioRequest request) {
+        if (request.getContrasena() == null) {
+            return request;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(request.getContrasena().getBytes(StandardCharsets.UTF_8));
+            return request.toBuilder().contrasena(HexFormat.of().formatHex(digest)).build();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Los conflictos y errores de validación se repiten igual en un reintento; los demás errores pueden ser transitorios
+    private static boolean esResultadoDefinitivo(Throwable error) {
+        return error instanceof EmailAlreadyExistsException
+                || error instanceof DocumentoAlreadyExistsException
+                || error instanceof IllegalArgumentException;
+    }
+
+    private Mono<UsuarioResponse> registrar(RegistrarUsuarioRequest request) {
         log.info("Iniciando registro de usuario con correo: {}", request.getCorreoElectronico());
 
         return Mono.just(request)
                 .map(this::mapToUsuario)
-                .flatMap(registrarUsuarioUseCase::registrar)
-                .map(this::mapToResponse)
+                .flatMap(usuario -> registrarUsuarioUseCase.registrar(usuario, request.getContrasena()))
+                .map(UsuarioController::mapToResponse)
                 .doOnSuccess(response ->
                         log.info("Usuario registrado exitosamente con ID: {}", response.getIdUsuario()))
                 .doOnError(error ->
@@ -56,42 +126,77 @@ public class UsuarioController {
     @Operation(summary = "Buscar usuario por documento", description = "Busca un usuario por tipo y número de documento")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuario encontrado"),
+            @ApiResponse(responseCode = "304", description = "Usuario sin cambios respecto al ETag de If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public Mono<UsuarioResponse> buscarUsuarioPorDocumento(
+    public Mono<ResponseEntity<UsuarioResponse>> buscarUsuarioPorDocumento(
             @Parameter(description = "Tipo de documento", example = "CC") 
             @PathVariable("tipoDocumento") String tipoDocumento,
             @Parameter(description = "Número de documento", example = "12345678")
-            @PathVariable("numeroDocumento") String numeroDocumento) {
+            @PathVariable("numeroDocumento") String numeroDocumento,
+            ServerWebExchange exchange) {
         log.info("Buscando usuario con documento: {} - {}", tipoDocumento, numeroDocumento);
 
-        return buscarUsuarioPorDocumentoUseCase.buscarPorTipoYNumeroDocumento(tipoDocumento, numeroDocumento)
-                .map(this::mapToResponse)
-                .doOnSuccess(response -> 
-                        log.info("Usuario encontrado con ID: {}", response.getIdUsuario()))
-                .doOnError(error ->
-                        log.error("Error al buscar usuario: {}", error.getMessage()));
+        return responderConEtag(exchange,
+                () -> buscarUsuarioPorDocumentoUseCase.versionPorTipoYNumeroDocumento(tipoDocumento, numeroDocumento),
+                () -> buscarUsuarioPorDocumentoUseCase.buscarPorTipoYNumeroDocumento(tipoDocumento, numeroDocumento)
+                        .doOnSuccess(usuario ->
+                                log.info("Usuario encontrado con ID: {}", usuario.getIdUsuario()))
+                        .doOnError(error ->
+                                log.error("Error al buscar usuario: {}", error.getMessage())));
     }
 
     @GetMapping("/email/{correoElectronico}")
     @Operation(summary = "Buscar usuario por correo electrónico", description = "Busca un usuario por su correo electrónico")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuario encontrado"),
+            @ApiResponse(responseCode = "304", description = "Usuario sin cambios respecto al ETag de If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public Mono<UsuarioResponse> buscarUsuarioPorEmail(
+    public Mono<ResponseEntity<UsuarioResponse>> buscarUsuarioPorEmail(
             @Parameter(description = "Correo electrónico del usuario", example = "usuario@ejemplo.com")
-            @PathVariable("correoElectronico") String correoElectronico) {
+            @PathVariable("correoElectronico") String correoElectronico,
+            ServerWebExchange exchange) {
         log.info("Buscando usuario con correo: {}", correoElectronico);
 
-        return buscarUsuarioPorDocumentoUseCase.buscarPorCorreoElectronico(correoElectronico)
-                .map(this::mapToResponse)
-                .doOnSuccess(response -> 
-                        log.info("Usuario encontrado por email con ID: {}", response.getIdUsuario()))
-                .doOnError(error ->
-                        log.error("Error al buscar usuario por email: {}", error.getMessage()));
+        return responderConEtag(exchange,
+                () -> buscarUsuarioPorDocumentoUseCase.versionPorCorreoElectronico(correoElectronico),
+                () -> buscarUsuarioPorDocumentoUseCase.buscarPorCorreoElectronico(correoElectronico)
+                        .doOnSuccess(usuario ->
+                                log.info("Usuario encontrado por email con ID: {}", usuario.getIdUsuario()))
+                        .doOnError(error ->
+                                log.error("Error al buscar usuario por email: {}", error.getMessage())));
+    }
+
+    /**
+     * Con If-None-Match consulta solo la versión de la fila y, si coincide, responde 304 sin leer ni serializar el
+     * usuario; en otro caso hace la búsqueda completa y adjunta el ETag de la versión leída.
+     */
+    private Mono<ResponseEntity<UsuarioResponse>> responderConEtag(ServerWebExchange exchange,
+                                                                   Supplier<Mono<VersionUsuario>> version,
+                                                                   Supplier<Mono<Usuario>> busqueda) {
+        Mono<ResponseEntity<UsuarioResponse>> completa = Mono.defer(busqueda)
+                .map(usuario -> ResponseEntity.ok()
+                        .eTag(etag(usuario.getIdUsuario(), usuario.getVersion()))
+                        .cacheControl(CACHE_CONTROL_CONSULTAS)
+                        .body(mapToResponse(usuario)));
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty()) {
+            return completa;
+        }
+        return version.get()
+                .map(actual -> etag(actual.idUsuario(), actual.version()))
+                .filter(exchange::checkNotModified)
+                .map(etag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CACHE_CONTROL_CONSULTAS)
+                        .<UsuarioResponse>build())
+                .switchIfEmpty(completa);
+    }
+
+    static String etag(Long idUsuario, Long version) {
+        return "\"" + idUsuario + "-" + (version != null ? version : 0) + "\"";
     }
 
     private Usuario mapToUsuario(RegistrarUsuarioRequest request) {
@@ -109,7 +214,7 @@ public class UsuarioController {
                 .build();
     }
 
-    private UsuarioResponse mapToResponse(Usuario usuario) {
+    static UsuarioResponse mapToResponse(Usuario usuario) {
         RolDto rolDto = null;
         if (usuario.getRol() != null) {
             rolDto = RolDto.builder()
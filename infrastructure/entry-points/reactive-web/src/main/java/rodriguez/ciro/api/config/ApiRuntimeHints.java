@@ -0,0 +1,40 @@
+package rodriguez.ciro.api.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import rodriguez.ciro.api.dto.AnaliticaUsuariosResponse;
+import rodriguez.ciro.api.dto.EstadisticaRolDto;
+import rodriguez.ciro.api.dto.EstadisticasRolesResponse;
+import rodriguez.ciro.api.dto.GrupoUsuariosDto;
+import rodriguez.ciro.api.dto.LoginRequest;
+import rodriguez.ciro.api.dto.LoginResponse;
+import rodriguez.ciro.api.dto.RegistrarUsuarioRequest;
+import rodriguez.ciro.api.dto.ResultadoPermisoDto;
+import rodriguez.ciro.api.dto.RevocarTokenRequest;
+import rodriguez.ciro.api.dto.RolDto;
+import rodriguez.ciro.api.dto.TokenRefrescoRequest;
+import rodriguez.ciro.api.dto.UsuarioResponse;
+import rodriguez.ciro.api.dto.VerificacionPermisoDto;
+import rodriguez.ciro.api.dto.VerificarPermisosRequest;
+import rodriguez.ciro.api.dto.VerificarPermisosResponse;
+import rodriguez.ciro.api.exception.ErrorResponse;
+
+import java.util.stream.Stream;
+
+// springdoc lee las anotaciones de validación de los campos de los DTO para generar el esquema
+public class ApiRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        Stream.of(RegistrarUsuarioRequest.class, UsuarioResponse.class, RolDto.class, ErrorResponse.class,
+                        LoginRequest.class, LoginResponse.class, RevocarTokenRequest.class, TokenRefrescoRequest.class,
+                        VerificarPermisosRequest.class, VerificacionPermisoDto.class, VerificarPermisosResponse.class,
+                        ResultadoPermisoDto.class, EstadisticasRolesResponse.class, EstadisticaRolDto.class,
+                        AnaliticaUsuariosResponse.class, GrupoUsuariosDto.class)
+                .forEach(tipo -> hints.reflection().registerType(tipo,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS));
+    }
+}
@@ -0,0 +1,72 @@
+package rodriguez.ciro.api.config;
+
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+@Slf4j
+@Configuration
+public class NettyServerConfig {
+
+    // Con más de tres segmentos la ruta ya incluye documentos o correos, que no deben ser valores de etiqueta
+    private static final int SEGMENTOS_URI_METRICAS = 3;
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources serverLoopResources(NettyServerProperties properties) {
+        int hilos = properties.eventLoopThreads() != null
+                ? properties.eventLoopThreads()
+                : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        return LoopResources.create("http-server", 1, hilos, true);
+    }
+
+    @Bean
+    public NettyServerCustomizer nettyServerCustomizer(NettyServerProperties properties, LoopResources serverLoopResources) {
+        return httpServer -> personalizar(httpServer, properties, serverLoopResources);
+    }
+
+    static HttpServer personalizar(HttpServer httpServer, NettyServerProperties properties, LoopResources loopResources) {
+        boolean nativo = !Boolean.FALSE.equals(properties.preferNative()) && Epoll.isAvailable();
+        log.info("Transporte del servidor HTTP: {}", nativo ? "epoll" : "nio");
+
+        HttpServer servidor = httpServer.runOn(loopResources, nativo);
+        if (Boolean.TRUE.equals(properties.h2c())) {
+            servidor = servidor.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C);
+            if (properties.maxConcurrentStreams() != null) {
+                servidor = servidor.http2Settings(settings -> settings.maxConcurrentStreams(properties.maxConcurrentStreams()));
+            }
+        }
+        if (nativo && Boolean.TRUE.equals(properties.reusePort())) {
+            servidor = servidor.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+        if (properties.idleTimeout() != null) {
+            servidor = servidor.idleTimeout(properties.idleTimeout());
+        }
+        if (properties.maxKeepAliveRequests() != null) {
+            servidor = servidor.maxKeepAliveRequests(properties.maxKeepAliveRequests());
+        }
+        if (Boolean.TRUE.equals(properties.metrics())) {
+            servidor = servidor.metrics(true, NettyServerConfig::plantillaUri);
+        }
+        return servidor;
+    }
+
+    static String plantillaUri(String uri) {
+        int fin = uri.indexOf('?');
+        String ruta = fin >= 0 ? uri.substring(0, fin) : uri;
+        int desde = 0;
+        for (int segmento = 0; segmento < SEGMENTOS_URI_METRICAS; segmento++) {
+            int siguiente = ruta.indexOf('/', desde + 1);
+            if (siguiente < 0) {
+                return ruta;
+            }
+            desde = siguiente;
+        }
+        return ruta.substring(0, desde) + "/**";
+    }
+}
@@ -0,0 +1,17 @@
+package rodriguez.ciro.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "entrypoint.netty")
+public record NettyServerProperties(
+        Boolean preferNative,
+        Integer eventLoopThreads,
+        Boolean h2c,
+        Integer maxConcurrentStreams,
+        Boolean reusePort,
+        Duration idleTimeout,
+        Integer maxKeepAliveRequests,
+        Boolean metrics) {
+}
@@ -0,0 +1,10 @@
+package rodriguez.ciro.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "entrypoint.registration-stream")
+public record RegistrationStreamProperties(
+        Duration heartbeat) {
+}
@@ -0,0 +1,122 @@
+package rodriguez.ciro.api.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import rodriguez.ciro.model.deadline.Deadline;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Asigna a cada solicitud un plazo, tomado del encabezado configurado (milisegundos) o del valor por ruta, y lo propaga
+ * en el contexto de Reactor. Al vencer responde 504; tanto el vencimiento como la desconexión del cliente cancelan el
+ * plazo para que los adaptadores aborten las consultas en curso. Las rutas excluidas, como los streams, no tienen
+ * plazo. El filtro siempre se registra y consulta enabled al filtrar, porque la imagen AOT fija las condiciones al
+ * compilar.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DeadlineFilter implements WebFilter {
+
+    private static final String CUERPO_VENCIDO = "{\"error\":\"Gateway Timeout\","
+            + "\"message\":\"La solicitud superó el tiempo máximo de respuesta.\","
+            + "\"status\":504,\"path\":\"%s\"}";
+
+    private final boolean enabled;
+    private final DeadlineProperties properties;
+    private final List<String> excludedPathPrefixes;
+    private final List<DeadlineProperties.Route> routes;
+    private final Counter vencidas;
+    private final Counter canceladas;
+
+    public DeadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = Boolean.TRUE.equals(properties.enabled());
+        this.properties = properties;
+        this.excludedPathPrefixes = properties.excludedPathPrefixes() != null
+                ? properties.excludedPathPrefixes() : List.of();
+        this.routes = properties.routes() != null ? properties.routes() : List.of();
+        this.vencidas = Counter.builder("http.server.deadline.expired")
+                .description("Solicitudes que superaron su plazo")
+                .register(meterRegistry);
+        this.canceladas = Counter.builder("http.server.deadline.cancelled")
+                .description("Solicitudes abandonadas por el cliente antes de terminar")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!enabled || !path.startsWith(properties.pathPrefix()) || excludedPathPrefixes.stream().anyMatch(path::startsWith)) {
+            return chain.filter(exchange);
+        }
+
+        Duration plazo = plazo(request);
+        Deadline deadline = Deadline.en(plazo);
+        return chain.filter(exchange)
+                .contextWrite(Context.of(Deadline.CONTEXT_KEY, deadline))
+                .doOnCancel(() -> {
+                    // Se ejecuta antes de propagar la cancelación, mientras las conexiones siguen asignadas
+                    if (deadline.vencido()) {
+                        vencidas.increment();
+                    } else {
+                        canceladas.increment();
+                    }
+                    deadline.cancelar();
+                })
+                .timeout(plazo, Mono.defer(() -> responderVencido(exchange.getResponse(), path, plazo)));
+    }
+
+    Duration plazo(ServerHttpRequest request) {
+        Duration porRuta = routes.stream()
+                .filter(route -> route.method() == null || route.method().equals(request.getMethod()))
+                .filter(route -> request.getPath().value().startsWith(route.pathPrefix()))
+                .map(DeadlineProperties.Route::timeout)
+                .findFirst()
+                .orElse(properties.defaultTimeout());
+
+        String encabezado = request.getHeaders().getFirst(properties.header());
+        if (encabezado == null) {
+            return porRuta;
+        }
+        try {
+            long milis = Long.parseLong(encabezado.trim());
+            if (milis <= 0) {
+                return porRuta;
+            }
+            Duration solicitado = Duration.ofMillis(milis);
+            return solicitado.compareTo(properties.maxTimeout()) > 0 ? properties.maxTimeout() : solicitado;
+        } catch (NumberFormatException e) {
+            log.debug("Encabezado {} inválido: {}", properties.header(), encabezado);
+            return porRuta;
+        }
+    }
+
+    private static Mono<Void> responderVencido(ServerHttpResponse response, String path, Duration plazo) {
+        log.debug("Solicitud a {} superó su plazo de {} ms", path, plazo.toMillis());
+        if (response.isCommitted()) {
+            return Mono.empty();
+        }
+        response.setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer cuerpo = response.bufferFactory()
+                .wrap(CUERPO_VENCIDO.formatted(path).getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(cuerpo));
+    }
+}
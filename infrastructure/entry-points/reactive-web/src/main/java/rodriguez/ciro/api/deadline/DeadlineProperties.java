@@ -0,0 +1,21 @@
+package rodriguez.ciro.api.deadline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "entrypoint.deadline")
+public record DeadlineProperties(
+        Boolean enabled,
+        String pathPrefix,
+        List<String> excludedPathPrefixes,
+        String header,
+        Duration defaultTimeout,
+        Duration maxTimeout,
+        List<Route> routes) {
+
+    public record Route(HttpMethod method, String pathPrefix, Duration timeout) {
+    }
+}
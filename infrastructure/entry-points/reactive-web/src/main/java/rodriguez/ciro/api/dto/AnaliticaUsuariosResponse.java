@@ -0,0 +1,17 @@
+package rodriguez.ciro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnaliticaUsuariosResponse {
+    private String agrupacion;
+    private List<GrupoUsuariosDto> grupos;
+}
@@ -0,0 +1,21 @@
+package rodriguez.ciro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaRolDto {
+    private Long idRol;
+    private long totalUsuarios;
+    private BigDecimal sumaSalarios;
+    private BigDecimal salarioMinimo;
+    private BigDecimal salarioMaximo;
+    private BigDecimal salarioPromedio;
+}
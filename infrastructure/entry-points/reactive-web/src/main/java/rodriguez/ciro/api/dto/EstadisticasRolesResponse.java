@@ -0,0 +1,16 @@
+package rodriguez.ciro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasRolesResponse {
+    private List<EstadisticaRolDto> roles;
+}
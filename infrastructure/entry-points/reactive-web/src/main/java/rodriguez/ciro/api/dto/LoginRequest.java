@@ -0,0 +1,24 @@
+package rodriguez.ciro.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginRequest {
+
+    @NotBlank(message = "El campo correo electrónico es requerido")
+    @Size(max = 100, message = "El correo electrónico no puede superar 100 caracteres")
+    private String correoElectronico;
+
+    @NotBlank(message = "El campo contraseña es requerido")
+    @ToString.Exclude
+    private String contrasena;
+}
@@ -0,0 +1,22 @@
+package rodriguez.ciro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponse {
+    private String tokenAcceso;
+    private String tipoToken;
+    private Long expiraEnSegundos;
+    private String tokenRefresco;
+    private Long refrescoExpiraEnSegundos;
+    private Long idUsuario;
+    private String correoElectronico;
+    private Long idRol;
+    private String rol;
+}
@@ -5,12 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class RegistrarUsuarioRequest {
@@ -44,4 +45,8 @@ public class RegistrarUsuarioRequest {
 
     @NotNull(message = "El campo rol es requerido")
     private RolDto rol;
+
+    @Size(min = 8, max = 72, message = "La contraseña debe tener entre 8 y 72 caracteres")
+    @ToString.Exclude
+    private String contrasena;
 }
\ No newline at end of file
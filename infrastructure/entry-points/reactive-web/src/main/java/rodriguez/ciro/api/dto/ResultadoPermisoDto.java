@@ -0,0 +1,16 @@
+package rodriguez.ciro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoPermisoDto {
+    private Long idUsuario;
+    private String permiso;
+    private boolean permitido;
+}
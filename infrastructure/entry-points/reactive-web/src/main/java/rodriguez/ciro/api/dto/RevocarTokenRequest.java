@@ -0,0 +1,19 @@
+package rodriguez.ciro.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocarTokenRequest {
+
+    @NotBlank(message = "El campo token es requerido")
+    @ToString.Exclude
+    private String token;
+}
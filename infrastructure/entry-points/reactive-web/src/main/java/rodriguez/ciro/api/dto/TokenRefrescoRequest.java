@@ -0,0 +1,19 @@
+package rodriguez.ciro.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRefrescoRequest {
+
+    @NotBlank(message = "El campo tokenRefresco es requerido")
+    @ToString.Exclude
+    private String tokenRefresco;
+}
@@ -0,0 +1,19 @@
+package rodriguez.ciro.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerificacionPermisoDto {
+    @NotNull(message = "El campo idUsuario es requerido")
+    private Long idUsuario;
+    @NotBlank(message = "El campo permiso es requerido")
+    private String permiso;
+}
@@ -0,0 +1,22 @@
+package rodriguez.ciro.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerificarPermisosRequest {
+
+    @NotEmpty(message = "El campo verificaciones es requerido")
+    @Size(max = 1000, message = "Se admiten como máximo 1000 verificaciones por solicitud")
+    private List<@Valid VerificacionPermisoDto> verificaciones;
+}
@@ -2,17 +2,32 @@ package rodriguez.ciro.api.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.idempotency.IdempotencyKeyReuseException;
+import rodriguez.ciro.model.analitica.exception.AnaliticaDeshabilitadaException;
+import rodriguez.ciro.model.analitica.exception.AnaliticaNoCargadaException;
+import rodriguez.ciro.model.credencial.exception.HashSaturadoException;
+import rodriguez.ciro.model.estadistica.exception.EstadisticasNoCargadasException;
+import rodriguez.ciro.model.permiso.exception.PermisosNoCargadosException;
+import rodriguez.ciro.model.token.exception.RevocacionesNoSincronizadasException;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+import rodriguez.ciro.usecase.autenticarusuario.exception.CredencialesInvalidasException;
+import rodriguez.ciro.usecase.autenticarusuario.exception.IntentosExcedidosException;
 import rodriguez.ciro.usecase.registrarusuario.exception.EmailAlreadyExistsException;
+import rodriguez.ciro.usecase.revocartoken.exception.AccesoDenegadoException;
 import rodriguez.ciro.usecase.registrarusuario.exception.DocumentoAlreadyExistsException;
 import rodriguez.ciro.usecase.buscarusuario.exception.UsuarioNoEncontradoException;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -74,6 +89,161 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
     }
 
+    @ExceptionHandler(AnaliticaDeshabilitadaException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleAnaliticaDeshabilitadaException(
+            AnaliticaDeshabilitadaException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Analítica no habilitada en este nodo: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Not Found")
+                .message(ex.getMessage())
+                .status(HttpStatus.NOT_FOUND.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleIdempotencyKeyReuseException(
+            IdempotencyKeyReuseException ex,
+            ServerWebExchange exchange) {
+
+        log.error("Idempotency-Key reutilizada: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Unprocessable Entity")
+                .message(ex.getMessage())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse));
+    }
+
+    @ExceptionHandler(CredencialesInvalidasException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleCredencialesInvalidasException(
+            CredencialesInvalidasException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Credenciales inválidas: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Unauthorized")
+                .message(ex.getMessage())
+                .status(HttpStatus.UNAUTHORIZED.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse));
+    }
+
+    @ExceptionHandler(IntentosExcedidosException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleIntentosExcedidosException(
+            IntentosExcedidosException ex,
+            ServerWebExchange exchange) {
+
+        // Durante un ataque se rechaza cada intento; el total está en auth_lockouts_rejected_total
+        log.debug("Inicio de sesión bloqueado hasta {}: {}", ex.getBloqueadoHasta(), ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Too Many Requests")
+                .message(ex.getMessage())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        long segundos = Math.max(1, (Duration.between(Instant.now(), ex.getBloqueadoHasta()).toMillis() + 999) / 1000);
+        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(segundos))
+                .body(errorResponse));
+    }
+
+    @ExceptionHandler(TokenInvalidoException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleTokenInvalidoException(
+            TokenInvalidoException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Token inválido: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Unauthorized")
+                .message(ex.getMessage())
+                .status(HttpStatus.UNAUTHORIZED.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                .body(errorResponse));
+    }
+
+    @ExceptionHandler(AccesoDenegadoException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleAccesoDenegadoException(
+            AccesoDenegadoException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Acceso denegado: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Forbidden")
+                .message(ex.getMessage())
+                .status(HttpStatus.FORBIDDEN.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse));
+    }
+
+    @ExceptionHandler({RevocacionesNoSincronizadasException.class, PermisosNoCargadosException.class,
+            EstadisticasNoCargadasException.class, AnaliticaNoCargadaException.class})
+    public Mono<ResponseEntity<ErrorResponse>> handleEstadoNoSincronizadoException(
+            RuntimeException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Estado en memoria aún no sincronizado: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse));
+    }
+
+    @ExceptionHandler(HashSaturadoException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleHashSaturadoException(
+            HashSaturadoException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Hash de contraseñas saturado: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public Mono<ResponseEntity<ErrorResponse>> handleIllegalArgumentException(
             IllegalArgumentException ex,
@@ -118,6 +288,25 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.badRequest().body(errorResponse));
     }
 
+    // Parámetros de consulta que no se pueden convertir, como una fecha o una agrupación inválidas
+    @ExceptionHandler(ServerWebInputException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleServerWebInputException(
+            ServerWebInputException ex,
+            ServerWebExchange exchange) {
+
+        log.error("Input error: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Validation Error")
+                .message(ex.getReason())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+    }
+
     @ExceptionHandler(Exception.class)
     public Mono<ResponseEntity<ErrorResponse>> handleGenericException(
             Exception ex,
@@ -0,0 +1,8 @@
+package rodriguez.ciro.api.idempotency;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException() {
+        super("La Idempotency-Key ya fue usada con una solicitud diferente");
+    }
+}
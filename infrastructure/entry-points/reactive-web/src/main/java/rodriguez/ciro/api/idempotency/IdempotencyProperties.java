@@ -0,0 +1,11 @@
+package rodriguez.ciro.api.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "entrypoint.idempotency")
+public record IdempotencyProperties(
+        Duration ttl,
+        Integer maxEntries) {
+}
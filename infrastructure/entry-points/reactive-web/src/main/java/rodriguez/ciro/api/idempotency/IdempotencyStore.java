@@ -0,0 +1,112 @@
+package rodriguez.ciro.api.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Resultados de operaciones por Idempotency-Key, en curso o terminadas, durante un TTL y hasta un máximo de entradas.
+ * Todas las entradas viven lo mismo, así que la cola de inserción está ordenada por vencimiento y la purga solo revisa
+ * su cabeza.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Queue<Entrada> orden = new ConcurrentLinkedQueue<>();
+    private final Counter repetidas;
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.ttlNanos = properties.ttl().toNanos();
+        this.maxEntries = properties.maxEntries();
+        this.repetidas = Counter.builder("http.server.idempotency.replayed")
+                .description("Solicitudes respondidas con el resultado de una Idempotency-Key previa")
+                .register(meterRegistry);
+        Gauge.builder("http.server.idempotency.entries", entradas, Map::size)
+                .description("Idempotency-Keys almacenadas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave. Las repeticiones con la misma solicitud reciben el mismo resultado,
+     * esperando a la primera si sigue en curso; los errores que no cumplen {@code conservarError} liberan la clave para
+     * que un reintento vuelva a ejecutar la operación.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<Resultado<T>> ejecutar(String clave, Object solicitud, Supplier<Mono<T>> operacion,
+                                           Predicate<Throwable> conservarError) {
+        return Mono.defer(() -> {
+            Entrada nueva = new Entrada(clave, solicitud, System.nanoTime());
+            nueva.resultado = Mono.defer(operacion)
+                    .doOnError(error -> {
+                        if (!conservarError.test(error)) {
+                            entradas.remove(clave, nueva);
+                        }
+                    })
+                    .cast(Object.class)
+                    .cache();
+
+            Entrada existente = entradas.putIfAbsent(clave, nueva);
+            if (existente != null && existente.vencida(ttlNanos) && entradas.replace(clave, existente, nueva)) {
+                existente = null;
+            }
+            if (existente != null) {
+                if (!existente.solicitud.equals(solicitud)) {
+                    return Mono.error(new IdempotencyKeyReuseException());
+                }
+                repetidas.increment();
+                return existente.resultado.map(valor -> new Resultado<>((T) valor, true));
+            }
+
+            orden.add(nueva);
+            purgar();
+            return nueva.resultado.map(valor -> new Resultado<>((T) valor, false));
+        });
+    }
+
+    private void purgar() {
+        Entrada cabeza;
+        // También descarta las entradas que ya salieron del mapa por error o reemplazo
+        while ((cabeza = orden.peek()) != null && (cabeza.vencida(ttlNanos) || entradas.get(cabeza.clave) != cabeza
+                || entradas.size() > maxEntries)) {
+            if (orden.remove(cabeza)) {
+                entradas.remove(cabeza.clave, cabeza);
+            }
+        }
+    }
+
+    int tamano() {
+        return entradas.size();
+    }
+
+    public record Resultado<T>(T valor, boolean repetido) {
+    }
+
+    private static final class Entrada {
+        private final String clave;
+        private final Object solicitud;
+        private final long creadaEnNanos;
+        private Mono<Object> resultado;
+
+        private Entrada(String clave, Object solicitud, long creadaEnNanos) {
+            this.clave = clave;
+            this.solicitud = solicitud;
+            this.creadaEnNanos = creadaEnNanos;
+        }
+
+        private boolean vencida(long ttlNanos) {
+            return System.nanoTime() - creadaEnNanos > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package rodriguez.ciro.api.limiter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+// Siempre se registra y enabled se consulta al filtrar: con la imagen AOT las condiciones quedan fijadas al compilar
+public class ConcurrencyLimitFilter implements WebFilter {
+
+    private static final String CUERPO_RECHAZO = "{\"error\":\"Service Unavailable\","
+            + "\"message\":\"El servicio está atendiendo el máximo de solicitudes concurrentes. Intente nuevamente.\","
+            + "\"status\":503,\"path\":\"%s\"}";
+
+    private final boolean enabled;
+    private final ConcurrencyLimiter limiter;
+    private final String pathPrefix;
+    private final List<String> excludedPathPrefixes;
+    private final String retryAfter;
+
+    @Autowired
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this(Boolean.TRUE.equals(properties.enabled()),
+                new ConcurrencyLimiter(new GradientLimit(
+                        properties.initialLimit(),
+                        properties.minLimit(),
+                        properties.maxLimit(),
+                        properties.tolerance(),
+                        properties.smoothing(),
+                        properties.backoffRatio())),
+                properties.pathPrefix(),
+                properties.excludedPathPrefixes() != null ? properties.excludedPathPrefixes() : List.of(),
+                properties.retryAfter());
+
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("http.server.concurrency.limit", limiter, ConcurrencyLimiter::getLimit)
+                .description("Límite adaptativo de solicitudes concurrentes")
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in.flight", limiter, ConcurrencyLimiter::getInFlight)
+                .description("Solicitudes en curso bajo el límite")
+                .register(meterRegistry);
+        FunctionCounter.builder("http.server.concurrency.rejected", limiter, ConcurrencyLimiter::getRechazadas)
+                .description("Solicitudes rechazadas con 503 por superar el límite")
+                .register(meterRegistry);
+    }
+
+    ConcurrencyLimitFilter(boolean enabled, ConcurrencyLimiter limiter, String pathPrefix,
+                           List<String> excludedPathPrefixes, Duration retryAfter) {
+        this.enabled = enabled;
+        this.limiter = limiter;
+        this.pathPrefix = pathPrefix;
+        this.excludedPathPrefixes = excludedPathPrefixes;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        String path = exchange.getRequest().getPath().value();
+        // Las rutas excluidas tienen su propio límite y su latencia no debe reducir el de las demás
+        if (!path.startsWith(pathPrefix) || excludedPathPrefixes.stream().anyMatch(path::startsWith)) {
+            return chain.filter(exchange);
+        }
+        if (!limiter.tryAcquire()) {
+            return rechazar(exchange.getResponse(), path);
+        }
+
+        long inicio = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limiter.releaseWithoutSample();
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean dropped = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    limiter.release(System.nanoTime() - inicio, dropped);
+                });
+    }
+
+    private Mono<Void> rechazar(ServerHttpResponse response, String path) {
+        log.debug("Solicitud rechazada por límite de concurrencia: {} en curso, límite {}",
+                limiter.getInFlight(), limiter.getLimit());
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer cuerpo = response.bufferFactory()
+                .wrap(CUERPO_RECHAZO.formatted(path).getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(cuerpo));
+    }
+}
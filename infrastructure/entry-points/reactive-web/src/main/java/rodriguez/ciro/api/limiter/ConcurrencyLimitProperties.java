@@ -0,0 +1,20 @@
+package rodriguez.ciro.api.limiter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "entrypoint.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        Boolean enabled,
+        String pathPrefix,
+        List<String> excludedPathPrefixes,
+        Integer initialLimit,
+        Integer minLimit,
+        Integer maxLimit,
+        Double tolerance,
+        Double smoothing,
+        Double backoffRatio,
+        Duration retryAfter) {
+}
@@ -0,0 +1,52 @@
+package rodriguez.ciro.api.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    public ConcurrencyLimiter(GradientLimit limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Reserva un cupo si hay capacidad bajo el límite actual; en caso contrario cuenta el rechazo y retorna false sin
+     * esperar.
+     */
+    public boolean tryAcquire() {
+        int actual;
+        do {
+            actual = inFlight.get();
+            if (actual >= limit.getLimit()) {
+                rechazadas.incrementAndGet();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(actual, actual + 1));
+        return true;
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        int enCurso = inFlight.getAndDecrement();
+        limit.onSample(rttNanos, enCurso, dropped);
+    }
+
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.get();
+    }
+}
@@ -0,0 +1,69 @@
+package rodriguez.ciro.api.limiter;
+
+/**
+ * Límite de concurrencia adaptativo que se reduce cuando la latencia reciente supera la línea base de largo plazo y,
+ * ante errores del servidor, multiplicativamente. Las muestras se procesan bajo el monitor; el límite se publica en un
+ * campo volátil para que la admisión lo lea sin bloquear.
+ */
+public class GradientLimit {
+
+    private static final double VENTANA_CORTA = 10;
+    private static final double VENTANA_LARGA = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+
+    private volatile int limit;
+    private double estimado;
+    private double rttCorto;
+    private double rttLargo;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                         double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Se requiere 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.estimado = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            estimado = Math.max(minLimit, estimado * backoffRatio);
+            limit = (int) estimado;
+            return;
+        }
+        if (rttLargo == 0) {
+            rttCorto = rttNanos;
+            rttLargo = rttNanos;
+        }
+        rttCorto += (rttNanos - rttCorto) / VENTANA_CORTA;
+        rttLargo += (rttNanos - rttLargo) / VENTANA_LARGA;
+        // Después de una degradación prolongada la línea base quedó alta; se acerca a la latencia reciente para que
+        // el límite pueda recuperarse
+        if (rttLargo / rttCorto > 2) {
+            rttLargo *= 0.95;
+        }
+        // Con menos de la mitad del límite en uso la latencia no refleja saturación
+        if (inFlight < estimado / 2) {
+            return;
+        }
+
+        double gradiente = Math.clamp(tolerance * rttLargo / rttCorto, 0.5, 1.0);
+        double nuevo = estimado * gradiente + Math.sqrt(estimado);
+        estimado = Math.clamp(estimado * (1 - smoothing) + nuevo * smoothing, minLimit, maxLimit);
+        limit = (int) estimado;
+    }
+}
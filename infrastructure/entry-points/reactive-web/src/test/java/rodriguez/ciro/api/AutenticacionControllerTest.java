@@ -0,0 +1,238 @@
+package rodriguez.ciro.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.dto.LoginRequest;
+import rodriguez.ciro.api.dto.RevocarTokenRequest;
+import rodriguez.ciro.api.dto.TokenRefrescoRequest;
+import rodriguez.ciro.api.exception.GlobalExceptionHandler;
+import rodriguez.ciro.model.credencial.exception.HashSaturadoException;
+import rodriguez.ciro.model.sesion.Sesion;
+import rodriguez.ciro.model.sesion.SesionIniciada;
+import rodriguez.ciro.model.token.ClaimsToken;
+import rodriguez.ciro.model.token.TokenAcceso;
+import rodriguez.ciro.model.token.exception.TokenInvalidoException;
+import rodriguez.ciro.usecase.autenticarusuario.AutenticarUsuarioUseCase;
+import rodriguez.ciro.usecase.autenticarusuario.exception.CredencialesInvalidasException;
+import rodriguez.ciro.usecase.autenticarusuario.exception.IntentosExcedidosException;
+import rodriguez.ciro.usecase.refrescarsesion.RefrescarSesionUseCase;
+import rodriguez.ciro.usecase.revocartoken.RevocarTokenUseCase;
+import rodriguez.ciro.usecase.revocartoken.exception.AccesoDenegadoException;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {AutenticacionController.class})
+@WebFluxTest
+@Import(GlobalExceptionHandler.class)
+class AutenticacionControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private AutenticarUsuarioUseCase autenticarUsuarioUseCase;
+
+    @MockitoBean
+    private RevocarTokenUseCase revocarTokenUseCase;
+
+    @MockitoBean
+    private RefrescarSesionUseCase refrescarSesionUseCase;
+
+    @Test
+    void deberiaIniciarSesionYRetornarElTokenConCredencialesValidas() {
+        // Given
+        when(autenticarUsuarioUseCase.autenticar(eq("juan.perez@email.com"), eq("Secreta123"), any()))
+                .thenReturn(Mono.just(sesionIniciada("refresco")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest("juan.perez@email.com", "Secreta123"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.tokenAcceso").isEqualTo("encabezado.claims.firma")
+                .jsonPath("$.tipoToken").isEqualTo("Bearer")
+                .jsonPath("$.expiraEnSegundos").isEqualTo(900)
+                .jsonPath("$.tokenRefresco").isEqualTo("refresco")
+                .jsonPath("$.idUsuario").isEqualTo(1)
+                .jsonPath("$.rol").isEqualTo("USER");
+    }
+
+    @Test
+    void deberiaRefrescarLaSesionConElTokenDeRefresco() {
+        // Given
+        when(refrescarSesionUseCase.refrescar("refresco")).thenReturn(Mono.just(sesionIniciada("nuevo")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TokenRefrescoRequest("refresco"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.tokenAcceso").isEqualTo("encabezado.claims.firma")
+                .jsonPath("$.tokenRefresco").isEqualTo("nuevo");
+    }
+
+    @Test
+    void deberiaRetornarUnauthorizedCuandoElTokenDeRefrescoYaSeUso() {
+        // Given
+        when(refrescarSesionUseCase.refrescar("usado"))
+                .thenReturn(Mono.error(new TokenInvalidoException("Token de refresco inválido o expirado")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TokenRefrescoRequest("usado"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void deberiaRetornarUnauthorizedConCredencialesInvalidas() {
+        // Given
+        when(autenticarUsuarioUseCase.autenticar(eq("juan.perez@email.com"), eq("Incorrecta"), any()))
+                .thenReturn(Mono.error(new CredencialesInvalidasException("Correo electrónico o contraseña incorrectos")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest("juan.perez@email.com", "Incorrecta"))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Correo electrónico o contraseña incorrectos");
+    }
+
+    @Test
+    void deberiaRetornarServiceUnavailableCuandoElHashEstaSaturado() {
+        // Given
+        when(autenticarUsuarioUseCase.autenticar(eq("juan.perez@email.com"), eq("Secreta123"), any()))
+                .thenReturn(Mono.error(new HashSaturadoException("Capacidad de verificación de contraseñas agotada")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest("juan.perez@email.com", "Secreta123"))
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "1");
+    }
+
+    @Test
+    void deberiaRetornarTooManyRequestsConRetryAfterMientrasHayUnBloqueo() {
+        // Given
+        when(autenticarUsuarioUseCase.autenticar(eq("juan.perez@email.com"), eq("Secreta123"), any()))
+                .thenReturn(Mono.error(new IntentosExcedidosException(
+                        "Demasiados intentos fallidos, intente nuevamente más tarde", Instant.now().plusSeconds(120))));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest("juan.perez@email.com", "Secreta123"))
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueMatches("Retry-After", "1[12][0-9]");
+    }
+
+    @Test
+    void deberiaRetornarBadRequestCuandoFaltaLaContrasena() {
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest("juan.perez@email.com", null))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.details[0]").isEqualTo("El campo contraseña es requerido");
+    }
+
+    @Test
+    void deberiaCerrarSesionConElTokenBearer() {
+        // Given
+        when(revocarTokenUseCase.cerrarSesion("token-usuario")).thenReturn(Mono.empty());
+        when(refrescarSesionUseCase.cerrar(null)).thenReturn(Mono.empty());
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/logout")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-usuario")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void deberiaCerrarTambienLaSesionDelTokenDeRefresco() {
+        // Given
+        when(revocarTokenUseCase.cerrarSesion("token-usuario")).thenReturn(Mono.empty());
+        when(refrescarSesionUseCase.cerrar("refresco")).thenReturn(Mono.empty());
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/logout")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-usuario")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TokenRefrescoRequest("refresco"))
+                .exchange()
+                .expectStatus().isNoContent();
+        verify(refrescarSesionUseCase).cerrar("refresco");
+    }
+
+    @Test
+    void deberiaRetornarUnauthorizedAlCerrarSesionSinToken() {
+        // Given
+        when(revocarTokenUseCase.cerrarSesion(null))
+                .thenReturn(Mono.error(new TokenInvalidoException("Token ausente o demasiado largo")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/logout")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+    }
+
+    @Test
+    void deberiaRetornarForbiddenCuandoQuienRevocaNoEsAdministrador() {
+        // Given
+        when(revocarTokenUseCase.revocar("token-usuario", "otro-token"))
+                .thenReturn(Mono.error(new AccesoDenegadoException("Solo un administrador puede revocar tokens")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/auth/revocaciones")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-usuario")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RevocarTokenRequest("otro-token"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private static SesionIniciada sesionIniciada(String tokenRefresco) {
+        Instant emitidoEn = Instant.parse("2026-01-15T10:00:00Z");
+        return new SesionIniciada(new TokenAcceso("encabezado.claims.firma", new ClaimsToken("jti", 1L,
+                "juan.perez@email.com", 2L, "USER", emitidoEn, emitidoEn.plusSeconds(900))),
+                new Sesion(tokenRefresco, 1L, Instant.now().plusSeconds(604800)));
+    }
+}
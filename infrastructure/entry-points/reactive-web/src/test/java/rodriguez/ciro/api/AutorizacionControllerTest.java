@@ -0,0 +1,85 @@
+package rodriguez.ciro.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.dto.VerificacionPermisoDto;
+import rodriguez.ciro.api.dto.VerificarPermisosRequest;
+import rodriguez.ciro.api.exception.GlobalExceptionHandler;
+import rodriguez.ciro.model.permiso.ResultadoPermiso;
+import rodriguez.ciro.model.permiso.VerificacionPermiso;
+import rodriguez.ciro.model.permiso.exception.PermisosNoCargadosException;
+import rodriguez.ciro.usecase.verificarpermisos.VerificarPermisosUseCase;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {AutorizacionController.class})
+@WebFluxTest
+@Import(GlobalExceptionHandler.class)
+class AutorizacionControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private VerificarPermisosUseCase verificarPermisosUseCase;
+
+    @Test
+    void deberiaResponderCadaParEnElOrdenDeLaSolicitud() {
+        // Given
+        when(verificarPermisosUseCase.verificar(List.of(
+                new VerificacionPermiso(1L, "TOKENS_REVOCAR"), new VerificacionPermiso(2L, "TOKENS_REVOCAR"))))
+                .thenReturn(Mono.just(List.of(
+                        new ResultadoPermiso(1L, "TOKENS_REVOCAR", true),
+                        new ResultadoPermiso(2L, "TOKENS_REVOCAR", false))));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/autorizacion/verificar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VerificarPermisosRequest(List.of(
+                        new VerificacionPermisoDto(1L, "TOKENS_REVOCAR"), new VerificacionPermisoDto(2L, "TOKENS_REVOCAR"))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.resultados[0].idUsuario").isEqualTo(1)
+                .jsonPath("$.resultados[0].permitido").isEqualTo(true)
+                .jsonPath("$.resultados[1].permitido").isEqualTo(false);
+    }
+
+    @Test
+    void deberiaRetornarBadRequestCuandoUnParNoTienePermiso() {
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/autorizacion/verificar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VerificarPermisosRequest(List.of(new VerificacionPermisoDto(1L, " "))))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void deberiaRetornarServiceUnavailableMientrasLosPermisosNoEstanCargados() {
+        // Given
+        when(verificarPermisosUseCase.verificar(anyList()))
+                .thenReturn(Mono.error(new PermisosNoCargadosException("Los permisos de los roles aún no se han cargado")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/autorizacion/verificar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VerificarPermisosRequest(List.of(new VerificacionPermisoDto(1L, "TOKENS_REVOCAR"))))
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "1");
+    }
+}
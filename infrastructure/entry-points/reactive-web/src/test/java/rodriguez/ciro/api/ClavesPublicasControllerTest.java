@@ -0,0 +1,44 @@
+package rodriguez.ciro.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.usecase.consultarclavespublicas.ConsultarClavesPublicasUseCase;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {ClavesPublicasController.class})
+@WebFluxTest
+class ClavesPublicasControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ConsultarClavesPublicasUseCase consultarClavesPublicasUseCase;
+
+    @Test
+    void deberiaRetornarElJwksTalCualConCachePublica() {
+        // Given
+        String jwks = "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"clave-1\",\"n\":\"AQAB\",\"e\":\"AQAB\"}]}";
+        when(consultarClavesPublicasUseCase.consultar()).thenReturn(Mono.just(jwks.getBytes(StandardCharsets.UTF_8)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/.well-known/jwks.json")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .expectBody(String.class).isEqualTo(jwks);
+    }
+}
@@ -0,0 +1,132 @@
+package rodriguez.ciro.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.exception.GlobalExceptionHandler;
+import rodriguez.ciro.model.analitica.Agrupacion;
+import rodriguez.ciro.model.analitica.FiltroUsuarios;
+import rodriguez.ciro.model.analitica.GrupoUsuarios;
+import rodriguez.ciro.model.analitica.exception.AnaliticaDeshabilitadaException;
+import rodriguez.ciro.model.estadistica.EstadisticaRol;
+import rodriguez.ciro.model.estadistica.exception.EstadisticasNoCargadasException;
+import rodriguez.ciro.usecase.consultaranalitica.ConsultarAnaliticaUsuariosUseCase;
+import rodriguez.ciro.usecase.consultarestadisticas.ConsultarEstadisticasRolesUseCase;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {EstadisticasController.class})
+@WebFluxTest
+@Import(GlobalExceptionHandler.class)
+class EstadisticasControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ConsultarEstadisticasRolesUseCase consultarEstadisticasRolesUseCase;
+
+    @MockitoBean
+    private ConsultarAnaliticaUsuariosUseCase consultarAnaliticaUsuariosUseCase;
+
+    @Test
+    void deberiaResponderLosAgregadosDeCadaRolConSuPromedio() {
+        // Given
+        when(consultarEstadisticasRolesUseCase.consultar()).thenReturn(Mono.just(List.of(
+                new EstadisticaRol(1L, 2, new BigDecimal("9000000.00"), new BigDecimal("4000000.00"),
+                        new BigDecimal("5000000.00")),
+                new EstadisticaRol(2L, 3, new BigDecimal("10000000.00"), new BigDecimal("1300000.00"),
+                        new BigDecimal("5700000.00")))));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/estadisticas/roles")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.roles.length()").isEqualTo(2)
+                .jsonPath("$.roles[0].idRol").isEqualTo(1)
+                .jsonPath("$.roles[0].totalUsuarios").isEqualTo(2)
+                .jsonPath("$.roles[0].salarioPromedio").isEqualTo(4500000.00)
+                .jsonPath("$.roles[1].salarioMinimo").isEqualTo(1300000.00)
+                .jsonPath("$.roles[1].salarioMaximo").isEqualTo(5700000.00)
+                .jsonPath("$.roles[1].salarioPromedio").isEqualTo(3333333.33);
+    }
+
+    @Test
+    void deberiaRetornarServiceUnavailableMientrasLasEstadisticasNoEstanCargadas() {
+        // Given
+        when(consultarEstadisticasRolesUseCase.consultar())
+                .thenReturn(Mono.error(new EstadisticasNoCargadasException("Las estadísticas de los roles aún no se han cargado")));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/estadisticas/roles")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "1");
+    }
+
+    @Test
+    void deberiaConvertirLosParametrosEnFiltroYResponderLosGrupos() {
+        // Given
+        FiltroUsuarios filtro = new FiltroUsuarios(2L, null, new BigDecimal("1000000"), null,
+                LocalDate.of(1980, 1, 1), LocalDate.of(1999, 12, 31));
+        when(consultarAnaliticaUsuariosUseCase.consultar(filtro, Agrupacion.ANIO_NACIMIENTO))
+                .thenReturn(Mono.just(List.of(
+                        new GrupoUsuarios("1985", 1, new BigDecimal("1500000.00"), new BigDecimal("1500000.00"),
+                                new BigDecimal("1500000.00")),
+                        new GrupoUsuarios("1990", 2, new BigDecimal("5000000.00"), new BigDecimal("2000000.00"),
+                                new BigDecimal("3000000.00")))));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/estadisticas/usuarios?idRol=2&salarioMinimo=1000000&nacidoDesde=1980-01-01"
+                        + "&nacidoHasta=1999-12-31&agruparPor=ANIO_NACIMIENTO")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.agrupacion").isEqualTo("ANIO_NACIMIENTO")
+                .jsonPath("$.grupos.length()").isEqualTo(2)
+                .jsonPath("$.grupos[0].clave").isEqualTo("1985")
+                .jsonPath("$.grupos[1].totalUsuarios").isEqualTo(2)
+                .jsonPath("$.grupos[1].salarioPromedio").isEqualTo(2500000.00);
+    }
+
+    @Test
+    void deberiaRetornarBadRequestConUnaAgrupacionInvalida() {
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/estadisticas/usuarios?agruparPor=CIUDAD")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verify(consultarAnaliticaUsuariosUseCase, never()).consultar(any(), any());
+    }
+
+    @Test
+    void deberiaRetornarNotFoundCuandoLaAnaliticaNoEstaHabilitada() {
+        // Given
+        when(consultarAnaliticaUsuariosUseCase.consultar(FiltroUsuarios.TODOS, Agrupacion.NINGUNA))
+                .thenReturn(Mono.error(new AnaliticaDeshabilitadaException("La analítica de usuarios no está habilitada")));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/estadisticas/usuarios")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("La analítica de usuarios no está habilitada");
+    }
+}
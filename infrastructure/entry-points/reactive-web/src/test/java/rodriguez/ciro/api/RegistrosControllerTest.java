@@ -0,0 +1,124 @@
+package rodriguez.ciro.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.api.config.RegistrationStreamProperties;
+import rodriguez.ciro.api.dto.UsuarioResponse;
+import rodriguez.ciro.api.exception.GlobalExceptionHandler;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.usecase.seguirregistros.SeguirRegistrosUseCase;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {RegistrosController.class})
+@WebFluxTest
+@Import({GlobalExceptionHandler.class, RegistrosControllerTest.StreamTestConfig.class})
+class RegistrosControllerTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<UsuarioResponse>> EVENTO =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private SeguirRegistrosUseCase seguirRegistrosUseCase;
+
+    @Test
+    void deberiaEnviarCadaRegistroConSuIdComoEvento() {
+        // Given
+        when(seguirRegistrosUseCase.seguir(41L)).thenReturn(Flux.just(usuario(42L), usuario(43L)));
+
+        // When
+        Flux<ServerSentEvent<UsuarioResponse>> eventos = webTestClient.get()
+                .uri("/api/v1/usuarios/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "41")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(EVENTO)
+                .getResponseBody()
+                .filter(evento -> evento.data() != null);
+
+        // Then
+        StepVerifier.create(eventos)
+                .assertNext(evento -> {
+                    assertEquals("42", evento.id());
+                    assertEquals(RegistrosController.EVENTO, evento.event());
+                    assertEquals("usuario42@email.com", evento.data().getCorreoElectronico());
+                    assertEquals(2L, evento.data().getRol().getIdRol());
+                })
+                .assertNext(evento -> assertEquals("43", evento.id()))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaSeguirSoloLosNuevosSinLastEventId() {
+        // Given
+        when(seguirRegistrosUseCase.seguir(null)).thenReturn(Flux.just(usuario(7L)));
+
+        // When & Then
+        StepVerifier.create(webTestClient.get()
+                        .uri("/api/v1/usuarios/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(EVENTO)
+                        .getResponseBody()
+                        .filter(evento -> evento.data() != null)
+                        .map(ServerSentEvent::id))
+                .expectNext("7")
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRechazarUnLastEventIdInvalido() {
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/usuarios/stream")
+                .header("Last-Event-ID", "abc")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verify(seguirRegistrosUseCase, never()).seguir(any());
+    }
+
+    private static Usuario usuario(Long idUsuario) {
+        return Usuario.builder()
+                .idUsuario(idUsuario)
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .correoElectronico("usuario" + idUsuario + "@email.com")
+                .rol(Rol.builder().idRol(2L).build())
+                .build();
+    }
+
+    @TestConfiguration
+    static class StreamTestConfig {
+
+        @Bean
+        RegistrationStreamProperties registrationStreamProperties() {
+            return new RegistrationStreamProperties(Duration.ofSeconds(15));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package rodriguez.ciro.api;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
@@ -12,20 +15,29 @@ import reactor.core.publisher.Mono;
 import rodriguez.ciro.api.dto.RegistrarUsuarioRequest;
 import rodriguez.ciro.api.dto.RolDto;
 import rodriguez.ciro.api.exception.GlobalExceptionHandler;
+import rodriguez.ciro.api.idempotency.IdempotencyProperties;
+import rodriguez.ciro.api.idempotency.IdempotencyStore;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.VersionUsuario;
+import rodriguez.ciro.usecase.buscarusuario.BuscarUsuarioPorDocumentoUseCase;
 import rodriguez.ciro.usecase.registrarusuario.RegistrarUsuarioUseCase;
 import rodriguez.ciro.usecase.registrarusuario.exception.EmailAlreadyExistsException;
 import rodriguez.ciro.usecase.registrarusuario.exception.DocumentoAlreadyExistsException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ContextConfiguration(classes = {UsuarioController.class})
 @WebFluxTest
-@Import({GlobalExceptionHandler.class})
+@Import({GlobalExceptionHandler.class, UsuarioControllerTest.IdempotencyTestConfig.class})
 class UsuarioControllerTest {
 
     @Autowired
@@ -34,6 +46,9 @@ class UsuarioControllerTest {
     @MockitoBean
     private RegistrarUsuarioUseCase registrarUsuarioUseCase;
 
+    @MockitoBean
+    private BuscarUsuarioPorDocumentoUseCase buscarUsuarioPorDocumentoUseCase;
+
     @Test
     void deberiaRegistrarUsuarioCorrectamente() {
         // Given
@@ -63,7 +78,7 @@ class UsuarioControllerTest {
                 .salarioBase(new BigDecimal("3000000"))
                 .build();
 
-        when(registrarUsuarioUseCase.registrar(any(Usuario.class)))
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class), any()))
                 .thenReturn(Mono.just(usuarioGuardado));
 
         // When & Then
@@ -83,6 +98,55 @@ class UsuarioControllerTest {
                 .jsonPath("$.salarioBase").isEqualTo(3000000);
     }
 
+    @Test
+    void deberiaRepetirElRegistroConLaMismaIdempotencyKey() {
+        // Given
+        RegistrarUsuarioRequest request = RegistrarUsuarioRequest.builder()
+                .nombres("Ana")
+                .apellidos("Gómez")
+                .tipoDocumento("CC")
+                .numeroDocumento("87654321")
+                .correoElectronico("ana.gomez@email.com")
+                .salarioBase(new BigDecimal("2500000"))
+                .rol(RolDto.builder().idRol(2L).build())
+                .contrasena("Secreta123")
+                .build();
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class), any()))
+                .thenReturn(Mono.just(Usuario.builder().idUsuario(7L).nombres("Ana").build()));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/v1/usuarios")
+                .header("Idempotency-Key", "registro-ana")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().doesNotExist("Idempotent-Replayed")
+                .expectBody()
+                .jsonPath("$.idUsuario").isEqualTo(7);
+        webTestClient.post()
+                .uri("/api/v1/usuarios")
+                .header("Idempotency-Key", "registro-ana")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("Idempotent-Replayed", "true")
+                .expectBody()
+                .jsonPath("$.idUsuario").isEqualTo(7);
+        verify(registrarUsuarioUseCase, times(1)).registrar(any(Usuario.class), eq("Secreta123"));
+
+        request.setNombres("Otra");
+        webTestClient.post()
+                .uri("/api/v1/usuarios")
+                .header("Idempotency-Key", "registro-ana")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(422);
+    }
+
     @Test
     void deberiaRetornarBadRequestCuandoNombresEsNulo() {
         // Given
@@ -177,7 +241,7 @@ class UsuarioControllerTest {
                 .rol(RolDto.builder().idRol(2L).build())
                 .build();
 
-        when(registrarUsuarioUseCase.registrar(any(Usuario.class)))
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class), any()))
                 .thenReturn(Mono.error(new EmailAlreadyExistsException(
                         "Ya existe un usuario registrado con este correo electrónico")));
 
@@ -207,7 +271,7 @@ class UsuarioControllerTest {
                 .rol(RolDto.builder().idRol(2L).build())
                 .build();
 
-        when(registrarUsuarioUseCase.registrar(any(Usuario.class)))
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class), any()))
                 .thenReturn(Mono.error(new DocumentoAlreadyExistsException(
                         "Ya existe un usuario registrado con este tipo y número de documento")));
 
@@ -304,4 +368,67 @@ class UsuarioControllerTest {
                 .jsonPath("$.details").isArray()
                 .jsonPath("$.details[0]").isEqualTo("El salario base debe ser menor o igual a 15,000,000");
     }
+
+    @Test
+    void deberiaRetornarUsuarioConEtagCuandoNoHayIfNoneMatch() {
+        // Given
+        when(buscarUsuarioPorDocumentoUseCase.buscarPorTipoYNumeroDocumento("CC", "12345678"))
+                .thenReturn(Mono.just(Usuario.builder().idUsuario(5L).version(3L).nombres("Juan Carlos").build()));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/usuarios/documento/CC/12345678")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"5-3\"")
+                .expectHeader().valueEquals("Cache-Control", "no-cache, private")
+                .expectBody()
+                .jsonPath("$.idUsuario").isEqualTo(5);
+        verify(buscarUsuarioPorDocumentoUseCase, never()).versionPorTipoYNumeroDocumento(any(), any());
+    }
+
+    @Test
+    void deberiaRetornarNotModifiedSinBuscarElUsuarioCuandoElEtagCoincide() {
+        // Given
+        when(buscarUsuarioPorDocumentoUseCase.versionPorCorreoElectronico("juan.perez@email.com"))
+                .thenReturn(Mono.just(new VersionUsuario(5L, 3L)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/usuarios/email/juan.perez@email.com")
+                .header("If-None-Match", "\"5-3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"5-3\"")
+                .expectBody().isEmpty();
+        verify(buscarUsuarioPorDocumentoUseCase, never()).buscarPorCorreoElectronico(any());
+    }
+
+    @Test
+    void deberiaRetornarUsuarioCuandoElEtagNoCoincide() {
+        // Given
+        when(buscarUsuarioPorDocumentoUseCase.versionPorCorreoElectronico("juan.perez@email.com"))
+                .thenReturn(Mono.just(new VersionUsuario(5L, 4L)));
+        when(buscarUsuarioPorDocumentoUseCase.buscarPorCorreoElectronico("juan.perez@email.com"))
+                .thenReturn(Mono.just(Usuario.builder().idUsuario(5L).version(4L).nombres("Juan Carlos").build()));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/api/v1/usuarios/email/juan.perez@email.com")
+                .header("If-None-Match", "\"5-3\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"5-4\"")
+                .expectBody()
+                .jsonPath("$.idUsuario").isEqualTo(5);
+    }
+
+    @TestConfiguration
+    static class IdempotencyTestConfig {
+
+        @Bean
+        IdempotencyStore idempotencyStore() {
+            return new IdempotencyStore(new IdempotencyProperties(Duration.ofMinutes(1), 100), new SimpleMeterRegistry());
+        }
+    }
 }
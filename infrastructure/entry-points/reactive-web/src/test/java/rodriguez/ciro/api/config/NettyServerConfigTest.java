@@ -0,0 +1,68 @@
+package rodriguez.ciro.api.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NettyServerConfigTest {
+
+    private final LoopResources loopResources = LoopResources.create("test-server", 1, 1, true);
+
+    @AfterEach
+    void tearDown() {
+        loopResources.dispose();
+    }
+
+    @Test
+    void deberiaAplicarH2cKeepAliveYTiempoInactivo() {
+        // Given
+        NettyServerProperties properties = new NettyServerProperties(true, 1, true, 128, true,
+                Duration.ofSeconds(30), 500, true);
+
+        // When
+        HttpServer servidor = NettyServerConfig.personalizar(HttpServer.create(), properties, loopResources);
+
+        // Then
+        assertArrayEquals(new HttpProtocol[]{HttpProtocol.HTTP11, HttpProtocol.H2C}, servidor.configuration().protocols());
+        assertEquals(Duration.ofSeconds(30), servidor.configuration().idleTimeout());
+        assertEquals(500, servidor.configuration().maxKeepAliveRequests());
+        assertEquals(128L, servidor.configuration().http2SettingsSpec().maxConcurrentStreams());
+        Map<ChannelOption<?>, ?> opciones = servidor.configuration().options();
+        assertEquals(Epoll.isAvailable(), opciones.containsKey(EpollChannelOption.SO_REUSEPORT));
+    }
+
+    @Test
+    void deberiaConservarValoresPorDefectoSinConfiguracion() {
+        // Given
+        NettyServerProperties properties = new NettyServerProperties(false, null, null, null, true, null, null, null);
+
+        // When
+        HttpServer servidor = NettyServerConfig.personalizar(HttpServer.create(), properties, loopResources);
+
+        // Then
+        assertArrayEquals(new HttpProtocol[]{HttpProtocol.HTTP11}, servidor.configuration().protocols());
+        assertNull(servidor.configuration().idleTimeout());
+        assertFalse(servidor.configuration().options().containsKey(EpollChannelOption.SO_REUSEPORT));
+        assertNull(servidor.configuration().metricsRecorder());
+    }
+
+    @Test
+    void deberiaAgruparUrisParaLasMetricas() {
+        assertEquals("/api/v1/usuarios", NettyServerConfig.plantillaUri("/api/v1/usuarios"));
+        assertEquals("/api/v1/usuarios/**", NettyServerConfig.plantillaUri("/api/v1/usuarios/CC/12345678?x=1"));
+        assertEquals("/actuator/prometheus", NettyServerConfig.plantillaUri("/actuator/prometheus"));
+    }
+}
@@ -0,0 +1,119 @@
+package rodriguez.ciro.api.deadline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.deadline.Deadline;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlineFilter filter = new DeadlineFilter(new DeadlineProperties(true, "/api/",
+            List.of("/api/v1/usuarios/stream"), "X-Request-Timeout",
+            Duration.ofSeconds(5), Duration.ofSeconds(10),
+            List.of(new DeadlineProperties.Route(HttpMethod.POST, "/api/v1/usuarios", Duration.ofSeconds(3)))),
+            meterRegistry);
+
+    @Test
+    void deberiaTomarElPlazoDeLaRutaDelEncabezadoOPorDefecto() {
+        assertEquals(Duration.ofSeconds(3), filter.plazo(MockServerHttpRequest.post("/api/v1/usuarios").build()));
+        assertEquals(Duration.ofSeconds(5), filter.plazo(MockServerHttpRequest.get("/api/v1/usuarios/email/a").build()));
+        assertEquals(Duration.ofMillis(750), filter.plazo(MockServerHttpRequest.post("/api/v1/usuarios")
+                .header("X-Request-Timeout", "750").build()));
+        assertEquals(Duration.ofSeconds(10), filter.plazo(MockServerHttpRequest.post("/api/v1/usuarios")
+                .header("X-Request-Timeout", "60000").build()));
+        assertEquals(Duration.ofSeconds(3), filter.plazo(MockServerHttpRequest.post("/api/v1/usuarios")
+                .header("X-Request-Timeout", "abc").build()));
+    }
+
+    @Test
+    void deberiaPropagarElPlazoEnElContexto() {
+        // Given
+        AtomicReference<Deadline> propagado = new AtomicReference<>();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/usuarios/email/a"));
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, e -> Mono.deferContextual(context -> {
+                    propagado.set(Deadline.de(context).orElse(null));
+                    return Mono.empty();
+                })))
+                .verifyComplete();
+        assertTrue(propagado.get().restante().compareTo(Duration.ofSeconds(4)) > 0);
+    }
+
+    @Test
+    void deberiaOmitirElPlazoEnLasRutasExcluidas() {
+        // Given
+        AtomicReference<Deadline> propagado = new AtomicReference<>();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/usuarios/stream"));
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, e -> Mono.deferContextual(context -> {
+                    propagado.set(Deadline.de(context).orElse(null));
+                    return Mono.empty();
+                })))
+                .verifyComplete();
+        assertNull(propagado.get());
+    }
+
+    @Test
+    void deberiaOmitirElPlazoCuandoEstaDesactivado() {
+        // Given
+        DeadlineFilter desactivado = new DeadlineFilter(new DeadlineProperties(false, "/api/", List.of(),
+                "X-Request-Timeout", Duration.ofSeconds(5), Duration.ofSeconds(10), List.of()), meterRegistry);
+        AtomicReference<Deadline> propagado = new AtomicReference<>();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/usuarios/email/a"));
+
+        // When & Then
+        StepVerifier.create(desactivado.filter(exchange, e -> Mono.deferContextual(context -> {
+                    propagado.set(Deadline.de(context).orElse(null));
+                    return Mono.empty();
+                })))
+                .verifyComplete();
+        assertNull(propagado.get());
+    }
+
+    @Test
+    void deberiaResponder504YCancelarElPlazoAlVencer() {
+        // Given
+        AtomicReference<Deadline> propagado = new AtomicReference<>();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/usuarios")
+                .header("X-Request-Timeout", "50"));
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, e -> Mono.deferContextual(context -> {
+                    propagado.set(Deadline.de(context).orElseThrow());
+                    return Mono.never();
+                })))
+                .verifyComplete();
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+        StepVerifier.create(propagado.get().cancelado()).verifyComplete();
+        assertEquals(1.0, meterRegistry.counter("http.server.deadline.expired").count());
+    }
+
+    @Test
+    void deberiaContarLaDesconexionDelCliente() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/usuarios/email/a"));
+
+        // When
+        filter.filter(exchange, e -> Mono.never()).subscribe().dispose();
+
+        // Then
+        assertEquals(1.0, meterRegistry.counter("http.server.deadline.cancelled").count());
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+}
@@ -0,0 +1,117 @@
+package rodriguez.ciro.api.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IdempotencyStoreTest {
+
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+    private final IdempotencyStore store = new IdempotencyStore(
+            new IdempotencyProperties(Duration.ofMinutes(5), 3), new SimpleMeterRegistry());
+
+    @Test
+    void deberiaRepetirElResultadoSinVolverAEjecutar() {
+        // When & Then
+        StepVerifier.create(store.ejecutar("clave", "solicitud", this::operacion, error -> false))
+                .expectNext(new IdempotencyStore.Resultado<>(1, false))
+                .verifyComplete();
+        StepVerifier.create(store.ejecutar("clave", "solicitud", this::operacion, error -> false))
+                .expectNext(new IdempotencyStore.Resultado<>(1, true))
+                .verifyComplete();
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void deberiaHacerEsperarALosDuplicadosConcurrentes() {
+        // Given
+        Sinks.One<Integer> primera = Sinks.one();
+        AtomicInteger suscripciones = new AtomicInteger();
+        Mono<Integer> enCurso = primera.asMono().doOnSubscribe(s -> suscripciones.incrementAndGet());
+
+        // When
+        Mono<IdempotencyStore.Resultado<Integer>> original = store.ejecutar("clave", "solicitud", () -> enCurso, e -> false);
+        Mono<IdempotencyStore.Resultado<Integer>> duplicado = store.ejecutar("clave", "solicitud", () -> enCurso, e -> false);
+
+        // Then
+        StepVerifier.create(original.zipWith(duplicado))
+                .then(() -> primera.tryEmitValue(7))
+                .assertNext(ambos -> {
+                    assertEquals(new IdempotencyStore.Resultado<>(7, false), ambos.getT1());
+                    assertEquals(new IdempotencyStore.Resultado<>(7, true), ambos.getT2());
+                })
+                .verifyComplete();
+        assertEquals(1, suscripciones.get());
+    }
+
+    @Test
+    void deberiaRechazarLaClaveConOtraSolicitud() {
+        // Given
+        store.ejecutar("clave", "solicitud", this::operacion, error -> false).block();
+
+        // When & Then
+        StepVerifier.create(store.ejecutar("clave", "otra", this::operacion, error -> false))
+                .expectError(IdempotencyKeyReuseException.class)
+                .verify();
+    }
+
+    @Test
+    void deberiaLiberarLaClaveAnteErroresTransitoriosYConservarLosDefinitivos() {
+        // Given
+        Mono<Integer> transitorio = Mono.error(new IllegalStateException("timeout"));
+        Mono<Integer> definitivo = Mono.error(new IllegalArgumentException("conflicto"));
+
+        // When & Then
+        StepVerifier.create(store.ejecutar("a", "s", () -> transitorio, IllegalArgumentException.class::isInstance))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(store.ejecutar("a", "s", this::operacion, IllegalArgumentException.class::isInstance))
+                .expectNext(new IdempotencyStore.Resultado<>(1, false))
+                .verifyComplete();
+
+        StepVerifier.create(store.ejecutar("b", "s", () -> definitivo, IllegalArgumentException.class::isInstance))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(store.ejecutar("b", "s", this::operacion, IllegalArgumentException.class::isInstance))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void deberiaDescartarLasClavesMasAntiguasAlSuperarElMaximo() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            store.ejecutar("clave-" + i, "s", this::operacion, error -> false).block();
+        }
+
+        // Then
+        assertEquals(3, store.tamano());
+        StepVerifier.create(store.ejecutar("clave-0", "s", this::operacion, error -> false))
+                .expectNext(new IdempotencyStore.Resultado<>(6, false))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaVolverAEjecutarCuandoVenceElTtl() {
+        // Given
+        IdempotencyStore sinTtl = new IdempotencyStore(
+                new IdempotencyProperties(Duration.ZERO, 10), new SimpleMeterRegistry());
+        sinTtl.ejecutar("clave", "s", this::operacion, error -> false).block();
+
+        // When & Then
+        StepVerifier.create(sinTtl.ejecutar("clave", "s", this::operacion, error -> false))
+                .expectNext(new IdempotencyStore.Resultado<>(2, false))
+                .verifyComplete();
+    }
+
+    private Mono<Integer> operacion() {
+        return Mono.fromSupplier(ejecuciones::incrementAndGet);
+    }
+}
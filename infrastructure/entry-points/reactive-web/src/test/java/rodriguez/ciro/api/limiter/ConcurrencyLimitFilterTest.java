@@ -0,0 +1,101 @@
+package rodriguez.ciro.api.limiter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(new GradientLimit(1, 1, 10, 1.5, 0.2, 0.9));
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(true, limiter, "/api/",
+            List.of("/api/v1/auth/"), Duration.ofSeconds(2));
+
+    @Test
+    void deberiaRechazarConRetryAfterCuandoSeAlcanzaElLimite() {
+        // Given
+        Sinks.Empty<Void> pendiente = Sinks.empty();
+        WebFilterChain chainPendiente = exchange -> pendiente.asMono();
+        MockServerWebExchange primera = exchange("/api/v1/usuarios");
+        MockServerWebExchange segunda = exchange("/api/v1/usuarios");
+
+        // When
+        filter.filter(primera, chainPendiente).subscribe();
+
+        // Then
+        StepVerifier.create(filter.filter(segunda, chainPendiente)).verifyComplete();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, segunda.getResponse().getStatusCode());
+        assertEquals("2", segunda.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(1, limiter.getRechazadas());
+
+        pendiente.tryEmitEmpty();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void deberiaLiberarElCupoCuandoElClienteCancela() {
+        // Given
+        WebFilterChain chainPendiente = exchange -> Mono.never();
+
+        // When
+        filter.filter(exchange("/api/v1/usuarios"), chainPendiente).subscribe().dispose();
+
+        // Then
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void deberiaIgnorarRutasFueraDelPrefijo() {
+        // Given
+        limiter.tryAcquire();
+        MockServerWebExchange exchange = exchange("/actuator/health");
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, e -> Mono.empty())).verifyComplete();
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void deberiaIgnorarRutasExcluidas() {
+        // Given
+        limiter.tryAcquire();
+        MockServerWebExchange exchange = exchange("/api/v1/auth/login");
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, e -> Mono.empty())).verifyComplete();
+        assertNull(exchange.getResponse().getStatusCode());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void deberiaDejarPasarTodoCuandoEstaDesactivado() {
+        // Given
+        ConcurrencyLimitFilter desactivado = new ConcurrencyLimitFilter(false, limiter, "/api/", List.of(),
+                Duration.ofSeconds(2));
+        limiter.tryAcquire();
+        MockServerWebExchange exchange = exchange("/api/v1/usuarios");
+
+        // When & Then
+        StepVerifier.create(desactivado.filter(exchange, e -> Mono.empty())).verifyComplete();
+        assertNull(exchange.getResponse().getStatusCode());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getRechazadas());
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
@@ -0,0 +1,78 @@
+package rodriguez.ciro.api.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    private static final long MILIS = 1_000_000L;
+
+    @Test
+    void deberiaCrecerMientrasLaLatenciaSeMantiene() {
+        // Given
+        GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 0.9);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(5 * MILIS, limit.getLimit(), false);
+        }
+
+        // Then
+        assertEquals(200, limit.getLimit());
+    }
+
+    @Test
+    void deberiaReducirCuandoLaLatenciaCrece() {
+        // Given
+        GradientLimit limit = new GradientLimit(100, 4, 200, 1.5, 0.2, 0.9);
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(5 * MILIS, 100, false);
+        }
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(100 * MILIS, limit.getLimit(), false);
+        }
+
+        // Then
+        assertTrue(limit.getLimit() < 20, "límite " + limit.getLimit());
+    }
+
+    @Test
+    void deberiaNoCrecerSiLaConcurrenciaNoUsaElLimite() {
+        // Given
+        GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 0.9);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(5 * MILIS, 2, false);
+        }
+
+        // Then
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void deberiaReducirMultiplicativamenteAnteErroresSinBajarDelMinimo() {
+        // Given
+        GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 0.9);
+
+        // When
+        limit.onSample(5 * MILIS, 20, true);
+
+        // Then
+        assertEquals(18, limit.getLimit());
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(5 * MILIS, 20, true);
+        }
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void deberiaRechazarConfiguracionInconsistente() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(2, 4, 200, 1.5, 0.2, 0.9));
+    }
+}
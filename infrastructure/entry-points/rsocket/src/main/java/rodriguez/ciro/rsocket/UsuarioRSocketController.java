@@ -0,0 +1,133 @@
+package rodriguez.ciro.rsocket;
+
+import io.rsocket.RSocketErrorException;
+import io.rsocket.exceptions.ApplicationErrorException;
+import io.rsocket.exceptions.RejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.credencial.exception.HashSaturadoException;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.rsocket.config.RSocketEntryPointProperties;
+import rodriguez.ciro.rsocket.config.RSocketRuntimeHints;
+import rodriguez.ciro.rsocket.mensaje.ClaveUsuario;
+import rodriguez.ciro.rsocket.mensaje.RegistroMensaje;
+import rodriguez.ciro.rsocket.mensaje.ResultadoBusqueda;
+import rodriguez.ciro.rsocket.mensaje.SeguimientoMensaje;
+import rodriguez.ciro.rsocket.mensaje.UsuarioMensaje;
+import rodriguez.ciro.usecase.buscarusuario.BuscarUsuarioPorDocumentoUseCase;
+import rodriguez.ciro.usecase.buscarusuario.exception.UsuarioNoEncontradoException;
+import rodriguez.ciro.usecase.registrarusuario.RegistrarUsuarioUseCase;
+import rodriguez.ciro.usecase.registrarusuario.exception.DocumentoAlreadyExistsException;
+import rodriguez.ciro.usecase.registrarusuario.exception.EmailAlreadyExistsException;
+import rodriguez.ciro.usecase.seguirregistros.SeguirRegistrosUseCase;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Registro y búsqueda de usuarios para otros servicios sobre RSocket, con los mismos casos de uso del API REST. Cada
+ * conexión multiplexa todas las solicitudes de un cliente y los mensajes viajan en CBOR como arreglos posicionales,
+ * sin nombres de campo. En usuarios.buscar-varios el cliente envía un flujo de claves y recibe un resultado por clave
+ * en el mismo orden; se resuelven lookup-concurrency claves a la vez y solo se piden más cuando el cliente consume los
+ * resultados, así que un cliente lento frena a su propio flujo y no acumula resultados en el servidor.
+ */
+@Slf4j
+@Controller
+@ImportRuntimeHints(RSocketRuntimeHints.class)
+public class UsuarioRSocketController {
+
+    private static final String ERROR_INTERNO = "Ha ocurrido un error interno. Intente nuevamente.";
+
+    private final RegistrarUsuarioUseCase registrarUsuarioUseCase;
+    private final BuscarUsuarioPorDocumentoUseCase buscarUsuarioPorDocumentoUseCase;
+    private final SeguirRegistrosUseCase seguirRegistrosUseCase;
+    private final Duration plazo;
+    private final int concurrencia;
+
+    public UsuarioRSocketController(RegistrarUsuarioUseCase registrarUsuarioUseCase,
+                                    BuscarUsuarioPorDocumentoUseCase buscarUsuarioPorDocumentoUseCase,
+                                    SeguirRegistrosUseCase seguirRegistrosUseCase,
+                                    RSocketEntryPointProperties properties) {
+        this.registrarUsuarioUseCase = registrarUsuarioUseCase;
+        this.buscarUsuarioPorDocumentoUseCase = buscarUsuarioPorDocumentoUseCase;
+        this.seguirRegistrosUseCase = seguirRegistrosUseCase;
+        this.plazo = properties.requestTimeout();
+        this.concurrencia = properties.lookupConcurrency();
+    }
+
+    @MessageMapping("usuarios.registrar")
+    public Mono<UsuarioMensaje> registrar(RegistroMensaje registro) {
+        return registrarUsuarioUseCase.registrar(registro.aUsuario(), registro.contrasena())
+                .map(UsuarioMensaje::desde)
+                .timeout(plazo)
+                .onErrorMap(this::traducir);
+    }
+
+    // Sin usuario completa sin respuesta, en vez de fallar
+    @MessageMapping("usuarios.buscar")
+    public Mono<UsuarioMensaje> buscar(ClaveUsuario clave) {
+        return buscarUsuario(clave)
+                .map(UsuarioMensaje::desde)
+                .onErrorResume(UsuarioNoEncontradoException.class, error -> Mono.empty())
+                .timeout(plazo)
+                .onErrorMap(this::traducir);
+    }
+
+    // Una clave inválida o sin usuario responde sin usuario y no termina el flujo
+    @MessageMapping("usuarios.buscar-varios")
+    public Flux<ResultadoBusqueda> buscarVarios(Flux<ClaveUsuario> claves) {
+        return claves
+                .flatMapSequential(clave -> buscarUsuario(clave)
+                        .map(usuario -> new ResultadoBusqueda(clave, UsuarioMensaje.desde(usuario)))
+                        .onErrorResume(error -> error instanceof UsuarioNoEncontradoException
+                                        || error instanceof IllegalArgumentException,
+                                error -> Mono.just(new ResultadoBusqueda(clave, null))),
+                        concurrencia)
+                .onErrorMap(this::traducir);
+    }
+
+    @MessageMapping("usuarios.registrados")
+    public Flux<UsuarioMensaje> registrados(SeguimientoMensaje seguimiento) {
+        return seguirRegistrosUseCase.seguir(seguimiento.ultimoIdUsuario())
+                .map(UsuarioMensaje::desde)
+                .onErrorMap(this::traducir);
+    }
+
+    private Mono<Usuario> buscarUsuario(ClaveUsuario clave) {
+        if (clave.correoElectronico() != null) {
+            return buscarUsuarioPorDocumentoUseCase.buscarPorCorreoElectronico(clave.correoElectronico());
+        }
+        if (clave.tipoDocumento() != null && clave.numeroDocumento() != null) {
+            return buscarUsuarioPorDocumentoUseCase.buscarPorTipoYNumeroDocumento(clave.tipoDocumento(),
+                    clave.numeroDocumento());
+        }
+        return Mono.error(new IllegalArgumentException(
+                "La clave debe tener el correo electrónico o el tipo y número de documento"));
+    }
+
+    /**
+     * REJECTED indica al cliente que puede reintentar, como el 503 del API REST; los errores de validación y los
+     * conflictos conservan su mensaje, y los demás no exponen detalles internos.
+     */
+    private Throwable traducir(Throwable error) {
+        if (error instanceof RSocketErrorException) {
+            return error;
+        }
+        if (error instanceof HashSaturadoException) {
+            return new RejectedException(error.getMessage());
+        }
+        if (error instanceof IllegalArgumentException || error instanceof EmailAlreadyExistsException
+                || error instanceof DocumentoAlreadyExistsException) {
+            return new ApplicationErrorException(error.getMessage());
+        }
+        if (error instanceof TimeoutException) {
+            return new ApplicationErrorException("La solicitud superó el plazo de " + plazo.toMillis() + " ms");
+        }
+        log.error("Error inesperado en RSocket: {}", error.getMessage(), error);
+        return new ApplicationErrorException(ERROR_INTERNO);
+    }
+}
@@ -0,0 +1,11 @@
+package rodriguez.ciro.rsocket.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "entrypoint.rsocket")
+public record RSocketEntryPointProperties(
+        Duration requestTimeout,
+        Integer lookupConcurrency) {
+}
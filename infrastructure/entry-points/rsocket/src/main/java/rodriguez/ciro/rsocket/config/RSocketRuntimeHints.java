@@ -0,0 +1,26 @@
+package rodriguez.ciro.rsocket.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import rodriguez.ciro.rsocket.mensaje.ClaveUsuario;
+import rodriguez.ciro.rsocket.mensaje.RegistroMensaje;
+import rodriguez.ciro.rsocket.mensaje.ResultadoBusqueda;
+import rodriguez.ciro.rsocket.mensaje.SeguimientoMensaje;
+import rodriguez.ciro.rsocket.mensaje.UsuarioMensaje;
+
+import java.util.stream.Stream;
+
+// Jackson CBOR lee y escribe los mensajes por reflexión
+public class RSocketRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        Stream.of(ClaveUsuario.class, RegistroMensaje.class, UsuarioMensaje.class, ResultadoBusqueda.class,
+                        SeguimientoMensaje.class)
+                .forEach(tipo -> hints.reflection().registerType(tipo,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS));
+    }
+}
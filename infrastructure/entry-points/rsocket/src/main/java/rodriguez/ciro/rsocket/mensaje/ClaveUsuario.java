@@ -0,0 +1,21 @@
+package rodriguez.ciro.rsocket.mensaje;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Busca por correo si lo tiene; si no, por tipo y número de documento
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"correoElectronico", "tipoDocumento", "numeroDocumento"})
+public record ClaveUsuario(
+        String correoElectronico,
+        String tipoDocumento,
+        String numeroDocumento) {
+
+    public static ClaveUsuario porCorreo(String correoElectronico) {
+        return new ClaveUsuario(correoElectronico, null, null);
+    }
+
+    public static ClaveUsuario porDocumento(String tipoDocumento, String numeroDocumento) {
+        return new ClaveUsuario(null, tipoDocumento, numeroDocumento);
+    }
+}
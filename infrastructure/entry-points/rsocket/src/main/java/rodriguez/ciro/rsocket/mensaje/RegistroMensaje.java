@@ -0,0 +1,42 @@
+package rodriguez.ciro.rsocket.mensaje;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"nombres", "apellidos", "tipoDocumento", "numeroDocumento", "fechaNacimiento", "direccion",
+        "telefono", "correoElectronico", "salarioBase", "idRol", "contrasena"})
+public record RegistroMensaje(
+        String nombres,
+        String apellidos,
+        String tipoDocumento,
+        String numeroDocumento,
+        LocalDate fechaNacimiento,
+        String direccion,
+        String telefono,
+        String correoElectronico,
+        BigDecimal salarioBase,
+        Long idRol,
+        String contrasena) {
+
+    // Las validaciones son las del caso de uso, las mismas que aplica a las solicitudes REST
+    public Usuario aUsuario() {
+        return Usuario.builder()
+                .nombres(nombres)
+                .apellidos(apellidos)
+                .tipoDocumento(tipoDocumento)
+                .numeroDocumento(numeroDocumento)
+                .fechaNacimiento(fechaNacimiento)
+                .direccion(direccion)
+                .telefono(telefono)
+                .correoElectronico(correoElectronico)
+                .salarioBase(salarioBase)
+                .rol(idRol != null ? Rol.builder().idRol(idRol).build() : null)
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package rodriguez.ciro.rsocket.mensaje;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// usuario es null si no existe un usuario con la clave
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"clave", "usuario"})
+public record ResultadoBusqueda(
+        ClaveUsuario clave,
+        UsuarioMensaje usuario) {
+}
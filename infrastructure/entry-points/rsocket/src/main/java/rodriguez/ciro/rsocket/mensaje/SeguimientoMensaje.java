@@ -0,0 +1,11 @@
+package rodriguez.ciro.rsocket.mensaje;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Sin último id solo llegan los registros nuevos, como sin Last-Event-ID en el stream SSE
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"ultimoIdUsuario"})
+public record SeguimientoMensaje(
+        Long ultimoIdUsuario) {
+}
@@ -0,0 +1,44 @@
+package rodriguez.ciro.rsocket.mensaje;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"idUsuario", "nombres", "apellidos", "tipoDocumento", "numeroDocumento", "fechaNacimiento",
+        "direccion", "telefono", "correoElectronico", "salarioBase", "idRol", "nombreRol", "version"})
+public record UsuarioMensaje(
+        Long idUsuario,
+        String nombres,
+        String apellidos,
+        String tipoDocumento,
+        String numeroDocumento,
+        LocalDate fechaNacimiento,
+        String direccion,
+        String telefono,
+        String correoElectronico,
+        BigDecimal salarioBase,
+        Long idRol,
+        String nombreRol,
+        Long version) {
+
+    public static UsuarioMensaje desde(Usuario usuario) {
+        return new UsuarioMensaje(
+                usuario.getIdUsuario(),
+                usuario.getNombres(),
+                usuario.getApellidos(),
+                usuario.getTipoDocumento(),
+                usuario.getNumeroDocumento(),
+                usuario.getFechaNacimiento(),
+                usuario.getDireccion(),
+                usuario.getTelefono(),
+                usuario.getCorreoElectronico(),
+                usuario.getSalarioBase(),
+                usuario.getRol() != null ? usuario.getRol().getIdRol() : null,
+                usuario.getRol() != null ? usuario.getRol().getNombre() : null,
+                usuario.getVersion());
+    }
+}
@@ -0,0 +1,221 @@
+package rodriguez.ciro.rsocket;
+
+import io.rsocket.Closeable;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.exceptions.ApplicationErrorException;
+import io.rsocket.exceptions.RejectedException;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.credencial.exception.HashSaturadoException;
+import rodriguez.ciro.model.rol.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.rsocket.config.RSocketEntryPointProperties;
+import rodriguez.ciro.rsocket.mensaje.ClaveUsuario;
+import rodriguez.ciro.rsocket.mensaje.RegistroMensaje;
+import rodriguez.ciro.rsocket.mensaje.ResultadoBusqueda;
+import rodriguez.ciro.rsocket.mensaje.SeguimientoMensaje;
+import rodriguez.ciro.rsocket.mensaje.UsuarioMensaje;
+import rodriguez.ciro.usecase.buscarusuario.BuscarUsuarioPorDocumentoUseCase;
+import rodriguez.ciro.usecase.buscarusuario.exception.UsuarioNoEncontradoException;
+import rodriguez.ciro.usecase.registrarusuario.RegistrarUsuarioUseCase;
+import rodriguez.ciro.usecase.registrarusuario.exception.EmailAlreadyExistsException;
+import rodriguez.ciro.usecase.seguirregistros.SeguirRegistrosUseCase;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+// Extremo a extremo sobre un transporte local: rutas, codificación CBOR posicional y traducción de errores
+@ExtendWith(MockitoExtension.class)
+class UsuarioRSocketControllerTest {
+
+    private static final RSocketStrategies ESTRATEGIAS = RSocketStrategies.builder()
+            .encoder(new Jackson2CborEncoder())
+            .decoder(new Jackson2CborDecoder())
+            .build();
+
+    @Mock
+    private RegistrarUsuarioUseCase registrarUsuarioUseCase;
+
+    @Mock
+    private BuscarUsuarioPorDocumentoUseCase buscarUsuarioPorDocumentoUseCase;
+
+    @Mock
+    private SeguirRegistrosUseCase seguirRegistrosUseCase;
+
+    private Closeable servidor;
+    private RSocketRequester requester;
+
+    @BeforeEach
+    void setUp() {
+        UsuarioRSocketController controller = new UsuarioRSocketController(registrarUsuarioUseCase,
+                buscarUsuarioPorDocumentoUseCase, seguirRegistrosUseCase,
+                new RSocketEntryPointProperties(Duration.ofSeconds(2), 4));
+        RSocketMessageHandler handler = new RSocketMessageHandler();
+        handler.setRSocketStrategies(ESTRATEGIAS);
+        handler.setHandlers(List.of(controller));
+        handler.afterPropertiesSet();
+
+        String nombre = "usuarios-" + UUID.randomUUID();
+        servidor = RSocketServer.create(handler.responder())
+                .bind(LocalServerTransport.create(nombre))
+                .block();
+        requester = RSocketRequester.builder()
+                .rsocketStrategies(ESTRATEGIAS)
+                .dataMimeType(MediaType.APPLICATION_CBOR)
+                .transport(LocalClientTransport.create(nombre));
+    }
+
+    @AfterEach
+    void tearDown() {
+        requester.dispose();
+        servidor.dispose();
+    }
+
+    @Test
+    void deberiaRegistrarYResponderElUsuarioConSuId() {
+        // Given
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class), eq("Secreta123")))
+                .thenReturn(Mono.just(usuario(7L, "juan.perez@email.com")));
+
+        // When & Then
+        StepVerifier.create(requester.route("usuarios.registrar")
+                        .data(registro())
+                        .retrieveMono(UsuarioMensaje.class))
+                .assertNext(usuario -> {
+                    assertEquals(7L, usuario.idUsuario());
+                    assertEquals(2L, usuario.idRol());
+                    assertEquals(LocalDate.of(1990, 5, 15), usuario.fechaNacimiento());
+                    assertEquals(new BigDecimal("3000000.00"), usuario.salarioBase());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaCompletarSinRespuestaCuandoElUsuarioNoExiste() {
+        // Given
+        when(buscarUsuarioPorDocumentoUseCase.buscarPorTipoYNumeroDocumento("CC", "999"))
+                .thenReturn(Mono.error(new UsuarioNoEncontradoException("Usuario no encontrado")));
+
+        // When & Then
+        StepVerifier.create(requester.route("usuarios.buscar")
+                        .data(ClaveUsuario.porDocumento("CC", "999"))
+                        .retrieveMono(UsuarioMensaje.class))
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaResponderCadaClaveEnOrdenConLosNoEncontradosSinUsuario() {
+        // Given
+        when(buscarUsuarioPorDocumentoUseCase.buscarPorCorreoElectronico("juan.perez@email.com"))
+                .thenReturn(Mono.just(usuario(1L, "juan.perez@email.com")).delayElement(Duration.ofMillis(50)));
+        when(buscarUsuarioPorDocumentoUseCase.buscarPorTipoYNumeroDocumento("CC", "999"))
+                .thenReturn(Mono.error(new UsuarioNoEncontradoException("Usuario no encontrado")));
+        when(buscarUsuarioPorDocumentoUseCase.buscarPorCorreoElectronico("ana.gomez@email.com"))
+                .thenReturn(Mono.just(usuario(2L, "ana.gomez@email.com")));
+
+        // When
+        List<ResultadoBusqueda> resultados = requester.route("usuarios.buscar-varios")
+                .data(Flux.just(ClaveUsuario.porCorreo("juan.perez@email.com"), ClaveUsuario.porDocumento("CC", "999"),
+                        new ClaveUsuario(null, "CC", null), ClaveUsuario.porCorreo("ana.gomez@email.com")))
+                .retrieveFlux(ResultadoBusqueda.class)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(4, resultados.size());
+        assertEquals(1L, resultados.get(0).usuario().idUsuario());
+        assertEquals(ClaveUsuario.porDocumento("CC", "999"), resultados.get(1).clave());
+        assertNull(resultados.get(1).usuario());
+        assertNull(resultados.get(2).usuario());
+        assertEquals(2L, resultados.get(3).usuario().idUsuario());
+    }
+
+    @Test
+    void deberiaEnviarLosRegistrosDesdeElUltimoId() {
+        // Given
+        when(seguirRegistrosUseCase.seguir(10L))
+                .thenReturn(Flux.just(usuario(11L, "a@email.com"), usuario(12L, "b@email.com")));
+
+        // When & Then
+        StepVerifier.create(requester.route("usuarios.registrados")
+                        .data(new SeguimientoMensaje(10L))
+                        .retrieveFlux(UsuarioMensaje.class)
+                        .map(UsuarioMensaje::idUsuario))
+                .expectNext(11L, 12L)
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaTraducirElConflictoAUnErrorDeAplicacionConSuMensaje() {
+        // Given
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class), eq("Secreta123")))
+                .thenReturn(Mono.error(new EmailAlreadyExistsException("Ya existe un usuario con este correo")));
+
+        // When & Then
+        StepVerifier.create(requester.route("usuarios.registrar")
+                        .data(registro())
+                        .retrieveMono(UsuarioMensaje.class))
+                .expectErrorMatches(error -> error instanceof ApplicationErrorException
+                        && "Ya existe un usuario con este correo".equals(error.getMessage()))
+                .verify();
+    }
+
+    @Test
+    void deberiaRechazarParaReintentarCuandoElHashEstaSaturado() {
+        // Given
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class), eq("Secreta123")))
+                .thenReturn(Mono.error(new HashSaturadoException("Capacidad de hash agotada")));
+
+        // When & Then
+        StepVerifier.create(requester.route("usuarios.registrar")
+                        .data(registro())
+                        .retrieveMono(UsuarioMensaje.class))
+                .expectError(RejectedException.class)
+                .verify();
+    }
+
+    private static RegistroMensaje registro() {
+        return new RegistroMensaje("Juan Carlos", "Pérez García", "CC", "12345678", LocalDate.of(1990, 5, 15),
+                "Calle 123 #45-67", "3001234567", "juan.perez@email.com", new BigDecimal("3000000"), 2L,
+                "Secreta123");
+    }
+
+    private static Usuario usuario(Long idUsuario, String correo) {
+        return Usuario.builder()
+                .idUsuario(idUsuario)
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .fechaNacimiento(LocalDate.of(1990, 5, 15))
+                .correoElectronico(correo)
+                .salarioBase(new BigDecimal("3000000.00"))
+                .rol(Rol.builder().idRol(2L).build())
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package rodriguez.ciro.mvc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioResponse {
+    private Long idUsuario;
+    private String nombres;
+    private String apellidos;
+    private String tipoDocumento;
+    private String numeroDocumento;
+    private LocalDate fechaNacimiento;
+    private String direccion;
+    private String telefono;
+    private String correoElectronico;
+    private BigDecimal salarioBase;
+    private RolDto rol;
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package rodriguez.ciro.mvc.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorResponse {
+    private String error;
+    private String message;
+    private int status;
+    private LocalDateTime timestamp;
+    private String path;
+    private List<String> details;
+}
\ No newline at end of file
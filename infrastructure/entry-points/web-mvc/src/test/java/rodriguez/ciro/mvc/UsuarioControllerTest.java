@@ -0,0 +1,116 @@
+package rodriguez.ciro.mvc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.mvc.exception.GlobalExceptionHandler;
+import rodriguez.ciro.usecase.buscarusuario.BuscarUsuarioPorDocumentoUseCase;
+import rodriguez.ciro.usecase.buscarusuario.exception.UsuarioNoEncontradoException;
+import rodriguez.ciro.usecase.registrarusuario.RegistrarUsuarioUseCase;
+import rodriguez.ciro.usecase.registrarusuario.exception.EmailAlreadyExistsException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ContextConfiguration(classes = {UsuarioController.class})
+@WebMvcTest
+@Import({GlobalExceptionHandler.class})
+class UsuarioControllerTest {
+
+    private static final String REQUEST = """
+            {"nombres":"Juan Carlos","apellidos":"Pérez García","tipoDocumento":"CC","numeroDocumento":"12345678",
+             "fechaNacimiento":"1990-05-15","direccion":"Calle 123 #45-67","telefono":"3001234567",
+             "correoElectronico":"juan.perez@email.com","salarioBase":3000000,"rol":{"idRol":2}}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RegistrarUsuarioUseCase registrarUsuarioUseCase;
+
+    @MockitoBean
+    private BuscarUsuarioPorDocumentoUseCase buscarUsuarioPorDocumentoUseCase;
+
+    @Test
+    void deberiaRegistrarUsuarioCorrectamente() throws Exception {
+        // Given
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class))).thenReturn(Mono.just(usuario()));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/usuarios").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.idUsuario").value(1))
+                .andExpect(jsonPath("$.correoElectronico").value("juan.perez@email.com"));
+    }
+
+    @Test
+    void deberiaRetornarBadRequestCuandoNombresEsNulo() throws Exception {
+        mockMvc.perform(post("/api/v1/usuarios").contentType(MediaType.APPLICATION_JSON)
+                        .content(REQUEST.replace("\"nombres\":\"Juan Carlos\",", "")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details[0]").value("El campo nombres es requerido"));
+    }
+
+    @Test
+    void deberiaRetornarConflictCuandoCorreoElectronicoYaExiste() throws Exception {
+        // Given
+        when(registrarUsuarioUseCase.registrar(any(Usuario.class)))
+                .thenReturn(Mono.error(new EmailAlreadyExistsException("Ya existe un usuario registrado con este correo electrónico")));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/usuarios").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.path").value("/api/v1/usuarios"));
+    }
+
+    @Test
+    void deberiaBuscarUsuarioPorDocumento() throws Exception {
+        // Given
+        when(buscarUsuarioPorDocumentoUseCase.buscarPorTipoYNumeroDocumento("CC", "12345678"))
+                .thenReturn(Mono.just(usuario()));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/usuarios/documento/CC/12345678"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.numeroDocumento").value("12345678"));
+    }
+
+    @Test
+    void deberiaRetornarNotFoundCuandoUsuarioNoExiste() throws Exception {
+        // Given
+        when(buscarUsuarioPorDocumentoUseCase.buscarPorCorreoElectronico("no.existe@email.com"))
+                .thenReturn(Mono.error(new UsuarioNoEncontradoException("Usuario no encontrado con correo electrónico: no.existe@email.com")));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/usuarios/email/no.existe@email.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static Usuario usuario() {
+        return Usuario.builder()
+                .idUsuario(1L)
+                .nombres("Juan Carlos")
+                .apellidos("Pérez García")
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .fechaNacimiento(LocalDate.of(1990, 5, 15))
+                .correoElectronico("juan.perez@email.com")
+                .salarioBase(new BigDecimal("3000000"))
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package rodriguez.ciro.hashbenchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de un hash BCrypt por costo. Cada punto de costo duplica el tiempo; con T ms por verificación y N hilos en
+ * adapters.password-hash.threads, la instancia soporta como máximo N * 1000 / T inicios de sesión por segundo.
+ * Con -t se mide con varios hilos a la vez, para ver el efecto de compartir los núcleos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+public class BCryptCostBenchmark {
+
+    private static final String CONTRASENA = "Contrasena-De-Prueba-2024";
+
+    @Param({"8", "10", "11", "12", "13"})
+    public int costo;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(costo);
+        hash = encoder.encode(CONTRASENA);
+    }
+
+    @Benchmark
+    public String hashear() {
+        return encoder.encode(CONTRASENA);
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return encoder.matches(CONTRASENA, hash);
+    }
+}
@@ -0,0 +1,142 @@
+package rodriguez.ciro.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import rodriguez.ciro.loadtest.SyntheticUserGenerator.SyntheticUser;
+import rodriguez.ciro.loadtest.WorkloadMix.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+public class FixedRateLoadGenerator {
+
+    private static final int ESTADO_SIN_RESPUESTA = -1;
+
+    private final LoadTestConfig config;
+    private final SyntheticUserGenerator generador;
+    private final ObjectMapper objectMapper;
+    private final Map<Operation, OperationStats> estadisticas = new EnumMap<>(Operation.class);
+    private long secuenciaRegistro;
+
+    public FixedRateLoadGenerator(LoadTestConfig config, SyntheticUserGenerator generador) {
+        this.config = config;
+        this.generador = generador;
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        for (Operation operacion : Operation.values()) {
+            estadisticas.put(operacion, new OperationStats());
+        }
+    }
+
+    public LatencyReport ejecutar() {
+        double periodoNanos = 1e9 / config.tasa();
+        SplittableRandom random = new SplittableRandom(config.semilla());
+
+        try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(config.timeout())
+                     .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            long inicio = System.nanoTime();
+            long inicioMedicion = inicio + config.calentamiento().toNanos();
+            long fin = inicioMedicion + config.duracion().toNanos();
+
+            for (long k = 0; ; k++) {
+                long programado = inicio + (long) (k * periodoNanos);
+                if (programado >= fin) {
+                    break;
+                }
+                esperarHasta(programado);
+
+                Operation operacion = config.mezcla().siguiente(random.nextDouble());
+                HttpRequest request = construirSolicitud(operacion, random);
+                boolean medir = programado >= inicioMedicion;
+                executor.execute(() -> enviar(client, operacion, request, programado, medir));
+            }
+        }
+        return new LatencyReport(new LinkedHashMap<>(estadisticas), config.duracion());
+    }
+
+    private void enviar(HttpClient client, Operation operacion, HttpRequest request, long programado, boolean medir) {
+        long envio = System.nanoTime();
+        int estado;
+        try {
+            estado = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            estado = ESTADO_SIN_RESPUESTA;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long ahora = System.nanoTime();
+        if (medir) {
+            estadisticas.get(operacion)
+                    .registrar(ahora - programado, ahora - envio, estado, estado == operacion.estadoEsperado());
+        }
+    }
+
+    private HttpRequest construirSolicitud(Operation operacion, SplittableRandom random) {
+        return switch (operacion) {
+            case REGISTRO -> registrar(generador.registro(config.corrida(), config.usuarios(), secuenciaRegistro++));
+            case CONFLICTO -> registrar(generador.usuario(random.nextLong(config.usuarios())));
+            case DOCUMENTO -> {
+                SyntheticUser usuario = generador.usuario(random.nextLong(config.usuarios()));
+                yield consultar("/api/v1/usuarios/documento/" + usuario.tipoDocumento() + "/" + usuario.numeroDocumento());
+            }
+            case EMAIL -> consultar("/api/v1/usuarios/email/"
+                    + generador.usuario(random.nextLong(config.usuarios())).correoElectronico());
+        };
+    }
+
+    private HttpRequest registrar(SyntheticUser usuario) {
+        Map<String, Object> cuerpo = new LinkedHashMap<>();
+        cuerpo.put("nombres", usuario.nombres());
+        cuerpo.put("apellidos", usuario.apellidos());
+        cuerpo.put("tipoDocumento", usuario.tipoDocumento());
+        cuerpo.put("numeroDocumento", usuario.numeroDocumento());
+        cuerpo.put("fechaNacimiento", usuario.fechaNacimiento());
+        cuerpo.put("direccion", usuario.direccion());
+        cuerpo.put("telefono", usuario.telefono());
+        cuerpo.put("correoElectronico", usuario.correoElectronico());
+        cuerpo.put("salarioBase", usuario.salarioBase());
+        cuerpo.put("rol", Map.of("idRol", usuario.idRol()));
+        try {
+            return HttpRequest.newBuilder(URI.create(config.baseUrl() + "/api/v1/usuarios"))
+                    .timeout(config.timeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(cuerpo)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest consultar(String ruta) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl() + ruta))
+                .timeout(config.timeout())
+                .GET()
+                .build();
+    }
+
+    private static void esperarHasta(long instanteNanos) {
+        long restante;
+        while ((restante = instanteNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+}
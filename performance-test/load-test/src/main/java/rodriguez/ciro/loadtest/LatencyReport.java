@@ -0,0 +1,81 @@
+package rodriguez.ciro.loadtest;
+
+import org.HdrHistogram.Histogram;
+import rodriguez.ciro.loadtest.WorkloadMix.Operation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+public class LatencyReport {
+
+    private static final double MICROS_POR_MILISEGUNDO = 1000.0;
+
+    private final Map<Operation, OperationStats> estadisticas;
+    private final Duration duracion;
+
+    public LatencyReport(Map<Operation, OperationStats> estadisticas, Duration duracion) {
+        this.estadisticas = estadisticas;
+        this.duracion = duracion;
+    }
+
+    public void imprimir(PrintStream salida) {
+        salida.println();
+        salida.println("Latencias corregidas por omisión coordinada (desde el instante programado), en ms");
+        salida.printf(Locale.ROOT, "%-10s %9s %8s %9s %9s %9s %9s %9s %9s %12s%n",
+                "operacion", "total", "errores", "rps", "p50", "p90", "p99", "p99.9", "max", "p99 sin corr");
+        estadisticas.forEach((operacion, stats) -> {
+            if (stats.total() == 0) {
+                return;
+            }
+            Histogram histograma = stats.corregido();
+            salida.printf(Locale.ROOT, "%-10s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                    operacion.name().toLowerCase(Locale.ROOT),
+                    stats.total(),
+                    stats.errores(),
+                    stats.total() / (duracion.toNanos() / 1e9),
+                    ms(histograma.getValueAtPercentile(50)),
+                    ms(histograma.getValueAtPercentile(90)),
+                    ms(histograma.getValueAtPercentile(99)),
+                    ms(histograma.getValueAtPercentile(99.9)),
+                    ms(histograma.getMaxValue()),
+                    ms(stats.sinCorregir().getValueAtPercentile(99)));
+        });
+        salida.println();
+        estadisticas.forEach((operacion, stats) -> {
+            if (stats.total() > 0) {
+                salida.printf(Locale.ROOT, "Códigos de estado %s: %s%n", operacion.name().toLowerCase(Locale.ROOT), stats.estados());
+            }
+        });
+    }
+
+    public void exportar(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        for (Map.Entry<Operation, OperationStats> entrada : estadisticas.entrySet()) {
+            if (entrada.getValue().total() == 0) {
+                continue;
+            }
+            String nombre = entrada.getKey().name().toLowerCase(Locale.ROOT);
+            escribir(directorio.resolve(nombre + "-corregido.hgrm"), entrada.getValue().corregido());
+            escribir(directorio.resolve(nombre + "-sin-corregir.hgrm"), entrada.getValue().sinCorregir());
+        }
+    }
+
+    public Map<Operation, OperationStats> estadisticas() {
+        return estadisticas;
+    }
+
+    private static void escribir(Path archivo, Histogram histograma) throws IOException {
+        try (PrintStream salida = new PrintStream(Files.newOutputStream(archivo))) {
+            histograma.outputPercentileDistribution(salida, MICROS_POR_MILISEGUNDO);
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros / MICROS_POR_MILISEGUNDO;
+    }
+}
@@ -0,0 +1,25 @@
+package rodriguez.ciro.loadtest;
+
+import java.util.Locale;
+
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        SyntheticUserGenerator generador = new SyntheticUserGenerator(config.semilla());
+
+        if (config.sembrar()) {
+            new PostgresSeeder(config, generador).sembrar();
+        }
+
+        System.out.printf(Locale.ROOT, "Carga a %d solicitudes/s durante %s (calentamiento %s) contra %s, mezcla %s%n",
+                config.tasa(), config.duracion(), config.calentamiento(), config.baseUrl(), config.mezcla());
+
+        LatencyReport reporte = new FixedRateLoadGenerator(config, generador).ejecutar();
+        reporte.imprimir(System.out);
+        if (config.directorioSalida() != null) {
+            reporte.exportar(config.directorioSalida());
+            System.out.println("Histogramas exportados en " + config.directorioSalida().toAbsolutePath());
+        }
+    }
+}
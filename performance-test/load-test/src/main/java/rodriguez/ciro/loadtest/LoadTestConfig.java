@@ -0,0 +1,67 @@
+package rodriguez.ciro.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+public record LoadTestConfig(
+        String baseUrl,
+        String jdbcUrl,
+        String dbUser,
+        String dbPassword,
+        long usuarios,
+        boolean sembrar,
+        boolean truncar,
+        long semilla,
+        long corrida,
+        int tasa,
+        Duration calentamiento,
+        Duration duracion,
+        Duration timeout,
+        WorkloadMix mezcla,
+        Path directorioSalida) {
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> valores = valores(args);
+
+        LoadTestConfig config = new LoadTestConfig(
+                valores.getOrDefault("url", "http://localhost:8080"),
+                valores.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/autenticacion"),
+                valores.getOrDefault("db-user", "root"),
+                valores.getOrDefault("db-password", "postresql"),
+                Long.parseLong(valores.getOrDefault("usuarios", "1000000")),
+                Boolean.parseBoolean(valores.getOrDefault("sembrar", "true")),
+                Boolean.parseBoolean(valores.getOrDefault("truncar", "false")),
+                Long.parseLong(valores.getOrDefault("semilla", "42")),
+                Long.parseLong(valores.getOrDefault("corrida",
+                        String.valueOf(Instant.now().getEpochSecond() % 100_000))),
+                Integer.parseInt(valores.getOrDefault("tasa", "500")),
+                Duration.parse(valores.getOrDefault("calentamiento", "PT10S")),
+                Duration.parse(valores.getOrDefault("duracion", "PT60S")),
+                Duration.parse(valores.getOrDefault("timeout", "PT10S")),
+                WorkloadMix.parse(valores.getOrDefault("mezcla", "registro=10,conflicto=5,documento=45,email=40")),
+                valores.containsKey("salida") ? Path.of(valores.get("salida")) : null);
+
+        if (config.usuarios() <= 0) {
+            throw new IllegalArgumentException("El número de usuarios sembrados debe ser mayor a 0");
+        }
+        if (config.tasa() <= 0) {
+            throw new IllegalArgumentException("La tasa de llegada debe ser mayor a 0");
+        }
+        return config;
+    }
+
+    static Map<String, String> valores(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido, se espera --clave=valor: " + arg);
+            }
+            int separador = arg.indexOf('=');
+            valores.put(arg.substring(2, separador), arg.substring(separador + 1));
+        }
+        return valores;
+    }
+}
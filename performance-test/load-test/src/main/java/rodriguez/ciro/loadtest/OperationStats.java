@@ -0,0 +1,54 @@
+package rodriguez.ciro.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationStats {
+
+    private static final long MAXIMO_REGISTRABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int DIGITOS_SIGNIFICATIVOS = 3;
+
+    private final Histogram corregido = new ConcurrentHistogram(MAXIMO_REGISTRABLE_MICROS, DIGITOS_SIGNIFICATIVOS);
+    private final Histogram sinCorregir = new ConcurrentHistogram(MAXIMO_REGISTRABLE_MICROS, DIGITOS_SIGNIFICATIVOS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final Map<Integer, LongAdder> estados = new ConcurrentHashMap<>();
+
+    public void registrar(long desdeProgramadoNanos, long desdeEnvioNanos, int estado, boolean esperado) {
+        corregido.recordValue(Math.min(MAXIMO_REGISTRABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(desdeProgramadoNanos)));
+        sinCorregir.recordValue(Math.min(MAXIMO_REGISTRABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(desdeEnvioNanos)));
+        total.increment();
+        estados.computeIfAbsent(estado, e -> new LongAdder()).increment();
+        if (!esperado) {
+            errores.increment();
+        }
+    }
+
+    public Histogram corregido() {
+        return corregido;
+    }
+
+    public Histogram sinCorregir() {
+        return sinCorregir;
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public long errores() {
+        return errores.sum();
+    }
+
+    public Map<Integer, Long> estados() {
+        Map<Integer, Long> resultado = new TreeMap<>();
+        estados.forEach((estado, contador) -> resultado.put(estado, contador.sum()));
+        return resultado;
+    }
+}
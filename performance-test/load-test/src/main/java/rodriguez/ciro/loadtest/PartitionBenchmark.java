@@ -0,0 +1,359 @@
+package rodriguez.ciro.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la tabla usuarios sin particionar (índices únicos de la migración 005) con la particionada por hash de la
+ * migración 014, cada una en su propio esquema y con los mismos usuarios sembrados. Las operaciones corren en un solo
+ * hilo y una conexión, así que miden el costo de la consulta y no la concurrencia del servidor.
+ */
+public class PartitionBenchmark {
+
+    private static final long MAXIMO_REGISTRABLE_MICROS = TimeUnit.SECONDS.toMicros(10);
+    private static final int PARTICIONES = 16;
+
+    private static final String COLUMNAS = "nombres, apellidos, tipo_documento, numero_documento, fecha_nacimiento, "
+            + "direccion, telefono, correo_electronico, salario_base, id_rol";
+
+    private static final String TABLA_SIMPLE = """
+            CREATE TABLE usuarios (
+                id_usuario           BIGSERIAL      PRIMARY KEY,
+                nombres              VARCHAR(100)   NOT NULL,
+                apellidos            VARCHAR(100)   NOT NULL,
+                fecha_nacimiento     DATE,
+                direccion            VARCHAR(255),
+                telefono             VARCHAR(20),
+                correo_electronico   VARCHAR(100)   NOT NULL,
+                salario_base         DECIMAL(12, 2) NOT NULL,
+                id_rol               BIGINT         NOT NULL,
+                tipo_documento       VARCHAR(20),
+                numero_documento     VARCHAR(50),
+                version              BIGINT         NOT NULL DEFAULT 0,
+                hash_contrasena      VARCHAR(100),
+                ultimo_inicio_sesion TIMESTAMP WITH TIME ZONE,
+                ultima_actividad     TIMESTAMP WITH TIME ZONE
+            )""";
+
+    private static final String TABLA_PARTICIONADA = """
+            CREATE TABLE usuarios (
+                id_usuario           BIGINT         NOT NULL DEFAULT nextval('usuarios_id_usuario_seq'),
+                nombres              VARCHAR(100)   NOT NULL,
+                apellidos            VARCHAR(100)   NOT NULL,
+                fecha_nacimiento     DATE,
+                direccion            VARCHAR(255),
+                telefono             VARCHAR(20),
+                correo_electronico   VARCHAR(100)   NOT NULL,
+                salario_base         DECIMAL(12, 2) NOT NULL,
+                id_rol               BIGINT         NOT NULL,
+                tipo_documento       VARCHAR(20),
+                numero_documento     VARCHAR(50),
+                version              BIGINT         NOT NULL DEFAULT 0,
+                hash_contrasena      VARCHAR(100),
+                ultimo_inicio_sesion TIMESTAMP WITH TIME ZONE,
+                ultima_actividad     TIMESTAMP WITH TIME ZONE,
+                CONSTRAINT pk_usuarios PRIMARY KEY (id_usuario) INCLUDE (version)
+            ) PARTITION BY HASH (id_usuario)""";
+
+    private static final String TABLA_CORREOS = """
+            CREATE TABLE usuarios_correos (
+                correo_electronico VARCHAR(100) NOT NULL,
+                id_usuario         BIGINT       NOT NULL,
+                CONSTRAINT pk_usuarios_correos PRIMARY KEY (correo_electronico) INCLUDE (id_usuario),
+                CONSTRAINT fk_usuarios_correos_usuario FOREIGN KEY (id_usuario)
+                    REFERENCES usuarios (id_usuario) ON DELETE CASCADE
+            ) PARTITION BY HASH (correo_electronico)""";
+
+    private static final String TABLA_DOCUMENTOS = """
+            CREATE TABLE usuarios_documentos (
+                tipo_documento   VARCHAR(20) NOT NULL,
+                numero_documento VARCHAR(50) NOT NULL,
+                id_usuario       BIGINT      NOT NULL,
+                CONSTRAINT pk_usuarios_documentos PRIMARY KEY (tipo_documento, numero_documento) INCLUDE (id_usuario),
+                CONSTRAINT fk_usuarios_documentos_usuario FOREIGN KEY (id_usuario)
+                    REFERENCES usuarios (id_usuario) ON DELETE CASCADE
+            ) PARTITION BY HASH (tipo_documento, numero_documento)""";
+
+    // Mismo cuerpo que mantener_busquedas_usuario() de la migración 014, reducido a las inserciones
+    private static final String FUNCION_BUSQUEDAS = """
+            CREATE FUNCTION mantener_busquedas_usuario() RETURNS trigger AS $$
+            BEGIN
+                INSERT INTO usuarios_correos (correo_electronico, id_usuario)
+                VALUES (NEW.correo_electronico, NEW.id_usuario);
+                IF NEW.tipo_documento IS NOT NULL AND NEW.numero_documento IS NOT NULL THEN
+                    INSERT INTO usuarios_documentos (tipo_documento, numero_documento, id_usuario)
+                    VALUES (NEW.tipo_documento, NEW.numero_documento, NEW.id_usuario);
+                END IF;
+                RETURN NULL;
+            END;
+            $$ LANGUAGE plpgsql""";
+
+    private final PartitionBenchmarkConfig config;
+    private final SyntheticUserGenerator generador;
+
+    public PartitionBenchmark(PartitionBenchmarkConfig config) {
+        this.config = config;
+        this.generador = new SyntheticUserGenerator(config.semilla());
+    }
+
+    public static void main(String[] args) throws Exception {
+        PartitionBenchmarkConfig config = PartitionBenchmarkConfig.fromArgs(args);
+        System.out.printf("Comparando usuarios sin particionar y particionada en %d con %d usuarios, %d consultas por "
+                + "operación (calentamiento %d)%n", PARTICIONES, config.usuarios(), config.consultas(),
+                config.calentamiento());
+        new PartitionBenchmark(config).ejecutar();
+    }
+
+    public void ejecutar() throws SQLException {
+        Map<Disposicion, Map<Operacion, Histogram>> resultados = new EnumMap<>(Disposicion.class);
+        Map<Disposicion, Long> tamanos = new EnumMap<>(Disposicion.class);
+        try (Connection connection = DriverManager.getConnection(config.jdbcUrl(), config.dbUser(), config.dbPassword())) {
+            for (Disposicion disposicion : Disposicion.values()) {
+                System.out.printf("%nPreparando %s en el esquema %s%n", disposicion.descripcion, disposicion.esquema);
+                crear(connection, disposicion);
+                sembrar(disposicion);
+                usarEsquema(connection, disposicion);
+                imprimirPlan(connection, disposicion);
+
+                Map<Operacion, Histogram> porOperacion = new EnumMap<>(Operacion.class);
+                for (Operacion operacion : Operacion.values()) {
+                    porOperacion.put(operacion, medir(connection, disposicion, operacion));
+                }
+                resultados.put(disposicion, porOperacion);
+                tamanos.put(disposicion, tamano(connection, disposicion));
+            }
+            imprimir(resultados, tamanos);
+
+            if (!config.conservar()) {
+                try (Statement statement = connection.createStatement()) {
+                    for (Disposicion disposicion : Disposicion.values()) {
+                        statement.execute("DROP SCHEMA " + disposicion.esquema + " CASCADE");
+                    }
+                }
+            }
+        }
+    }
+
+    private void crear(Connection connection, Disposicion disposicion) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + disposicion.esquema + " CASCADE");
+            statement.execute("CREATE SCHEMA " + disposicion.esquema);
+            statement.execute("SET search_path TO " + disposicion.esquema);
+            for (String sentencia : disposicion.ddl()) {
+                statement.execute(sentencia);
+            }
+        }
+    }
+
+    private void sembrar(Disposicion disposicion) throws SQLException {
+        LoadTestConfig siembra = LoadTestConfig.fromArgs(new String[]{
+                "--jdbc-url=" + config.jdbcUrl(disposicion.esquema),
+                "--db-user=" + config.dbUser(),
+                "--db-password=" + config.dbPassword(),
+                "--usuarios=" + config.usuarios(),
+                "--semilla=" + config.semilla()});
+        new PostgresSeeder(siembra, generador).sembrar();
+    }
+
+    private static void usarEsquema(Connection connection, Disposicion disposicion) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + disposicion.esquema);
+            // Sin esperar el fsync del WAL, para que el registro mida el costo de las particiones y no el del disco
+            statement.execute("SET synchronous_commit = off");
+            for (String tabla : disposicion.tablas) {
+                statement.execute("VACUUM ANALYZE " + tabla);
+            }
+        }
+    }
+
+    private void imprimirPlan(Connection connection, Disposicion disposicion) throws SQLException {
+        SyntheticUserGenerator.SyntheticUser usuario = generador.usuario(0);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) " + disposicion.sql(Operacion.DOCUMENTO))) {
+            statement.setString(1, usuario.tipoDocumento());
+            statement.setString(2, usuario.numeroDocumento());
+            System.out.println("Plan de la búsqueda por documento:");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    System.out.println("  " + resultSet.getString(1));
+                }
+            }
+        }
+    }
+
+    private Histogram medir(Connection connection, Disposicion disposicion, Operacion operacion) throws SQLException {
+        Histogram histograma = new Histogram(MAXIMO_REGISTRABLE_MICROS, 3);
+        // Misma secuencia de usuarios en ambas disposiciones
+        SplittableRandom random = new SplittableRandom(config.semilla() + operacion.ordinal());
+        try (PreparedStatement statement = connection.prepareStatement(disposicion.sql(operacion))) {
+            for (int i = 0; i < config.calentamiento(); i++) {
+                ejecutar(statement, operacion, usuario(operacion, random, i));
+            }
+            for (int i = 0; i < config.consultas(); i++) {
+                SyntheticUserGenerator.SyntheticUser usuario = usuario(operacion, random, config.calentamiento() + i);
+                long inicio = System.nanoTime();
+                ejecutar(statement, operacion, usuario);
+                histograma.recordValue(Math.min(MAXIMO_REGISTRABLE_MICROS,
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio)));
+            }
+        }
+        return histograma;
+    }
+
+    private SyntheticUserGenerator.SyntheticUser usuario(Operacion operacion, SplittableRandom random, long secuencia) {
+        return operacion == Operacion.REGISTRO
+                ? generador.registro(0, config.usuarios(), secuencia)
+                : generador.usuario(random.nextLong(config.usuarios()));
+    }
+
+    private static void ejecutar(PreparedStatement statement, Operacion operacion,
+                                 SyntheticUserGenerator.SyntheticUser usuario) throws SQLException {
+        switch (operacion) {
+            case DOCUMENTO -> {
+                statement.setString(1, usuario.tipoDocumento());
+                statement.setString(2, usuario.numeroDocumento());
+            }
+            case VERSION_CORREO, EXISTE_CORREO -> statement.setString(1, usuario.correoElectronico());
+            case REGISTRO -> {
+                statement.setString(1, usuario.nombres());
+                statement.setString(2, usuario.apellidos());
+                statement.setString(3, usuario.tipoDocumento());
+                statement.setString(4, usuario.numeroDocumento());
+                statement.setDate(5, Date.valueOf(usuario.fechaNacimiento()));
+                statement.setString(6, usuario.direccion());
+                statement.setString(7, usuario.telefono());
+                statement.setString(8, usuario.correoElectronico());
+                statement.setBigDecimal(9, usuario.salarioBase());
+                statement.setLong(10, usuario.idRol());
+            }
+        }
+        try (ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("La operación " + operacion + " no devolvió filas");
+            }
+        }
+    }
+
+    private static long tamano(Connection connection, Disposicion disposicion) throws SQLException {
+        long total = 0;
+        for (String tabla : disposicion.tablas) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT coalesce(sum(pg_total_relation_size(relid)), 0) FROM pg_partition_tree(?::regclass)")) {
+                statement.setString(1, tabla);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    total += resultSet.getLong(1);
+                }
+            }
+        }
+        return total;
+    }
+
+    private void imprimir(Map<Disposicion, Map<Operacion, Histogram>> resultados, Map<Disposicion, Long> tamanos) {
+        System.out.println();
+        System.out.println("Latencias por operación, en µs");
+        System.out.printf(Locale.ROOT, "%-14s %-15s %9s %9s %9s %9s %9s %10s%n",
+                "disposicion", "operacion", "p50", "p90", "p99", "p99.9", "max", "ops/s");
+        resultados.forEach((disposicion, porOperacion) -> porOperacion.forEach((operacion, histograma) ->
+                System.out.printf(Locale.ROOT, "%-14s %-15s %9d %9d %9d %9d %9d %10.0f%n",
+                        disposicion.name().toLowerCase(Locale.ROOT),
+                        operacion.name().toLowerCase(Locale.ROOT),
+                        histograma.getValueAtPercentile(50),
+                        histograma.getValueAtPercentile(90),
+                        histograma.getValueAtPercentile(99),
+                        histograma.getValueAtPercentile(99.9),
+                        histograma.getMaxValue(),
+                        1e6 / histograma.getMean())));
+        System.out.println();
+        tamanos.forEach((disposicion, bytes) -> System.out.printf(Locale.ROOT,
+                "Tamaño de %s con índices: %.1f MB%n", disposicion.descripcion, bytes / (1024.0 * 1024.0)));
+    }
+
+    enum Operacion {
+        DOCUMENTO, VERSION_CORREO, EXISTE_CORREO, REGISTRO
+    }
+
+    enum Disposicion {
+        SIMPLE("bench_usuarios_simple", "usuarios sin particionar", List.of("usuarios"),
+                "FROM usuarios WHERE tipo_documento = ? AND numero_documento = ?",
+                "FROM usuarios WHERE correo_electronico = ?",
+                "SELECT EXISTS (SELECT 1 FROM usuarios WHERE correo_electronico = ?)") {
+            @Override
+            List<String> ddl() {
+                return List.of(TABLA_SIMPLE,
+                        "CREATE UNIQUE INDEX idx_usuarios_documento_version ON usuarios (tipo_documento, "
+                                + "numero_documento) INCLUDE (id_usuario, version)",
+                        "CREATE UNIQUE INDEX idx_usuarios_correo_version ON usuarios (correo_electronico) "
+                                + "INCLUDE (id_usuario, version)");
+            }
+        },
+        PARTICIONADA("bench_usuarios_particionada", "usuarios particionada por hash",
+                List.of("usuarios", "usuarios_correos", "usuarios_documentos"),
+                "FROM usuarios WHERE id_usuario = (SELECT id_usuario FROM usuarios_documentos "
+                        + "WHERE tipo_documento = ? AND numero_documento = ?)",
+                "FROM usuarios WHERE id_usuario = (SELECT id_usuario FROM usuarios_correos "
+                        + "WHERE correo_electronico = ?)",
+                "SELECT EXISTS (SELECT 1 FROM usuarios_correos WHERE correo_electronico = ?)") {
+            @Override
+            List<String> ddl() {
+                List<String> sentencias = new ArrayList<>(List.of(
+                        "CREATE SEQUENCE usuarios_id_usuario_seq", TABLA_PARTICIONADA, TABLA_CORREOS, TABLA_DOCUMENTOS));
+                for (int particion = 0; particion < PARTICIONES; particion++) {
+                    for (String tabla : tablas) {
+                        sentencias.add(String.format(Locale.ROOT, "CREATE TABLE %s_p%02d PARTITION OF %s "
+                                + "FOR VALUES WITH (MODULUS %d, REMAINDER %d)", tabla, particion, tabla, PARTICIONES,
+                                particion));
+                    }
+                }
+                sentencias.add("ALTER SEQUENCE usuarios_id_usuario_seq OWNED BY usuarios.id_usuario");
+                sentencias.add(FUNCION_BUSQUEDAS);
+                sentencias.add("CREATE TRIGGER trg_usuarios_mantener_busquedas AFTER INSERT ON usuarios "
+                        + "FOR EACH ROW EXECUTE FUNCTION mantener_busquedas_usuario()");
+                return sentencias;
+            }
+        };
+
+        final String esquema;
+        final String descripcion;
+        final List<String> tablas;
+        final String porDocumento;
+        final String porCorreo;
+        final String existeCorreo;
+
+        Disposicion(String esquema, String descripcion, List<String> tablas, String porDocumento, String porCorreo,
+                    String existeCorreo) {
+            this.esquema = esquema;
+            this.descripcion = descripcion;
+            this.tablas = tablas;
+            this.porDocumento = porDocumento;
+            this.porCorreo = porCorreo;
+            this.existeCorreo = existeCorreo;
+        }
+
+        abstract List<String> ddl();
+
+        String sql(Operacion operacion) {
+            return switch (operacion) {
+                case DOCUMENTO -> "SELECT id_usuario, " + COLUMNAS + ", version " + porDocumento;
+                case VERSION_CORREO -> "SELECT id_usuario, version " + porCorreo;
+                case EXISTE_CORREO -> existeCorreo;
+                case REGISTRO -> "INSERT INTO usuarios (" + COLUMNAS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                        + "RETURNING id_usuario";
+            };
+        }
+    }
+}
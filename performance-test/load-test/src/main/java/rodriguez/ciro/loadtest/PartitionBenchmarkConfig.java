@@ -0,0 +1,40 @@
+package rodriguez.ciro.loadtest;
+
+import java.util.Map;
+
+public record PartitionBenchmarkConfig(
+        String jdbcUrl,
+        String dbUser,
+        String dbPassword,
+        long usuarios,
+        int calentamiento,
+        int consultas,
+        long semilla,
+        boolean conservar) {
+
+    public static PartitionBenchmarkConfig fromArgs(String[] args) {
+        Map<String, String> valores = LoadTestConfig.valores(args);
+
+        PartitionBenchmarkConfig config = new PartitionBenchmarkConfig(
+                valores.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/autenticacion"),
+                valores.getOrDefault("db-user", "root"),
+                valores.getOrDefault("db-password", "postresql"),
+                Long.parseLong(valores.getOrDefault("usuarios", "1000000")),
+                Integer.parseInt(valores.getOrDefault("calentamiento", "20000")),
+                Integer.parseInt(valores.getOrDefault("consultas", "100000")),
+                Long.parseLong(valores.getOrDefault("semilla", "42")),
+                Boolean.parseBoolean(valores.getOrDefault("conservar", "false")));
+
+        if (config.usuarios() <= 0) {
+            throw new IllegalArgumentException("El número de usuarios sembrados debe ser mayor a 0");
+        }
+        if (config.consultas() <= 0 || config.calentamiento() < 0) {
+            throw new IllegalArgumentException("Las consultas deben ser mayores a 0 y el calentamiento no negativo");
+        }
+        return config;
+    }
+
+    public String jdbcUrl(String esquema) {
+        return jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "currentSchema=" + esquema;
+    }
+}
@@ -0,0 +1,113 @@
+package rodriguez.ciro.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+public class PostgresSeeder {
+
+    private static final String COPY_USUARIOS = "COPY usuarios (nombres, apellidos, tipo_documento, numero_documento, "
+            + "fecha_nacimiento, direccion, telefono, correo_electronico, salario_base, id_rol) "
+            + "FROM STDIN WITH (FORMAT csv)";
+    private static final int TAMANO_BUFFER = 1 << 20;
+    private static final long REPORTE_CADA = 500_000;
+
+    private final LoadTestConfig config;
+    private final SyntheticUserGenerator generador;
+
+    public PostgresSeeder(LoadTestConfig config, SyntheticUserGenerator generador) {
+        this.config = config;
+        this.generador = generador;
+    }
+
+    public long sembrar() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(config.jdbcUrl(), config.dbUser(), config.dbPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET synchronous_commit = off");
+
+            if (config.truncar()) {
+                System.out.println("Truncando tabla usuarios");
+                statement.execute("TRUNCATE usuarios RESTART IDENTITY CASCADE");
+            }
+
+            long existentes = contarUsuarios(statement);
+            if (existentes >= config.usuarios()) {
+                System.out.printf(Locale.ROOT, "La tabla usuarios ya tiene %d filas, se omite la siembra%n", existentes);
+                return 0;
+            }
+            if (existentes > 0) {
+                throw new IllegalStateException("La tabla usuarios tiene " + existentes
+                        + " filas que no corresponden a la siembra; use --truncar=true");
+            }
+
+            long inicio = System.nanoTime();
+            long copiados = copiar(connection.unwrap(PGConnection.class));
+            statement.execute("ANALYZE usuarios");
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            System.out.printf(Locale.ROOT, "Sembrados %d usuarios en %.1f s (%.0f filas/s)%n", copiados, segundos, copiados / segundos);
+            return copiados;
+        }
+    }
+
+    private long copiar(PGConnection connection) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_USUARIOS);
+        try {
+            StringBuilder buffer = new StringBuilder(TAMANO_BUFFER + 1024);
+            for (long indice = 0; indice < config.usuarios(); indice++) {
+                agregarFila(buffer, generador.usuario(indice));
+                if (buffer.length() >= TAMANO_BUFFER) {
+                    escribir(copyIn, buffer);
+                }
+                if ((indice + 1) % REPORTE_CADA == 0) {
+                    System.out.printf(Locale.ROOT, "  ... %d usuarios copiados%n", indice + 1);
+                }
+            }
+            escribir(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void agregarFila(StringBuilder buffer, SyntheticUserGenerator.SyntheticUser usuario) {
+        buffer.append(csv(usuario.nombres())).append(',')
+                .append(csv(usuario.apellidos())).append(',')
+                .append(usuario.tipoDocumento()).append(',')
+                .append(usuario.numeroDocumento()).append(',')
+                .append(usuario.fechaNacimiento()).append(',')
+                .append(csv(usuario.direccion())).append(',')
+                .append(usuario.telefono()).append(',')
+                .append(csv(usuario.correoElectronico())).append(',')
+                .append(usuario.salarioBase().toPlainString()).append(',')
+                .append(usuario.idRol()).append('\n');
+    }
+
+    private static void escribir(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static String csv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private static long contarUsuarios(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM usuarios")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package rodriguez.ciro.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.core.RSocketConnector;
+import io.rsocket.metadata.CompositeMetadataCodec;
+import io.rsocket.metadata.TaggingMetadataCodec;
+import io.rsocket.metadata.WellKnownMimeType;
+import io.rsocket.transport.netty.client.TcpClientTransport;
+import io.rsocket.util.DefaultPayload;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.loadtest.SyntheticUserGenerator.SyntheticUser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compara las búsquedas de usuarios por correo y por documento sobre REST (HTTP/1.1 y JSON, una solicitud por
+ * búsqueda) con el entry point RSocket (CBOR posicional sobre una sola conexión TCP): solicitud-respuesta con la misma
+ * concurrencia y un canal usuarios.buscar-varios con todas las claves. Las tres modalidades buscan las mismas claves,
+ * de los usuarios que sembró loadTest con la misma semilla, en ciclo cerrado: cada una mantiene concurrencia búsquedas
+ * en curso, así que el throughput es el máximo que sostiene el servicio y no una tasa fija.
+ */
+public class RSocketComparison {
+
+    private static final long MAXIMO_REGISTRABLE_MICROS = TimeUnit.SECONDS.toMicros(30);
+    private static final String RUTA_BUSCAR = "usuarios.buscar";
+    private static final String RUTA_BUSCAR_VARIOS = "usuarios.buscar-varios";
+    private static final Duration PLAZO = Duration.ofSeconds(10);
+
+    private final RSocketComparisonConfig config;
+    private final SyntheticUserGenerator generador;
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final byte[] metadatosBuscar = metadatosRuta(RUTA_BUSCAR);
+    private final byte[] metadatosBuscarVarios = metadatosRuta(RUTA_BUSCAR_VARIOS);
+
+    public RSocketComparison(RSocketComparisonConfig config) {
+        this.config = config;
+        this.generador = new SyntheticUserGenerator(config.semilla());
+    }
+
+    public static void main(String[] args) {
+        RSocketComparisonConfig config = RSocketComparisonConfig.fromArgs(args);
+        System.out.printf("Comparando REST (%s) y RSocket (%s:%d) con %d búsquedas por modalidad (calentamiento %d) "
+                        + "y %d en curso, sobre %d usuarios sembrados%n", config.baseUrl(), config.rsocketHost(),
+                config.rsocketPort(), config.consultas(), config.calentamiento(), config.concurrencia(),
+                config.usuarios());
+        new RSocketComparison(config).ejecutar();
+    }
+
+    public void ejecutar() {
+        List<SyntheticUser> calentamiento = claves(config.calentamiento(), config.semilla() + 1);
+        List<SyntheticUser> claves = claves(config.consultas(), config.semilla());
+        Map<Modalidad, Resultado> resultados = new EnumMap<>(Modalidad.class);
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(PLAZO)
+                .build()) {
+            medirRest(client, calentamiento);
+            resultados.put(Modalidad.REST, medirRest(client, claves));
+        }
+
+        RSocket rsocket = RSocketConnector.create()
+                .metadataMimeType(WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA.getString())
+                .dataMimeType(WellKnownMimeType.APPLICATION_CBOR.getString())
+                .connect(TcpClientTransport.create(config.rsocketHost(), config.rsocketPort()))
+                .block(PLAZO);
+        try {
+            medirSolicitudRespuesta(rsocket, calentamiento);
+            resultados.put(Modalidad.RSOCKET, medirSolicitudRespuesta(rsocket, claves));
+            medirCanal(rsocket, calentamiento);
+            resultados.put(Modalidad.RSOCKET_CANAL, medirCanal(rsocket, claves));
+        } finally {
+            rsocket.dispose();
+        }
+        imprimir(resultados);
+    }
+
+    // Cada hilo virtual envía su siguiente búsqueda al recibir la respuesta de la anterior
+    private Resultado medirRest(HttpClient client, List<SyntheticUser> claves) {
+        Resultado resultado = new Resultado();
+        AtomicInteger siguiente = new AtomicInteger();
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int hilo = 0; hilo < config.concurrencia(); hilo++) {
+                executor.execute(() -> {
+                    for (int i = siguiente.getAndIncrement(); i < claves.size(); i = siguiente.getAndIncrement()) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(config.baseUrl() + ruta(claves.get(i), i)))
+                                .timeout(PLAZO)
+                                .GET()
+                                .build();
+                        long envio = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            resultado.registrar(System.nanoTime() - envio, response.body().length,
+                                    response.statusCode() == 200);
+                        } catch (IOException e) {
+                            resultado.registrar(System.nanoTime() - envio, 0, false);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        resultado.terminar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private Resultado medirSolicitudRespuesta(RSocket rsocket, List<SyntheticUser> claves) {
+        Resultado resultado = new Resultado();
+        long inicio = System.nanoTime();
+        Flux.range(0, claves.size())
+                .flatMap(i -> Mono.defer(() -> {
+                    long envio = System.nanoTime();
+                    return rsocket.requestResponse(DefaultPayload.create(clave(claves.get(i), i), metadatosBuscar))
+                            .doOnNext(respuesta -> {
+                                ByteBuffer datos = respuesta.getData();
+                                resultado.registrar(System.nanoTime() - envio, datos.remaining(),
+                                        tieneUsuario(datos, 0));
+                                respuesta.release();
+                            })
+                            .switchIfEmpty(Mono.fromRunnable(() ->
+                                    resultado.registrar(System.nanoTime() - envio, 0, false)))
+                            .onErrorResume(error -> {
+                                resultado.registrar(System.nanoTime() - envio, 0, false);
+                                return Mono.empty();
+                            });
+                }), config.concurrencia())
+                .blockLast();
+        resultado.terminar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    /**
+     * Un solo canal con todas las claves: RSocket pide claves al cliente a medida que el servidor libera lugar, así
+     * que la latencia de cada búsqueda se mide desde que su clave sale hasta que llega su resultado, en el mismo orden.
+     */
+    private Resultado medirCanal(RSocket rsocket, List<SyntheticUser> claves) {
+        Resultado resultado = new Resultado();
+        long[] envios = new long[claves.size()];
+        AtomicInteger recibidos = new AtomicInteger();
+        long inicio = System.nanoTime();
+        Flux<Payload> salida = Flux.range(0, claves.size())
+                .map(i -> {
+                    envios[i] = System.nanoTime();
+                    byte[] datos = clave(claves.get(i), i);
+                    return i == 0 ? DefaultPayload.create(datos, metadatosBuscarVarios) : DefaultPayload.create(datos);
+                });
+        rsocket.requestChannel(salida)
+                .doOnNext(respuesta -> {
+                    int i = recibidos.getAndIncrement();
+                    ByteBuffer datos = respuesta.getData();
+                    resultado.registrar(System.nanoTime() - envios[i], datos.remaining(), tieneUsuario(datos, 1));
+                    respuesta.release();
+                })
+                .blockLast();
+        resultado.terminar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private List<SyntheticUser> claves(int cantidad, long semilla) {
+        SplittableRandom random = new SplittableRandom(semilla);
+        return random.longs(cantidad, 0, config.usuarios())
+                .mapToObj(generador::usuario)
+                .toList();
+    }
+
+    // Alterna correo y documento, igual en las tres modalidades
+    private static String ruta(SyntheticUser usuario, int i) {
+        return i % 2 == 0
+                ? "/api/v1/usuarios/email/" + usuario.correoElectronico()
+                : "/api/v1/usuarios/documento/" + usuario.tipoDocumento() + "/" + usuario.numeroDocumento();
+    }
+
+    // ClaveUsuario se codifica como el arreglo [correo, tipo, número]
+    private byte[] clave(SyntheticUser usuario, int i) {
+        Object[] clave = i % 2 == 0
+                ? new Object[]{usuario.correoElectronico(), null, null}
+                : new Object[]{null, usuario.tipoDocumento(), usuario.numeroDocumento()};
+        try {
+            return cbor.writeValueAsBytes(clave);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Para un UsuarioMensaje la posición 0 es el id; para un ResultadoBusqueda la 1 es el usuario, o null
+    private boolean tieneUsuario(ByteBuffer datos, int posicion) {
+        try {
+            byte[] bytes = new byte[datos.remaining()];
+            datos.duplicate().get(bytes);
+            JsonNode mensaje = cbor.readTree(bytes);
+            return mensaje.isArray() && mensaje.size() > posicion && !mensaje.get(posicion).isNull();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static byte[] metadatosRuta(String ruta) {
+        ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
+        CompositeByteBuf metadatos = allocator.compositeBuffer();
+        ByteBuf contenido = TaggingMetadataCodec.createRoutingMetadata(allocator, List.of(ruta)).getContent();
+        CompositeMetadataCodec.encodeAndAddMetadata(metadatos, allocator, WellKnownMimeType.MESSAGE_RSOCKET_ROUTING,
+                contenido);
+        try {
+            return ByteBufUtil.getBytes(metadatos);
+        } finally {
+            metadatos.release();
+        }
+    }
+
+    private void imprimir(Map<Modalidad, Resultado> resultados) {
+        System.out.println();
+        System.out.println("Latencias por búsqueda, en µs");
+        System.out.printf(Locale.ROOT, "%-14s %9s %9s %9s %9s %9s %10s %8s %9s%n",
+                "modalidad", "p50", "p90", "p99", "p99.9", "max", "busq/s", "errores", "bytes");
+        resultados.forEach((modalidad, resultado) -> {
+            Histogram histograma = resultado.latencias;
+            System.out.printf(Locale.ROOT, "%-14s %9d %9d %9d %9d %9d %10.0f %8d %9.0f%n",
+                    modalidad.name().toLowerCase(Locale.ROOT),
+                    histograma.getValueAtPercentile(50),
+                    histograma.getValueAtPercentile(90),
+                    histograma.getValueAtPercentile(99),
+                    histograma.getValueAtPercentile(99.9),
+                    histograma.getMaxValue(),
+                    histograma.getTotalCount() * 1e9 / resultado.duracionNanos,
+                    resultado.errores.sum(),
+                    resultado.bytes.sum() / (double) Math.max(1, histograma.getTotalCount()));
+        });
+        System.out.println();
+        System.out.println("bytes: promedio del cuerpo de cada respuesta, sin encabezados HTTP ni marcos RSocket");
+        System.out.println("errores: búsquedas fallidas, vencidas o sin usuario; todas las claves fueron sembradas");
+    }
+
+    enum Modalidad {
+        REST, RSOCKET, RSOCKET_CANAL
+    }
+
+    private static final class Resultado {
+        private final Histogram latencias = new ConcurrentHistogram(MAXIMO_REGISTRABLE_MICROS, 3);
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private long duracionNanos;
+
+        private void registrar(long latenciaNanos, int bytesRespuesta, boolean encontrado) {
+            latencias.recordValue(Math.min(MAXIMO_REGISTRABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latenciaNanos)));
+            bytes.add(bytesRespuesta);
+            if (!encontrado) {
+                errores.increment();
+            }
+        }
+
+        private void terminar(long duracionNanos) {
+            this.duracionNanos = duracionNanos;
+        }
+    }
+}
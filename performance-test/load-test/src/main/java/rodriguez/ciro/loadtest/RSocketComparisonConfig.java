@@ -0,0 +1,39 @@
+package rodriguez.ciro.loadtest;
+
+import java.util.Map;
+
+public record RSocketComparisonConfig(
+        String baseUrl,
+        String rsocketHost,
+        int rsocketPort,
+        long usuarios,
+        long semilla,
+        int calentamiento,
+        int consultas,
+        int concurrencia) {
+
+    public static RSocketComparisonConfig fromArgs(String[] args) {
+        Map<String, String> valores = LoadTestConfig.valores(args);
+
+        RSocketComparisonConfig config = new RSocketComparisonConfig(
+                valores.getOrDefault("url", "http://localhost:8080"),
+                valores.getOrDefault("rsocket-host", "localhost"),
+                Integer.parseInt(valores.getOrDefault("rsocket-port", "7000")),
+                Long.parseLong(valores.getOrDefault("usuarios", "1000000")),
+                Long.parseLong(valores.getOrDefault("semilla", "42")),
+                Integer.parseInt(valores.getOrDefault("calentamiento", "20000")),
+                Integer.parseInt(valores.getOrDefault("consultas", "200000")),
+                Integer.parseInt(valores.getOrDefault("concurrencia", "64")));
+
+        if (config.usuarios() <= 0) {
+            throw new IllegalArgumentException("El número de usuarios sembrados debe ser mayor a 0");
+        }
+        if (config.consultas() <= 0 || config.calentamiento() < 0) {
+            throw new IllegalArgumentException("Las consultas deben ser mayores a 0 y el calentamiento no negativo");
+        }
+        if (config.concurrencia() <= 0) {
+            throw new IllegalArgumentException("La concurrencia debe ser mayor a 0");
+        }
+        return config;
+    }
+}
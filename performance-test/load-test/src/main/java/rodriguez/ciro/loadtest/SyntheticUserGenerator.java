@@ -0,0 +1,114 @@
+package rodriguez.ciro.loadtest;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+public class SyntheticUserGenerator {
+
+    private static final String[] NOMBRES = {
+            "Juan", "Carlos", "Andrés", "Luis", "Jorge", "Diego", "Camilo", "Santiago", "Felipe", "Mateo",
+            "Sebastián", "Alejandro", "María", "Ana", "Laura", "Carolina", "Daniela", "Valentina", "Paula",
+            "Natalia", "Sofía", "Juliana", "Catalina", "Mariana", "Isabella", "Gabriela", "Ángela", "Lucía"
+    };
+    private static final String[] APELLIDOS = {
+            "Rodríguez", "Gómez", "González", "Martínez", "García", "López", "Hernández", "Sánchez", "Ramírez",
+            "Pérez", "Díaz", "Muñoz", "Rojas", "Moreno", "Jiménez", "Vargas", "Castro", "Ortiz", "Rubio",
+            "Suárez", "Torres", "Cárdenas", "Restrepo", "Osorio", "Zapata", "Ospina", "Castaño", "Quintero"
+    };
+    private static final String[] DOMINIOS = {
+            "gmail.com", "hotmail.com", "outlook.com", "yahoo.com", "empresa.com.co", "correo.co"
+    };
+    private static final String[] VIAS = {"Calle", "Carrera", "Avenida", "Diagonal", "Transversal"};
+    private static final String[] TIPOS_DOCUMENTO = {"CC", "CE", "TI", "PA"};
+    private static final double[] PESOS_TIPO_DOCUMENTO = {0.82, 0.90, 0.96, 1.0};
+
+    private static final long BASE_NUMERO_DOCUMENTO = 1_000_000_000L;
+    private static final long INDICES_POR_CORRIDA = 100_000_000L;
+    private static final LocalDate FECHA_NACIMIENTO_MINIMA = LocalDate.of(1955, 1, 1);
+    private static final int RANGO_FECHA_NACIMIENTO_DIAS = 18_250;
+    private static final double LOG_SALARIO_MEDIANO = Math.log(2_800_000);
+    private static final double SALARIO_MINIMO = 1_300_000;
+    private static final double SALARIO_MAXIMO = 15_000_000;
+
+    private final long semilla;
+
+    public SyntheticUserGenerator(long semilla) {
+        this.semilla = semilla;
+    }
+
+    public SyntheticUser usuario(long indice) {
+        SplittableRandom random = new SplittableRandom(mezclar(semilla, indice));
+
+        String nombre = elegir(random, NOMBRES);
+        String nombres = random.nextInt(10) < 4 ? nombre + " " + elegir(random, NOMBRES) : nombre;
+        String apellido = elegir(random, APELLIDOS);
+        String apellidos = apellido + " " + elegir(random, APELLIDOS);
+
+        return new SyntheticUser(
+                nombres,
+                apellidos,
+                tipoDocumento(random),
+                String.valueOf(BASE_NUMERO_DOCUMENTO + indice),
+                FECHA_NACIMIENTO_MINIMA.plusDays(random.nextInt(RANGO_FECHA_NACIMIENTO_DIAS)),
+                elegir(random, VIAS) + " " + (1 + random.nextInt(200)) + " # " + (1 + random.nextInt(120))
+                        + "-" + (1 + random.nextInt(99)),
+                String.format(Locale.ROOT, "3%02d%07d", random.nextInt(51), random.nextInt(10_000_000)),
+                normalizar(nombre) + "." + normalizar(apellido) + "." + indice + "@" + elegir(random, DOMINIOS),
+                salario(random),
+                random.nextInt(100) < 5 ? 1L : 2L);
+    }
+
+    public SyntheticUser registro(long corrida, long usuariosSembrados, long secuencia) {
+        return usuario(usuariosSembrados + (corrida + 1) * INDICES_POR_CORRIDA + secuencia);
+    }
+
+    private static String tipoDocumento(SplittableRandom random) {
+        double valor = random.nextDouble();
+        for (int i = 0; i < PESOS_TIPO_DOCUMENTO.length; i++) {
+            if (valor < PESOS_TIPO_DOCUMENTO[i]) {
+                return TIPOS_DOCUMENTO[i];
+            }
+        }
+        return TIPOS_DOCUMENTO[0];
+    }
+
+    private static BigDecimal salario(SplittableRandom random) {
+        double gaussiano = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        double valor = Math.exp(LOG_SALARIO_MEDIANO + 0.6 * gaussiano);
+        double acotado = Math.min(SALARIO_MAXIMO, Math.max(SALARIO_MINIMO, valor));
+        return BigDecimal.valueOf(Math.round(acotado / 1000) * 1000);
+    }
+
+    private static String elegir(SplittableRandom random, String[] valores) {
+        return valores[random.nextInt(valores.length)];
+    }
+
+    private static String normalizar(String valor) {
+        return Normalizer.normalize(valor, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static long mezclar(long semilla, long indice) {
+        long z = semilla * 0x9E3779B97F4A7C15L + indice;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public record SyntheticUser(
+            String nombres,
+            String apellidos,
+            String tipoDocumento,
+            String numeroDocumento,
+            LocalDate fechaNacimiento,
+            String direccion,
+            String telefono,
+            String correoElectronico,
+            BigDecimal salarioBase,
+            Long idRol) {
+    }
+}
@@ -0,0 +1,81 @@
+package rodriguez.ciro.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class WorkloadMix {
+
+    public enum Operation {
+        REGISTRO(201),
+        CONFLICTO(409),
+        DOCUMENTO(200),
+        EMAIL(200);
+
+        private final int estadoEsperado;
+
+        Operation(int estadoEsperado) {
+            this.estadoEsperado = estadoEsperado;
+        }
+
+        public int estadoEsperado() {
+            return estadoEsperado;
+        }
+    }
+
+    private final Map<Operation, Integer> pesos;
+    private final Operation[] operaciones;
+    private final double[] acumulados;
+
+    private WorkloadMix(Map<Operation, Integer> pesos) {
+        this.pesos = pesos;
+        this.operaciones = pesos.keySet().toArray(Operation[]::new);
+        this.acumulados = new double[operaciones.length];
+        double total = pesos.values().stream().mapToInt(Integer::intValue).sum();
+        double acumulado = 0;
+        for (int i = 0; i < operaciones.length; i++) {
+            acumulado += pesos.get(operaciones[i]) / total;
+            acumulados[i] = acumulado;
+        }
+        acumulados[operaciones.length - 1] = 1.0;
+    }
+
+    public static WorkloadMix parse(String definicion) {
+        Map<Operation, Integer> pesos = new EnumMap<>(Operation.class);
+        for (String parte : definicion.split(",")) {
+            String[] claveValor = parte.trim().split("=");
+            if (claveValor.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida, se espera operacion=peso: " + parte);
+            }
+            int peso = Integer.parseInt(claveValor[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("El peso de la operación no puede ser negativo: " + parte);
+            }
+            if (peso > 0) {
+                pesos.put(Operation.valueOf(claveValor[0].trim().toUpperCase(Locale.ROOT)), peso);
+            }
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla debe incluir al menos una operación con peso positivo");
+        }
+        return new WorkloadMix(pesos);
+    }
+
+    public Operation siguiente(double aleatorio) {
+        for (int i = 0; i < acumulados.length; i++) {
+            if (aleatorio < acumulados[i]) {
+                return operaciones[i];
+            }
+        }
+        return operaciones[operaciones.length - 1];
+    }
+
+    public Map<Operation, Integer> pesos() {
+        return pesos;
+    }
+
+    @Override
+    public String toString() {
+        return pesos.toString();
+    }
+}
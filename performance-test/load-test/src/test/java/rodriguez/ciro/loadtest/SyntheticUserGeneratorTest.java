@@ -0,0 +1,76 @@
+package rodriguez.ciro.loadtest;
+
+import org.junit.jupiter.api.Test;
+import rodriguez.ciro.loadtest.SyntheticUserGenerator.SyntheticUser;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticUserGeneratorTest {
+
+    private static final String PATRON_EMAIL = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
+
+    private final SyntheticUserGenerator generador = new SyntheticUserGenerator(42);
+
+    @Test
+    void deberiaGenerarElMismoUsuarioParaElMismoIndice() {
+        // When
+        SyntheticUser primero = generador.usuario(123_456);
+        SyntheticUser segundo = new SyntheticUserGenerator(42).usuario(123_456);
+
+        // Then
+        assertEquals(primero, segundo);
+    }
+
+    @Test
+    void deberiaGenerarDocumentosYCorreosUnicos() {
+        // Given
+        Set<String> documentos = new HashSet<>();
+        Set<String> correos = new HashSet<>();
+
+        // When
+        for (long indice = 0; indice < 10_000; indice++) {
+            SyntheticUser usuario = generador.usuario(indice);
+            documentos.add(usuario.tipoDocumento() + ":" + usuario.numeroDocumento());
+            correos.add(usuario.correoElectronico());
+        }
+
+        // Then
+        assertEquals(10_000, documentos.size());
+        assertEquals(10_000, correos.size());
+    }
+
+    @Test
+    void deberiaRespetarLasReglasDeValidacionDelServicio() {
+        for (long indice = 0; indice < 10_000; indice++) {
+            SyntheticUser usuario = generador.usuario(indice);
+
+            assertTrue(usuario.correoElectronico().matches(PATRON_EMAIL), usuario.correoElectronico());
+            assertTrue(usuario.correoElectronico().length() <= 100);
+            assertTrue(usuario.numeroDocumento().length() <= 50);
+            assertTrue(usuario.telefono().length() <= 20);
+            assertTrue(usuario.salarioBase().compareTo(BigDecimal.ZERO) >= 0);
+            assertTrue(usuario.salarioBase().compareTo(new BigDecimal("15000000")) <= 0);
+            assertTrue(usuario.idRol() == 1L || usuario.idRol() == 2L);
+        }
+    }
+
+    @Test
+    void deberiaGenerarRegistrosFueraDelRangoSembrado() {
+        // When
+        SyntheticUser registro = generador.registro(7, 1_000, 0);
+        SyntheticUser otraCorrida = generador.registro(8, 1_000, 0);
+
+        // Then
+        for (long indice = 0; indice < 1_000; indice++) {
+            assertNotEquals(generador.usuario(indice).numeroDocumento(), registro.numeroDocumento());
+        }
+        assertNotEquals(registro.numeroDocumento(), otraCorrida.numeroDocumento());
+        assertNotEquals(registro.correoElectronico(), otraCorrida.correoElectronico());
+    }
+}
@@ -0,0 +1,51 @@
+package rodriguez.ciro.loadtest;
+
+import org.junit.jupiter.api.Test;
+import rodriguez.ciro.loadtest.WorkloadMix.Operation;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorkloadMixTest {
+
+    @Test
+    void deberiaRespetarLaProporcionDeCadaOperacion() {
+        // Given
+        WorkloadMix mezcla = WorkloadMix.parse("registro=10,conflicto=5,documento=45,email=40");
+        SplittableRandom random = new SplittableRandom(1);
+        Map<Operation, Integer> conteos = new EnumMap<>(Operation.class);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            conteos.merge(mezcla.siguiente(random.nextDouble()), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(0.10, conteos.get(Operation.REGISTRO) / 100_000.0, 0.01);
+        assertEquals(0.05, conteos.get(Operation.CONFLICTO) / 100_000.0, 0.01);
+        assertEquals(0.45, conteos.get(Operation.DOCUMENTO) / 100_000.0, 0.01);
+        assertEquals(0.40, conteos.get(Operation.EMAIL) / 100_000.0, 0.01);
+    }
+
+    @Test
+    void deberiaIgnorarOperacionesConPesoCero() {
+        // Given
+        WorkloadMix mezcla = WorkloadMix.parse("registro=0,documento=1");
+
+        // Then
+        assertFalse(mezcla.pesos().containsKey(Operation.REGISTRO));
+        assertEquals(Operation.DOCUMENTO, mezcla.siguiente(0.99));
+    }
+
+    @Test
+    void deberiaFallarConMezclaInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("registro"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("registro=0"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("desconocida=1"));
+    }
+}
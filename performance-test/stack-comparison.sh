@@ -0,0 +1,60 @@
+#!/bin/sh
+# Ejecuta la misma carga del módulo load-test contra el stack WebFlux + R2DBC y contra Spring MVC sobre hilos virtuales
+# + JDBC (perfil imperative), y reporta latencias, throughput y RSS máximo de cada uno.
+# Uso: ./performance-test/stack-comparison.sh <jar-reactivo> <jar-imperativo> [argumentos del load test]
+set -eu
+
+REACTIVO=$1
+IMPERATIVO=$2
+shift 2
+ARGS_CARGA=${*:-"--usuarios=200000 --tasa=300 --calentamiento=PT20S --duracion=PT60S"}
+PUERTO=${PUERTO:-8080}
+SALIDA=${SALIDA:-build/stack-comparison}
+APP_OPTS=${APP_OPTS:-"-Xmx512m"}
+# Comando del generador de carga; recibe los argumentos --clave=valor al final
+LOAD_TEST=${LOAD_TEST:-}
+
+cargar() {
+  if [ -n "$LOAD_TEST" ]; then
+    # shellcheck disable=SC2086
+    $LOAD_TEST "$@"
+  else
+    sh ./gradlew -q :load-test:loadTest -PloadTestArgs="$*"
+  fi
+}
+
+ejecutar() {
+  nombre=$1
+  jar=$2
+  shift 2
+  directorio="$SALIDA/$nombre"
+  mkdir -p "$directorio"
+
+  # shellcheck disable=SC2086
+  java $APP_OPTS -jar "$jar" --server.port="$PUERTO" "$@" > "$directorio/app.log" 2>&1 &
+  pid=$!
+  while ! grep -q "Started MainApplication" "$directorio/app.log"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "El stack $nombre no arrancó, ver $directorio/app.log" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+
+  : > "$directorio/rss.txt"
+  (while kill -0 "$pid" 2> /dev/null; do ps -o rss= -p "$pid" >> "$directorio/rss.txt"; sleep 1; done) &
+  muestreo=$!
+
+  echo "== $nombre"
+  # shellcheck disable=SC2086
+  cargar --url="http://localhost:$PUERTO" --truncar=true $ARGS_CARGA --salida="$directorio" | tee "$directorio/reporte.txt"
+
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  kill "$muestreo" 2> /dev/null || true
+  echo "RSS máximo $nombre: $(sort -n "$directorio/rss.txt" | tail -1 | awk '{ printf "%d MB", $1 / 1024 }')" \
+    | tee -a "$directorio/reporte.txt"
+}
+
+ejecutar reactivo "$REACTIVO"
+ejecutar imperativo "$IMPERATIVO" --spring.profiles.active=imperative